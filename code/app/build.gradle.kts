@@ -1,8 +1,16 @@
 plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.google.gms.google.services)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
+// Host of a local Firestore emulator, e.g. -PfirestoreEmulatorHost=10.0.2.2 for macrobenchmark runs
+val firestoreEmulatorHost = (project.findProperty("firestoreEmulatorHost") as String?) ?: ""
+// Shows the Firestore read/write counter on every screen of debug builds, e.g. -PfirestoreMetricsOverlay=true
+val firestoreMetricsOverlay = (project.findProperty("firestoreMetricsOverlay") as String?) ?: "false"
+// Set once a backend relay forwards topicMessages to FCM, e.g. -PtopicRelay=true
+val topicRelay = (project.findProperty("topicRelay") as String?) ?: "false"
+
 android {
     namespace = "com.example.myapplication"
     compileSdk = 34
@@ -16,9 +24,21 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        buildConfigField("String", "FIRESTORE_EMULATOR_HOST", "\"$firestoreEmulatorHost\"")
+        buildConfigField("int", "FIRESTORE_EMULATOR_PORT", "8080")
+        buildConfigField("boolean", "FIRESTORE_METRICS_OVERLAY", "false")
+        buildConfigField("boolean", "TOPIC_RELAY", topicRelay)
+    }
+
+    buildFeatures {
+        buildConfig = true
     }
 
     buildTypes {
+        debug {
+            buildConfigField("boolean", "FIRESTORE_METRICS_OVERLAY", firestoreMetricsOverlay)
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
@@ -42,19 +62,11 @@ android {
 
 
 dependencies {
-    implementation(libs.firebase.messaging)  // Add Firebase Messaging
-    implementation(libs.appcompat)
     implementation(platform(libs.firebase.bom)) // Check the latest version on Firebase docs
-    implementation(libs.material)
-    implementation(libs.activity)
-    implementation (libs.firebase.auth.v2301)
-
-    implementation(libs.constraintlayout)
-    implementation(libs.firebase.firestore)
-    implementation(libs.navigation.fragment)
-    implementation(libs.navigation.ui)
-    implementation(libs.firebase.storage)
-    implementation(libs.zxing)
+    // Runtime libraries of the app sources
+    implementation(libs.bundles.app.runtime)
+    annotationProcessor(libs.bundles.app.annotation.processors)
+
     implementation(libs.firebase.crashlytics.buildtools)
     implementation(libs.ext.junit)
     implementation(libs.rules)
@@ -63,8 +75,6 @@ dependencies {
     // Mockito Inline for mocking static methods
     testImplementation(libs.mockitoCore)
     testImplementation(libs.mockitoInline)
-    implementation(libs.circleimageview)
-    implementation(libs.glide)
     testImplementation(libs.core)
     testImplementation(libs.ext.junit)
     testImplementation(libs.espresso.core)
@@ -73,26 +83,12 @@ dependencies {
     testImplementation(libs.espresso.core)
     testImplementation(libs.espresso.core)
     testImplementation(libs.espresso.core)
-    annotationProcessor(libs.glide.compiler)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
-    implementation(libs.camera.core)
-    implementation(libs.camera.camera2)
-    implementation(libs.camera.lifecycle)
-    implementation(libs.camera.view)
-    implementation(libs.mlkit.barcode.scanning)
-    implementation(libs.guava)
-    implementation(libs.coroutines.android)
-
-    implementation(libs.retrofit)
-    implementation(libs.converter.gson)
-    implementation(libs.okhttp.logging.interceptor)
-    implementation(libs.google.maps)
-    implementation(libs.play.services.location)
-    implementation("org.osmdroid:osmdroid-android:6.1.15")
-    implementation("com.squareup.picasso:picasso:2.71828")
+    // Installs the baseline profile generated by :macrobenchmark on first launch
+    implementation(libs.profileinstaller)
+    baselineProfile(project(":macrobenchmark"))
 
 
 }
-
@@ -2,7 +2,7 @@ package com.example.myapplication;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.Editable;
@@ -19,12 +19,15 @@ import androidx.activity.result.contract.ActivityResultContracts;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
+import com.example.myapplication.Models.AdminStats;
+import com.example.myapplication.Repositories.AdminStatsRepository;
+import com.example.myapplication.Search.SearchTokens;
 import com.example.myapplication.Views.HomeView;
 import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -49,6 +52,7 @@ public class AdminProfileActivity extends BaseActivity {
     private boolean isOrganizer = true; // Default for admins
     private boolean notificationsPerm = false;
     private Button myEventsButton;
+    private TextView statsText;
 
     /**
      * Initialize the activity and set up UI elements.
@@ -79,6 +83,11 @@ public class AdminProfileActivity extends BaseActivity {
         initializeUI();
         setListeners();
         loadUserProfile();
+        DrawWorker.schedule(this);
+        AdminStatsWorker.schedule(this);
+        CounterReconciliationWorker.schedule(this);
+        NotificationCleanupWorker.enableDeleteExpired(this);
+        loadStats();
     }
 
     /**
@@ -96,6 +105,7 @@ public class AdminProfileActivity extends BaseActivity {
         countrySpinner = findViewById(R.id.country_spinner);
         saveChangesButton = findViewById(R.id.save_changes_button);
         myEventsButton = findViewById(R.id.my_events_button);
+        statsText = findViewById(R.id.admin_stats_text);
 
 
         // Buttons for admin-specific actions
@@ -259,6 +269,32 @@ public class AdminProfileActivity extends BaseActivity {
                 .addOnFailureListener(e -> Log.e(TAG, "Failed to load profile.", e));
     }
 
+    /**
+     * LoadStats shows the platform totals stored by {@link AdminStatsWorker}, with their change
+     * over the last week.
+     */
+    private void loadStats() {
+        AdminStatsRepository.fetchDashboard(db, new Date(), "AdminProfileActivity.loadStats")
+                .addOnSuccessListener(this, dashboard -> statsText.setText(describeStats(dashboard)))
+                .addOnFailureListener(this, e -> {
+                    Log.e(TAG, "Failed to load stats.", e);
+                    statsText.setText("Stats unavailable");
+                });
+    }
+
+    private static String describeStats(AdminStatsRepository.Dashboard dashboard) {
+        AdminStats now = dashboard.latest;
+        AdminStats before = dashboard.weekBefore;
+        return "Users: " + AdminStatsRepository.withTrend(now.getUsers(), before != null ? before.getUsers() : null)
+                + "\nOrganizers: " + AdminStatsRepository.withTrend(now.getOrganizers(), before != null ? before.getOrganizers() : null)
+                + "\nEvents: " + AdminStatsRepository.withTrend(now.getEvents(), before != null ? before.getEvents() : null)
+                + "\nWaitlisted: " + AdminStatsRepository.withTrend(now.getWaitlisted(), before != null ? before.getWaitlisted() : null)
+                + "\nAttendees: " + AdminStatsRepository.withTrend(now.getAttendees(), before != null ? before.getAttendees() : null)
+                + "\nFacilities: " + AdminStatsRepository.withTrend(now.getFacilities(), before != null ? before.getFacilities() : null)
+                + "\nNotifications: " + AdminStatsRepository.withTrend(now.getNotifications(), before != null ? before.getNotifications() : null)
+                + "\nAs of " + now.getDay();
+    }
+
     /**
      * SaveProfileData saves the user's profile data to Firestore.
      */
@@ -288,6 +324,7 @@ public class AdminProfileActivity extends BaseActivity {
         profileData.put("isAdmin", isAdmin);
         profileData.put("isOrganizer", isOrganizer);
         profileData.put("notificationsPerm", notificationsPerm);
+        profileData.putAll(SearchTokens.fields(name, email));
 
         String deviceId = retrieveDeviceId();
         DocumentReference userRef = db.collection("users").document(deviceId);
@@ -303,7 +340,7 @@ public class AdminProfileActivity extends BaseActivity {
      * UploadProfileImage uploads the user's profile image to Firebase Storage.
      */
     private void uploadProfileImage(DocumentReference userRef) {
-        StorageReference storageRef = FirebaseStorage.getInstance().getReference("profile_images/" + retrieveDeviceId() + ".jpg");
+        StorageReference storageRef = FirebaseServices.storage().getReference("profile_images/" + retrieveDeviceId() + ".jpg");
         storageRef.putFile(imageUri)
                 .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl().addOnSuccessListener(uri -> {
                     userRef.update("profileImageUrl", uri.toString())
@@ -368,8 +405,8 @@ public class AdminProfileActivity extends BaseActivity {
      */
     private void generateDefaultAvatar(String name) {
         String firstLetter = (name != null && !name.isEmpty()) ? name.substring(0, 1).toUpperCase(Locale.US) : "?";
-        Bitmap avatar = AvatarUtil.generateAvatar(firstLetter, 200, this);
-        profileImageView.setImageBitmap(avatar);
+        Drawable avatar = AvatarUtil.getAvatarDrawable(firstLetter, 200);
+        profileImageView.setImageDrawable(avatar);
         removeProfileImageButton.setVisibility(View.GONE);
     }
 
@@ -0,0 +1,80 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.myapplication.Repositories.AdminStatsRepository;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Daily background job that stores the admin screen's totals, see {@link AdminStatsRepository}.
+ * It is scheduled when an admin opens their profile, so only admins' devices run it, and the
+ * first device to run on a day computes the totals for everyone.
+ */
+public class AdminStatsWorker extends Worker {
+    private static final String TAG = "AdminStatsWorker";
+
+    static final String WORK_NAME = "admin-stats";
+
+    private static final long PERIOD_HOURS = 24;
+
+    private static final long TIMEOUT_MS = 120_000;
+
+    /**
+     * Constructor for AdminStatsWorker, called by WorkManager.
+     * @param context The application context.
+     * @param params The work parameters.
+     */
+    public AdminStatsWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily totals, keeping the existing schedule if there is one.
+     * @param context Any context.
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(AdminStatsWorker.class,
+                PERIOD_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseApp.getApps(getApplicationContext()).isEmpty()) {
+            return Result.success();
+        }
+        try {
+            boolean computed = Tasks.await(AdminStatsRepository.recordDailyIfMissing(FirebaseServices.firestore(),
+                    new Date(), "AdminStatsWorker.recordDaily"), TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Log.d(TAG, computed ? "Stored today's admin stats" : "Today's admin stats already stored");
+            return Result.success();
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            Log.e(TAG, "Admin stats failed", e);
+            return Result.retry();
+        }
+    }
+}
@@ -13,9 +13,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.Repositories.EventSummaries;
+import com.example.myapplication.Repositories.ReplacementDraw;
 import com.google.firebase.firestore.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * RecyclerView Adapter to display attendees.
@@ -26,7 +30,7 @@ public class AttendeesAdapter extends RecyclerView.Adapter<AttendeesAdapter.Atte
     private Context context;
     private String status; //"waiting", "selected", "confirmed" or "cancelled"
     private String eventId;   // Dynamic eventId
-    private FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private FirebaseFirestore db = FirebaseServices.firestore();
 
     /**
      * Constructor for AttendeesAdapter.
@@ -92,7 +96,7 @@ public class AttendeesAdapter extends RecyclerView.Adapter<AttendeesAdapter.Atte
                         .setTitle("Cancel Attendee")
                         .setMessage("Are you sure you want to cancel this attendee?")
                         .setPositiveButton("Yes", (dialog, which) -> {
-                            cancelAttendee(attendee, holder.getAdapterPosition());
+                            cancelAttendee(attendee);
                         })
                         .setNegativeButton("No", null)
                         .show();
@@ -133,11 +137,12 @@ public class AttendeesAdapter extends RecyclerView.Adapter<AttendeesAdapter.Atte
     /**
      * Cancels an attendee by deleting their document from Attendees collection,
      * updating their status in Users collection, and decrementing currentAttendees.
+     * The next entrant of the replacement pool, if any, is selected in their place. Nothing
+     * changes if the attendee is no longer selected or confirmed.
      *
      * @param attendee The attendee to cancel.
-     * @param position The position of the attendee in the list.
      */
-    private void cancelAttendee(Attendee attendee, int position) {
+    private void cancelAttendee(Attendee attendee) {
         if (eventId == null) {
             Toast.makeText(context, "Event ID is missing.", Toast.LENGTH_SHORT).show();
             Log.e("AttendeesAdapter", "Event ID is null. Cannot cancel attendee.");
@@ -154,7 +159,7 @@ public class AttendeesAdapter extends RecyclerView.Adapter<AttendeesAdapter.Atte
         DocumentReference eventRef = db.collection("Events").document(eventId);
         DocumentReference attendeeRef = eventRef.collection("Waitlist").document(attendeeId);
 
-        db.runTransaction((Transaction.Function<Void>) transaction -> {
+        db.runTransaction((Transaction.Function<Boolean>) transaction -> {
             // Get currentAttendees
             DocumentSnapshot eventSnapshot = transaction.get(eventRef);
             if (!eventSnapshot.exists()) {
@@ -168,21 +173,43 @@ public class AttendeesAdapter extends RecyclerView.Adapter<AttendeesAdapter.Atte
                         FirebaseFirestoreException.Code.DATA_LOSS);
             }
 
+            // A stale list or a second tap must not free the same place twice
+            DocumentSnapshot attendeeSnapshot = transaction.get(attendeeRef);
+            String status = attendeeSnapshot.getString("status");
+            if (!"selected".equals(status) && !"confirmed".equals(status)) {
+                return false;
+            }
+
+            // The freed place goes to the next entrant of the replacement pool
+            ReplacementDraw.Refill refill = ReplacementDraw.prepare(transaction, eventRef, 1);
+
             // Delete the specific attendee document
             transaction.update(attendeeRef, "status", "cancelled");
 
             // Decrement currentAttendees
-            transaction.update(eventRef, "currentAttendees", currentAttendeesLong - 1);
-
-
-            return null;
-        }).addOnSuccessListener(aVoid -> {
-            Toast.makeText(context, "Attendee canceled successfully.", Toast.LENGTH_SHORT).show();
-            Log.d("AttendeesAdapter", "Attendee " + attendeeId + " canceled successfully.");
-            attendee.setStatus("cancelled");
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("currentAttendees", currentAttendeesLong - 1);
+            refill.apply(transaction, eventSnapshot, changes);
+            EventSummaries.update(transaction, eventSnapshot, changes);
+
+
+            return true;
+        }).addOnSuccessListener(cancelled -> {
+            if (cancelled) {
+                Toast.makeText(context, "Attendee canceled successfully.", Toast.LENGTH_SHORT).show();
+                Log.d("AttendeesAdapter", "Attendee " + attendeeId + " canceled successfully.");
+                attendee.setStatus("cancelled");
+            } else {
+                Toast.makeText(context, "Attendee is no longer selected.", Toast.LENGTH_SHORT).show();
+                Log.d("AttendeesAdapter", "Attendee " + attendeeId + " was not selected, nothing to cancel.");
+            }
 
-            attendeeList.remove(position);
-            notifyItemRemoved(position);
+            // The row may have moved or gone if the list changed while the transaction ran
+            int current = attendeeList.indexOf(attendee);
+            if (current >= 0) {
+                attendeeList.remove(current);
+                notifyItemRemoved(current);
+            }
 
             if (context instanceof EventDetailsActivity) {
                 ((EventDetailsActivity) context).refreshAttendees();
@@ -45,7 +45,7 @@ public class AttendeesFragment extends Fragment {
     private String cancelled = "cancelled";
     private String eventId;
 
-    private FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private FirebaseFirestore db = FirebaseServices.firestore();
 
     /**
      * Factory method to create a new instance of AttendeesFragment with the provided eventId.
@@ -152,9 +152,8 @@ public class AttendeesFragment extends Fragment {
             return;
         }
 
-        db.collection("Events").document(eventId)
-                .collection("Waitlist")
-                .get()
+        FirestoreGateway.get(db.collection("Events").document(eventId)
+                .collection("Waitlist"), "AttendeesFragment.fetchAttendees")
                 .addOnSuccessListener(new com.google.android.gms.tasks.OnSuccessListener<QuerySnapshot>() {
                     @Override
                     public void onSuccess(QuerySnapshot queryDocumentSnapshots) {
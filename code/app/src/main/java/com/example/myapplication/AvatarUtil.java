@@ -4,7 +4,8 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
 
 import java.util.Locale;
 
@@ -14,26 +15,44 @@ Utility class for generating avatars.
 
 public class AvatarUtil {
 
+    // Letters are few, so a small cache covers every avatar on screen
+    private static final int CACHE_SIZE = 32;
+    private static final LruCache<String, Drawable.ConstantState> avatarCache = new LruCache<>(CACHE_SIZE);
+
+    /**
+     * Returns a letter avatar drawable. The drawable paints itself, so no bitmap is allocated,
+     * and avatars for the same letter and size share their state through a small LRU cache.
+     *
+     * @param letter The letter to show on the avatar.
+     * @param size   The intrinsic size of the avatar in pixels.
+     * @return A new drawable instance for the avatar.
+     */
+    public static Drawable getAvatarDrawable(String letter, int size) {
+        String key = letter + "|" + size;
+        Drawable.ConstantState state = avatarCache.get(key);
+        if (state == null) {
+            state = new LetterAvatarDrawable(letter, getColorForLetter(letter), size).getConstantState();
+            avatarCache.put(key, state);
+        }
+        // Each view gets its own drawable so bounds and callbacks are not shared
+        return state.newDrawable();
+    }
+
+    /**
+     * Renders a letter avatar into a new bitmap. Prefer {@link #getAvatarDrawable(String, int)}
+     * for views; this is only for callers that need an actual Bitmap.
+     *
+     * @param letter  The letter to show on the avatar.
+     * @param size    The width and height of the bitmap in pixels.
+     * @param context The calling context.
+     * @return A bitmap containing the avatar.
+     */
     public static Bitmap generateAvatar(String letter, int size, Context context) {
         Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
-        //color stuff
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setColor(getColorForLetter(letter));
-        canvas.drawCircle(size / 2f, size / 2f, size / 2f, paint);
-        //letter stuff
-        Paint textPaint = new Paint();
-        textPaint.setColor(Color.WHITE);
-        textPaint.setTextSize(size / 2f);
-        textPaint.setAntiAlias(true);
-        textPaint.setTextAlign(Paint.Align.CENTER);
-        //vertical center
-        Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
-        float y = size / 2f - (fontMetrics.ascent + fontMetrics.descent) / 2f;
-
-        canvas.drawText(letter, size / 2f, y, textPaint);
-
+        Drawable avatar = getAvatarDrawable(letter, size);
+        avatar.setBounds(0, 0, size, size);
+        avatar.draw(canvas);
         return bitmap;
     }
 
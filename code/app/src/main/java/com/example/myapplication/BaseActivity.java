@@ -2,11 +2,15 @@ package com.example.myapplication;
 
 import android.provider.Settings;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -16,7 +20,18 @@ import java.util.concurrent.Executors;
  */
 public abstract class BaseActivity extends AppCompatActivity {
 
-    protected FirebaseFirestore db = FirebaseFirestore.getInstance();
+    protected FirebaseFirestore db = FirebaseServices.firestore();
+
+    /**
+     * Adds the Firestore usage report to the activity dump,
+     * see it with adb shell dumpsys activity top.
+     */
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd, @NonNull PrintWriter writer, @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.println();
+        writer.print(FirestoreMetrics.getInstance().report());
+    }
 
     /**
      * Retrieves the unique device ID.
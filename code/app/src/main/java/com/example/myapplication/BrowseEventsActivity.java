@@ -51,12 +51,15 @@ public class BrowseEventsActivity extends AppCompatActivity {
         RecyclerView recyclerView = findViewById(R.id.event_recycler_view);
 
         // Create the controller and view
-        BrowseEventsController controller = new BrowseEventsController();
+        BrowseEventsController controller = new BrowseEventsController(this);
         view = new BrowseEventsView(this, recyclerView, controller);
 
         // Set up toolbar with navigation callback
         view.setToolbar(toolbar, this::finish);
 
+        // Filter events as the admin types
+        view.setSearchField(findViewById(R.id.search_edit_text));
+
         // Load events from the database
         view.loadEvents();
     }
@@ -56,12 +56,15 @@ public class BrowseUsersActivity extends BaseActivity {
         RecyclerView recyclerView = findViewById(R.id.user_recycler_view);
 
         // Set up the view and controller
-        BrowseUsersController controller = new BrowseUsersController();
+        BrowseUsersController controller = new BrowseUsersController(this);
         view = new BrowseUsersView(this, recyclerView, controller, currentUserId);
 
         // Set toolbar navigation
         view.setToolbar(toolbar, this::finish);
 
+        // Filter users as the admin types
+        view.setSearchField(findViewById(R.id.search_edit_text));
+
         // Load users
         view.loadUsers();
     }
@@ -1,9 +1,21 @@
 package com.example.myapplication.Controllers;
 
+import android.content.Context;
+import android.util.Log;
+
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
 import com.example.myapplication.Models.Event;
+import com.example.myapplication.Repositories.EventSummaries;
+import com.example.myapplication.Repositories.EventTimestampMigration;
+import com.example.myapplication.Search.SearchEntry;
+import com.example.myapplication.Search.SearchIndex;
+import com.example.myapplication.Search.SearchTokens;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.google.firebase.firestore.WriteBatch;
 
@@ -15,36 +27,100 @@ import java.util.function.Consumer;
  * Controller class for browsing events.
  */
 public class BrowseEventsController {
+    private static final String TAG = "BrowseEventsController";
+
+    // Maximum number of events returned by one search
+    public static final int SEARCH_LIMIT = 50;
 
     private final FirebaseFirestore db;
+    private final SearchIndex searchIndex;
 
-    public BrowseEventsController() {
-        this.db = FirebaseFirestore.getInstance();
+    /**
+     * Constructs a BrowseEventsController.
+     *
+     * @param context Context used to open the local search index.
+     */
+    public BrowseEventsController(Context context) {
+        this.db = FirebaseServices.firestore();
+        this.searchIndex = new SearchIndex(context);
     }
 
     /**
-     * Fetches events from the 'Events' collection in Firestore.
+     * Fetches events from the 'EventSummaries' collection in Firestore, first adding timestamps
+     * and summaries to any events written by older app versions.
      *
      * @param onSuccess Callback when events are successfully fetched.
      * @param onFailure Callback when fetching fails.
      */
     public void fetchEvents(Consumer<List<Event>> onSuccess, Consumer<String> onFailure) {
-        db.collection("Events")
-                .get()
+        EventTimestampMigration.migrate(db, "BrowseEventsController.migrateTimestamps")
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to migrate event timestamps", e))
+                .continueWithTask(migrated -> EventSummaries.reconcile(db, "BrowseEventsController.reconcileSummaries"))
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to reconcile event summaries", e))
+                .continueWithTask(reconciled -> FirestoreGateway.get(db.collection(EventSummaries.COLLECTION),
+                        "BrowseEventsController.fetchEvents"))
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<Event> events = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) { // Explicit type used here
-                        String id = document.getId();
-                        String eventName = document.getString("eventName");
-                        events.add(new Event(id, eventName));
+                        events.add(toEvent(document));
                     }
                     onSuccess.accept(events);
+
+                    // The whole collection was read, so the local index can be rebuilt from it
+                    searchIndex.replaceAll(SearchIndex.KIND_EVENT, toEntries(events));
                 })
                 .addOnFailureListener(e -> onFailure.accept("Failed to fetch events: " + e.getMessage()));
     }
 
     /**
-     * Deletes an event and its 'Waitlist' subcollection from Firestore.
+     * Searches the local index of recently synced events, fast enough to run on every keystroke.
+     *
+     * @param query    The search text.
+     * @param onResult Callback with the matching events, empty if nothing matches.
+     */
+    public void searchLocal(String query, Consumer<List<Event>> onResult) {
+        searchIndex.search(SearchIndex.KIND_EVENT, query, SEARCH_LIMIT)
+                .addOnSuccessListener(entries -> {
+                    List<Event> events = new ArrayList<>();
+                    for (SearchEntry entry : entries) {
+                        events.add(new Event(entry.docId, entry.title));
+                    }
+                    onResult.accept(events);
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Local search failed", e));
+    }
+
+    /**
+     * Searches Firestore for events whose name words start with the words of the query.
+     * The results are added to the local index.
+     *
+     * @param query     The search text.
+     * @param onSuccess Callback with the matching events.
+     * @param onFailure Callback when the search fails.
+     */
+    public void searchEvents(String query, Consumer<List<Event>> onSuccess, Consumer<String> onFailure) {
+        Query lookup = SearchTokens.prefixQuery(db.collection(EventSummaries.COLLECTION), query, SEARCH_LIMIT);
+        if (lookup == null) {
+            onSuccess.accept(new ArrayList<>());
+            return;
+        }
+        FirestoreGateway.get(lookup, "BrowseEventsController.searchEvents")
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<Event> events = new ArrayList<>();
+                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
+                        Event event = toEvent(document);
+                        if (SearchTokens.matches(query, event.getEventName())) {
+                            events.add(event);
+                        }
+                    }
+                    searchIndex.put(SearchIndex.KIND_EVENT, toEntries(events));
+                    onSuccess.accept(events);
+                })
+                .addOnFailureListener(e -> onFailure.accept("Failed to search events: " + e.getMessage()));
+    }
+
+    /**
+     * Deletes an event, its summary and its 'Waitlist' subcollection from Firestore.
      *
      * @param event     The event to delete.
      * @param onSuccess Callback when deletion is successful.
@@ -54,15 +130,32 @@ public class BrowseEventsController {
         DocumentReference eventRef = db.collection("Events").document(event.getEventId());
         CollectionReference waitlistRef = eventRef.collection("Waitlist");
 
-        waitlistRef.get().addOnSuccessListener(querySnapshot -> {
+        FirestoreGateway.get(waitlistRef, "BrowseEventsController.deleteEvent").addOnSuccessListener(querySnapshot -> {
             WriteBatch batch = db.batch();
             for (QueryDocumentSnapshot doc : querySnapshot) { // Explicit type used here
                 batch.delete(doc.getReference());
             }
-            batch.commit().addOnSuccessListener(aVoid -> {
-                eventRef.delete().addOnSuccessListener(aVoid2 -> onSuccess.run())
+            FirestoreGateway.commit(batch, querySnapshot.size(), "BrowseEventsController.deleteEvent").addOnSuccessListener(aVoid -> {
+                WriteBatch eventBatch = db.batch();
+                EventSummaries.delete(eventBatch, eventRef);
+                FirestoreGateway.commit(eventBatch, 2, "BrowseEventsController.deleteEvent").addOnSuccessListener(aVoid2 -> {
+                            searchIndex.remove(SearchIndex.KIND_EVENT, event.getEventId());
+                            onSuccess.run();
+                        })
                         .addOnFailureListener(e -> onFailure.accept("Failed to delete event: " + e.getMessage()));
             }).addOnFailureListener(e -> onFailure.accept("Failed to delete waitlist: " + e.getMessage()));
         }).addOnFailureListener(e -> onFailure.accept("Failed to get waitlist: " + e.getMessage()));
     }
+
+    private static Event toEvent(DocumentSnapshot document) {
+        return new Event(document.getId(), document.getString("eventName"));
+    }
+
+    private static List<SearchEntry> toEntries(List<Event> events) {
+        List<SearchEntry> entries = new ArrayList<>();
+        for (Event event : events) {
+            entries.add(new SearchEntry(SearchIndex.KIND_EVENT, event.getEventId(), event.getEventName(), null));
+        }
+        return entries;
+    }
 }
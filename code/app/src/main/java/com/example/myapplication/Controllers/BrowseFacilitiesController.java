@@ -1,5 +1,7 @@
 package com.example.myapplication.Controllers;
 
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
 import com.example.myapplication.Models.Facility;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
@@ -20,7 +22,7 @@ public class BrowseFacilitiesController {
      * Constructs a BrowseFacilitiesController and initializes Firestore.
      */
     public BrowseFacilitiesController() {
-        this.db = FirebaseFirestore.getInstance();
+        this.db = FirebaseServices.firestore();
     }
 
     /**
@@ -32,8 +34,7 @@ public class BrowseFacilitiesController {
      *                  Provides an error message.
      */
     public void fetchFacilities(Consumer<List<Facility>> onSuccess, Consumer<String> onFailure) {
-        db.collection("Facilities")
-                .get()
+        FirestoreGateway.get(db.collection("Facilities"), "BrowseFacilitiesController.fetchFacilities")
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<Facility> facilities = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
@@ -1,5 +1,6 @@
 package com.example.myapplication.Controllers;
 
+import com.example.myapplication.FirebaseServices;
 import com.example.myapplication.Models.StorageImage;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
@@ -21,7 +22,7 @@ public class BrowseImagesController {
      * Constructs a BrowseImagesController and initializes Firebase Storage.
      */
     public BrowseImagesController() {
-        this.storage = FirebaseStorage.getInstance();
+        this.storage = FirebaseServices.storage();
     }
 
     /**
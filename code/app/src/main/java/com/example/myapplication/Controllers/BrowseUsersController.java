@@ -1,7 +1,18 @@
 package com.example.myapplication.Controllers;
 
+import android.content.Context;
+import android.util.Log;
+
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
 import com.example.myapplication.Models.User;
+import com.example.myapplication.Search.SearchBackfill;
+import com.example.myapplication.Search.SearchEntry;
+import com.example.myapplication.Search.SearchIndex;
+import com.example.myapplication.Search.SearchTokens;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
@@ -13,14 +24,22 @@ import java.util.function.Consumer;
  * Handles Firestore operations related to users.
  */
 public class BrowseUsersController {
+    private static final String TAG = "BrowseUsersController";
+
+    // Maximum number of users returned by one search
+    public static final int SEARCH_LIMIT = 50;
 
     private final FirebaseFirestore db;
+    private final SearchIndex searchIndex;
 
     /**
      * Constructs a BrowseUsersController and initializes Firestore.
+     *
+     * @param context Context used to open the local search index.
      */
-    public BrowseUsersController() {
-        this.db = FirebaseFirestore.getInstance();
+    public BrowseUsersController(Context context) {
+        this.db = FirebaseServices.firestore();
+        this.searchIndex = new SearchIndex(context);
     }
 
     /**
@@ -30,24 +49,89 @@ public class BrowseUsersController {
      * @param onFailure Callback invoked with an error message on failure.
      */
     public void fetchUsers(Consumer<List<User>> onSuccess, Consumer<String> onFailure) {
-        db.collection("users")
-                .get()
+        FirestoreGateway.get(db.collection("users"), "BrowseUsersController.fetchUsers")
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<User> users = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        String userID = document.getId();
-                        String name = document.getString("name");
-                        String profileImageUrl = document.getString("profileImageUrl");
-                        String email = document.getString("email");
-                        String dob = document.getString("dob");
-                        String phone = document.getString("phone");
-                        String country = document.getString("country");
-                        Boolean isAdmin = document.getBoolean("isAdmin");
-
-                        users.add(new User(userID, name, profileImageUrl, email, dob, phone, country, isAdmin != null && isAdmin));
+                        users.add(toUser(document));
                     }
                     onSuccess.accept(users);
+
+                    // The whole collection was read, so the local index can be rebuilt from it
+                    searchIndex.replaceAll(SearchIndex.KIND_USER, toEntries(users));
+                    SearchBackfill.backfill(db, queryDocumentSnapshots.getDocuments(), "name", new String[]{"email"},
+                                    "BrowseUsersController.backfillSearchFields")
+                            .addOnFailureListener(e -> Log.e(TAG, "Failed to backfill search fields", e));
                 })
                 .addOnFailureListener(e -> onFailure.accept("Failed to fetch users: " + e.getMessage()));
     }
+
+    /**
+     * Searches the local index of recently synced users by name and email, fast enough to run
+     * on every keystroke. Users found this way only carry their id, name and email.
+     *
+     * @param query    The search text.
+     * @param onResult Callback with the matching users, empty if nothing matches.
+     */
+    public void searchLocal(String query, Consumer<List<User>> onResult) {
+        searchIndex.search(SearchIndex.KIND_USER, query, SEARCH_LIMIT)
+                .addOnSuccessListener(entries -> {
+                    List<User> users = new ArrayList<>();
+                    for (SearchEntry entry : entries) {
+                        users.add(new User(entry.docId, entry.title, null, entry.detail, null, null, null, false));
+                    }
+                    onResult.accept(users);
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Local search failed", e));
+    }
+
+    /**
+     * Searches Firestore for users whose name or email words start with the words of the query.
+     * The results are added to the local index.
+     *
+     * @param query     The search text.
+     * @param onSuccess Callback invoked with the matching users.
+     * @param onFailure Callback invoked with an error message on failure.
+     */
+    public void searchUsers(String query, Consumer<List<User>> onSuccess, Consumer<String> onFailure) {
+        Query lookup = SearchTokens.prefixQuery(db.collection("users"), query, SEARCH_LIMIT);
+        if (lookup == null) {
+            onSuccess.accept(new ArrayList<>());
+            return;
+        }
+        FirestoreGateway.get(lookup, "BrowseUsersController.searchUsers")
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<User> users = new ArrayList<>();
+                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
+                        User user = toUser(document);
+                        if (SearchTokens.matches(query, user.getName(), user.getEmail())) {
+                            users.add(user);
+                        }
+                    }
+                    searchIndex.put(SearchIndex.KIND_USER, toEntries(users));
+                    onSuccess.accept(users);
+                })
+                .addOnFailureListener(e -> onFailure.accept("Failed to search users: " + e.getMessage()));
+    }
+
+    private static User toUser(DocumentSnapshot document) {
+        String userID = document.getId();
+        String name = document.getString("name");
+        String profileImageUrl = document.getString("profileImageUrl");
+        String email = document.getString("email");
+        String dob = document.getString("dob");
+        String phone = document.getString("phone");
+        String country = document.getString("country");
+        Boolean isAdmin = document.getBoolean("isAdmin");
+
+        return new User(userID, name, profileImageUrl, email, dob, phone, country, isAdmin != null && isAdmin);
+    }
+
+    private static List<SearchEntry> toEntries(List<User> users) {
+        List<SearchEntry> entries = new ArrayList<>();
+        for (User user : users) {
+            entries.add(new SearchEntry(SearchIndex.KIND_USER, user.getUserID(), user.getName(), user.getEmail()));
+        }
+        return entries;
+    }
 }
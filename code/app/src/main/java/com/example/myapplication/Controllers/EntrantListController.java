@@ -2,6 +2,7 @@ package com.example.myapplication.Controllers;
 
 import android.content.Context;
 import android.util.Log;
+import android.widget.Toast;
 
 import com.example.myapplication.AttendeesFragment;
 import com.example.myapplication.Repositories.EntrantListRepository;
@@ -48,27 +49,29 @@ public class EntrantListController {
     }
 
     /*
-    Method that connects to the draw button on WaitlistFragment
+    Method that connects to the draw buttons. The waitlist screen runs the event's lottery, the
+    attendees screen selects one more entrant from the replacement pool.
      */
     public void drawAttendees(String eventId, boolean redraw, Context context) {
         if (redraw) {
-            int size = 1;
-            repository.sampleAttendees(eventId, size, context);
-            Log.d("EntrantListController", "AttendeeSize" + size);
+            repository.drawReplacement(eventId)
+                    .addOnSuccessListener(selected -> {
+                        Log.d("EntrantListController", "Selected " + selected + " replacement entrants");
+                        if (selected == 0) {
+                            Toast.makeText(context, "No entrant left to draw.", Toast.LENGTH_SHORT).show();
+                        }
+                    })
+                    .addOnFailureListener(e -> Log.e("EntrantListController", "Error drawing a replacement", e));
         } else {
-            repository.getAttendeeListSize(eventId, new EntrantListRepository.Callback<Long>() {
-                @Override
-                public void onComplete(Long result, Exception e) {
-                    if (e != null) {
-                        Log.e("EntrantListController", "Error in getting attendee size" + result);
-                    }
-                    int size = result.intValue();
-                    Log.d("EntrantListController", "Got attendee size" + size);
-                    repository.sampleAttendees(eventId, size, context);
-
-                }
-            });
-
+            repository.drawEvent(eventId)
+                    .addOnSuccessListener(drawn -> {
+                        Log.d("EntrantListController", "Drew event " + eventId + ": " + drawn);
+                        if (!drawn) {
+                            Toast.makeText(context, "This event has already been drawn or is being drawn.",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                    })
+                    .addOnFailureListener(e -> Log.e("EntrantListController", "Error drawing attendees", e));
         }
     }
 
@@ -0,0 +1,81 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.myapplication.Repositories.CounterReconciliation;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Daily background job that corrects drifted waitlist and attendee counts of upcoming events,
+ * see {@link CounterReconciliation}. Like {@link AdminStatsWorker}, it is scheduled when an admin
+ * opens their profile, and the first device to run on a day checks the events for everyone.
+ */
+public class CounterReconciliationWorker extends Worker {
+    private static final String TAG = "CounterReconciliation";
+
+    static final String WORK_NAME = "counter-reconciliation";
+
+    private static final long PERIOD_HOURS = 24;
+
+    private static final long TIMEOUT_MS = 300_000;
+
+    /**
+     * Constructor for CounterReconciliationWorker, called by WorkManager.
+     * @param context The application context.
+     * @param params The work parameters.
+     */
+    public CounterReconciliationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily reconciliation, keeping the existing schedule if there is one.
+     * @param context Any context.
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(CounterReconciliationWorker.class,
+                PERIOD_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseApp.getApps(getApplicationContext()).isEmpty()) {
+            return Result.success();
+        }
+        try {
+            CounterReconciliation.Drift drift = Tasks.await(CounterReconciliation.reconcileDailyIfMissing(
+                    FirebaseServices.firestore(), new Date(), "CounterReconciliationWorker.reconcile"),
+                    TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Log.d(TAG, drift != null ? "Event counts " + drift : "Event counts already reconciled today");
+            return Result.success();
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            Log.e(TAG, "Counter reconciliation failed", e);
+            return Result.retry();
+        }
+    }
+}
@@ -20,12 +20,14 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.ActionBar;
 import com.example.myapplication.Models.Event;
 import com.example.myapplication.Models.Facility;
+import com.example.myapplication.Repositories.EventSummaries;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.storage.*;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.journeyapps.barcodescanner.BarcodeEncoder;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -288,7 +290,7 @@ public class CreateEventActivity extends BaseActivity { // Extends BaseActivity
         String eventId = db.collection("Events").document().getId();
 
         // Generate QR code link using eventId
-        qrCodeLink = "eventapp://event/" + eventId;
+        qrCodeLink = EventLinks.link(eventId);
 
         // Create Facility object if needed, else set to null
         Facility facility = null; // Adjust as per your application's logic
@@ -296,9 +298,11 @@ public class CreateEventActivity extends BaseActivity { // Extends BaseActivity
         // Create Event object
         Event event = new Event(eventId, eventName, date, time, description,
                 maxAttendees, maxWaitlist, geolocationEnabled, qrCodeLink, "", 0, organizerId, facility);
+        event.updateSearchFields();
+        event.updateTimestamps();
 
-        // Save event to Firestore
-        db.collection("Events").document(eventId).set(event)
+        // Save event and its list summary to Firestore
+        EventSummaries.set(db, event, "CreateEventActivity.saveEvent")
                 .addOnSuccessListener(aVoid -> {
                     Log.d("Firestore", "Event saved successfully.");
                     Toast.makeText(this, "Event saved successfully", Toast.LENGTH_SHORT).show();
@@ -340,12 +344,13 @@ public class CreateEventActivity extends BaseActivity { // Extends BaseActivity
             return; // No poster to upload
         }
 
-        FirebaseStorage storage = FirebaseStorage.getInstance();
+        FirebaseStorage storage = FirebaseServices.storage();
         StorageReference storageRef = storage.getReference().child("posters/" + eventId + ".jpg");
 
         storageRef.putFile(posterUri)
                 .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl().addOnSuccessListener(uri -> {
-                    db.collection("Events").document(eventId).update("posterUrl", uri.toString())
+                    EventSummaries.update(db, eventId, Collections.singletonMap("posterUrl", uri.toString()),
+                                    "CreateEventActivity.uploadPoster")
                             .addOnSuccessListener(aVoid -> Log.d("Firestore", "Poster URL updated successfully"))
                             .addOnFailureListener(e -> Log.e("Firestore", "Error updating poster URL", e));
                 }))
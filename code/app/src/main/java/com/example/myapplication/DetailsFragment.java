@@ -17,6 +17,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import com.bumptech.glide.Glide;
+import com.example.myapplication.Repositories.EventSummaries;
 import com.google.firebase.firestore.*;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
@@ -24,6 +25,8 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.journeyapps.barcodescanner.BarcodeEncoder;
 
+import java.util.Collections;
+
 /**
  * Fragment displaying the details of an event.
  */
@@ -72,9 +75,9 @@ public class DetailsFragment extends Fragment {
         } else {
             Toast.makeText(getContext(), "Event ID missing.", Toast.LENGTH_SHORT).show();
         }
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
 
-        storage = FirebaseStorage.getInstance();
+        storage = FirebaseServices.storage();
         storageReference = storage.getReference();
     }
 
@@ -143,49 +146,16 @@ public class DetailsFragment extends Fragment {
             return;
         }
 
+        // A cached copy shows at once, the server's replaces it when it arrives
         progressBar.setVisibility(View.VISIBLE);
-        db.collection("Events").document(eventId).get()
+        FirestoreGateway.get(db.collection("Events").document(eventId), ReadPolicy.CACHE_THEN_SERVER,
+                        cached -> {
+                            progressBar.setVisibility(View.GONE);
+                            showEventDetails(cached);
+                        }, "DetailsFragment.fetchEventDetails")
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
-                        String eventName = documentSnapshot.getString("eventName");
-                        String drawDate = documentSnapshot.getString("drawDate");
-                        String eventDateTime = documentSnapshot.getString("eventDateTime");
-                        String description = documentSnapshot.getString("description");
-                        String posterUrl = documentSnapshot.getString("posterUrl");
-                        Long maxAttendeesLong = documentSnapshot.getLong("maxAttendees");
-                        Long currentAttendeesLong = documentSnapshot.getLong("currentAttendees");
-                        Long maxWaitlistLong = documentSnapshot.getLong("maxWaitlist");
-                        Boolean geolocationEnabled = documentSnapshot.getBoolean("geolocationEnabled");
-                        String qrCodeLink = documentSnapshot.getString("qrCodeLink");
-
-                        int maxAttendees = maxAttendeesLong != null ? maxAttendeesLong.intValue() : 0;
-                        String maxWaitlistStr = (maxWaitlistLong != null) ? String.valueOf(maxWaitlistLong.intValue()) : "N/A";
-                        String geolocationStr = (geolocationEnabled != null && geolocationEnabled) ? "Enabled" : "Disabled";
-
-                        // Update UI
-                        eventNameTextView.setText(eventName);
-                        dateTextView.setText("Date: " + drawDate);
-                        timeTextView.setText("Time: " + eventDateTime);
-                        descriptionTextView.setText(description);
-                        maxAttendeesTextView.setText("Max Attendees: " + maxAttendees);
-                        maxWaitlistTextView.setText("Max Waitlist: " + maxWaitlistStr);
-                        geolocationTextView.setText("Geolocation: " + geolocationStr);
-
-                        if (posterUrl != null && !posterUrl.isEmpty()) {
-                            Glide.with(this)
-                                    .load(posterUrl)
-                                    .placeholder(R.drawable.ic_placeholder_image)
-                                    .into(posterImageView);
-                        } else {
-                            posterImageView.setImageResource(R.drawable.ic_placeholder_image);
-                        }
-
-                        if (qrCodeLink != null && !qrCodeLink.isEmpty()) {
-                            generateQRCode(qrCodeLink);
-                        } else {
-                            qrCodeImageView.setVisibility(View.GONE);
-                        }
-
+                        showEventDetails(documentSnapshot);
                     } else {
                         Toast.makeText(getContext(), "Event not found.", Toast.LENGTH_SHORT).show();
                         // Optionally, navigate back or show an error
@@ -200,6 +170,52 @@ public class DetailsFragment extends Fragment {
                 });
     }
 
+    /**
+     * Displays an event's details.
+     *
+     * @param documentSnapshot The event document.
+     */
+    private void showEventDetails(DocumentSnapshot documentSnapshot) {
+        String eventName = documentSnapshot.getString("eventName");
+        String drawDate = documentSnapshot.getString("drawDate");
+        String eventDateTime = documentSnapshot.getString("eventDateTime");
+        String description = documentSnapshot.getString("description");
+        String posterUrl = documentSnapshot.getString("posterUrl");
+        Long maxAttendeesLong = documentSnapshot.getLong("maxAttendees");
+        Long currentAttendeesLong = documentSnapshot.getLong("currentAttendees");
+        Long maxWaitlistLong = documentSnapshot.getLong("maxWaitlist");
+        Boolean geolocationEnabled = documentSnapshot.getBoolean("geolocationEnabled");
+        String qrCodeLink = documentSnapshot.getString("qrCodeLink");
+
+        int maxAttendees = maxAttendeesLong != null ? maxAttendeesLong.intValue() : 0;
+        String maxWaitlistStr = (maxWaitlistLong != null) ? String.valueOf(maxWaitlistLong.intValue()) : "N/A";
+        String geolocationStr = (geolocationEnabled != null && geolocationEnabled) ? "Enabled" : "Disabled";
+
+        // Update UI
+        eventNameTextView.setText(eventName);
+        dateTextView.setText("Date: " + drawDate);
+        timeTextView.setText("Time: " + eventDateTime);
+        descriptionTextView.setText(description);
+        maxAttendeesTextView.setText("Max Attendees: " + maxAttendees);
+        maxWaitlistTextView.setText("Max Waitlist: " + maxWaitlistStr);
+        geolocationTextView.setText("Geolocation: " + geolocationStr);
+
+        if (posterUrl != null && !posterUrl.isEmpty()) {
+            Glide.with(this)
+                    .load(posterUrl)
+                    .placeholder(R.drawable.ic_placeholder_image)
+                    .into(posterImageView);
+        } else {
+            posterImageView.setImageResource(R.drawable.ic_placeholder_image);
+        }
+
+        if (qrCodeLink != null && !qrCodeLink.isEmpty()) {
+            generateQRCode(qrCodeLink);
+        } else {
+            qrCodeImageView.setVisibility(View.GONE);
+        }
+    }
+
     /**
      * Generates a QR code for the event and displays it in the ImageView.
      *
@@ -272,8 +288,8 @@ public class DetailsFragment extends Fragment {
      * @param posterUrl The download URL of the uploaded poster.
      */
     private void updatePosterUrlInFirestore(String posterUrl) {
-        db.collection("Events").document(eventId)
-                .update("posterUrl", posterUrl)
+        EventSummaries.update(db, eventId, Collections.singletonMap("posterUrl", posterUrl),
+                        "DetailsFragment.updatePosterUrlInFirestore")
                 .addOnSuccessListener(aVoid -> {
                     progressBar.setVisibility(View.GONE);
                     Toast.makeText(getContext(), "Poster updated successfully.", Toast.LENGTH_SHORT).show();
@@ -0,0 +1,160 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.myapplication.Repositories.EventQueries;
+import com.example.myapplication.Repositories.LotteryDraw;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Periodic background job that runs the lotteries whose draw date has passed, so entrants get
+ * their results without the organizer opening the app. Each pass reads one page of due events
+ * and draws them a few days at a time, the events of one day together so an entrant wins at
+ * most one of them. Drawn events leave the due query, so a pass that is stopped or fails part
+ * way is resumed by the next one. It is scheduled when an organizer or admin opens their
+ * profile, so entrants' devices never run draws.
+ */
+public class DrawWorker extends Worker {
+    private static final String TAG = "DrawWorker";
+
+    static final String WORK_NAME = "lottery-draws";
+
+    // The shortest period WorkManager allows
+    private static final long PERIOD_MINUTES = 15;
+
+    // Events drawn per pass, later ones are left for the next pass
+    static final int MAX_EVENTS_PER_PASS = 50;
+
+    // Days drawn at once, each with its own reads and batches
+    static final int MAX_CONCURRENT_DRAWS = 4;
+
+    // Records that this device scheduled the job from an organizer or admin screen
+    private static final String PREFS = "draw-worker";
+    private static final String PREF_SCHEDULED = "scheduled";
+
+    private static final long QUERY_TIMEOUT_MS = 30_000;
+    private static final long DRAW_TIMEOUT_MS = 120_000;
+
+    /**
+     * Constructor for DrawWorker, called by WorkManager.
+     * @param context The application context.
+     * @param params The work parameters.
+     */
+    public DrawWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the periodic draw pass, keeping the existing schedule if there is one. Called
+     * from the organizer and admin profile screens only.
+     * @param context Any context.
+     */
+    public static void schedule(Context context) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit().putBoolean(PREF_SCHEDULED, true).apply();
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(DrawWorker.class, PERIOD_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseApp.getApps(getApplicationContext()).isEmpty()) {
+            return Result.success();
+        }
+        if (!getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE).getBoolean(PREF_SCHEDULED, false)) {
+            // Scheduled at startup by an older version on a device that isn't an organizer's
+            Log.d(TAG, "Not scheduled from an organizer or admin screen, cancelling draws");
+            WorkManager.getInstance(getApplicationContext()).cancelUniqueWork(WORK_NAME);
+            return Result.success();
+        }
+        FirebaseFirestore db = FirebaseServices.firestore();
+        // A fresh id per pass, so a pass never takes over the claim of one that is still running
+        String runnerId = UUID.randomUUID().toString();
+
+        List<DocumentSnapshot> due;
+        try {
+            due = Tasks.await(FirestoreGateway.get(EventQueries.drawsDueBefore(db, Timestamp.now())
+                            .limit(MAX_EVENTS_PER_PASS), "DrawWorker.findDueDraws"),
+                    QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS).getDocuments();
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            Log.e(TAG, "Failed to find due draws", e);
+            return Result.retry();
+        }
+
+        List<List<String>> groups = sameDayGroups(due);
+        int drawn = 0;
+        int failed = 0;
+        for (int i = 0; i < groups.size() && !isStopped(); i += MAX_CONCURRENT_DRAWS) {
+            List<Task<Integer>> draws = new ArrayList<>();
+            for (List<String> group : groups.subList(i, Math.min(i + MAX_CONCURRENT_DRAWS, groups.size()))) {
+                draws.add(LotteryDraw.runTogether(db, group, runnerId, "DrawWorker.draw"));
+            }
+            try {
+                Tasks.await(Tasks.whenAllComplete(draws), DRAW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | InterruptedException | TimeoutException e) {
+                Log.e(TAG, "Draws did not finish", e);
+                return Result.retry();
+            }
+            for (Task<Integer> draw : draws) {
+                if (!draw.isSuccessful()) {
+                    failed++;
+                    Log.e(TAG, "Draw failed", draw.getException());
+                } else {
+                    drawn += draw.getResult();
+                }
+            }
+        }
+        Log.d(TAG, "Drew " + drawn + " of " + due.size() + " due events, " + failed + " groups failed");
+        return failed > 0 ? Result.retry() : Result.success();
+    }
+
+    /**
+     * Groups the due events by event day, so entrants of events on the same day win at most one
+     * of them. The draw date is the start of the event day, so same-day events share it.
+     * @param due The due events, ordered by draw date.
+     * @return The event ids of each day.
+     */
+    private static List<List<String>> sameDayGroups(List<DocumentSnapshot> due) {
+        Map<Timestamp, List<String>> groups = new LinkedHashMap<>();
+        for (DocumentSnapshot event : due) {
+            Timestamp day = event.getTimestamp(EventTimes.FIELD_DRAW_AT);
+            List<String> group = groups.get(day);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(day, group);
+            }
+            group.add(event.getId());
+        }
+        return new ArrayList<>(groups.values());
+    }
+}
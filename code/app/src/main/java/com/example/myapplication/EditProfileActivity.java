@@ -2,7 +2,7 @@ package com.example.myapplication;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.Editable;
@@ -17,6 +17,7 @@ import android.widget.*;
 import androidx.annotation.Nullable;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
+import com.example.myapplication.Search.SearchTokens;
 import com.example.myapplication.Views.AddFacilityView;
 import com.example.myapplication.Views.HomeView;
 import com.google.firebase.firestore.DocumentReference;
@@ -63,8 +64,8 @@ public class EditProfileActivity extends BaseActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_edit_profile);
 
-        db = FirebaseFirestore.getInstance();
-        storage = FirebaseStorage.getInstance();
+        db = FirebaseServices.firestore();
+        storage = FirebaseServices.storage();
 
         deviceId = retrieveDeviceId();
         if (deviceId == null) {
@@ -276,6 +277,7 @@ public class EditProfileActivity extends BaseActivity {
         profileData.put("isOrganizer", isOrganizer);
         profileData.put("isAdmin", isAdmin);
         profileData.put("notificationsPerm", notificationsPerm);
+        profileData.putAll(SearchTokens.fields(name, email));
         profileData.put("events", null);
         //profileData.put("eventsAttending", new HashMap<>());
 
@@ -361,8 +363,8 @@ public class EditProfileActivity extends BaseActivity {
 
     private void generateDefaultAvatar(String name) {
         String firstLetter = (name != null && !name.isEmpty()) ? name.substring(0, 1).toUpperCase(Locale.US) : "?";
-        Bitmap avatar = AvatarUtil.generateAvatar(firstLetter, 200, this);
-        profileImageView.setImageBitmap(avatar);
+        Drawable avatar = AvatarUtil.getAvatarDrawable(firstLetter, 200);
+        profileImageView.setImageDrawable(avatar);
         removeProfileImageButton.setVisibility(View.GONE);
     }
 
@@ -26,7 +26,7 @@ public class EntrantsMapFragment extends Fragment implements OnMapReadyCallback
     private MapView mapView;
     private GoogleMap googleMap;
 
-    private FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private FirebaseFirestore db = FirebaseServices.firestore();
 
     private static final String TAG = "EntrantsMapFragment";
 
@@ -0,0 +1,71 @@
+package com.example.myapplication;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+
+import androidx.core.app.TaskStackBuilder;
+
+/**
+ * Deep links to an event, eventapp://event/{eventId}. The same links are encoded in event QR
+ * codes and carried by notifications, and open the event in {@link EventSignupActivity}.
+ */
+public final class EventLinks {
+
+    public static final String SCHEME = "eventapp";
+    public static final String HOST = "event";
+    private static final String PREFIX = SCHEME + "://" + HOST + "/";
+
+    private EventLinks() {
+    }
+
+    /**
+     * Builds the link to an event.
+     * @param eventId The event id.
+     * @return The link, as stored in the event's QR code.
+     */
+    public static String link(String eventId) {
+        return PREFIX + eventId;
+    }
+
+    /**
+     * Reads the event id from a link.
+     * @param link A scanned or received link, may be null.
+     * @return The event id, null if the link is not an event link.
+     */
+    public static String eventId(String link) {
+        if (link == null || !link.startsWith(PREFIX) || link.length() == PREFIX.length()) {
+            return null;
+        }
+        String eventId = link.substring(PREFIX.length());
+        return eventId.contains("/") ? null : eventId;
+    }
+
+    /**
+     * Builds the intent opening an event.
+     * @param context Any context.
+     * @param eventId The event id.
+     * @return An explicit view intent for {@link EventSignupActivity}.
+     */
+    public static Intent intent(Context context, String eventId) {
+        Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(link(eventId)), context, EventSignupActivity.class);
+        intent.putExtra("eventId", eventId);
+        return intent;
+    }
+
+    /**
+     * Builds the tap action of a notification about an event. Back from the event goes to the
+     * home screen, as if the user had navigated there.
+     * @param context Any context.
+     * @param eventId The event id.
+     * @return The pending intent, one per event so the notifications of two events do not share it.
+     */
+    public static PendingIntent pendingIntent(Context context, String eventId) {
+        Intent home = new Intent(context, MainActivity.class);
+        return TaskStackBuilder.create(context)
+                .addNextIntent(home)
+                .addNextIntent(intent(context, eventId))
+                .getPendingIntent(eventId.hashCode(), PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.bumptech.glide.Glide;
+import com.example.myapplication.Repositories.EventSummaries;
+
+/**
+ * Loads an event and its poster into the local caches when a notification about it arrives,
+ * so tapping the notification opens the event already rendered. Firestore keeps the document in
+ * its persistent cache and Glide keeps the poster in its disk cache.
+ */
+public final class EventPrefetcher {
+    private static final String TAG = "EventPrefetcher";
+
+    private EventPrefetcher() {
+    }
+
+    /**
+     * Prefetches an event document and its poster.
+     * @param context Any context, only its application context is kept.
+     * @param eventId The event id.
+     */
+    public static void prefetch(Context context, String eventId) {
+        Context appContext = context.getApplicationContext();
+        FirestoreGateway.get(FirebaseServices.firestore().collection(EventSummaries.EVENTS_COLLECTION).document(eventId),
+                        "EventPrefetcher.prefetch")
+                .addOnSuccessListener(event -> {
+                    String posterUrl = event.getString("posterUrl");
+                    if (posterUrl != null && !posterUrl.isEmpty()) {
+                        Glide.with(appContext).load(posterUrl).preload();
+                    }
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to prefetch event " + eventId, e));
+    }
+}
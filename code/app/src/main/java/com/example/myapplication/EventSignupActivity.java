@@ -18,11 +18,14 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
+import com.example.myapplication.Lottery.WaitlistSignup;
 import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.Repositories.EventSummaries;
 import com.google.android.gms.location.*;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.firebase.firestore.*;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -65,8 +68,11 @@ public class EventSignupActivity extends BaseActivity {
         signupButton = findViewById(R.id.signupButton);
         progressBar = findViewById(R.id.signupProgressBar);
 
-        // Retrieve eventId from intent
+        // Retrieve eventId from intent, or from the event link when opened from a notification or QR code
         eventId = getIntent().getStringExtra("eventId");
+        if (eventId == null && getIntent().getData() != null) {
+            eventId = EventLinks.eventId(getIntent().getData().toString());
+        }
         if (eventId == null) {
             //Toast.makeText(this, "Event ID missing.", Toast.LENGTH_SHORT).show();
             Log.e(TAG, "Event ID is missing from the intent.");
@@ -245,47 +251,22 @@ public class EventSignupActivity extends BaseActivity {
     };
 
     /**
-     * Fetches event details from Firestore and displays them.
+     * Fetches event details from Firestore and displays them. The cached copy, e.g. prefetched
+     * when a notification about the event arrived, is shown at once and then refreshed from the
+     * server. The progress bar stays up only while there is nothing to show, and the cached copy
+     * stands in if the server cannot be reached.
      */
     private void fetchEventDetails() {
-        progressBar.setVisibility(View.VISIBLE);
         Log.d(TAG, "Fetching event details from Firestore.");
-
-        db.collection("Events").document(eventId).get()
+        progressBar.setVisibility(View.VISIBLE);
+        FirestoreGateway.get(db.collection("Events").document(eventId), ReadPolicy.CACHE_THEN_SERVER,
+                        cached -> {
+                            progressBar.setVisibility(View.GONE);
+                            showEventDetails(cached);
+                        }, "EventSignupActivity.fetchEventDetails")
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
-                        String eventName = documentSnapshot.getString("eventName");
-                        String drawDate = documentSnapshot.getString("drawDate");
-                        String eventDateTime = documentSnapshot.getString("eventDateTime");
-                        String description = documentSnapshot.getString("description");
-                        String posterUrl = documentSnapshot.getString("posterUrl");
-                        Long maxAttendeesLong = documentSnapshot.getLong("maxAttendees");
-                        Long currentWaitlistLong = documentSnapshot.getLong("currentWaitlist");
-
-                        int maxAttendees = maxAttendeesLong != null ? maxAttendeesLong.intValue() : 0;
-                        int currentWaitlist = currentWaitlistLong != null ? currentWaitlistLong.intValue() : 0;
-
-                        Log.d(TAG, "Event Details - Name: " + eventName + ", Draw Date: " + drawDate +
-                                ", Event Time: " + eventDateTime + ", Max Attendees: " + maxAttendees +
-                                ", Currently Waiting: " + currentWaitlist);
-
-                        // Update UI
-                        eventNameTextView.setText(eventName);
-                        dateTextView.setText("Date: " + drawDate);
-                        timeTextView.setText("Time: " + eventDateTime);
-                        descriptionTextView.setText(description);
-                        maxAttendeesTextView.setText("Max Attendees: " + maxAttendees);
-                        currentAttendeesTextView.setText("Currently Waiting: " + currentWaitlist);
-
-                        if (posterUrl != null && !posterUrl.isEmpty()) {
-                            Glide.with(this)
-                                    .load(posterUrl)
-                                    .placeholder(R.drawable.ic_placeholder_image)
-                                    .into(posterImageView);
-                        } else {
-                            posterImageView.setImageResource(R.drawable.ic_placeholder_image);
-                        }
-
+                        showEventDetails(documentSnapshot);
                     } else {
                         Toast.makeText(this, "Event not found.", Toast.LENGTH_SHORT).show();
                         Log.e(TAG, "Event document does not exist.");
@@ -302,6 +283,44 @@ public class EventSignupActivity extends BaseActivity {
                 });
     }
 
+    /**
+     * Displays an event's details.
+     * @param documentSnapshot The event document.
+     */
+    private void showEventDetails(DocumentSnapshot documentSnapshot) {
+        String eventName = documentSnapshot.getString("eventName");
+        String drawDate = documentSnapshot.getString("drawDate");
+        String eventDateTime = documentSnapshot.getString("eventDateTime");
+        String description = documentSnapshot.getString("description");
+        String posterUrl = documentSnapshot.getString("posterUrl");
+        Long maxAttendeesLong = documentSnapshot.getLong("maxAttendees");
+        Long currentWaitlistLong = documentSnapshot.getLong("currentWaitlist");
+
+        int maxAttendees = maxAttendeesLong != null ? maxAttendeesLong.intValue() : 0;
+        int currentWaitlist = currentWaitlistLong != null ? currentWaitlistLong.intValue() : 0;
+
+        Log.d(TAG, "Event Details - Name: " + eventName + ", Draw Date: " + drawDate +
+                ", Event Time: " + eventDateTime + ", Max Attendees: " + maxAttendees +
+                ", Currently Waiting: " + currentWaitlist);
+
+        // Update UI
+        eventNameTextView.setText(eventName);
+        dateTextView.setText("Date: " + drawDate);
+        timeTextView.setText("Time: " + eventDateTime);
+        descriptionTextView.setText(description);
+        maxAttendeesTextView.setText("Max Attendees: " + maxAttendees);
+        currentAttendeesTextView.setText("Currently Waiting: " + currentWaitlist);
+
+        if (posterUrl != null && !posterUrl.isEmpty()) {
+            Glide.with(this)
+                    .load(posterUrl)
+                    .placeholder(R.drawable.ic_placeholder_image)
+                    .into(posterImageView);
+        } else {
+            posterImageView.setImageResource(R.drawable.ic_placeholder_image);
+        }
+    }
+
     /**
      * Handles the sign-up process for the event.
      * Adds the user to attendees or waitlist accordingly and stores their location.
@@ -347,7 +366,7 @@ public class EventSignupActivity extends BaseActivity {
     }
 
     private void addToHomepageWaitlist() {
-        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+        FirebaseFirestore firestore = FirebaseServices.firestore();
 
         String userDeviceId = retrieveDeviceId();
         String eventName = eventNameTextView.getText().toString();
@@ -415,24 +434,24 @@ public class EventSignupActivity extends BaseActivity {
             int maxWaitlist = maxWaitlistLong != null ? maxWaitlistLong.intValue() : 0;
             int currentWaitlist = currentWaitlistLong != null ? currentWaitlistLong.intValue() : 0;
 
-            if ((currentWaitlist < maxWaitlist) | (maxWaitlist == 0)){ // maxWaitlist is an optional input
+            if (WaitlistSignup.hasRoom(currentWaitlist, maxWaitlist)) { // maxWaitlist is an optional input
                 // Add to waitlist and store location
-                Map<String, Object> waitlistData = new HashMap<>();
-                waitlistData.put("userName", userName);
-                waitlistData.put("userEmail", userEmail);
-                waitlistData.put("status", "waiting");
-                waitlistData.put("latitude", userLatitude);      // Dynamic latitude
-                waitlistData.put("longitude", userLongitude);    // Dynamic longitude
-                transaction.set(waitlistRef, waitlistData);
-                transaction.update(eventRef, "currentWaitlist", FieldValue.increment(1));
+                transaction.set(waitlistRef, WaitlistSignup.entry(userName, userEmail, userLatitude, userLongitude));
+                // The transaction read the current count, so the summary can be given the exact value
+                EventSummaries.update(transaction, eventSnapshot,
+                        Collections.singletonMap("currentWaitlist", currentWaitlist + 1));
 
                 Log.d(TAG, "User added to Waitlist.");
+                return true;
             }
 
-            return null;
-        }).addOnSuccessListener(aVoid -> {
+            return false;
+        }).addOnSuccessListener(added -> {
             //Toast.makeText(this, "You have successfully signed up!", Toast.LENGTH_SHORT).show();
             Log.d(TAG, "Sign-up transaction successful.");
+            if (added) {
+                EventTopics.sync(FirebaseServices.push(), eventId, "waiting");
+            }
             finish(); // Close the activity or update UI as needed
         }).addOnFailureListener(e -> {
             if (e instanceof FirebaseFirestoreException) {
@@ -0,0 +1,116 @@
+package com.example.myapplication;
+
+import com.google.firebase.Timestamp;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Converts the date and time strings entered in CreateEventActivity into the Timestamp fields
+ * used for range queries. The strings are kept for display and for older app versions, the
+ * timestamps are what queries filter and sort on.
+ */
+public final class EventTimes {
+
+    // Timestamp of the draw, the start of the event day
+    public static final String FIELD_DRAW_AT = "drawAt";
+    // Timestamp of the event start, the event day at the event time
+    public static final String FIELD_STARTS_AT = "startsAt";
+
+    // Formats written by the date and time pickers
+    static final String DATE_PATTERN = "dd/MM/yyyy";
+    static final String TIME_PATTERN = "HH:mm";
+
+    private EventTimes() {
+    }
+
+    /**
+     * Builds the timestamp fields of an event from its stored strings.
+     * @param drawDate The event date, as "dd/MM/yyyy".
+     * @param eventDateTime The event time, as "HH:mm".
+     * @return The drawAt and startsAt fields, null where a string could not be parsed.
+     */
+    public static Map<String, Object> fields(String drawDate, String eventDateTime) {
+        return fields(drawDate, eventDateTime, TimeZone.getDefault());
+    }
+
+    static Map<String, Object> fields(String drawDate, String eventDateTime, TimeZone zone) {
+        Map<String, Object> fields = new HashMap<>();
+        Date drawAt = parseDate(drawDate, zone);
+        Date startsAt = parseDateTime(drawDate, eventDateTime, zone);
+        fields.put(FIELD_DRAW_AT, drawAt != null ? new Timestamp(drawAt) : null);
+        fields.put(FIELD_STARTS_AT, startsAt != null ? new Timestamp(startsAt) : null);
+        return fields;
+    }
+
+    /**
+     * Parses a picker date as the start of that day.
+     * @param date The date, as "dd/MM/yyyy".
+     * @param zone The time zone the date was entered in.
+     * @return The start of the day, null if the date is missing or malformed.
+     */
+    static Date parseDate(String date, TimeZone zone) {
+        if (date == null) {
+            return null;
+        }
+        return parse(date.trim(), DATE_PATTERN, zone);
+    }
+
+    /**
+     * Parses a picker date and time together.
+     * @param date The date, as "dd/MM/yyyy".
+     * @param time The time, as "HH:mm". A missing time means the start of the day.
+     * @param zone The time zone the date was entered in.
+     * @return The date and time, null if the date is missing or either string is malformed.
+     */
+    static Date parseDateTime(String date, String time, TimeZone zone) {
+        if (date == null) {
+            return null;
+        }
+        if (time == null || time.trim().isEmpty()) {
+            return parseDate(date, zone);
+        }
+        return parse(date.trim() + " " + time.trim(), DATE_PATTERN + " " + TIME_PATTERN, zone);
+    }
+
+    /**
+     * Returns the start and end of the week containing a moment, for "events this week".
+     * @param now The moment.
+     * @return The first instant of the week and the first instant of the next week.
+     */
+    public static Timestamp[] weekOf(Date now) {
+        Date[] week = weekOf(now, TimeZone.getDefault(), Locale.getDefault());
+        return new Timestamp[]{new Timestamp(week[0]), new Timestamp(week[1])};
+    }
+
+    static Date[] weekOf(Date now, TimeZone zone, Locale locale) {
+        Calendar calendar = Calendar.getInstance(zone, locale);
+        calendar.setTime(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        int offset = (calendar.get(Calendar.DAY_OF_WEEK) - calendar.getFirstDayOfWeek() + 7) % 7;
+        calendar.add(Calendar.DAY_OF_MONTH, -offset);
+        Date start = calendar.getTime();
+        calendar.add(Calendar.DAY_OF_MONTH, 7);
+        return new Date[]{start, calendar.getTime()};
+    }
+
+    private static Date parse(String value, String pattern, TimeZone zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+        format.setTimeZone(zone);
+        format.setLenient(false);
+        try {
+            return format.parse(value);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
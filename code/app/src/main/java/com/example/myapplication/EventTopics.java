@@ -0,0 +1,101 @@
+package com.example.myapplication;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-event, per-status push topics such as event_{eventId}_waiting. Each device is subscribed
+ * to the topic of its user's current status in every event it joined, so an organizer reaches a
+ * whole status group with one topic send.
+ */
+public final class EventTopics {
+
+    private static final String PREFIX = "event_";
+
+    // Waitlist statuses that have a topic
+    static final List<String> STATUSES = Arrays.asList("waiting", "selected", "confirmed", "cancelled");
+
+    // Status each event's subscription was last synced to in this process, so repeated syncs
+    // of an unchanged status make no calls
+    private static final Map<String, String> synced = new ConcurrentHashMap<>();
+
+    private EventTopics() {
+    }
+
+    /**
+     * Builds the topic of a status group.
+     * @param eventId The event id.
+     * @param status The waitlist status.
+     * @return The topic name.
+     */
+    public static String topic(String eventId, String status) {
+        return PREFIX + eventId + "_" + status;
+    }
+
+    /**
+     * Reads the event id from a status topic.
+     * @param topic The topic name.
+     * @return The event id, null if the topic is not an event status topic.
+     */
+    public static String eventId(String topic) {
+        if (topic == null || !topic.startsWith(PREFIX)) {
+            return null;
+        }
+        for (String status : STATUSES) {
+            String suffix = "_" + status;
+            if (topic.endsWith(suffix) && topic.length() > PREFIX.length() + suffix.length()) {
+                return topic.substring(PREFIX.length(), topic.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Subscribes this device to the topic of its status in an event and unsubscribes it from
+     * the event's other status topics.
+     * @param gateway The push gateway.
+     * @param eventId The event id.
+     * @param status The user's waitlist status, or null once they left the event.
+     * @return Task completing once the subscriptions are updated.
+     */
+    public static Task<Void> sync(PushGateway gateway, String eventId, String status) {
+        String previous = synced.get(eventId);
+        if (status != null && status.equals(previous)) {
+            return Tasks.forResult(null);
+        }
+        List<Task<Void>> changes = new ArrayList<>();
+        if (previous != null) {
+            changes.add(gateway.unsubscribe(topic(eventId, previous)));
+        } else {
+            // Nothing is known about this device's earlier subscriptions, so clear them all
+            for (String other : STATUSES) {
+                if (!other.equals(status)) {
+                    changes.add(gateway.unsubscribe(topic(eventId, other)));
+                }
+            }
+        }
+        if (status != null && STATUSES.contains(status)) {
+            changes.add(gateway.subscribe(topic(eventId, status)));
+            synced.put(eventId, status);
+        } else {
+            synced.remove(eventId);
+        }
+        Task<Void> all = Tasks.whenAll(changes);
+        // A failed change is retried by the next sync
+        all.addOnFailureListener(Runnable::run, e -> synced.remove(eventId));
+        return all;
+    }
+
+    /**
+     * Forgets the synced statuses, e.g. when a test swaps the gateway.
+     */
+    static void forget() {
+        synced.clear();
+    }
+}
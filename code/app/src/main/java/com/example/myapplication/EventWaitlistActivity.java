@@ -1,5 +1,7 @@
 package com.example.myapplication;
 
+import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
@@ -7,19 +9,27 @@ import android.widget.ExpandableListView;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.FileProvider;
 
+import com.example.myapplication.Repositories.EntrantExport;
+import com.example.myapplication.Repositories.GroupEntrants;
+import com.example.myapplication.Repositories.ProfileResolver;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Activity to display user IDs grouped by status for a specific event's waitlist.
+ * Activity to display users grouped by status for a specific event's waitlist.
  */
 public class EventWaitlistActivity extends BaseActivity {
 
@@ -28,6 +38,7 @@ public class EventWaitlistActivity extends BaseActivity {
     private ExpandableListView expandableListView;
     private WaitlistExpandableListAdapter adapter;
     private Button sendNotificationButton;
+    private Button exportButton;
 
     private FirebaseFirestore db;
     private String eventId;
@@ -45,8 +56,9 @@ public class EventWaitlistActivity extends BaseActivity {
 
         expandableListView = findViewById(R.id.expandableListView);
         sendNotificationButton = findViewById(R.id.button_send_notifications);
+        exportButton = findViewById(R.id.button_export_entrants);
 
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
 
         // Get eventId and eventName from intent
         eventId = getIntent().getStringExtra("eventId");
@@ -62,7 +74,7 @@ public class EventWaitlistActivity extends BaseActivity {
         listGroupTitles = new ArrayList<>();
         listData = new HashMap<>();
 
-        adapter = new WaitlistExpandableListAdapter(this, listGroupTitles, listData);
+        adapter = new WaitlistExpandableListAdapter(this, listGroupTitles, listData, ProfileResolver.shared());
         expandableListView.setAdapter(adapter);
 
         fetchWaitlistData();
@@ -70,6 +82,59 @@ public class EventWaitlistActivity extends BaseActivity {
         sendNotificationButton.setOnClickListener(v -> {
             sendNotificationsToSelectedGroups();
         });
+        exportButton.setOnClickListener(v -> chooseExportFormat());
+    }
+
+    /**
+     * Asks for the export file format, then exports the selected status groups.
+     */
+    private void chooseExportFormat() {
+        EntrantExport.Format[] formats = EntrantExport.Format.values();
+        String[] labels = new String[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            labels[i] = formats[i].name();
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Export format")
+                .setItems(labels, (dialog, which) -> exportEntrants(formats[which]))
+                .show();
+    }
+
+    /**
+     * Exports the entrants of the selected status groups, or all entrants if none is selected,
+     * and shares the file. The export reads the waitlist page by page, not the list shown here.
+     */
+    private void exportEntrants(EntrantExport.Format format) {
+        List<String> statuses = adapter.getSelectedGroups();
+        File directory = new File(getCacheDir(), "exports");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Toast.makeText(this, "Failed to export entrants", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        // One file per event and format, replaced by the next export
+        File file = new File(directory, "entrants-" + eventId + "." + format.extension);
+        exportButton.setEnabled(false);
+        Toast.makeText(this, "Exporting entrants…", Toast.LENGTH_SHORT).show();
+        EntrantExport.export(db, eventId, statuses, format, file, "EventWaitlistActivity.exportEntrants")
+                .addOnSuccessListener(this, written -> {
+                    Log.d(TAG, "Exported " + written + " entrants to " + file);
+                    shareExport(file, format);
+                })
+                .addOnFailureListener(this, e -> {
+                    Log.e(TAG, "Failed to export entrants for event " + eventId, e);
+                    Toast.makeText(this, "Failed to export entrants", Toast.LENGTH_SHORT).show();
+                })
+                .addOnCompleteListener(this, task -> exportButton.setEnabled(true));
+    }
+
+    private void shareExport(File file, EntrantExport.Format format) {
+        Uri uri = FileProvider.getUriForFile(this, getPackageName() + ".fileprovider", file);
+        Intent share = new Intent(Intent.ACTION_SEND)
+                .setType(format.mimeType)
+                .putExtra(Intent.EXTRA_STREAM, uri)
+                .putExtra(Intent.EXTRA_SUBJECT, "Entrants of " + eventName)
+                .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        startActivity(Intent.createChooser(share, "Share entrants"));
     }
 
     /**
@@ -78,7 +143,7 @@ public class EventWaitlistActivity extends BaseActivity {
     private void fetchWaitlistData() {
         Log.d(TAG, "Fetching waitlist data for eventId: " + eventId);
         CollectionReference waitlistRef = db.collection("Events").document(eventId).collection("Waitlist");
-        waitlistRef.get()
+        FirestoreGateway.get(waitlistRef, "EventWaitlistActivity.fetchWaitlistData")
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     Log.d(TAG, "Fetched " + queryDocumentSnapshots.size() + " users from Waitlist");
                     Map<String, List<String>> statusGroups = new HashMap<>();
@@ -90,6 +155,8 @@ public class EventWaitlistActivity extends BaseActivity {
                         String userId = doc.getId();
                         String status = doc.getString("status");
                         Log.d(TAG, "UserID: " + userId + ", Status: " + status);
+                        // Entries carry the name copied at sign-up, so only older ones read a profile
+                        ProfileResolver.shared().prime(userId, doc.getString("userName"));
                         if (status != null && statusGroups.containsKey(status)) {
                             statusGroups.get(status).add(userId);
                         } else {
@@ -125,7 +192,8 @@ public class EventWaitlistActivity extends BaseActivity {
     }
 
     /**
-     * Sends notifications to the selected status groups.
+     * Sends an announcement to each selected status group: one topic send, and an inbox
+     * notification for each entrant of the group who allows notifications.
      */
     private void sendNotificationsToSelectedGroups() {
         List<String> selectedGroups = adapter.getSelectedGroups();
@@ -138,6 +206,7 @@ public class EventWaitlistActivity extends BaseActivity {
             return;
         }
 
+        List<Task<?>> sends = new ArrayList<>();
         for (String status : selectedGroups) {
             List<String> userIds = listData.get(status);
             if (userIds == null || userIds.isEmpty()) {
@@ -166,28 +235,31 @@ public class EventWaitlistActivity extends BaseActivity {
                     continue;
             }
 
-            Log.d(TAG, "Sending notifications to status group: " + status + " with " + userIds.size() + " users");
-
-            for (String userId : userIds) {
-                sendNotificationToUser(userId, title, message);
+            Log.d(TAG, "Sending announcement to status group: " + status + " with " + userIds.size() + " users");
+            if (BuildConfig.TOPIC_RELAY) {
+                // One topic send reaches every device subscribed to this status group, the relay delivers it
+                sends.add(FirebaseServices.push().sendToTopic(EventTopics.topic(eventId, status), title, message)
+                        .addOnFailureListener(e -> Log.e(TAG, "Failed to send announcement to " + status, e)));
+            } else {
+                // Without a relay nothing reads topicMessages, so each entrant gets an inbox notification
+                sends.add(GroupEntrants.notifyGroup(db, eventId, status, title, message,
+                                "EventWaitlistActivity.sendNotificationsToSelectedGroups")
+                        .addOnFailureListener(e -> Log.e(TAG, "Failed to notify status group " + status, e)));
             }
         }
+        if (sends.isEmpty()) {
+            return;
+        }
 
-        Toast.makeText(this, "Notifications sent", Toast.LENGTH_SHORT).show();
-    }
-
-    /**
-     * Sends a notification to a single user.
-     *
-     * @param userId  The ID of the user.
-     * @param title   The title of the notification.
-     * @param message The message content of the notification.
-     */
-    private void sendNotificationToUser(String userId, String title, String message) {
-        Map<String, Object> user = new HashMap<>();
-        user.put("userId", userId);
-
-        NotificationService.sendNotification(user, this, title, message);
-        Log.d(TAG, "Notification sent to userId: " + userId);
+        sendNotificationButton.setEnabled(false);
+        Tasks.whenAllComplete(sends).addOnCompleteListener(this, done -> {
+            sendNotificationButton.setEnabled(true);
+            boolean failed = false;
+            for (Task<?> send : done.getResult()) {
+                failed |= !send.isSuccessful();
+            }
+            Toast.makeText(this, failed ? "Some notifications failed to send" : "Notifications sent",
+                    Toast.LENGTH_SHORT).show();
+        });
     }
 }
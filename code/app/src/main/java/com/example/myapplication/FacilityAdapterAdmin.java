@@ -37,7 +37,7 @@ public class FacilityAdapterAdmin extends RecyclerView.Adapter<FacilityAdapterAd
     public FacilityAdapterAdmin(Context context, List<Facility> facilityList) {
         this.context = context;
         this.facilityList = facilityList;
-        this.db = FirebaseFirestore.getInstance();
+        this.db = FirebaseServices.firestore();
     }
 
     /**
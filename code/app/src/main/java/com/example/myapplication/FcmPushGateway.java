@@ -0,0 +1,53 @@
+package com.example.myapplication;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Push gateway backed by Firebase Cloud Messaging. Subscriptions go straight to FCM.
+ * Sending to a topic needs the project's server credentials, which must not ship in the app,
+ * so a send writes one message to the topicMessages collection and the backend relay forwards
+ * it to the FCM topic, with the title, message and event id as data. Only builds made with
+ * -PtopicRelay=true send to topics, see {@link BuildConfig#TOPIC_RELAY}. Each message gets an
+ * expiresAt like a notification, which a TTL policy in firestore.indexes.json deletes by.
+ */
+public class FcmPushGateway implements PushGateway {
+
+    // Messages waiting for the relay, one document per topic send
+    public static final String OUTBOX_COLLECTION = "topicMessages";
+
+    @Override
+    public Task<Void> subscribe(String topic) {
+        return FirebaseMessaging.getInstance().subscribeToTopic(topic);
+    }
+
+    @Override
+    public Task<Void> unsubscribe(String topic) {
+        return FirebaseMessaging.getInstance().unsubscribeFromTopic(topic);
+    }
+
+    @Override
+    public Task<Void> sendToTopic(String topic, String title, String message) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("topic", topic);
+        data.put("title", title);
+        data.put("message", message);
+        // Forwarded in the message data, so the notification opens the event
+        String eventId = EventTopics.eventId(topic);
+        if (eventId != null) {
+            data.put(NotificationService.FIELD_EVENT_ID, eventId);
+        }
+        data.put("createdAt", FieldValue.serverTimestamp());
+        data.put(NotificationService.FIELD_EXPIRES_AT,
+                new Timestamp(new Date(System.currentTimeMillis() + NotificationService.EXPIRES_AFTER_MS)));
+        return FirestoreGateway.add(FirebaseServices.firestore().collection(OUTBOX_COLLECTION), data,
+                "FcmPushGateway.sendToTopic").onSuccessTask(ref -> Tasks.<Void>forResult(null));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.myapplication;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.storage.FirebaseStorage;
+
+/**
+ * Single access point for the Firebase services used by the app.
+ * Firestore is configured and warmed at startup by {@link FirestoreInitializer}, so classes should
+ * get their instances from here instead of looking them up themselves.
+ */
+public final class FirebaseServices {
+
+    private static PushGateway push;
+
+    private FirebaseServices() {
+    }
+
+    /**
+     * Getter for the shared Firestore instance.
+     * @return The default FirebaseFirestore instance.
+     */
+    public static FirebaseFirestore firestore() {
+        return FirebaseFirestore.getInstance();
+    }
+
+    /**
+     * Getter for the shared Storage instance.
+     * @return The default FirebaseStorage instance.
+     */
+    public static FirebaseStorage storage() {
+        return FirebaseStorage.getInstance();
+    }
+
+    /**
+     * Getter for the shared Auth instance.
+     * @return The default FirebaseAuth instance.
+     */
+    public static FirebaseAuth auth() {
+        return FirebaseAuth.getInstance();
+    }
+
+    /**
+     * Getter for the shared push gateway.
+     * @return The FCM gateway, unless a test replaced it.
+     */
+    public static synchronized PushGateway push() {
+        if (push == null) {
+            push = new FcmPushGateway();
+        }
+        return push;
+    }
+
+    /**
+     * Replaces the push gateway, e.g. with an in-memory one so tests run offline.
+     * @param gateway The gateway to use, null to go back to FCM.
+     */
+    static synchronized void setPush(PushGateway gateway) {
+        push = gateway;
+        EventTopics.forget();
+    }
+}
@@ -0,0 +1,471 @@
+package com.example.myapplication;
+
+import android.os.SystemClock;
+
+import com.example.myapplication.Repositories.Async;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuery;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.GeoPoint;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Instrumented entry point for Firestore reads and writes. Each method issues the same call the
+ * caller would have made and records documents, estimated bytes, cache or server source and
+ * latency in {@link FirestoreMetrics}, tagged with the current screen and the given call site.
+ * Bytes read are estimated in debug builds only.
+ * The returned tasks are the SDK's own, so callers attach their listeners as before.
+ * Identical reads issued close together share one task through {@link SingleFlight}, and every
+ * write clears the shared reads.
+ */
+public final class FirestoreGateway {
+
+    private static final SingleFlight sharedReads = new SingleFlight();
+
+    // Sizing a read deserializes every document on the main thread, so release builds count documents only
+    private static final boolean MEASURE_READ_BYTES = BuildConfig.DEBUG;
+
+    private FirestoreGateway() {
+    }
+
+    /**
+     * Runs a query against the server or cache, whichever the SDK picks.
+     * @param query The query to run.
+     * @param callSite Name of the calling code, e.g. "HomeRepository.fetchWaitlistEvents".
+     * @return The query task.
+     */
+    public static Task<QuerySnapshot> get(Query query, String callSite) {
+        return sharedReads.run(new ReadKey(query, Source.DEFAULT),
+                () -> recordQuery(query.get(), callSite), () -> recordShared(callSite));
+    }
+
+    /**
+     * Runs a query against the given source.
+     * @param query The query to run.
+     * @param source Where to read from.
+     * @param callSite Name of the calling code.
+     * @return The query task.
+     */
+    public static Task<QuerySnapshot> get(Query query, Source source, String callSite) {
+        return sharedReads.run(new ReadKey(query, source),
+                () -> recordQuery(query.get(source), callSite), () -> recordShared(callSite));
+    }
+
+    private static Task<QuerySnapshot> recordQuery(Task<QuerySnapshot> query, String callSite) {
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        return query.addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (!task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+                return;
+            }
+            QuerySnapshot snapshot = task.getResult();
+            long bytes = 0;
+            if (MEASURE_READ_BYTES) {
+                for (DocumentSnapshot document : snapshot.getDocuments()) {
+                    bytes += estimateSize(document);
+                }
+            }
+            // A query that matches nothing is still billed as one read
+            int documents = Math.max(1, snapshot.size());
+            FirestoreMetrics.getInstance().recordRead(screen, callSite, documents, bytes,
+                    snapshot.getMetadata().isFromCache(), latency);
+        });
+    }
+
+    /**
+     * Reads a single document.
+     * @param document The document to read.
+     * @param callSite Name of the calling code.
+     * @return The read task.
+     */
+    public static Task<DocumentSnapshot> get(DocumentReference document, String callSite) {
+        return sharedReads.run(new ReadKey(document, Source.DEFAULT),
+                () -> recordDocument(document.get(), callSite), () -> recordShared(callSite));
+    }
+
+    /**
+     * Reads a single document from the given source.
+     * @param document The document to read.
+     * @param source Where to read from.
+     * @param callSite Name of the calling code.
+     * @return The read task.
+     */
+    public static Task<DocumentSnapshot> get(DocumentReference document, Source source, String callSite) {
+        return sharedReads.run(new ReadKey(document, source),
+                () -> recordDocument(document.get(source), callSite), () -> recordShared(callSite));
+    }
+
+    private static Task<DocumentSnapshot> recordDocument(Task<DocumentSnapshot> read, String callSite) {
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        return read.addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (!task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+                return;
+            }
+            DocumentSnapshot snapshot = task.getResult();
+            FirestoreMetrics.getInstance().recordRead(screen, callSite, 1,
+                    MEASURE_READ_BYTES ? estimateSize(snapshot) : 0, snapshot.getMetadata().isFromCache(), latency);
+        });
+    }
+
+    /**
+     * Runs a query under a read policy.
+     * @param query The query to run.
+     * @param policy Where the query is served from.
+     * @param callSite Name of the calling code.
+     * @return The query task, answered by the server unless the policy says otherwise.
+     */
+    public static Task<QuerySnapshot> get(Query query, ReadPolicy policy, String callSite) {
+        return get(query, policy, null, callSite);
+    }
+
+    /**
+     * Runs a query under a read policy, delivering the cached result first.
+     * @param query The query to run.
+     * @param policy Where the query is served from.
+     * @param onCached Receives the cached result first under {@link ReadPolicy#CACHE_THEN_SERVER},
+     *                 if the cache holds any matching documents; may be null.
+     * @param callSite Name of the calling code.
+     * @return The query task, answered by the server unless the policy says otherwise.
+     */
+    public static Task<QuerySnapshot> get(Query query, ReadPolicy policy,
+                                          OnSuccessListener<? super QuerySnapshot> onCached, String callSite) {
+        if (!policy.readsCacheFirst()) {
+            return get(query, policy.source(), callSite);
+        }
+        return get(query, Source.CACHE, callSite + ".cache").continueWithTask(cached -> {
+            boolean hit = cached.isSuccessful() && !cached.getResult().isEmpty();
+            if (hit && onCached != null) {
+                onCached.onSuccess(cached.getResult());
+            }
+            return orCached(get(query, Source.SERVER, callSite), hit ? cached : null);
+        });
+    }
+
+    /**
+     * Reads a single document under a read policy.
+     * @param document The document to read.
+     * @param policy Where the document is served from.
+     * @param callSite Name of the calling code.
+     * @return The read task, answered by the server unless the policy says otherwise.
+     */
+    public static Task<DocumentSnapshot> get(DocumentReference document, ReadPolicy policy, String callSite) {
+        return get(document, policy, null, callSite);
+    }
+
+    /**
+     * Reads a single document under a read policy, delivering the cached copy first.
+     * @param document The document to read.
+     * @param policy Where the document is served from.
+     * @param onCached Receives the cached copy first under {@link ReadPolicy#CACHE_THEN_SERVER},
+     *                 if the cache holds the document; may be null.
+     * @param callSite Name of the calling code.
+     * @return The read task, answered by the server unless the policy says otherwise.
+     */
+    public static Task<DocumentSnapshot> get(DocumentReference document, ReadPolicy policy,
+                                             OnSuccessListener<? super DocumentSnapshot> onCached, String callSite) {
+        if (!policy.readsCacheFirst()) {
+            return get(document, policy.source(), callSite);
+        }
+        return get(document, Source.CACHE, callSite + ".cache").continueWithTask(cached -> {
+            boolean hit = cached.isSuccessful() && cached.getResult().exists();
+            if (hit && onCached != null) {
+                onCached.onSuccess(cached.getResult());
+            }
+            return orCached(get(document, Source.SERVER, callSite), hit ? cached : null);
+        });
+    }
+
+    // The server's result, or the cached one when the server cannot be reached
+    private static <T> Task<T> orCached(Task<T> server, Task<T> cached) {
+        if (cached == null) {
+            return server;
+        }
+        return server.continueWithTask(task -> task.isSuccessful() ? task : cached);
+    }
+
+    /**
+     * Counts the documents matching a query on the server without downloading them.
+     * Billed as one read per 1000 matching index entries.
+     * @param query The query to count.
+     * @param callSite Name of the calling code.
+     * @return The count task.
+     */
+    public static Task<Long> count(Query query, String callSite) {
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        return query.count().get(AggregateSource.SERVER).continueWith(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (!task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+                throw Async.failure(task);
+            }
+            long count = task.getResult().getCount();
+            int reads = (int) Math.max(1, (count + 999) / 1000);
+            FirestoreMetrics.getInstance().recordRead(screen, callSite, reads, 0, false, latency);
+            return count;
+        });
+    }
+
+    /**
+     * Computes aggregations over the documents matching a query on the server without
+     * downloading them. The count is always included, as it gives the billed reads: one per
+     * 1000 matching index entries.
+     * @param query The query to aggregate.
+     * @param callSite Name of the calling code.
+     * @param fields The sums and averages to compute besides the count.
+     * @return The aggregation task, read the count with {@link AggregateField#count()}.
+     */
+    public static Task<AggregateQuerySnapshot> aggregate(Query query, String callSite, AggregateField... fields) {
+        AggregateField[] all = new AggregateField[fields.length + 1];
+        all[0] = AggregateField.count();
+        System.arraycopy(fields, 0, all, 1, fields.length);
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        AggregateQuery aggregation = fields.length == 0
+                ? query.count()
+                : query.aggregate(all[0], Arrays.copyOfRange(all, 1, all.length));
+        return aggregation.get(AggregateSource.SERVER).continueWith(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (!task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+                throw Async.failure(task);
+            }
+            long count = task.getResult().getCount();
+            int reads = (int) Math.max(1, (count + 999) / 1000);
+            FirestoreMetrics.getInstance().recordRead(screen, callSite, reads, 0, false, latency);
+            return task.getResult();
+        });
+    }
+
+    /**
+     * Overwrites a document.
+     * @param document The document to write.
+     * @param data A map or model object.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> set(DocumentReference document, Object data, String callSite) {
+        return record(document.set(data), 1, estimateValueSize(data), callSite);
+    }
+
+    /**
+     * Writes a document with the given options, e.g. a merge.
+     * @param document The document to write.
+     * @param data A map or model object.
+     * @param options The set options.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> set(DocumentReference document, Object data, SetOptions options, String callSite) {
+        return record(document.set(data, options), 1, estimateValueSize(data), callSite);
+    }
+
+    /**
+     * Updates a single field of a document.
+     * @param document The document to update.
+     * @param field The field to update.
+     * @param value The new value.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> update(DocumentReference document, String field, Object value, String callSite) {
+        return record(document.update(field, value), 1, field.length() + 1 + estimateValueSize(value), callSite);
+    }
+
+    /**
+     * Updates several fields of a document.
+     * @param document The document to update.
+     * @param fields The fields to update and their new values.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> update(DocumentReference document, Map<String, Object> fields, String callSite) {
+        return record(document.update(fields), 1, estimateValueSize(fields), callSite);
+    }
+
+    /**
+     * Deletes a document.
+     * @param document The document to delete.
+     * @param callSite Name of the calling code.
+     * @return The delete task.
+     */
+    public static Task<Void> delete(DocumentReference document, String callSite) {
+        return record(document.delete(), 1, 0, callSite);
+    }
+
+    /**
+     * Adds a document with a generated id.
+     * @param collection The collection to add to.
+     * @param data A map or model object.
+     * @param callSite Name of the calling code.
+     * @return The add task.
+     */
+    public static Task<DocumentReference> add(CollectionReference collection, Object data, String callSite) {
+        return record(collection.add(data), 1, estimateValueSize(data), callSite);
+    }
+
+    /**
+     * Commits a batch.
+     * @param batch The batch to commit.
+     * @param documents The number of writes in the batch.
+     * @param callSite Name of the calling code.
+     * @return The commit task.
+     */
+    public static Task<Void> commit(WriteBatch batch, int documents, String callSite) {
+        return record(batch.commit(), documents, 0, callSite);
+    }
+
+    /**
+     * Runs a transaction. The SDK does not expose what a transaction touched, so the caller
+     * passes the number of documents it reads and writes on a successful attempt.
+     * @param db The Firestore instance.
+     * @param reads The number of documents read by the transaction.
+     * @param writes The number of documents written by the transaction.
+     * @param function The transaction body.
+     * @param callSite Name of the calling code.
+     * @return The transaction task.
+     */
+    public static <T> Task<T> runTransaction(FirebaseFirestore db, int reads, int writes,
+                                             Transaction.Function<T> function, String callSite) {
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        sharedReads.invalidateAll();
+        return db.runTransaction(function).addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordTransaction(screen, callSite, reads, writes, latency);
+            } else {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+            }
+        });
+    }
+
+    private static void recordShared(String callSite) {
+        FirestoreMetrics.getInstance().recordShared(FirestoreMetrics.getInstance().getCurrentScreen(), callSite);
+    }
+
+    private static <T> Task<T> record(Task<T> write, int documents, long bytes, String callSite) {
+        // Reads shared from before this write could be stale once it lands
+        sharedReads.invalidateAll();
+        String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+        long start = SystemClock.elapsedRealtime();
+        return write.addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (task.isSuccessful()) {
+                FirestoreMetrics.getInstance().recordWrite(screen, callSite, documents, bytes, latency);
+            } else {
+                FirestoreMetrics.getInstance().recordFailure(screen, callSite, latency);
+            }
+        });
+    }
+
+    /**
+     * Estimates the stored size of a document using Firestore's storage size rules.
+     * @param document The document snapshot.
+     * @return The estimated size in bytes, 0 for a missing document.
+     */
+    static long estimateSize(DocumentSnapshot document) {
+        if (!document.exists()) {
+            return 0;
+        }
+        // Document name plus the fixed per-document overhead
+        long size = document.getReference().getPath().length() + 1 + 16 + 32;
+        Map<String, Object> data = document.getData();
+        return data == null ? size : size + estimateValueSize(data);
+    }
+
+    /**
+     * Estimates the stored size of a field value. Model objects are not inspected and count as 0.
+     * @param value The value.
+     * @return The estimated size in bytes.
+     */
+    static long estimateValueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() + 1;
+        }
+        if (value instanceof Number || value instanceof Date || value instanceof Timestamp) {
+            return 8;
+        }
+        if (value instanceof GeoPoint) {
+            return 16;
+        }
+        if (value instanceof Blob) {
+            return ((Blob) value).toBytes().length;
+        }
+        if (value instanceof DocumentReference) {
+            return ((DocumentReference) value).getPath().length() + 1 + 16;
+        }
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + 1 + estimateValueSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 0;
+            for (Object element : (Collection<?>) value) {
+                size += estimateValueSize(element);
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    /**
+     * Identifies a read: the document or query, which implement equals, and where it reads from.
+     */
+    private static final class ReadKey {
+        private final Object target;
+        private final Source source;
+
+        ReadKey(Object target, Source source) {
+            this.target = target;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ReadKey)) {
+                return false;
+            }
+            ReadKey other = (ReadKey) o;
+            return target.equals(other.target) && source == other.source;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * target.hashCode() + source.hashCode();
+        }
+    }
+}
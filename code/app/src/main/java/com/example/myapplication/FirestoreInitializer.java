@@ -0,0 +1,77 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Source;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * App Startup initializer for Firestore, the one place its settings are applied. Applies the
+ * emulator setting and the persistent cache size, then opens the local cache on a background
+ * thread, so the first query from the home page does not pay for it on the main thread.
+ * It runs in every process start, including the ones WorkManager makes for background jobs, so
+ * it reads nothing from the server; {@link MainActivity} warms the cache on launch.
+ */
+public class FirestoreInitializer implements Initializer<Void> {
+    private static final String TAG = "FirestoreInitializer";
+
+    // Event documents are a few KB and posters live in Glide's cache, so this holds thousands of events
+    static final long CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+
+    private static final Executor warmExecutor = Executors.newSingleThreadExecutor();
+
+    @Override
+    public Void create(@NonNull Context context) {
+        if (FirebaseApp.getApps(context).isEmpty()) {
+            // No google-services config (e.g. local unit tests), nothing to warm
+            Log.d(TAG, "FirebaseApp not initialized, skipping Firestore warm up");
+            return null;
+        }
+
+        FirebaseFirestore db = FirebaseServices.firestore();
+
+        // Benchmark builds can be pointed at a local Firestore emulator (see app/build.gradle.kts)
+        if (!BuildConfig.FIRESTORE_EMULATOR_HOST.isEmpty()) {
+            db.useEmulator(BuildConfig.FIRESTORE_EMULATOR_HOST, BuildConfig.FIRESTORE_EMULATOR_PORT);
+            Log.d(TAG, "Using Firestore emulator at " + BuildConfig.FIRESTORE_EMULATOR_HOST);
+        }
+
+        // Settings only apply before the first operation
+        db.setFirestoreSettings(settings());
+
+        // The first operation starts the client and opens the persistence layer, do that off the main thread
+        warmExecutor.execute(() -> db.collection("Events").limit(1).get(Source.CACHE));
+        return null;
+    }
+
+    /**
+     * Builds the Firestore settings: a persistent cache of {@link #CACHE_SIZE_BYTES}, which the
+     * SDK trims to size by evicting the least recently used documents.
+     * @return The settings for the shared instance.
+     */
+    static FirebaseFirestoreSettings settings() {
+        return new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(CACHE_SIZE_BYTES)
+                        .build())
+                .build();
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
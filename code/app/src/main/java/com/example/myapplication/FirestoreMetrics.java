@@ -0,0 +1,330 @@
+package com.example.myapplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory accounting of Firestore usage, filled in by {@link FirestoreGateway}.
+ * Every operation is tagged with the screen that was in front when it started and the call site
+ * that issued it, so the report shows which screens cost the most reads.
+ */
+public final class FirestoreMetrics {
+
+    // Upper bounds of the latency histogram buckets, the last bucket is open ended
+    static final long[] LATENCY_BUCKETS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private static final FirestoreMetrics INSTANCE = new FirestoreMetrics();
+
+    private final Map<String, CallSiteStats> stats = new LinkedHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile String currentScreen = "unknown";
+
+    FirestoreMetrics() {
+    }
+
+    /**
+     * Getter for the process-wide metrics.
+     * @return The shared FirestoreMetrics instance.
+     */
+    public static FirestoreMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the screen that new operations are tagged with.
+     * @param screen The screen name, e.g. "EventDetailsActivity/AttendeesFragment".
+     */
+    public void setCurrentScreen(String screen) {
+        currentScreen = screen;
+        notifyListeners();
+    }
+
+    /**
+     * Getter for the screen that new operations are tagged with.
+     * @return The current screen name.
+     */
+    public String getCurrentScreen() {
+        return currentScreen;
+    }
+
+    /**
+     * Records a finished read.
+     * @param screen The screen the read was started from.
+     * @param callSite The code that issued the read.
+     * @param documents The number of documents returned.
+     * @param bytes The estimated size of the returned documents.
+     * @param fromCache True if the result came from the local cache.
+     * @param latencyMs The time from issuing the read to its result.
+     */
+    public void recordRead(String screen, String callSite, int documents, long bytes, boolean fromCache, long latencyMs) {
+        synchronized (this) {
+            CallSiteStats entry = entryFor(screen, callSite);
+            entry.calls++;
+            entry.bytes += bytes;
+            if (fromCache) {
+                entry.cacheReads += documents;
+            } else {
+                entry.serverReads += documents;
+            }
+            entry.addLatency(latencyMs);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Records a finished write.
+     * @param screen The screen the write was started from.
+     * @param callSite The code that issued the write.
+     * @param documents The number of documents written.
+     * @param bytes The estimated size of the written data.
+     * @param latencyMs The time from issuing the write to its acknowledgement.
+     */
+    public void recordWrite(String screen, String callSite, int documents, long bytes, long latencyMs) {
+        synchronized (this) {
+            CallSiteStats entry = entryFor(screen, callSite);
+            entry.calls++;
+            entry.writes += documents;
+            entry.bytes += bytes;
+            entry.addLatency(latencyMs);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Records a finished transaction. Transaction reads always go to the server.
+     * @param screen The screen the transaction was started from.
+     * @param callSite The code that ran the transaction.
+     * @param reads The number of documents read.
+     * @param writes The number of documents written.
+     * @param latencyMs The time from starting the transaction to its commit.
+     */
+    public void recordTransaction(String screen, String callSite, int reads, int writes, long latencyMs) {
+        synchronized (this) {
+            CallSiteStats entry = entryFor(screen, callSite);
+            entry.calls++;
+            entry.serverReads += reads;
+            entry.writes += writes;
+            entry.addLatency(latencyMs);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Records a read that was served by an identical read already in flight or just finished,
+     * so it cost nothing.
+     * @param screen The screen the read was started from.
+     * @param callSite The code that issued the read.
+     */
+    public void recordShared(String screen, String callSite) {
+        synchronized (this) {
+            entryFor(screen, callSite).shared++;
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Records an operation that failed.
+     * @param screen The screen the operation was started from.
+     * @param callSite The code that issued the operation.
+     * @param latencyMs The time until the failure was reported.
+     */
+    public void recordFailure(String screen, String callSite, long latencyMs) {
+        synchronized (this) {
+            CallSiteStats entry = entryFor(screen, callSite);
+            entry.calls++;
+            entry.failures++;
+            entry.addLatency(latencyMs);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Returns the totals for one screen, summed over its call sites.
+     * @param screen The screen name.
+     * @return The totals, all zero if the screen has not touched Firestore.
+     */
+    public synchronized CallSiteStats getScreenTotals(String screen) {
+        CallSiteStats totals = new CallSiteStats(screen, "*");
+        for (CallSiteStats entry : stats.values()) {
+            if (entry.screen.equals(screen)) {
+                totals.add(entry);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Returns a copy of the stats for every screen and call site.
+     * @return The recorded stats.
+     */
+    public synchronized List<CallSiteStats> getStats() {
+        List<CallSiteStats> copy = new ArrayList<>();
+        for (CallSiteStats entry : stats.values()) {
+            CallSiteStats entryCopy = new CallSiteStats(entry.screen, entry.callSite);
+            entryCopy.add(entry);
+            copy.add(entryCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Builds a plain text report with one line per call site, grouped by screen and ordered by
+     * server reads so the most expensive screens come first.
+     * @return The report.
+     */
+    public synchronized String report() {
+        Map<String, CallSiteStats> screenTotals = new LinkedHashMap<>();
+        for (CallSiteStats entry : stats.values()) {
+            CallSiteStats totals = screenTotals.get(entry.screen);
+            if (totals == null) {
+                totals = new CallSiteStats(entry.screen, "*");
+                screenTotals.put(entry.screen, totals);
+            }
+            totals.add(entry);
+        }
+        List<CallSiteStats> screens = new ArrayList<>(screenTotals.values());
+        Collections.sort(screens, (a, b) -> Long.compare(b.serverReads, a.serverReads));
+
+        StringBuilder report = new StringBuilder("Firestore usage\n");
+        report.append(String.format(Locale.US, "%-60s %6s %7s %7s %6s %7s %10s %5s %6s %6s %6s%n",
+                "screen / call site", "calls", "reads", "cached", "shared", "writes", "bytes", "fail", "p50ms", "p95ms", "maxms"));
+        for (CallSiteStats screen : screens) {
+            appendLine(report, screen.screen, screen);
+            for (CallSiteStats entry : stats.values()) {
+                if (entry.screen.equals(screen.screen)) {
+                    appendLine(report, "  " + entry.callSite, entry);
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Clears all recorded stats.
+     */
+    public void reset() {
+        synchronized (this) {
+            stats.clear();
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Registers a callback that runs whenever the stats or the current screen change.
+     * @param listener The callback, run on the thread that recorded the change.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a callback added with {@link #addListener(Runnable)}.
+     * @param listener The callback to remove.
+     */
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private CallSiteStats entryFor(String screen, String callSite) {
+        String key = screen + " " + callSite;
+        CallSiteStats entry = stats.get(key);
+        if (entry == null) {
+            entry = new CallSiteStats(screen, callSite);
+            stats.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private static void appendLine(StringBuilder report, String label, CallSiteStats entry) {
+        report.append(String.format(Locale.US, "%-60s %6d %7d %7d %6d %7d %10d %5d %6s %6s %6d%n",
+                label, entry.calls, entry.serverReads, entry.cacheReads, entry.shared, entry.writes, entry.bytes, entry.failures,
+                formatBucket(entry.percentileMs(0.5)), formatBucket(entry.percentileMs(0.95)), entry.maxLatencyMs));
+    }
+
+    private static String formatBucket(long upperBoundMs) {
+        if (upperBoundMs == 0) {
+            return "-";
+        }
+        return upperBoundMs == Long.MAX_VALUE ? ">" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] : "<" + upperBoundMs;
+    }
+
+    /**
+     * Counters and latency histogram for one screen and call site.
+     */
+    public static final class CallSiteStats {
+        public final String screen;
+        public final String callSite;
+        public long calls;
+        public long serverReads;
+        public long cacheReads;
+        public long shared;
+        public long writes;
+        public long bytes;
+        public long failures;
+        public long maxLatencyMs;
+        public final long[] latencyBuckets = new long[LATENCY_BUCKETS_MS.length + 1];
+
+        CallSiteStats(String screen, String callSite) {
+            this.screen = screen;
+            this.callSite = callSite;
+        }
+
+        void addLatency(long latencyMs) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_MS.length && latencyMs > LATENCY_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets[bucket]++;
+            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+        }
+
+        void add(CallSiteStats other) {
+            calls += other.calls;
+            serverReads += other.serverReads;
+            cacheReads += other.cacheReads;
+            shared += other.shared;
+            writes += other.writes;
+            bytes += other.bytes;
+            failures += other.failures;
+            maxLatencyMs = Math.max(maxLatencyMs, other.maxLatencyMs);
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                latencyBuckets[i] += other.latencyBuckets[i];
+            }
+        }
+
+        /**
+         * Returns the upper bound of the histogram bucket holding the given percentile.
+         * @param percentile A value between 0 and 1.
+         * @return The bucket bound in ms, Long.MAX_VALUE for the open ended bucket, 0 if empty.
+         */
+        public long percentileMs(double percentile) {
+            long total = 0;
+            for (long count : latencyBuckets) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= target) {
+                    return i < LATENCY_BUCKETS_MS.length ? LATENCY_BUCKETS_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.myapplication;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.startup.Initializer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * App Startup initializer that keeps {@link FirestoreMetrics} tagged with the screen in front.
+ * The screen is the resumed activity, plus the last resumed fragment inside it.
+ * Builds made with -PfirestoreMetricsOverlay=true also show a small read/write counter on every screen.
+ */
+public class FirestoreMetricsInitializer implements Initializer<FirestoreMetrics> {
+    private static final String TAG = "FirestoreMetrics";
+
+    @NonNull
+    @Override
+    public FirestoreMetrics create(@NonNull Context context) {
+        Application application = (Application) context.getApplicationContext();
+        application.registerActivityLifecycleCallbacks(new ScreenTracker());
+        return FirestoreMetrics.getInstance();
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+
+    private static final class ScreenTracker implements Application.ActivityLifecycleCallbacks {
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            if (activity instanceof FragmentActivity) {
+                ((FragmentActivity) activity).getSupportFragmentManager()
+                        .registerFragmentLifecycleCallbacks(new FragmentTracker(activity), false);
+            }
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            FirestoreMetrics.getInstance().setCurrentScreen(activity.getClass().getSimpleName());
+            if (BuildConfig.FIRESTORE_METRICS_OVERLAY) {
+                MetricsOverlay.attach(activity);
+            }
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+            if (BuildConfig.FIRESTORE_METRICS_OVERLAY) {
+                MetricsOverlay.detach(activity);
+            }
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+
+    private static final class FragmentTracker extends FragmentManager.FragmentLifecycleCallbacks {
+        private final Activity activity;
+
+        FragmentTracker(Activity activity) {
+            this.activity = activity;
+        }
+
+        @Override
+        public void onFragmentResumed(@NonNull FragmentManager fm, @NonNull Fragment fragment) {
+            FirestoreMetrics.getInstance().setCurrentScreen(
+                    activity.getClass().getSimpleName() + "/" + fragment.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Debug counter pinned to the bottom of the screen. Tap it to log the full report.
+     */
+    private static final class MetricsOverlay implements Runnable {
+        private final TextView view;
+
+        private MetricsOverlay(TextView view) {
+            this.view = view;
+        }
+
+        static void attach(Activity activity) {
+            ViewGroup content = activity.findViewById(android.R.id.content);
+            if (content == null || content.findViewById(R.id.firestore_metrics_overlay) != null) {
+                return;
+            }
+            TextView view = new TextView(activity);
+            view.setId(R.id.firestore_metrics_overlay);
+            view.setTextSize(10);
+            view.setTextColor(Color.WHITE);
+            view.setBackgroundColor(0x99000000);
+            view.setPadding(8, 4, 8, 4);
+            view.setOnClickListener(v -> Log.i(TAG, FirestoreMetrics.getInstance().report()));
+            content.addView(view, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                    ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.BOTTOM | Gravity.START));
+
+            MetricsOverlay overlay = new MetricsOverlay(view);
+            view.setTag(overlay);
+            FirestoreMetrics.getInstance().addListener(overlay);
+            overlay.run();
+        }
+
+        static void detach(Activity activity) {
+            View view = activity.findViewById(R.id.firestore_metrics_overlay);
+            if (view == null) {
+                return;
+            }
+            FirestoreMetrics.getInstance().removeListener((MetricsOverlay) view.getTag());
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+
+        @Override
+        public void run() {
+            // Metrics may be recorded off the main thread
+            view.post(() -> {
+                String screen = FirestoreMetrics.getInstance().getCurrentScreen();
+                FirestoreMetrics.CallSiteStats totals = FirestoreMetrics.getInstance().getScreenTotals(screen);
+                view.setText(String.format(Locale.US, "%s  reads %d (+%d cached, %d shared)  writes %d",
+                        screen, totals.serverReads, totals.cacheReads, totals.shared, totals.writes));
+            });
+        }
+    }
+}
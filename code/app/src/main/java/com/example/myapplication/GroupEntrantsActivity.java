@@ -2,31 +2,37 @@ package com.example.myapplication;
 
 import android.os.Bundle;
 import android.util.Log;
+import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.Repositories.GroupEntrants;
 import com.google.firebase.FirebaseApp;
-import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
-
 /**
  * Activity for displaying and managing group entrants based on their status.
  * Allows viewing of entrants for different groups and sending notifications to eligible users.
+ * Expects the "eventId" and "groupType" (a waitlist status) extras.
  */
 public class GroupEntrantsActivity extends AppCompatActivity {
 
     private static final String TAG = "GroupEntrantsActivity";
     private TextView textViewEntrants;
     private Button buttonSendNotification;
+    private Button buttonLoadMore;
     private FirebaseFirestore db;
+    private String eventId;
     private String groupType;
 
+    // Entrants shown so far, and where the next page starts
+    private final StringBuilder entrantsDisplay = new StringBuilder();
+    private DocumentSnapshot nextPage;
+
     /**
      * Initializes the activity, sets up UI elements, Firebase, and loads the list of entrants.
      *
@@ -40,182 +46,70 @@ public class GroupEntrantsActivity extends AppCompatActivity {
         // Initialize Firebase
         FirebaseApp.initializeApp(this);
 
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
         textViewEntrants = findViewById(R.id.textViewEntrants);
         buttonSendNotification = findViewById(R.id.buttonSendNotification);
+        buttonLoadMore = findViewById(R.id.buttonLoadMore);
 
-        // Retrieve group type from the Intent to determine the group to notify
+        // Retrieve the event and the group to show and notify
+        eventId = getIntent().getStringExtra("eventId");
         groupType = getIntent().getStringExtra("groupType");
+        if (eventId == null || groupType == null) {
+            Log.e(TAG, "Missing eventId or groupType");
+            Toast.makeText(this, "No group selected.", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
 
         // Ensure the notification channel is created before sending notifications
         NotificationUtils.createNotificationChannel(this);
 
-        // Load entrants into the TextView
-        loadEntrantsList();
+        // Load the first page of entrants into the TextView
+        loadEntrantsPage();
 
-        // Set up click listener for sending notifications
+        buttonLoadMore.setOnClickListener(v -> loadEntrantsPage());
         buttonSendNotification.setOnClickListener(v -> sendNotificationsToAllEntrants());
     }
 
     /**
-     * Loads the list of entrants from Firestore and displays those matching the group type.
-     * Only entrants with matching group status are displayed.
+     * Loads the next page of the group's entrants and appends them to the list.
      */
-    private void loadEntrantsList() {
-        DocumentReference waitlistRef = db.collection("Waitlists").document("Waitlist_1");
-
-        waitlistRef.get().addOnSuccessListener(documentSnapshot -> {
-            if (documentSnapshot.exists()) {
-                Map<String, Object> data = documentSnapshot.getData();
-                if (data != null && !data.isEmpty()) {
-                    StringBuilder entrantsDisplay = new StringBuilder();
-                    for (Map.Entry<String, Object> entry : data.entrySet()) {
-                        Object entrantObject = entry.getValue();
-
-                        if (entrantObject instanceof List) {
-                            List<?> entrant = (List<?>) entrantObject;
-                            if (entrant.size() >= 2) {
-                                String userId = (String) entrant.get(0);
-                                String status = (String) entrant.get(1);
-
-                                if (userId != null && !userId.isEmpty()) {
-                                    // Filter entrants based on groupType
-                                    if (status != null && status.equalsIgnoreCase(groupType)) {
-                                        // Fetch user profile using userId as document ID
-                                        DocumentReference userProfileRef = db.collection("users").document(userId);
-
-                                        userProfileRef.get().addOnSuccessListener(userProfileDoc -> {
-                                            if (userProfileDoc.exists()) {
-                                                String name = userProfileDoc.getString("name");
-                                                // Append the name and status to the entrants display if available
-                                                if (name != null) {
-                                                    entrantsDisplay.append("Entrant: ").append(name)
-                                                            .append("\nStatus: ").append(status).append("\n\n");
-                                                    // Update UI on the main thread
-                                                    runOnUiThread(() -> textViewEntrants.setText(entrantsDisplay.toString()));
-                                                }
-                                            } else {
-                                                Log.d(TAG, "User profile not found for ID: " + userId);
-                                            }
-                                        }).addOnFailureListener(e -> Log.e(TAG, "Error fetching user profile for ID: " + userId, e));
-                                    } else {
-                                        Log.d(TAG, "Entrant " + userId + " does not match groupType " + groupType);
-                                    }
-                                } else {
-                                    Log.e(TAG, "Invalid user ID in entrants list.");
-                                    Toast.makeText(this, "Invalid user ID in waitlist.", Toast.LENGTH_SHORT).show();
-                                }
-                            } else {
-                                Log.e(TAG, "Incomplete entrant data.");
-                            }
-                        } else {
-                            Log.e(TAG, "Entrant data is not in the expected format.");
-                        }
-                    }
-                    // Handle case where no entrants match the groupType
-                    if (entrantsDisplay.length() == 0) {
-                        runOnUiThread(() -> textViewEntrants.setText("No entrants found for this group."));
+    private void loadEntrantsPage() {
+        buttonLoadMore.setEnabled(false);
+        GroupEntrants.page(db, eventId, groupType, nextPage, "GroupEntrantsActivity.loadEntrantsPage")
+                .addOnSuccessListener(this, page -> {
+                    for (Attendee entrant : page.entrants) {
+                        entrantsDisplay.append("Entrant: ").append(entrant.getUserName())
+                                .append("\nStatus: ").append(entrant.getStatus()).append("\n\n");
                     }
-                } else {
-                    Log.e(TAG, "No entrants found in waitlist.");
-                    Toast.makeText(this, "No entrants found in waitlist.", Toast.LENGTH_SHORT).show();
-                }
-            } else {
-                Log.e(TAG, "Waitlist_1 document does not exist or is null.");
-                Toast.makeText(this, "Waitlist document not found.", Toast.LENGTH_SHORT).show();
-            }
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "Failed to fetch Waitlist_1 document", e);
-            Toast.makeText(this, "Failed to load waitlist.", Toast.LENGTH_SHORT).show();
-        });
+                    nextPage = page.next;
+                    textViewEntrants.setText(entrantsDisplay.length() == 0
+                            ? "No entrants found for this group." : entrantsDisplay.toString());
+                    buttonLoadMore.setVisibility(nextPage != null ? View.VISIBLE : View.GONE);
+                    buttonLoadMore.setEnabled(true);
+                })
+                .addOnFailureListener(this, e -> {
+                    Log.e(TAG, "Failed to load entrants", e);
+                    Toast.makeText(this, "Failed to load waitlist.", Toast.LENGTH_SHORT).show();
+                    buttonLoadMore.setEnabled(true);
+                });
     }
 
     /**
-     * Sends notifications to all entrants in the specified group who meet notification criteria.
-     * Only sends notifications to entrants with notifications enabled and a matching status.
+     * Sends notifications to all entrants in the group who have notifications enabled.
      */
     private void sendNotificationsToAllEntrants() {
-        DocumentReference waitlistRef = db.collection("Waitlists").document("Waitlist_1");
-
-        waitlistRef.get().addOnSuccessListener(documentSnapshot -> {
-            if (documentSnapshot.exists()) {
-                List<?> entrantData = (List<?>) documentSnapshot.get("user_1");
-                if (entrantData != null && entrantData.size() >= 2) {
-                    String userId = (String) entrantData.get(0);
-                    String status = (String) entrantData.get(1);
-
-                    if (userId != null && !userId.isEmpty()) {
-                        // Fetch user profile using userId as document ID
-                        DocumentReference userProfileRef = db.collection("users").document(userId);
-
-                        userProfileRef.get().addOnSuccessListener(userProfileDoc -> {
-                            if (userProfileDoc.exists()) {
-                                Boolean notificationsEnabled = userProfileDoc.getBoolean("notificationsEnabled");
-                                String name = userProfileDoc.getString("name");
-
-                                // Prepare user data with null checks
-                                Map<String, Object> user = new HashMap<>();
-                                user.put("userId", userId);
-                                user.put("name", name != null ? name : "Unknown User");
-                                user.put("notificationsEnabled", notificationsEnabled != null ? notificationsEnabled : false);
-
-                                // Check if the user's status matches the selected group type and notifications are enabled
-                                if (status != null && status.equalsIgnoreCase(groupType)
-                                        && Boolean.TRUE.equals(user.get("notificationsEnabled"))) {
-                                    Log.d(TAG, "User " + userId + " meets notification criteria. Sending notification.");
-                                    sendNotificationToEntrant(user, status);
-                                } else {
-                                    Log.d(TAG, "User " + userId + " does not meet notification criteria.");
-                                }
-                            } else {
-                                Log.d(TAG, "User profile not found for ID: " + userId);
-                            }
-                        }).addOnFailureListener(e -> Log.e(TAG, "Error fetching user profile for ID: " + userId, e));
-                    } else {
-                        Log.e(TAG, "Invalid user ID in entrants list.");
-                        Toast.makeText(this, "Invalid user ID in waitlist.", Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    Log.e(TAG, "Entrant data is incomplete in Waitlist_1.");
-                    Toast.makeText(this, "No entrants found in waitlist.", Toast.LENGTH_SHORT).show();
-                }
-            } else {
-                Log.e(TAG, "Waitlist_1 document does not exist or is null.");
-                Toast.makeText(this, "Waitlist document not found.", Toast.LENGTH_SHORT).show();
-            }
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "Failed to fetch Waitlist_1 document", e);
-            Toast.makeText(this, "Failed to load waitlist.", Toast.LENGTH_SHORT).show();
-        });
-    }
-
-    /**
-     * Sends a notification to a specific entrant with a status-based message.
-     *
-     * @param user   A map containing user details including "userId" and "name".
-     * @param status The status of the entrant (e.g., "not chosen", "selected", "cancelled").
-     */
-    private void sendNotificationToEntrant(Map<String, Object> user, String status) {
+        buttonSendNotification.setEnabled(false);
         String title = "Notification for " + groupType + " entrants";
-        String description;
-
-        switch (status) {
-            case "not chosen":
-                description = "Your status is: Waiting List";
-                break;
-            case "selected":
-                description = "Congratulations! You've been selected.";
-                break;
-            case "cancelled":
-                description = "Unfortunately, your status is: Cancelled";
-                break;
-            default:
-                description = "Status update for your group.";
-                break;
-        }
-
-        // Call NotificationService to send and save the notification in Firestore
-        NotificationService.sendNotification(user, this, title, description);
+        GroupEntrants.notifyGroup(db, eventId, groupType, title, GroupEntrants.message(groupType),
+                        "GroupEntrantsActivity.sendNotificationsToAllEntrants")
+                .addOnSuccessListener(this, notified ->
+                        Toast.makeText(this, "Notified " + notified + " entrants.", Toast.LENGTH_SHORT).show())
+                .addOnFailureListener(this, e -> {
+                    Log.e(TAG, "Failed to notify entrants", e);
+                    Toast.makeText(this, "Failed to send notifications.", Toast.LENGTH_SHORT).show();
+                })
+                .addOnCompleteListener(this, task -> buttonSendNotification.setEnabled(true));
     }
 
-}
\ No newline at end of file
+}
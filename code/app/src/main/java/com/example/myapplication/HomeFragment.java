@@ -11,6 +11,8 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.Models.Event;
+import com.example.myapplication.Models.EventSummary;
+import com.example.myapplication.Repositories.EventSummaries;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
@@ -39,7 +41,7 @@ public class HomeFragment extends BaseActivity {
         eventsListView = findViewById(R.id.events_list);
         eventsListView.setLayoutManager(new LinearLayoutManager(this));
 
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
         eventList = new ArrayList<>();
 
         // Retrieve the current user's UID from BaseActivity
@@ -71,7 +73,7 @@ public class HomeFragment extends BaseActivity {
      * @param organizerId The UID of the current organizer.
      */
     private void setupRealtimeUpdates(String organizerId) {
-        CollectionReference eventsRef = db.collection("Events");
+        CollectionReference eventsRef = db.collection(EventSummaries.COLLECTION);
 
         // Listen for changes in real-time where organizerId matches currentUserId
         listenerRegistration = eventsRef.whereEqualTo("organizerId", organizerId)
@@ -87,28 +89,9 @@ public class HomeFragment extends BaseActivity {
                         eventList.clear();
 
                         for (QueryDocumentSnapshot document : snapshots) {
-                            String eventId = document.getId();
-                            String eventName = document.getString("eventName");
-                            String drawDate = document.getString("drawDate");
-                            String eventDateTime = document.getString("eventDateTime");
-                            String description = document.getString("description");
-                            String posterUrl = document.getString("posterUrl");
-                            Long maxAttendeesLong = document.getLong("maxAttendees");
-                            Long currentAttendeesLong = document.getLong("currentAttendees");
-                            Integer maxWaitlist = document.getLong("maxWaitlist") != null ?
-                                    document.getLong("maxWaitlist").intValue() : null;
-                            Boolean geolocationEnabled = document.getBoolean("geolocationEnabled");
-                            String qrCodeLink = document.getString("qrCodeLink");
-                            String eventOrganizerId = document.getString("organizerId");
-
-                            // Handle potential null values
-                            int maxAttendees = maxAttendeesLong != null ? maxAttendeesLong.intValue() : 0;
-                            int currentAttendees = currentAttendeesLong != null ? currentAttendeesLong.intValue() : 0;
-                            boolean geoEnabled = geolocationEnabled != null && geolocationEnabled;
-
-                            // Create Event object using the overloaded constructor
-                            Event event = new Event(eventId, eventName, drawDate, eventDateTime, description,
-                                    maxAttendees, maxWaitlist, geoEnabled, qrCodeLink, posterUrl, currentAttendees, eventOrganizerId);
+                            // Summaries hold only what the list rows show
+                            Event event = document.toObject(EventSummary.class).toEvent();
+                            event.setEventId(document.getId());
 
                             eventList.add(event);
                         }
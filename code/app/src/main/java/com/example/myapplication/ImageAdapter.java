@@ -38,7 +38,7 @@ public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHol
     public ImageAdapter(Context context, List<StorageImage> imageList) {
         this.context = context;
         this.imageList = imageList;
-        this.storage = FirebaseStorage.getInstance();
+        this.storage = FirebaseServices.storage();
     }
 
     /**
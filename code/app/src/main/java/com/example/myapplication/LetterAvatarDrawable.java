@@ -0,0 +1,131 @@
+package com.example.myapplication;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Drawable that paints a coloured circle with a centred letter directly onto the target canvas.
+ * Used by AvatarUtil so that default avatars never need a backing bitmap.
+ */
+public class LetterAvatarDrawable extends Drawable {
+
+    // Shared by every avatar; drawing only ever happens on the UI thread
+    private static final Paint CIRCLE_PAINT = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private static final Paint TEXT_PAINT = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    static {
+        TEXT_PAINT.setColor(Color.WHITE);
+        TEXT_PAINT.setTextAlign(Paint.Align.CENTER);
+    }
+
+    private final AvatarState state;
+    private int alpha = 255;
+
+    /**
+     * Constructor for LetterAvatarDrawable.
+     * @param letter The letter drawn in the centre of the avatar.
+     * @param color The background colour of the circle.
+     * @param size The intrinsic width and height of the avatar in pixels.
+     */
+    public LetterAvatarDrawable(String letter, int color, int size) {
+        this(new AvatarState(letter, color, size));
+    }
+
+    private LetterAvatarDrawable(AvatarState state) {
+        this.state = state;
+    }
+
+    /**
+     * Draws the circle and letter within the current bounds.
+     * @param canvas The canvas to draw into.
+     */
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        Rect bounds = getBounds();
+        float radius = Math.min(bounds.width(), bounds.height()) / 2f;
+        float cx = bounds.exactCenterX();
+        float cy = bounds.exactCenterY();
+
+        CIRCLE_PAINT.setColor(state.color);
+        CIRCLE_PAINT.setAlpha(alpha);
+        canvas.drawCircle(cx, cy, radius, CIRCLE_PAINT);
+
+        TEXT_PAINT.setTextSize(radius);
+        TEXT_PAINT.setAlpha(alpha);
+        //vertical center
+        float y = cy - (TEXT_PAINT.ascent() + TEXT_PAINT.descent()) / 2f;
+        canvas.drawText(state.letter, cx, y, TEXT_PAINT);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        // Avatars are drawn with fixed colours
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return state.size;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return state.size;
+    }
+
+    /**
+     * Returns the shared state so that views can each get their own lightweight copy.
+     * @return The constant state of this avatar.
+     */
+    @NonNull
+    @Override
+    public ConstantState getConstantState() {
+        return state;
+    }
+
+    /**
+     * Immutable letter, colour and size shared between all drawables for the same avatar.
+     */
+    static final class AvatarState extends ConstantState {
+        final String letter;
+        final int color;
+        final int size;
+
+        AvatarState(String letter, int color, int size) {
+            this.letter = letter;
+            this.color = color;
+            this.size = size;
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new LetterAvatarDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class LocationsFragment extends Fragment {
 
     private String eventId;
     private MapView mapView;
-    private FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private FirebaseFirestore db = FirebaseServices.firestore();
 
     /**
      * Factory method to create a new instance of this fragment.
@@ -92,6 +92,8 @@ public class LocationsFragment extends Fragment {
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
+        // osmdroid is only configured once a map is actually shown
+        OsmdroidInitializer.ensureInitialized(requireContext());
         View view = inflater.inflate(R.layout.fragment_locations, container, false);
         mapView = view.findViewById(R.id.map);
 
@@ -117,10 +119,9 @@ public class LocationsFragment extends Fragment {
             return;
         }
 
-        db.collection("Events").document(eventId)
-                .collection("Waitlist")
+        FirestoreGateway.get(db.collection("Events").document(eventId)
+                .collection("Waitlist"), "LocationsFragment.updateMapMarkers")
                 //.whereEqualTo("status", "selected") // Ensure only active attendees are fetched
-                .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     mapView.getOverlays().clear(); // Clear existing markers
 
@@ -0,0 +1,142 @@
+package com.example.myapplication.Lottery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Draws a group of overlapping events together so an entrant wins at most one of them. Drawn
+ * one by one, an entrant on several waitlists can win them all and then cancel all but one,
+ * each cancellation causing a replacement draw and more notifications.
+ * <p>
+ * The events take turns, in random order, each taking the next entrant of its own draw order
+ * who holds no place in the group yet. A per-entrant index of the event holding their place
+ * makes the check constant time, so resolving the group reads each draw order once.
+ */
+public final class DrawCoordinator {
+
+    private DrawCoordinator() {
+    }
+
+    /**
+     * Resolves the winners of a group of events.
+     * @param draws The draw of each event, with distinct event ids.
+     * @param placed The event in which each entrant already holds a place in the group,
+     *               e.g. entrants selected or confirmed before. The map is not modified.
+     * @param random The source of randomness for the turn order.
+     * @return The outcome of each event, keyed by event id in the order of the draws.
+     */
+    public static Map<String, Outcome> resolve(List<Draw> draws, Map<String, String> placed, Random random) {
+        Map<String, String> heldBy = new HashMap<>(placed);
+        List<Draw> turns = new ArrayList<>(draws);
+        Collections.shuffle(turns, random);
+
+        Map<Draw, List<String>> winners = new HashMap<>();
+        Map<Draw, Integer> cursors = new HashMap<>();
+        for (Draw draw : draws) {
+            winners.put(draw, new ArrayList<>());
+            cursors.put(draw, 0);
+        }
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (Draw draw : turns) {
+                List<String> won = winners.get(draw);
+                int cursor = cursors.get(draw);
+                while (won.size() < draw.places && cursor < draw.order.size()) {
+                    String entrant = draw.order.get(cursor++);
+                    if (!heldBy.containsKey(entrant)) {
+                        heldBy.put(entrant, draw.eventId);
+                        won.add(entrant);
+                        progress = true;
+                        break;
+                    }
+                }
+                cursors.put(draw, cursor);
+            }
+        }
+
+        Map<String, Outcome> outcomes = new LinkedHashMap<>();
+        for (Draw draw : draws) {
+            List<String> losers = new ArrayList<>();
+            List<String> heldElsewhere = new ArrayList<>();
+            for (String entrant : draw.order) {
+                String holder = heldBy.get(entrant);
+                if (holder == null) {
+                    losers.add(entrant);
+                } else if (!holder.equals(draw.eventId)) {
+                    heldElsewhere.add(entrant);
+                }
+            }
+            outcomes.put(draw.eventId, new Outcome(winners.get(draw), losers, heldElsewhere));
+        }
+        return outcomes;
+    }
+
+    /**
+     * The waiting entrants of one event in draw order and the places left to fill.
+     */
+    public static final class Draw {
+        private final String eventId;
+        private final List<String> order;
+        private final int places;
+
+        /**
+         * Constructor for Draw.
+         * @param eventId The event id.
+         * @param order The waiting entrants in draw order, see {@link TierWeights#order}.
+         * @param places The number of places left.
+         */
+        public Draw(String eventId, List<String> order, int places) {
+            this.eventId = eventId;
+            this.order = order;
+            this.places = Math.max(0, places);
+        }
+    }
+
+    /**
+     * The result of one event's draw.
+     */
+    public static final class Outcome {
+        private final List<String> winners;
+        private final List<String> losers;
+        private final List<String> heldElsewhere;
+
+        private Outcome(List<String> winners, List<String> losers, List<String> heldElsewhere) {
+            this.winners = winners;
+            this.losers = losers;
+            this.heldElsewhere = heldElsewhere;
+        }
+
+        /**
+         * Getter for the winners.
+         * @return The entrants selected for this event, in draw order.
+         */
+        public List<String> getWinners() {
+            return winners;
+        }
+
+        /**
+         * Getter for the losers.
+         * @return The entrants who hold no place in the group, in draw order.
+         */
+        public List<String> getLosers() {
+            return losers;
+        }
+
+        /**
+         * Getter for the replacement pool: the losers first, then the entrants holding a place
+         * in another event of the group, who only move up if they give that place back.
+         * @return The entrants not selected for this event, in pool order.
+         */
+        public List<String> getPool() {
+            List<String> pool = new ArrayList<>(losers);
+            pool.addAll(heldElsewhere);
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.myapplication.Lottery;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which event count each waitlist status counts towards. Waiting entrants count in
+ * currentWaitlist, selected and confirmed entrants in currentAttendees. The draws, sign-ups,
+ * confirmations and cancellations adjust the counts by this rule, and CounterReconciliation
+ * counts the waitlist by it, so a correct update never shows up as drift.
+ */
+public final class EntrantCounts {
+
+    public static final String FIELD_WAITLIST = "currentWaitlist";
+    public static final String FIELD_ATTENDEES = "currentAttendees";
+
+    public static final List<String> WAITLIST_STATUSES = Collections.unmodifiableList(Arrays.asList("waiting"));
+    public static final List<String> ATTENDEE_STATUSES = Collections.unmodifiableList(
+            Arrays.asList("selected", "confirmed"));
+
+    private EntrantCounts() {
+    }
+
+    /**
+     * Getter for the count a status counts towards.
+     * @param status The waitlist status, or null for an entrant not on the waitlist.
+     * @return The count field, or null if the status is not counted.
+     */
+    public static String field(String status) {
+        if (WAITLIST_STATUSES.contains(status)) {
+            return FIELD_WAITLIST;
+        }
+        if (ATTENDEE_STATUSES.contains(status)) {
+            return FIELD_ATTENDEES;
+        }
+        return null;
+    }
+
+    /**
+     * Builds the count changes for entrants moving from one status to another. Moving between
+     * statuses of the same count, such as confirming a selection, changes nothing.
+     * @param currentWaitlist The recorded currentWaitlist, null if missing.
+     * @param currentAttendees The recorded currentAttendees, null if missing.
+     * @param from The status the entrants leave, null if they are joining.
+     * @param to The status the entrants take, null if they are leaving.
+     * @param entrants The number of entrants moving.
+     * @return The changed count fields, empty if neither count changes.
+     */
+    public static Map<String, Object> move(Long currentWaitlist, Long currentAttendees, String from, String to,
+                                           int entrants) {
+        Map<String, Object> changes = new HashMap<>();
+        String fromField = field(from);
+        String toField = field(to);
+        if (entrants <= 0 || (fromField == null ? toField == null : fromField.equals(toField))) {
+            return changes;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        counts.put(FIELD_WAITLIST, currentWaitlist != null ? currentWaitlist : 0);
+        counts.put(FIELD_ATTENDEES, currentAttendees != null ? currentAttendees : 0);
+        if (fromField != null) {
+            changes.put(fromField, Math.max(0, counts.get(fromField) - entrants));
+        }
+        if (toField != null) {
+            changes.put(toField, counts.get(toField) + entrants);
+        }
+        return changes;
+    }
+}
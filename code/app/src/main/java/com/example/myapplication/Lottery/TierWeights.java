@@ -0,0 +1,89 @@
+package com.example.myapplication.Lottery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Priority tiers of an event's lottery. The event's tierWeights field maps a tier name to the
+ * weight of its entrants, and each waitlist entry may name its tier. Entrants without a tier,
+ * or in a tier the event does not weigh, have weight 1. An event without tier weights is drawn
+ * uniformly.
+ */
+public final class TierWeights {
+
+    // Event field holding the weight of each tier
+    public static final String FIELD = "tierWeights";
+    // Waitlist entry field naming the entrant's tier
+    public static final String ENTRY_FIELD = "tier";
+
+    static final double DEFAULT_WEIGHT = 1.0;
+
+    private TierWeights() {
+    }
+
+    /**
+     * Reads the tier weights stored on an event, ignoring entries that are not positive numbers.
+     * @param stored The value of the event's tierWeights field, may be null.
+     * @return The weight of each tier, empty for a uniform draw.
+     */
+    public static Map<String, Double> from(Object stored) {
+        Map<String, Double> weights = new HashMap<>();
+        if (!(stored instanceof Map)) {
+            return weights;
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) stored).entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof Number) {
+                double weight = ((Number) entry.getValue()).doubleValue();
+                if (weight > 0 && !Double.isInfinite(weight)) {
+                    weights.put((String) entry.getKey(), weight);
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Draws entrants in lottery order.
+     * @param entrants The entrants. The list is not modified.
+     * @param tierOf Gives the tier of an entrant, or null.
+     * @param weights The weight of each tier, empty for a uniform draw.
+     * @param count The number of entrants to draw, all of them if it is larger than the pool.
+     * @param random The source of randomness.
+     * @return The drawn entrants, in draw order.
+     */
+    public static <T> List<T> order(List<T> entrants, Function<T, String> tierOf, Map<String, Double> weights,
+                                    int count, Random random) {
+        int picks = Math.max(0, Math.min(count, entrants.size()));
+        if (weights.isEmpty()) {
+            List<T> shuffled = new ArrayList<>(entrants);
+            Collections.shuffle(shuffled, random);
+            return new ArrayList<>(shuffled.subList(0, picks));
+        }
+
+        // Entrants of unweighted tiers share one default tier
+        Map<String, List<T>> byTier = new LinkedHashMap<>();
+        for (T entrant : entrants) {
+            String tier = tierOf.apply(entrant);
+            String key = tier != null && weights.containsKey(tier) ? tier : null;
+            List<T> members = byTier.get(key);
+            if (members == null) {
+                members = new ArrayList<>();
+                byTier.put(key, members);
+            }
+            members.add(entrant);
+        }
+        List<List<T>> tiers = new ArrayList<>();
+        double[] tierWeights = new double[byTier.size()];
+        for (Map.Entry<String, List<T>> tier : byTier.entrySet()) {
+            tierWeights[tiers.size()] = tier.getKey() != null ? weights.get(tier.getKey()) : DEFAULT_WEIGHT;
+            tiers.add(tier.getValue());
+        }
+        return WeightedDraw.tieredOrder(tiers, tierWeights, picks, random);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.myapplication.Lottery;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The rules of joining an event's waitlist, shared by the sign-up transaction in
+ * EventSignupActivity and the load test that replays it against the emulator.
+ */
+public final class WaitlistSignup {
+
+    public static final String STATUS_WAITING = "waiting";
+
+    private WaitlistSignup() {
+    }
+
+    /**
+     * Tells whether a waitlist has room for one more entrant.
+     * @param currentWaitlist The number of entrants on the waitlist.
+     * @param maxWaitlist The waitlist limit, 0 if the organizer set none.
+     * @return True if the entrant can be added.
+     */
+    public static boolean hasRoom(int currentWaitlist, int maxWaitlist) {
+        return maxWaitlist == 0 || currentWaitlist < maxWaitlist;
+    }
+
+    /**
+     * Builds a new waitlist entry.
+     * @param userName The entrant's name.
+     * @param userEmail The entrant's email.
+     * @param latitude The latitude the entrant signed up from.
+     * @param longitude The longitude the entrant signed up from.
+     * @return The entry fields.
+     */
+    public static Map<String, Object> entry(String userName, String userEmail, double latitude, double longitude) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("userName", userName);
+        entry.put("userEmail", userEmail);
+        entry.put("status", STATUS_WAITING);
+        entry.put("latitude", latitude);
+        entry.put("longitude", longitude);
+        return entry;
+    }
+}
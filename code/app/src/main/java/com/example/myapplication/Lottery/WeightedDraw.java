@@ -0,0 +1,129 @@
+package com.example.myapplication.Lottery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Weighted lottery draws without replacement: each pick chooses among the entrants left with
+ * probability proportional to their weight. Two strategies are offered:
+ * <ul>
+ *     <li>{@link #sample} takes a weight per entrant. It samples an alias table and rejects
+ *     entrants already drawn, rebuilding the table over the entrants left once half of its
+ *     weight has been drawn, so a pick costs O(1) expected time and the rebuilds add up to
+ *     O(n) for equal weights.</li>
+ *     <li>{@link #tieredOrder} takes tiers of entrants sharing a weight, e.g. returning attendees
+ *     or local residents. A pick chooses a tier through an alias table over the tiers' remaining
+ *     weight, then an entrant of the tier uniformly, so it costs O(tiers) whatever the pool size.</li>
+ * </ul>
+ */
+public final class WeightedDraw {
+
+    // Share of the alias table's weight drawn before it is rebuilt, keeping the expected
+    // number of samples per pick below 1 / (1 - REBUILD_FRACTION)
+    static final double REBUILD_FRACTION = 0.5;
+
+    private WeightedDraw() {
+    }
+
+    /**
+     * Draws distinct entrants in weighted order.
+     * @param weights The weight of each entrant, all positive.
+     * @param count The number of entrants to draw, all of them if it is larger than the pool.
+     * @param random The source of randomness.
+     * @return The indices of the drawn entrants, in draw order.
+     * @throws IllegalArgumentException If a weight is not positive and finite.
+     */
+    public static int[] sample(double[] weights, int count, Random random) {
+        for (double weight : weights) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight);
+            }
+        }
+        int picks = Math.max(0, Math.min(count, weights.length));
+        int[] drawn = new int[picks];
+        if (picks == 0) {
+            return drawn;
+        }
+
+        boolean[] taken = new boolean[weights.length];
+        int[] ids = new int[weights.length];
+        double[] tableWeights = new double[weights.length];
+        int size = 0;
+        double tableWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            ids[size] = i;
+            tableWeights[size++] = weights[i];
+            tableWeight += weights[i];
+        }
+        AliasTable table = new AliasTable(tableWeights);
+        double drawnWeight = 0;
+
+        for (int pick = 0; pick < picks; pick++) {
+            int index;
+            do {
+                index = ids[table.sample(random)];
+            } while (taken[index]);
+            taken[index] = true;
+            drawn[pick] = index;
+            drawnWeight += weights[index];
+
+            if (drawnWeight >= REBUILD_FRACTION * tableWeight && pick + 1 < picks) {
+                size = 0;
+                tableWeight = 0;
+                for (int i = 0; i < weights.length; i++) {
+                    if (!taken[i]) {
+                        ids[size] = i;
+                        tableWeights[size++] = weights[i];
+                        tableWeight += weights[i];
+                    }
+                }
+                table = new AliasTable(Arrays.copyOf(tableWeights, size));
+                drawnWeight = 0;
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Draws entrants grouped in tiers, where every entrant of a tier has the tier's weight.
+     * @param tiers The entrants of each tier. The lists are not modified.
+     * @param tierWeights The weight of an entrant in each tier, all positive.
+     * @param count The number of entrants to draw, all of them if it is larger than the pool.
+     * @param random The source of randomness.
+     * @return The drawn entrants, in draw order.
+     * @throws IllegalArgumentException If the sizes differ or a weight is not positive and finite.
+     */
+    public static <T> List<T> tieredOrder(List<List<T>> tiers, double[] tierWeights, int count, Random random) {
+        if (tiers.size() != tierWeights.length) {
+            throw new IllegalArgumentException("Expected " + tiers.size() + " tier weights");
+        }
+        List<List<T>> left = new ArrayList<>();
+        int total = 0;
+        for (int t = 0; t < tiers.size(); t++) {
+            if (!(tierWeights[t] > 0) || Double.isInfinite(tierWeights[t])) {
+                throw new IllegalArgumentException("Invalid weight " + tierWeights[t]);
+            }
+            left.add(new ArrayList<>(tiers.get(t)));
+            total += tiers.get(t).size();
+        }
+
+        int picks = Math.max(0, Math.min(count, total));
+        List<T> drawn = new ArrayList<>(picks);
+        double[] masses = new double[tiers.size()];
+        for (int pick = 0; pick < picks; pick++) {
+            for (int t = 0; t < masses.length; t++) {
+                masses[t] = tierWeights[t] * left.get(t).size();
+            }
+            List<T> tier = left.get(new AliasTable(masses).sample(random));
+            // Uniform within the tier, removing by swapping with the last entrant
+            int index = random.nextInt(tier.size());
+            int last = tier.size() - 1;
+            drawn.add(tier.get(index));
+            tier.set(index, tier.get(last));
+            tier.remove(last);
+        }
+        return drawn;
+    }
+}
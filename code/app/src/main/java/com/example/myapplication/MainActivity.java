@@ -9,14 +9,13 @@ import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 
 
+import com.example.myapplication.Repositories.CacheWarmer;
 import com.example.myapplication.Views.HomeView;
 import com.example.myapplication.Views.OrganizerProfileView;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
-import org.osmdroid.config.Configuration;
-
 /**
  * MainActivity initializes anonymous authentication and handles navigation.
  */
@@ -32,11 +31,8 @@ public class MainActivity extends BaseActivity {
         setContentView(R.layout.activity_main);
         NotificationService.createNotificationChannel(this);
 
-        // Initialize Osmdroid configuration
-        Configuration.getInstance().setUserAgentValue(getPackageName());
-
         // Initialize Firebase Auth
-        mAuth = FirebaseAuth.getInstance();
+        mAuth = FirebaseServices.auth();
 
         // Retrieve the device ID
         String deviceId = retrieveDeviceId();
@@ -48,6 +44,13 @@ public class MainActivity extends BaseActivity {
 
         // Sign in anonymously
         signInAnonymously();
+
+        // Refresh the user's own documents so their screens open on current cached data.
+        // Only on launch, not when the activity is recreated
+        if (savedInstanceState == null && deviceId != null) {
+            CacheWarmer.warm(db, deviceId)
+                    .addOnSuccessListener(reads -> Log.d(TAG, "Warmed the cache with " + reads + " reads"));
+        }
         NotificationService.receiveNotifications(deviceId, this);
 
         bottomNavigationView = findViewById(R.id.bottom_navigation);
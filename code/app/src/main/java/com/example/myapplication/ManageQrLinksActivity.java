@@ -39,7 +39,7 @@ public class ManageQrLinksActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_manage_qr_links);
 
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
 
         // Set up RecyclerView
         recyclerView = findViewById(R.id.recyclerViewQrLinks);
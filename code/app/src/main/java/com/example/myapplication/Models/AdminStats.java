@@ -0,0 +1,134 @@
+package com.example.myapplication.Models;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+
+/**
+ * Totals across the app on one day, shown on the admin screen. Stored in the adminStats
+ * collection under the day, see {@link com.example.myapplication.Repositories.AdminStatsRepository}.
+ */
+@IgnoreExtraProperties
+public class AdminStats {
+    private String day;
+    private Timestamp computedAt;
+    private long users;
+    private long organizers;
+    private long events;
+    private long waitlisted;
+    private long attendees;
+    private long facilities;
+    private long notifications;
+
+    /**
+     * Default constructor for AdminStats.
+     */
+    public AdminStats() {}
+
+    /**
+     * Getter for day
+     * @return The UTC day, as yyyy-MM-dd.
+     */
+    public String getDay() { return day; }
+
+    /**
+     * Setter for day
+     * @param day The UTC day, as yyyy-MM-dd.
+     */
+    public void setDay(String day) { this.day = day; }
+
+    /**
+     * Getter for computedAt
+     * @return When the totals were computed.
+     */
+    public Timestamp getComputedAt() { return computedAt; }
+
+    /**
+     * Setter for computedAt
+     * @param computedAt When the totals were computed.
+     */
+    public void setComputedAt(Timestamp computedAt) { this.computedAt = computedAt; }
+
+    /**
+     * Getter for users
+     * @return The number of user profiles.
+     */
+    public long getUsers() { return users; }
+
+    /**
+     * Setter for users
+     * @param users The number of user profiles.
+     */
+    public void setUsers(long users) { this.users = users; }
+
+    /**
+     * Getter for organizers
+     * @return The number of users who can organize events.
+     */
+    public long getOrganizers() { return organizers; }
+
+    /**
+     * Setter for organizers
+     * @param organizers The number of users who can organize events.
+     */
+    public void setOrganizers(long organizers) { this.organizers = organizers; }
+
+    /**
+     * Getter for events
+     * @return The number of events.
+     */
+    public long getEvents() { return events; }
+
+    /**
+     * Setter for events
+     * @param events The number of events.
+     */
+    public void setEvents(long events) { this.events = events; }
+
+    /**
+     * Getter for waitlisted
+     * @return The entrants waiting across all events.
+     */
+    public long getWaitlisted() { return waitlisted; }
+
+    /**
+     * Setter for waitlisted
+     * @param waitlisted The entrants waiting across all events.
+     */
+    public void setWaitlisted(long waitlisted) { this.waitlisted = waitlisted; }
+
+    /**
+     * Getter for attendees
+     * @return The entrants selected or confirmed across all events.
+     */
+    public long getAttendees() { return attendees; }
+
+    /**
+     * Setter for attendees
+     * @param attendees The entrants selected or confirmed across all events.
+     */
+    public void setAttendees(long attendees) { this.attendees = attendees; }
+
+    /**
+     * Getter for facilities
+     * @return The number of facilities.
+     */
+    public long getFacilities() { return facilities; }
+
+    /**
+     * Setter for facilities
+     * @param facilities The number of facilities.
+     */
+    public void setFacilities(long facilities) { this.facilities = facilities; }
+
+    /**
+     * Getter for notifications
+     * @return The number of stored notifications.
+     */
+    public long getNotifications() { return notifications; }
+
+    /**
+     * Setter for notifications
+     * @param notifications The number of stored notifications.
+     */
+    public void setNotifications(long notifications) { this.notifications = notifications; }
+}
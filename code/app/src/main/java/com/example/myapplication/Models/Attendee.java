@@ -10,6 +10,7 @@ public class Attendee {
     private String status;
     private Double latitude;
     private Double longitude;
+    private String tier; // Nullable, the lottery priority tier
 
     /**
      * Default constructor for Attendee.
@@ -104,4 +105,15 @@ public class Attendee {
      * @param longitude Longitude coordinate of the user's location
      */
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    /**
+     * Getter for Attendee Tier.
+     * @return The lottery priority tier, null if none
+     */
+    public String getTier() { return tier; }
+    /**
+     * Setter for Attendee Tier.
+     * @param tier The lottery priority tier
+     */
+    public void setTier(String tier) { this.tier = tier; }
 }
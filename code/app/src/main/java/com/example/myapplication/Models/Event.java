@@ -1,7 +1,13 @@
 package com.example.myapplication.Models;
 
+import com.example.myapplication.EventTimes;
+import com.example.myapplication.Search.SearchTokens;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.PropertyName;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents an event within the application, including its details and associated facility.
  */
@@ -10,6 +16,8 @@ public class Event {
     private String eventName;
     private String drawDate;
     private String eventDateTime;
+    private Timestamp drawAt;
+    private Timestamp startsAt;
     private String description;
     private int maxAttendees;
     private Integer maxWaitlist; // Nullable
@@ -20,6 +28,8 @@ public class Event {
     private int currentAttendees;
     private String organizerId; // Added organizerId field
     private Facility facility; // Associated Facility
+    private String searchName;
+    private List<String> searchPrefixes;
 
     /**
      * Default constructor for Event.
@@ -347,4 +357,93 @@ public class Event {
     public void setFacility(Facility facility) {
         this.facility = facility;
     }
+
+    /**
+     * Getter for searchName
+     * @return Normalized name used for prefix range queries.
+     */
+    @PropertyName("searchName")
+    public String getSearchName() {
+        return searchName;
+    }
+
+    /**
+     * Setter for searchName
+     * @param searchName Normalized name used for prefix range queries.
+     */
+    @PropertyName("searchName")
+    public void setSearchName(String searchName) {
+        this.searchName = searchName;
+    }
+
+    /**
+     * Getter for searchPrefixes
+     * @return Prefixes of every word in the event name.
+     */
+    @PropertyName("searchPrefixes")
+    public List<String> getSearchPrefixes() {
+        return searchPrefixes;
+    }
+
+    /**
+     * Setter for searchPrefixes
+     * @param searchPrefixes Prefixes of every word in the event name.
+     */
+    @PropertyName("searchPrefixes")
+    public void setSearchPrefixes(List<String> searchPrefixes) {
+        this.searchPrefixes = searchPrefixes;
+    }
+
+    /**
+     * Getter for drawAt
+     * @return Time of the event draw, parsed from drawDate, null for events not yet migrated.
+     */
+    @PropertyName("drawAt")
+    public Timestamp getDrawAt() {
+        return drawAt;
+    }
+
+    /**
+     * Setter for drawAt
+     * @param drawAt Time of the event draw.
+     */
+    @PropertyName("drawAt")
+    public void setDrawAt(Timestamp drawAt) {
+        this.drawAt = drawAt;
+    }
+
+    /**
+     * Getter for startsAt
+     * @return Start of the event, parsed from drawDate and eventDateTime, null for events not yet migrated.
+     */
+    @PropertyName("startsAt")
+    public Timestamp getStartsAt() {
+        return startsAt;
+    }
+
+    /**
+     * Setter for startsAt
+     * @param startsAt Start of the event.
+     */
+    @PropertyName("startsAt")
+    public void setStartsAt(Timestamp startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    /**
+     * Recomputes the timestamp fields from the date and time strings, call before writing the event.
+     */
+    public void updateTimestamps() {
+        Map<String, Object> times = EventTimes.fields(drawDate, eventDateTime);
+        this.drawAt = (Timestamp) times.get(EventTimes.FIELD_DRAW_AT);
+        this.startsAt = (Timestamp) times.get(EventTimes.FIELD_STARTS_AT);
+    }
+
+    /**
+     * Recomputes the search fields from the current event name, call before writing the event.
+     */
+    public void updateSearchFields() {
+        this.searchName = SearchTokens.normalize(eventName);
+        this.searchPrefixes = SearchTokens.prefixes(eventName);
+    }
 }
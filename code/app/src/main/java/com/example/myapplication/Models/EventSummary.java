@@ -0,0 +1,280 @@
+package com.example.myapplication.Models;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+import com.google.firebase.firestore.PropertyName;
+
+/**
+ * Compact copy of an event holding only what list rows show, stored in the EventSummaries
+ * collection under the event's id. Written alongside every event write by
+ * {@link com.example.myapplication.Repositories.EventSummaries}.
+ */
+@IgnoreExtraProperties
+public class EventSummary {
+    private String eventId;
+    private String eventName;
+    private String drawDate;
+    private String eventDateTime;
+    private Timestamp drawAt;
+    private Timestamp startsAt;
+    private String descriptionPreview;
+    private String posterUrl;
+    private int maxAttendees;
+    private int currentAttendees;
+    private Integer maxWaitlist; // Nullable
+    private Integer currentWaitlist;
+    private String organizerId;
+
+    /**
+     * Default constructor for EventSummary.
+     */
+    public EventSummary() {}
+
+    /**
+     * Builds an Event holding the summary fields, for the adapters that list Events.
+     * The description is the shortened preview and the other fields are left unset.
+     * @return The partial Event.
+     */
+    public Event toEvent() {
+        Event event = new Event(eventId, eventName, drawDate, eventDateTime, descriptionPreview,
+                maxAttendees, maxWaitlist, false, null, posterUrl, currentAttendees, organizerId);
+        event.setCurrentWaitlist(currentWaitlist);
+        event.setDrawAt(drawAt);
+        event.setStartsAt(startsAt);
+        return event;
+    }
+
+    /**
+     * Getter for eventId
+     * @return Unique identifier for the event.
+     */
+    @PropertyName("eventId")
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Setter for eventId
+     * @param eventId Unique identifier for the event.
+     */
+    @PropertyName("eventId")
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Getter for eventName
+     * @return Name of the event.
+     */
+    @PropertyName("eventName")
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Setter for eventName
+     * @param eventName Name of the event.
+     */
+    @PropertyName("eventName")
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    /**
+     * Getter for drawDate
+     * @return Date of the event draw.
+     */
+    @PropertyName("drawDate")
+    public String getDrawDate() {
+        return drawDate;
+    }
+
+    /**
+     * Setter for drawDate
+     * @param drawDate Date of the event draw.
+     */
+    @PropertyName("drawDate")
+    public void setDrawDate(String drawDate) {
+        this.drawDate = drawDate;
+    }
+
+    /**
+     * Getter for eventDateTime
+     * @return Date and time of the event.
+     */
+    @PropertyName("eventDateTime")
+    public String getEventDateTime() {
+        return eventDateTime;
+    }
+
+    /**
+     * Setter for eventDateTime
+     * @param eventDateTime Date and time of the event.
+     */
+    @PropertyName("eventDateTime")
+    public void setEventDateTime(String eventDateTime) {
+        this.eventDateTime = eventDateTime;
+    }
+
+    /**
+     * Getter for drawAt
+     * @return Time of the event draw.
+     */
+    @PropertyName("drawAt")
+    public Timestamp getDrawAt() {
+        return drawAt;
+    }
+
+    /**
+     * Setter for drawAt
+     * @param drawAt Time of the event draw.
+     */
+    @PropertyName("drawAt")
+    public void setDrawAt(Timestamp drawAt) {
+        this.drawAt = drawAt;
+    }
+
+    /**
+     * Getter for startsAt
+     * @return Start of the event.
+     */
+    @PropertyName("startsAt")
+    public Timestamp getStartsAt() {
+        return startsAt;
+    }
+
+    /**
+     * Setter for startsAt
+     * @param startsAt Start of the event.
+     */
+    @PropertyName("startsAt")
+    public void setStartsAt(Timestamp startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    /**
+     * Getter for descriptionPreview
+     * @return The start of the event description.
+     */
+    @PropertyName("descriptionPreview")
+    public String getDescriptionPreview() {
+        return descriptionPreview;
+    }
+
+    /**
+     * Setter for descriptionPreview
+     * @param descriptionPreview The start of the event description.
+     */
+    @PropertyName("descriptionPreview")
+    public void setDescriptionPreview(String descriptionPreview) {
+        this.descriptionPreview = descriptionPreview;
+    }
+
+    /**
+     * Getter for posterUrl
+     * @return URL to the event's poster image.
+     */
+    @PropertyName("posterUrl")
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+
+    /**
+     * Setter for posterUrl
+     * @param posterUrl URL to the event's poster image.
+     */
+    @PropertyName("posterUrl")
+    public void setPosterUrl(String posterUrl) {
+        this.posterUrl = posterUrl;
+    }
+
+    /**
+     * Getter for maxAttendees
+     * @return Maximum number of attendees allowed.
+     */
+    @PropertyName("maxAttendees")
+    public int getMaxAttendees() {
+        return maxAttendees;
+    }
+
+    /**
+     * Setter for maxAttendees
+     * @param maxAttendees Maximum number of attendees allowed.
+     */
+    @PropertyName("maxAttendees")
+    public void setMaxAttendees(int maxAttendees) {
+        this.maxAttendees = maxAttendees;
+    }
+
+    /**
+     * Getter for currentAttendees
+     * @return Current number of confirmed attendees.
+     */
+    @PropertyName("currentAttendees")
+    public int getCurrentAttendees() {
+        return currentAttendees;
+    }
+
+    /**
+     * Setter for currentAttendees
+     * @param currentAttendees Current number of confirmed attendees.
+     */
+    @PropertyName("currentAttendees")
+    public void setCurrentAttendees(int currentAttendees) {
+        this.currentAttendees = currentAttendees;
+    }
+
+    /**
+     * Getter for maxWaitlist
+     * @return Maximum number of users allowed on the waitlist, null if unlimited.
+     */
+    @PropertyName("maxWaitlist")
+    public Integer getMaxWaitlist() {
+        return maxWaitlist;
+    }
+
+    /**
+     * Setter for maxWaitlist
+     * @param maxWaitlist Maximum number of users allowed on the waitlist.
+     */
+    @PropertyName("maxWaitlist")
+    public void setMaxWaitlist(Integer maxWaitlist) {
+        this.maxWaitlist = maxWaitlist;
+    }
+
+    /**
+     * Getter for currentWaitlist
+     * @return Current number of users on the waitlist.
+     */
+    @PropertyName("currentWaitlist")
+    public Integer getCurrentWaitlist() {
+        return currentWaitlist;
+    }
+
+    /**
+     * Setter for currentWaitlist
+     * @param currentWaitlist Current number of users on the waitlist.
+     */
+    @PropertyName("currentWaitlist")
+    public void setCurrentWaitlist(Integer currentWaitlist) {
+        this.currentWaitlist = currentWaitlist;
+    }
+
+    /**
+     * Getter for organizerId
+     * @return UID of the event organizer.
+     */
+    @PropertyName("organizerId")
+    public String getOrganizerId() {
+        return organizerId;
+    }
+
+    /**
+     * Setter for organizerId
+     * @param organizerId UID of the event organizer.
+     */
+    @PropertyName("organizerId")
+    public void setOrganizerId(String organizerId) {
+        this.organizerId = organizerId;
+    }
+}
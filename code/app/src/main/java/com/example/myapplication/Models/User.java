@@ -1,5 +1,6 @@
 package com.example.myapplication.Models;
 
+import com.example.myapplication.Search.SearchTokens;
 import com.google.firebase.firestore.PropertyName;
 
 import java.util.HashMap;
@@ -24,6 +25,9 @@ public class User {
     private boolean notificationsPerm;
     private boolean isOrganizer;
 
+    private String searchName;
+    private List<String> searchPrefixes;
+
     private Map<String, EventAttendance> eventsAttending; // Key: eventId, Value: attendance details
     private List<Event> events; // List of events the user is associated with
 
@@ -331,6 +335,52 @@ public class User {
         }
     }
 
+    // ------------------------ Search Fields ------------------------
+
+    /**
+     * Getter for searchName
+     * @return Normalized name used for prefix range queries.
+     */
+    @PropertyName("searchName")
+    public String getSearchName() {
+        return searchName;
+    }
+
+    /**
+     * Setter for searchName
+     * @param searchName Normalized name used for prefix range queries.
+     */
+    @PropertyName("searchName")
+    public void setSearchName(String searchName) {
+        this.searchName = searchName;
+    }
+
+    /**
+     * Getter for searchPrefixes
+     * @return Prefixes of every word in the name and email.
+     */
+    @PropertyName("searchPrefixes")
+    public List<String> getSearchPrefixes() {
+        return searchPrefixes;
+    }
+
+    /**
+     * Setter for searchPrefixes
+     * @param searchPrefixes Prefixes of every word in the name and email.
+     */
+    @PropertyName("searchPrefixes")
+    public void setSearchPrefixes(List<String> searchPrefixes) {
+        this.searchPrefixes = searchPrefixes;
+    }
+
+    /**
+     * Recomputes the search fields from the current user name and email, call before writing the user.
+     */
+    public void updateSearchFields() {
+        this.searchName = SearchTokens.normalize(name);
+        this.searchPrefixes = SearchTokens.prefixes(name, email);
+    }
+
     // ------------------------ Inner Class: EventAttendance ------------------------
 
     /**
@@ -5,6 +5,7 @@ import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Intent;
 import android.os.Build;
+import android.provider.Settings;
 import android.util.Log;
 import android.widget.Toast;
 
@@ -23,6 +24,7 @@ import com.google.firebase.firestore.QuerySnapshot;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,18 +43,20 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     @Override
     public void onCreate() {
         super.onCreate();
-        firestore = FirebaseFirestore.getInstance();
+        firestore = FirebaseServices.firestore();
     }
 
     /**
      * Fetches users from Firestore based on the specified group type and whether they have
      * notifications enabled.
      *
+     * @deprecated Group announcements are sent to event topics, see {@link EventTopics}.
      * @param groupType The group type to filter users by.
      * @param listener An instance of OnUsersFetchedListener to handle the result of the fetch.
      */
+    @Deprecated
     public void fetchUsersWithNotificationsEnabled(String groupType, OnUsersFetchedListener listener) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        FirebaseFirestore db = FirebaseServices.firestore();
 
         // Fetch the users who match the criteria
         db.collection("users")
@@ -105,6 +109,52 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
         }
     }
 
+    /**
+     * Shows a push received while the app is in the foreground, such as an event topic
+     * announcement. Topic sends reach every subscribed device, so the user's notification
+     * setting is checked here instead of by the sender.
+     *
+     * @param remoteMessage The received message.
+     */
+    @Override
+    public void onMessageReceived(@NonNull RemoteMessage remoteMessage) {
+        String title = remoteMessage.getData().get("title");
+        String message = remoteMessage.getData().get("message");
+        RemoteMessage.Notification notification = remoteMessage.getNotification();
+        if (notification != null) {
+            title = notification.getTitle();
+            message = notification.getBody();
+        }
+        if (title == null || message == null) {
+            return;
+        }
+
+        // Announcements about an event carry its id, so the event is cached before the tap opens it
+        String eventId = remoteMessage.getData().get(NotificationService.FIELD_EVENT_ID);
+        if (eventId != null) {
+            EventPrefetcher.prefetch(this, eventId);
+        }
+
+        String deviceId = Settings.Secure.getString(getContentResolver(), Settings.Secure.ANDROID_ID);
+        String shownTitle = title;
+        String shownMessage = message;
+        FirestoreGateway.get(firestore.collection("users").document(deviceId), "MyFirebaseMessagingService.onMessageReceived")
+                .addOnSuccessListener(profile -> {
+                    if (!Boolean.TRUE.equals(profile.getBoolean("notificationsPerm"))) {
+                        return;
+                    }
+                    if (eventId != null) {
+                        NotificationService.showGroup(this, eventId, Collections.singletonList(shownTitle),
+                                Collections.singletonList(shownMessage));
+                    } else {
+                        Map<String, Object> user = new HashMap<>();
+                        user.put("userId", deviceId);
+                        NotificationService.sendNotificationWithoutSaving(user, this, shownTitle, shownMessage);
+                    }
+                })
+                .addOnFailureListener(e -> Log.e("MyFirebaseMessaging", "Failed to read notification setting", e));
+    }
+
     /**
      * Called when a new token for the device is generated. This can be used to send
      * the token to your server for user identification and push notifications.
@@ -0,0 +1,36 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+import androidx.work.WorkManagerInitializer;
+
+import com.google.firebase.FirebaseApp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * App Startup initializer that schedules the notification cleanup, see {@link NotificationCleanupWorker}.
+ */
+public class NotificationCleanupInitializer implements Initializer<Void> {
+    private static final String TAG = "NotificationCleanupInit";
+
+    @Override
+    public Void create(@NonNull Context context) {
+        if (FirebaseApp.getApps(context).isEmpty()) {
+            Log.d(TAG, "FirebaseApp not initialized, not scheduling notification cleanup");
+            return null;
+        }
+        NotificationCleanupWorker.schedule(context);
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Arrays.<Class<? extends Initializer<?>>>asList(WorkManagerInitializer.class, FirestoreInitializer.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.myapplication;
+
+import android.content.Context;
+import android.provider.Settings;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.myapplication.Repositories.NotificationRetention;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Daily background job that keeps the notifications collection bounded, see
+ * {@link NotificationRetention}. It dates this user's legacy notifications and compacts their
+ * inbox. On admins' devices and against the emulator it then deletes expired notifications of
+ * every user, so projects without the TTL policy are cleaned up too, without every entrant's
+ * device querying the whole collection each day.
+ */
+public class NotificationCleanupWorker extends Worker {
+    private static final String TAG = "NotificationCleanup";
+
+    static final String WORK_NAME = "notification-cleanup";
+
+    private static final long PERIOD_HOURS = 24;
+
+    private static final long STEP_TIMEOUT_MS = 120_000;
+
+    // Records that an admin signed in on this device, so it also deletes expired notifications
+    private static final String PREFS = "notification-cleanup";
+    private static final String PREF_DELETE_EXPIRED = "delete-expired";
+
+    /**
+     * Constructor for NotificationCleanupWorker, called by WorkManager.
+     * @param context The application context.
+     * @param params The work parameters.
+     */
+    public NotificationCleanupWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily cleanup, keeping the existing schedule if there is one.
+     * @param context Any context.
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(NotificationCleanupWorker.class,
+                PERIOD_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Lets the cleanup on this device delete expired notifications of every user. Called from
+     * the admin profile screen only.
+     * @param context Any context.
+     */
+    public static void enableDeleteExpired(Context context) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit().putBoolean(PREF_DELETE_EXPIRED, true).apply();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (FirebaseApp.getApps(getApplicationContext()).isEmpty()) {
+            return Result.success();
+        }
+        FirebaseFirestore db = FirebaseServices.firestore();
+        String deviceId = Settings.Secure.getString(getApplicationContext().getContentResolver(),
+                Settings.Secure.ANDROID_ID);
+        try {
+            int backfilled = Tasks.await(NotificationRetention.backfill(db, deviceId,
+                    "NotificationCleanupWorker.backfill"), STEP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            int compacted = Tasks.await(NotificationRetention.compactInbox(db, deviceId,
+                    "NotificationCleanupWorker.compactInbox"), STEP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            int deleted = 0;
+            if (!BuildConfig.FIRESTORE_EMULATOR_HOST.isEmpty() || getApplicationContext()
+                    .getSharedPreferences(PREFS, Context.MODE_PRIVATE).getBoolean(PREF_DELETE_EXPIRED, false)) {
+                deleted = Tasks.await(NotificationRetention.deleteExpired(db, Timestamp.now(),
+                        "NotificationCleanupWorker.deleteExpired"), STEP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+            Log.d(TAG, "Backfilled " + backfilled + ", compacted " + compacted + ", deleted " + deleted
+                    + " notifications");
+            return Result.success();
+        } catch (ExecutionException | InterruptedException | TimeoutException e) {
+            Log.e(TAG, "Notification cleanup failed", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.myapplication;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the notifications produced by one operation, such as a draw, and writes them
+ * together. Messages to the same user about the same event are coalesced into one notification
+ * document, and the documents are written in batches instead of one request each. A message to
+ * a user over the {@link NotificationRateLimiter} limit is folded into a notification already
+ * queued for them, or skipped if there is none. Draw results are added with
+ * {@link #addExempt}, so they are never skipped.
+ */
+public class NotificationOutbox {
+    private static final String TAG = "NotificationOutbox";
+
+    // Firestore limit on operations per batch
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Shared by every outbox in the process, so the limit holds across operations
+    private static final NotificationRateLimiter sharedLimiter = new NotificationRateLimiter(
+            NotificationRateLimiter.DEFAULT_MAX_PER_WINDOW, NotificationRateLimiter.DEFAULT_WINDOW_MS);
+
+    private final FirebaseFirestore db;
+    private final NotificationRateLimiter limiter;
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    // The notification last queued for each user, which takes their messages over the limit
+    private final Map<String, Pending> latest = new HashMap<>();
+
+    /**
+     * Constructor for NotificationOutbox, using the process-wide rate limit.
+     * @param db The Firestore instance.
+     */
+    public NotificationOutbox(FirebaseFirestore db) {
+        this(db, sharedLimiter);
+    }
+
+    NotificationOutbox(FirebaseFirestore db, NotificationRateLimiter limiter) {
+        this.db = db;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Queues a notification.
+     * @param userId The recipient's device id.
+     * @param eventId The event the notification is about, or null.
+     * @param title The title of the notification.
+     * @param message The content text of the notification.
+     * @return False if the recipient is over the rate limit with nothing queued, and the
+     *         notification was dropped.
+     */
+    public synchronized boolean add(String userId, String eventId, String title, String message) {
+        return add(userId, eventId, title, message, false);
+    }
+
+    /**
+     * Queues a notification that is sent even if the recipient is over the rate limit, for
+     * draw results, which an entrant has no other way to learn. Under the limit it uses up one
+     * of the recipient's notifications like any other.
+     * @param userId The recipient's device id.
+     * @param eventId The event the notification is about, or null.
+     * @param title The title of the notification.
+     * @param message The content text of the notification.
+     */
+    public synchronized void addExempt(String userId, String eventId, String title, String message) {
+        add(userId, eventId, title, message, true);
+    }
+
+    private boolean add(String userId, String eventId, String title, String message, boolean exempt) {
+        String key = userId + "/" + eventId;
+        Pending existing = pending.get(key);
+        if (existing != null) {
+            existing.add(eventId, title, message);
+            return true;
+        }
+        if (!limiter.tryAcquire(userId, System.currentTimeMillis())) {
+            Pending queued = latest.get(userId);
+            if (queued != null) {
+                queued.add(eventId, title, message);
+                return true;
+            }
+            if (!exempt) {
+                Log.w(TAG, "Rate limit reached for user " + userId + ", dropping: " + title);
+                return false;
+            }
+        }
+        Pending notification = new Pending(userId, eventId, title, message);
+        pending.put(key, notification);
+        latest.put(userId, notification);
+        return true;
+    }
+
+    /**
+     * Getter for the notification documents the queued messages coalesce into.
+     * @return One document per user and event, in the order they were first queued.
+     */
+    synchronized List<Map<String, Object>> documents() {
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (Pending notification : pending.values()) {
+            documents.add(notification.toData());
+        }
+        return documents;
+    }
+
+    /**
+     * Writes the queued notifications and empties the outbox.
+     * @param callSite Name of the calling code.
+     * @return Task completing once every batch is committed.
+     */
+    public Task<Void> flush(String callSite) {
+        List<Map<String, Object>> documents;
+        synchronized (this) {
+            documents = documents();
+            pending.clear();
+            latest.clear();
+        }
+        CollectionReference notifications = db.collection("notifications");
+        List<Task<Void>> commits = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i += MAX_BATCH_SIZE) {
+            List<Map<String, Object>> chunk = documents.subList(i, Math.min(i + MAX_BATCH_SIZE, documents.size()));
+            WriteBatch batch = db.batch();
+            for (Map<String, Object> document : chunk) {
+                batch.set(notifications.document(), document);
+            }
+            commits.add(FirestoreGateway.commit(batch, chunk.size(), callSite));
+        }
+        return Tasks.whenAll(commits);
+    }
+
+    /**
+     * Messages queued for one user about one event.
+     */
+    private static final class Pending {
+        private final String userId;
+        private String eventId;
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+
+        Pending(String userId, String eventId, String title, String message) {
+            this.userId = userId;
+            this.eventId = eventId;
+            titles.add(title);
+            messages.add(message);
+        }
+
+        void add(String eventId, String title, String message) {
+            // Messages about several events open the home screen rather than one of them
+            if (this.eventId != null && !this.eventId.equals(eventId)) {
+                this.eventId = null;
+            }
+            titles.add(title);
+            messages.add(message);
+        }
+
+        Map<String, Object> toData() {
+            // The latest title leads, every message is kept on its own line
+            String title = titles.get(titles.size() - 1);
+            StringBuilder message = new StringBuilder(messages.get(0));
+            for (int i = 1; i < messages.size(); i++) {
+                message.append('\n').append(messages.get(i));
+            }
+            Map<String, Object> data = NotificationService.notificationData(userId, eventId, title, message.toString());
+            data.put(NotificationService.FIELD_COUNT, messages.size());
+            return data;
+        }
+    }
+}
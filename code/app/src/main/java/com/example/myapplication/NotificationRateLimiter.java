@@ -0,0 +1,82 @@
+package com.example.myapplication;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Sliding-window limit on the notifications sent to each user, so a burst of draws or
+ * announcements cannot flood one entrant's device and inbox.
+ */
+public final class NotificationRateLimiter {
+
+    // Defaults for the app: five notifications per user every ten minutes
+    public static final int DEFAULT_MAX_PER_WINDOW = 5;
+    public static final long DEFAULT_WINDOW_MS = 10 * 60_000;
+
+    // Users tracked before those idle for a whole window are dropped
+    static final int SWEEP_THRESHOLD = 1000;
+
+    private final int maxPerWindow;
+    private final long windowMs;
+    private final Map<String, Deque<Long>> sends = new HashMap<>();
+    // Doubles with the users still active after a sweep, so sweeps cost O(1) per send on average
+    private int sweepAt = SWEEP_THRESHOLD;
+
+    /**
+     * Constructor for NotificationRateLimiter.
+     * @param maxPerWindow The number of notifications a user may get within a window.
+     * @param windowMs The window length in milliseconds.
+     */
+    public NotificationRateLimiter(int maxPerWindow, long windowMs) {
+        this.maxPerWindow = maxPerWindow;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Records a notification to a user if the user is under the limit.
+     * @param userId The recipient's device id.
+     * @param nowMs The current time in milliseconds.
+     * @return True if the notification may be sent, false if it is over the limit.
+     */
+    public synchronized boolean tryAcquire(String userId, long nowMs) {
+        Deque<Long> recent = sends.get(userId);
+        if (recent == null) {
+            recent = new ArrayDeque<>();
+            sends.put(userId, recent);
+        }
+        while (!recent.isEmpty() && recent.peekFirst() <= nowMs - windowMs) {
+            recent.pollFirst();
+        }
+        if (recent.size() >= maxPerWindow) {
+            return false;
+        }
+        recent.addLast(nowMs);
+        if (sends.size() > sweepAt) {
+            sweep(nowMs);
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the number of users tracked.
+     * @return Users with a notification in the last window, and idle ones not swept yet.
+     */
+    synchronized int size() {
+        return sends.size();
+    }
+
+    // Drops the users whose last notification is a whole window old
+    private void sweep(long nowMs) {
+        Iterator<Deque<Long>> users = sends.values().iterator();
+        while (users.hasNext()) {
+            Deque<Long> recent = users.next();
+            if (recent.isEmpty() || recent.peekLast() <= nowMs - windowMs) {
+                users.remove();
+            }
+        }
+        sweepAt = Math.max(SWEEP_THRESHOLD, 2 * sends.size());
+    }
+}
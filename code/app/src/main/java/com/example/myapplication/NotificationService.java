@@ -16,14 +16,21 @@ import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.content.ContextCompat;
 
+import com.example.myapplication.Repositories.NotificationRetention;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for sending notifications to users.
@@ -32,6 +39,27 @@ public class NotificationService {
 
     private static final String TAG = "NotificationService";
 
+    // Optional notification fields: the event a notification is about and how many messages it coalesces
+    public static final String FIELD_EVENT_ID = "eventId";
+    public static final String FIELD_COUNT = "count";
+
+    // Retention fields, see NotificationRetention: when the notification was written and when it may be deleted
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_EXPIRES_AT = "expiresAt";
+
+    // Notifications are kept for 30 days
+    public static final long EXPIRES_AFTER_MS = 30L * 24 * 60 * 60_000;
+
+    // Notifications not about an event are grouped together
+    private static final String GENERAL_GROUP = "general";
+    // Id of the summary within its group's tag, the messages use ids from nextNotificationId
+    private static final int SUMMARY_ID = 0;
+    // Lines listed in a group summary
+    private static final int SUMMARY_LINES = 5;
+
+    // Seeded from the clock so ids stay clear of those shown by an earlier run
+    private static final AtomicInteger nextNotificationId = new AtomicInteger((int) (System.currentTimeMillis() / 1000));
+
     /**
      * Sends a notification to a user and saves the notification in Firebase.
      *
@@ -81,8 +109,8 @@ public class NotificationService {
                 .setContentIntent(pendingIntent)
                 .setAutoCancel(true);
 
-        // Unique notification ID
-        int notificationId = (int) System.currentTimeMillis();
+        // Unique notification ID, the clock can give two notifications the same one
+        int notificationId = nextNotificationId.incrementAndGet();
 
         // Show the notification
         NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
@@ -104,26 +132,117 @@ public class NotificationService {
             return;
         }
 
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        FirebaseFirestore db = FirebaseServices.firestore();
+        // The newest notifications of the capped inbox, instead of the user's whole history
+        long now = System.currentTimeMillis();
         db.collection("notifications")
                 .whereEqualTo("userId", deviceId)
+                .orderBy(FIELD_CREATED_AT, Query.Direction.DESCENDING)
+                .limit(NotificationRetention.INBOX_LIMIT)
                 .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
+                    // Notifications about the same event are shown as one group
+                    Map<String, List<QueryDocumentSnapshot>> groups = new LinkedHashMap<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        String title = document.getString("title");
-                        String message = document.getString("message");
-
-                        if (title != null && message != null) {
-                            Log.d(TAG, "Displaying notification - Title: " + title + ", Message: " + message);
-                            Map<String, Object> user = new HashMap<>();
-                            user.put("userId", deviceId);
-                            sendNotificationWithoutSaving(user, context, title, message);
+                        if (document.getString("title") == null || document.getString("message") == null) {
+                            continue;
+                        }
+                        // Expired notifications wait for the cleanup job, but are not shown again
+                        Timestamp expiresAt = document.getTimestamp(FIELD_EXPIRES_AT);
+                        if (expiresAt != null && expiresAt.toDate().getTime() <= now) {
+                            continue;
+                        }
+                        String eventId = document.getString(FIELD_EVENT_ID);
+                        String group = eventId != null ? eventId : GENERAL_GROUP;
+                        List<QueryDocumentSnapshot> members = groups.get(group);
+                        if (members == null) {
+                            members = new ArrayList<>();
+                            groups.put(group, members);
                         }
+                        members.add(document);
+                    }
+                    for (Map.Entry<String, List<QueryDocumentSnapshot>> group : groups.entrySet()) {
+                        List<String> titles = new ArrayList<>();
+                        List<String> messages = new ArrayList<>();
+                        for (QueryDocumentSnapshot document : group.getValue()) {
+                            titles.add(document.getString("title"));
+                            messages.add(document.getString("message"));
+                        }
+                        Log.d(TAG, "Displaying " + titles.size() + " notifications in group " + group.getKey());
+                        showGroup(context, group.getKey(), titles, messages);
                     }
                 })
                 .addOnFailureListener(e -> Log.e(TAG, "Error fetching notifications: ", e));
     }
 
+    /**
+     * Shows the notifications of one group, e.g. one event, bundled under a summary so a burst
+     * takes one place in the notification shade. A single notification is shown on its own.
+     *
+     * @param context  The context to post from.
+     * @param group    The group key, an event id or the general group.
+     * @param titles   The titles of the notifications.
+     * @param messages The content texts, in the same order.
+     */
+    static void showGroup(Context context, String group, List<String> titles, List<String> messages) {
+        if (titles.isEmpty()) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            Log.d(TAG, "Notification permission not granted.");
+            return;
+        }
+        // Notifications about an event open that event, the rest open the home screen
+        PendingIntent pendingIntent;
+        if (GENERAL_GROUP.equals(group)) {
+            Intent intent = new Intent(context, MainActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            pendingIntent = PendingIntent.getActivity(context, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+        } else {
+            pendingIntent = EventLinks.pendingIntent(context, group);
+        }
+        String groupKey = context.getPackageName() + ".notifications." + group;
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+
+        for (int i = 0; i < titles.size(); i++) {
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, NotificationUtils.getChannelId())
+                    .setSmallIcon(R.drawable.ic_notif)
+                    .setContentTitle(titles.get(i))
+                    .setContentText(messages.get(i))
+                    .setStyle(new NotificationCompat.BigTextStyle().bigText(messages.get(i)))
+                    .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setContentIntent(pendingIntent)
+                    .setGroup(groupKey)
+                    // Only the summary alerts, not every message of the burst
+                    .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                    .setAutoCancel(true);
+            notificationManager.notify(group, nextNotificationId.incrementAndGet(), builder.build());
+        }
+        if (titles.size() == 1) {
+            return;
+        }
+
+        NotificationCompat.InboxStyle inbox = new NotificationCompat.InboxStyle()
+                .setSummaryText(titles.size() + " updates");
+        for (int i = Math.max(0, titles.size() - SUMMARY_LINES); i < titles.size(); i++) {
+            inbox.addLine(titles.get(i) + " " + messages.get(i));
+        }
+        NotificationCompat.Builder summary = new NotificationCompat.Builder(context, NotificationUtils.getChannelId())
+                .setSmallIcon(R.drawable.ic_notif)
+                .setContentTitle(titles.get(titles.size() - 1))
+                .setContentText(titles.size() + " updates")
+                .setStyle(inbox)
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setContentIntent(pendingIntent)
+                .setGroup(groupKey)
+                .setGroupSummary(true)
+                .setAutoCancel(true);
+        // The same tag and id every time, so a later burst updates the summary instead of adding one
+        notificationManager.notify(group, SUMMARY_ID, summary.build());
+    }
+
     /**
      * Sends a notification to a user without saving it to Firebase.
      *
@@ -174,8 +293,8 @@ public class NotificationService {
                 .setContentIntent(pendingIntent)
                 .setAutoCancel(true);
 
-        // Unique notification ID
-        int notificationId = (int) System.currentTimeMillis();
+        // Unique notification ID, the clock can give two notifications the same one
+        int notificationId = nextNotificationId.incrementAndGet();
 
         // Show the notification
         NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
@@ -213,8 +332,38 @@ public class NotificationService {
      * @param message  The content text of the notification.
      */
     private static void saveNotificationToFirebase(String userId, String title, String message) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        FirebaseFirestore db = FirebaseServices.firestore();
 
+        db.collection("notifications")
+                .add(notificationData(userId, title, message))
+                .addOnSuccessListener(documentReference -> Log.d(TAG, "Notification saved with ID: " + documentReference.getId()))
+                .addOnFailureListener(e -> Log.e(TAG, "Error saving notification", e));
+    }
+
+    /**
+     * Builds a notification document as read by {@link #receiveNotifications(String, Context)},
+     * for code that writes notifications in its own batches.
+     *
+     * @param userId  The device ID of the recipient.
+     * @param title   The title of the notification.
+     * @param message The content text of the notification.
+     * @return The notification fields.
+     */
+    public static Map<String, Object> notificationData(String userId, String title, String message) {
+        return notificationData(userId, null, title, message);
+    }
+
+    /**
+     * Builds a notification document about an event, grouped with the event's other
+     * notifications when shown.
+     *
+     * @param userId  The device ID of the recipient.
+     * @param eventId The event the notification is about, or null.
+     * @param title   The title of the notification.
+     * @param message The content text of the notification.
+     * @return The notification fields.
+     */
+    public static Map<String, Object> notificationData(String userId, String eventId, String title, String message) {
         Date currentDate = new Date();
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
         String formattedDate = formatter.format(currentDate);
@@ -224,10 +373,11 @@ public class NotificationService {
         notificationData.put("title", title);
         notificationData.put("message", message);
         notificationData.put("timestamp", formattedDate);
-
-        db.collection("notifications")
-                .add(notificationData)
-                .addOnSuccessListener(documentReference -> Log.d(TAG, "Notification saved with ID: " + documentReference.getId()))
-                .addOnFailureListener(e -> Log.e(TAG, "Error saving notification", e));
+        notificationData.put(FIELD_CREATED_AT, new Timestamp(currentDate));
+        notificationData.put(FIELD_EXPIRES_AT, new Timestamp(new Date(currentDate.getTime() + EXPIRES_AFTER_MS)));
+        if (eventId != null) {
+            notificationData.put(FIELD_EVENT_ID, eventId);
+        }
+        return notificationData;
     }
 }
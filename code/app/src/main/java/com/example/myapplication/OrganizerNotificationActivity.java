@@ -18,6 +18,8 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.Models.Event;
+import com.example.myapplication.Models.EventSummary;
+import com.example.myapplication.Repositories.EventSummaries;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
@@ -60,7 +62,7 @@ public class OrganizerNotificationActivity extends BaseActivity {
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
 
 
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
         deviceId = retrieveDeviceId(); // Retrieve the organizer's deviceId
 
         eventAdapter = new OrganizerEventAdapter(new ArrayList<>(), this);
@@ -75,13 +77,12 @@ public class OrganizerNotificationActivity extends BaseActivity {
      * Fetches events organized by the current user.
      */
     private void fetchOrganizedEvents() {
-        db.collection("Events")
-                .whereEqualTo("organizerId", deviceId) // Match organizerId with deviceId
-                .get()
+        FirestoreGateway.get(db.collection(EventSummaries.COLLECTION)
+                .whereEqualTo("organizerId", deviceId), "OrganizerNotificationActivity.fetchOrganizedEvents") // Match organizerId with deviceId
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<Event> events = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        Event event = document.toObject(Event.class);
+                        Event event = document.toObject(EventSummary.class).toEvent();
                         if (event != null) {
                             event.setEventId(document.getId());
                             events.add(event);
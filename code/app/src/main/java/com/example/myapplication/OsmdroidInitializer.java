@@ -0,0 +1,42 @@
+package com.example.myapplication;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.AppInitializer;
+import androidx.startup.Initializer;
+
+import org.osmdroid.config.Configuration;
+import org.osmdroid.config.IConfigurationProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * App Startup initializer for osmdroid. It is not run at launch; map screens call
+ * {@link #ensureInitialized(Context)} before inflating a MapView.
+ */
+public class OsmdroidInitializer implements Initializer<IConfigurationProvider> {
+
+    /**
+     * Initializes osmdroid the first time a map is shown. Later calls return immediately.
+     * @param context Any context, the application context is used.
+     */
+    public static void ensureInitialized(@NonNull Context context) {
+        AppInitializer.getInstance(context.getApplicationContext()).initializeComponent(OsmdroidInitializer.class);
+    }
+
+    @NonNull
+    @Override
+    public IConfigurationProvider create(@NonNull Context context) {
+        IConfigurationProvider configuration = Configuration.getInstance();
+        configuration.setUserAgentValue(context.getPackageName());
+        return configuration;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.myapplication;
+
+import com.google.android.gms.tasks.Task;
+
+/**
+ * Sends push messages to topics and manages this device's topic subscriptions, so a group
+ * announcement is one send instead of one notification per user.
+ * The app uses {@link FcmPushGateway}; tests can swap in an in-memory gateway through
+ * {@link FirebaseServices}.
+ */
+public interface PushGateway {
+
+    /**
+     * Subscribes this device to a topic.
+     * @param topic The topic name.
+     * @return Task completing once the subscription is registered.
+     */
+    Task<Void> subscribe(String topic);
+
+    /**
+     * Unsubscribes this device from a topic.
+     * @param topic The topic name.
+     * @return Task completing once the subscription is removed.
+     */
+    Task<Void> unsubscribe(String topic);
+
+    /**
+     * Sends a notification to every device subscribed to a topic.
+     * @param topic The topic name.
+     * @param title The title of the notification.
+     * @param message The content text of the notification.
+     * @return Task completing once the message is accepted for delivery.
+     */
+    Task<Void> sendToTopic(String topic, String title, String message);
+}
@@ -1,6 +1,5 @@
 package com.example.myapplication;
 
-import android.content.Intent;
 import android.media.Image;
 import android.os.Bundle;
 import android.util.Log;
@@ -179,14 +178,12 @@ public class QRScannerFragment extends Fragment {
      */
     private void handleScannedData(String data) {
         Log.d(TAG, "Scanned Data: " + data);
-        if (data.startsWith("eventapp://event/")) {
-            String eventId = data.substring(data.lastIndexOf('/') + 1);
+        String eventId = EventLinks.eventId(data);
+        if (eventId != null) {
             Log.d(TAG, "Parsed Event ID: " + eventId);
 
             // Open EventSignupActivity with the parsed eventId
-            Intent intent = new Intent(getActivity(), EventSignupActivity.class);
-            intent.putExtra("eventId", eventId);
-            startActivity(intent);
+            startActivity(EventLinks.intent(requireContext(), eventId));
         } else {
             Log.e(TAG, "Invalid QR code format.");
             Toast.makeText(getContext(), "Invalid QR code", Toast.LENGTH_SHORT).show();
@@ -0,0 +1,43 @@
+package com.example.myapplication;
+
+import com.google.firebase.firestore.Source;
+
+/**
+ * Where a repository read is served from, declared by each read through
+ * {@link FirestoreGateway}. Screens that show data the user has seen before read
+ * {@link #CACHE_THEN_SERVER} so they render at once from the persistent cache configured in
+ * {@link FirestoreInitializer}; reads that feed a write use {@link #SERVER_ONLY}.
+ */
+public enum ReadPolicy {
+    /**
+     * The cached copy first, if there is one, then the server's. The server's replaces it
+     * when it arrives, and the cached copy stands in when the server cannot be reached.
+     */
+    CACHE_THEN_SERVER,
+
+    /**
+     * The server's copy only, failing when offline. For reads whose result is written back.
+     */
+    SERVER_ONLY,
+
+    /**
+     * The cached copy only, failing when nothing is cached. Costs no reads.
+     */
+    CACHE_ONLY;
+
+    /**
+     * Getter for the source of the final read.
+     * @return The source the read's task is answered from.
+     */
+    public Source source() {
+        return this == CACHE_ONLY ? Source.CACHE : Source.SERVER;
+    }
+
+    /**
+     * Tells whether the cached copy is read before the final read.
+     * @return True if the cache is read first.
+     */
+    public boolean readsCacheFirst() {
+        return this == CACHE_THEN_SERVER;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Models.AdminStats;
+import com.example.myapplication.ReadPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Totals for the admin screen. A daily job computes them with count() and sum() aggregation
+ * queries, billed one read per 1000 index entries, and stores them in one document per day.
+ * The admin screen reads the latest day and the day a week before it, two reads however large
+ * the collections grow, instead of downloading the collections to count them.
+ */
+public final class AdminStatsRepository {
+
+    public static final String COLLECTION = "adminStats";
+
+    // Days between the totals compared on the admin screen
+    static final int TREND_DAYS = 7;
+
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    private AdminStatsRepository() {
+    }
+
+    /**
+     * The totals shown on the admin screen.
+     */
+    public static final class Dashboard {
+        public final AdminStats latest;
+        // Null until the job has run for a week
+        public final AdminStats weekBefore;
+
+        Dashboard(AdminStats latest, AdminStats weekBefore) {
+            this.latest = latest;
+            this.weekBefore = weekBefore;
+        }
+    }
+
+    /**
+     * Reads the latest stored totals and those of a week before. If no totals were ever
+     * stored, today's are computed and stored first.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @param callSite Name of the calling code.
+     * @return Task with the dashboard totals.
+     */
+    public static Task<Dashboard> fetchDashboard(FirebaseFirestore db, Date now, String callSite) {
+        Query latest = db.collection(COLLECTION).orderBy(FieldPath.documentId(), Query.Direction.DESCENDING).limit(1);
+        return FirestoreGateway.get(latest, ReadPolicy.CACHE_THEN_SERVER, callSite).onSuccessTask(snapshot -> {
+            if (snapshot.isEmpty()) {
+                return recordDaily(db, now, callSite).onSuccessTask(stats -> Tasks.forResult(new Dashboard(stats, null)));
+            }
+            AdminStats stats = snapshot.getDocuments().get(0).toObject(AdminStats.class);
+            String weekBefore = dayBefore(stats.getDay(), TREND_DAYS);
+            if (weekBefore == null) {
+                return Tasks.forResult(new Dashboard(stats, null));
+            }
+            return FirestoreGateway.get(db.collection(COLLECTION).document(weekBefore), ReadPolicy.CACHE_THEN_SERVER, callSite)
+                    .continueWith(older -> new Dashboard(stats, older.isSuccessful() && older.getResult().exists()
+                            ? older.getResult().toObject(AdminStats.class) : null));
+        });
+    }
+
+    /**
+     * Stores today's totals unless they already are, so the job running on several admins'
+     * devices computes them once.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @param callSite Name of the calling code.
+     * @return Task with true if the totals were computed.
+     */
+    public static Task<Boolean> recordDailyIfMissing(FirebaseFirestore db, Date now, String callSite) {
+        DocumentReference today = db.collection(COLLECTION).document(dayKey(now));
+        return FirestoreGateway.get(today, ReadPolicy.SERVER_ONLY, callSite).onSuccessTask(existing -> {
+            if (existing.exists()) {
+                return Tasks.forResult(false);
+            }
+            return recordDaily(db, now, callSite).onSuccessTask(stats -> Tasks.forResult(true));
+        });
+    }
+
+    /**
+     * Computes the current totals and stores them as today's.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @param callSite Name of the calling code.
+     * @return Task with the stored totals.
+     */
+    public static Task<AdminStats> recordDaily(FirebaseFirestore db, Date now, String callSite) {
+        return compute(db, callSite).onSuccessTask(stats -> {
+            stats.setDay(dayKey(now));
+            stats.setComputedAt(new Timestamp(now));
+            return FirestoreGateway.set(db.collection(COLLECTION).document(stats.getDay()), stats, callSite)
+                    .onSuccessTask(written -> Tasks.forResult(stats));
+        });
+    }
+
+    /**
+     * Computes the current totals with five aggregation queries.
+     * @param db The Firestore instance.
+     * @param callSite Name of the calling code.
+     * @return Task with the totals, without a day.
+     */
+    public static Task<AdminStats> compute(FirebaseFirestore db, String callSite) {
+        AggregateField waitlisted = AggregateField.sum("currentWaitlist");
+        AggregateField attendees = AggregateField.sum("currentAttendees");
+        Task<AggregateQuerySnapshot> users = FirestoreGateway.aggregate(db.collection("users"), callSite);
+        Task<AggregateQuerySnapshot> organizers = FirestoreGateway.aggregate(db.collection("users")
+                .whereEqualTo("isOrganizer", true), callSite);
+        Task<AggregateQuerySnapshot> events = FirestoreGateway.aggregate(db.collection(EventSummaries.EVENTS_COLLECTION),
+                callSite, waitlisted, attendees);
+        Task<AggregateQuerySnapshot> facilities = FirestoreGateway.aggregate(db.collection("Facilities"), callSite);
+        Task<AggregateQuerySnapshot> notifications = FirestoreGateway.aggregate(
+                db.collection(NotificationRetention.COLLECTION), callSite);
+        return Tasks.whenAllSuccess(users, organizers, events, facilities, notifications).continueWith(done -> {
+            if (!done.isSuccessful()) {
+                throw Async.failure(done);
+            }
+            AdminStats stats = new AdminStats();
+            stats.setUsers(users.getResult().getCount());
+            stats.setOrganizers(organizers.getResult().getCount());
+            stats.setEvents(events.getResult().getCount());
+            stats.setWaitlisted(sum(events.getResult(), waitlisted));
+            stats.setAttendees(sum(events.getResult(), attendees));
+            stats.setFacilities(facilities.getResult().getCount());
+            stats.setNotifications(notifications.getResult().getCount());
+            return stats;
+        });
+    }
+
+    // A sum is a long over integer fields, a double if any is fractional, and null over no documents
+    private static long sum(AggregateQuerySnapshot snapshot, AggregateField field) {
+        Object value = snapshot.get(field);
+        return value instanceof Number ? Math.round(((Number) value).doubleValue()) : 0;
+    }
+
+    /**
+     * Formats a total with its change since an earlier one, e.g. "1,204 (+37 in 7 days)".
+     * @param now The current total.
+     * @param before The earlier total, or null if there is none.
+     * @return The formatted total.
+     */
+    public static String withTrend(long now, Long before) {
+        String total = String.format(Locale.getDefault(), "%,d", now);
+        if (before == null) {
+            return total;
+        }
+        long change = now - before;
+        return String.format(Locale.getDefault(), "%s (%s%,d in %d days)", total, change >= 0 ? "+" : "",
+                change, TREND_DAYS);
+    }
+
+    /**
+     * Builds the id of a day's totals.
+     * @param date Any time during the day.
+     * @return The UTC day, as yyyy-MM-dd.
+     */
+    public static String dayKey(Date date) {
+        return dayFormat().format(date);
+    }
+
+    /**
+     * Gives the id of the totals some days before a day.
+     * @param day The day, as yyyy-MM-dd.
+     * @param days The number of days to go back.
+     * @return The earlier day, or null if the day cannot be parsed.
+     */
+    static String dayBefore(String day, int days) {
+        if (day == null) {
+            return null;
+        }
+        try {
+            Date date = dayFormat().parse(day);
+            return dayKey(new Date(date.getTime() - days * DAY_MS));
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static SimpleDateFormat dayFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+        return format;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.myapplication.Repositories;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Combinators for the Tasks returned by the repositories.
+ * Repositories return Tasks so that independent reads can be started together and joined,
+ * instead of nesting one callback inside another.
+ */
+public final class Async {
+
+    /**
+     * Default timeout for repository reads, long enough for a slow network but short enough that a
+     * screen never waits forever on a request the SDK keeps retrying offline.
+     */
+    public static final long DEFAULT_TIMEOUT_MS = 15_000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private Async() {
+    }
+
+    /**
+     * Runs tasks in parallel and collects their results in the same order.
+     * Fails with the first failure if any task fails.
+     * @param tasks The tasks, already started.
+     * @return A task with every result.
+     */
+    public static <T> Task<List<T>> all(Collection<? extends Task<? extends T>> tasks) {
+        return Tasks.whenAllSuccess(tasks);
+    }
+
+    /**
+     * Fails the task if it has not finished within the given time.
+     * The underlying request is not stopped, its late result is ignored.
+     * @param task The task to wait for.
+     * @param timeoutMs The timeout in milliseconds.
+     * @return A task with the same result, or a TimeoutException.
+     */
+    public static <T> Task<T> withTimeout(Task<T> task, long timeoutMs) {
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        Runnable timeout = () -> source.trySetException(new TimeoutException("Timed out after " + timeoutMs + " ms"));
+        mainHandler.postDelayed(timeout, timeoutMs);
+        task.addOnCompleteListener(result -> {
+            mainHandler.removeCallbacks(timeout);
+            if (result.isSuccessful()) {
+                source.trySetResult(result.getResult());
+            } else {
+                source.trySetException(failure(result));
+            }
+        });
+        return source.getTask();
+    }
+
+    /**
+     * Applies the default timeout, see {@link #withTimeout(Task, long)}.
+     * @param task The task to wait for.
+     * @return A task with the same result, or a TimeoutException.
+     */
+    public static <T> Task<T> withTimeout(Task<T> task) {
+        return withTimeout(task, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * The reason an unsuccessful task did not complete. A cancelled task has no exception, so
+     * this gives a CancellationException instead of null for the caller to rethrow.
+     * @param task The finished, unsuccessful task.
+     * @return The exception to fail with.
+     */
+    public static Exception failure(Task<?> task) {
+        Exception exception = task.getException();
+        return exception != null ? exception : new CancellationException("Task was cancelled");
+    }
+
+    /**
+     * Returns a task that has already failed, used for argument checks.
+     * @param message The error message.
+     * @return The failed task.
+     */
+    public static <T> Task<T> failed(String message) {
+        return Tasks.forException(new Exception(message));
+    }
+}
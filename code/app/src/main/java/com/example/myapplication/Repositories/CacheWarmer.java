@@ -0,0 +1,88 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refreshes the signed-in user's own documents in the local cache when the app is launched, so
+ * the screens reading them with {@link com.example.myapplication.ReadPolicy#CACHE_THEN_SERVER}
+ * open on current data even on a poor network. Called from the launcher activity, not at
+ * process start, so background jobs don't pay for it. Only the user's profile, the events they organize and
+ * the events they joined are read, never the whole event list.
+ */
+public final class CacheWarmer {
+
+    // Joined events refreshed per launch, the rest are read when their screen opens
+    static final int MAX_JOINED_EVENTS = 20;
+
+    private static final String CALL_SITE = "CacheWarmer.warm";
+
+    private CacheWarmer() {
+    }
+
+    /**
+     * Reads the user's documents from the server into the cache. Which events the user joined
+     * is looked up in the cache, which costs no reads.
+     * @param db The Firestore instance.
+     * @param deviceId The user's device id.
+     * @return Task with the number of reads that succeeded, it never fails.
+     */
+    public static Task<Integer> warm(FirebaseFirestore db, String deviceId) {
+        List<Task<?>> reads = new ArrayList<>();
+        reads.add(FirestoreGateway.get(db.collection("users").document(deviceId), Source.SERVER, CALL_SITE));
+        reads.add(FirestoreGateway.get(db.collection(EventSummaries.COLLECTION)
+                .whereEqualTo("organizerId", deviceId), Source.SERVER, CALL_SITE));
+        Task<List<Task<?>>> joined = FirestoreGateway.get(db.collection(EventSummaries.COLLECTION), Source.CACHE,
+                CALL_SITE + ".cache").continueWithTask(summaries -> {
+            if (!summaries.isSuccessful()) {
+                return Tasks.<List<Task<?>>>forResult(new ArrayList<>());
+            }
+            return joinedEvents(db, summaries.getResult(), deviceId);
+        });
+        return joined.continueWithTask(joinedReads -> {
+            List<Task<?>> all = new ArrayList<>(reads);
+            all.addAll(joinedReads.getResult());
+            return Tasks.whenAllComplete(all);
+        }).continueWith(done -> {
+            int succeeded = 0;
+            for (Task<?> read : done.getResult()) {
+                if (read.isSuccessful()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        });
+    }
+
+    // Refreshes the event and waitlist entry of every cached event the user has an entry in
+    private static Task<List<Task<?>>> joinedEvents(FirebaseFirestore db, QuerySnapshot summaries, String deviceId) {
+        List<DocumentReference> events = new ArrayList<>();
+        List<Task<DocumentSnapshot>> entries = new ArrayList<>();
+        for (DocumentSnapshot summary : summaries) {
+            DocumentReference event = db.collection(EventSummaries.EVENTS_COLLECTION).document(summary.getId());
+            events.add(event);
+            entries.add(FirestoreGateway.get(event.collection("Waitlist").document(deviceId), Source.CACHE,
+                    CALL_SITE + ".cache"));
+        }
+        return Tasks.whenAllComplete(entries).continueWith(done -> {
+            List<Task<?>> reads = new ArrayList<>();
+            for (int i = 0; i < entries.size() && reads.size() < 2 * MAX_JOINED_EVENTS; i++) {
+                Task<DocumentSnapshot> entry = entries.get(i);
+                if (entry.isSuccessful() && entry.getResult().exists()) {
+                    reads.add(FirestoreGateway.get(events.get(i), Source.SERVER, CALL_SITE));
+                    reads.add(FirestoreGateway.get(entry.getResult().getReference(), Source.SERVER, CALL_SITE));
+                }
+            }
+            return reads;
+        });
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Lottery.EntrantCounts;
+import com.example.myapplication.ReadPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Corrects the currentWaitlist and currentAttendees counts of upcoming events. Sign-ups, draws
+ * and cancellations adjust the counts by reading and rewriting them, and concurrent updates can
+ * lose a change, so the counts drift from the waitlists. Each event's true counts are taken with
+ * two count() queries, billed one read per 1000 entries, instead of reading its waitlist.
+ */
+public final class CounterReconciliation {
+
+    public static final String FIELD_WAITLIST = EntrantCounts.FIELD_WAITLIST;
+    public static final String FIELD_ATTENDEES = EntrantCounts.FIELD_ATTENDEES;
+
+    // Daily totals of the drift found, one document per UTC day
+    public static final String DRIFT_COLLECTION = "counterDrift";
+
+    // Statuses counted by each field
+    static final List<String> WAITLIST_STATUSES = EntrantCounts.WAITLIST_STATUSES;
+    static final List<String> ATTENDEE_STATUSES = EntrantCounts.ATTENDEE_STATUSES;
+
+    // Event summaries checked per page, and pages per run, the rest are left for the next run
+    static final int PAGE_SIZE = 50;
+    static final int MAX_PAGES = 10;
+
+    private static final String WAITLIST_COLLECTION = "Waitlist";
+
+    // Firestore limit on values per whereIn
+    private static final int MAX_WHERE_IN = 30;
+
+    // Events that started more than a day ago are no longer checked
+    private static final long CHECK_AFTER_START_MS = 24 * 60 * 60 * 1000L;
+
+    private CounterReconciliation() {
+    }
+
+    /**
+     * What a run found: events checked and corrected, and the size of the corrections.
+     */
+    public static final class Drift {
+        public int checked;
+        public int corrected;
+        // Sum over corrected events of the differences of both counts
+        public long total;
+        // Largest difference of one count
+        public long max;
+
+        void add(Map<String, Object> changes, DocumentSnapshot event) {
+            corrected++;
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                long difference = Math.abs(((Number) change.getValue()).longValue() - recorded(event, change.getKey()));
+                total += difference;
+                max = Math.max(max, difference);
+            }
+        }
+
+        /**
+         * @return The fields of the day's drift document.
+         */
+        public Map<String, Object> toData() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("checked", checked);
+            data.put("corrected", corrected);
+            data.put("total", total);
+            data.put("max", max);
+            data.put("recordedAt", Timestamp.now());
+            return data;
+        }
+
+        @Override
+        public String toString() {
+            return "checked " + checked + ", corrected " + corrected + ", total drift " + total + ", max drift " + max;
+        }
+    }
+
+    /**
+     * Corrects the counts of upcoming events and records the drift found, unless that was already
+     * done today, so the job running on several admins' devices checks the events once a day.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @param callSite Name of the calling code.
+     * @return Task with the drift found, or null if today's run already happened.
+     */
+    public static Task<Drift> reconcileDailyIfMissing(FirebaseFirestore db, Date now, String callSite) {
+        DocumentReference today = db.collection(DRIFT_COLLECTION).document(AdminStatsRepository.dayKey(now));
+        return FirestoreGateway.get(today, ReadPolicy.SERVER_ONLY, callSite).onSuccessTask(existing -> {
+            if (existing.exists()) {
+                return Tasks.forResult(null);
+            }
+            Timestamp from = new Timestamp(new Date(now.getTime() - CHECK_AFTER_START_MS));
+            return reconcile(db, from, callSite).onSuccessTask(drift ->
+                    FirestoreGateway.set(today, drift.toData(), callSite).onSuccessTask(written -> Tasks.forResult(drift)));
+        });
+    }
+
+    /**
+     * Corrects the counts of events starting from a time, up to {@link #MAX_PAGES} pages a run.
+     * @param db The Firestore instance.
+     * @param from Events starting before this are skipped.
+     * @param callSite Name of the calling code.
+     * @return Task with the drift found.
+     */
+    public static Task<Drift> reconcile(FirebaseFirestore db, Timestamp from, String callSite) {
+        return reconcile(db, EventQueries.startingFrom(db, from).limit(PAGE_SIZE), 0, new Drift(), callSite);
+    }
+
+    private static Task<Drift> reconcile(FirebaseFirestore db, Query page, int pageNumber, Drift drift,
+                                         String callSite) {
+        return FirestoreGateway.get(page, callSite).onSuccessTask(summaries -> {
+            if (summaries.isEmpty()) {
+                return Tasks.forResult(drift);
+            }
+            return reconcilePage(db, summaries.getDocuments(), drift, callSite).onSuccessTask(done -> {
+                if (summaries.size() < PAGE_SIZE || pageNumber + 1 >= MAX_PAGES) {
+                    return Tasks.forResult(drift);
+                }
+                DocumentSnapshot last = summaries.getDocuments().get(summaries.size() - 1);
+                return reconcile(db, page.startAfter(last), pageNumber + 1, drift, callSite);
+            });
+        });
+    }
+
+    private static Task<Void> reconcilePage(FirebaseFirestore db, List<DocumentSnapshot> summaries, Drift drift,
+                                            String callSite) {
+        CollectionReference events = db.collection(EventSummaries.EVENTS_COLLECTION);
+        Map<String, Task<Long>> waiting = new HashMap<>();
+        Map<String, Task<Long>> attending = new HashMap<>();
+        List<Task<Long>> counts = new ArrayList<>();
+        for (DocumentSnapshot summary : summaries) {
+            CollectionReference waitlist = events.document(summary.getId()).collection(WAITLIST_COLLECTION);
+            Task<Long> waitingCount = FirestoreGateway.count(waitlist.whereIn("status", WAITLIST_STATUSES), callSite);
+            Task<Long> attendingCount = FirestoreGateway.count(waitlist.whereIn("status", ATTENDEE_STATUSES), callSite);
+            waiting.put(summary.getId(), waitingCount);
+            attending.put(summary.getId(), attendingCount);
+            counts.add(waitingCount);
+            counts.add(attendingCount);
+        }
+        return Tasks.whenAllSuccess(counts).onSuccessTask(done -> {
+            drift.checked += summaries.size();
+            // The summaries mirror the event counts, so only drifted events are read
+            List<String> drifted = new ArrayList<>();
+            for (DocumentSnapshot summary : summaries) {
+                if (!corrections(summary, waiting.get(summary.getId()).getResult(),
+                        attending.get(summary.getId()).getResult()).isEmpty()) {
+                    drifted.add(summary.getId());
+                }
+            }
+            List<Task<QuerySnapshot>> reads = new ArrayList<>();
+            for (int i = 0; i < drifted.size(); i += MAX_WHERE_IN) {
+                reads.add(FirestoreGateway.get(events.whereIn(FieldPath.documentId(),
+                        drifted.subList(i, Math.min(i + MAX_WHERE_IN, drifted.size()))), callSite));
+            }
+            return Tasks.whenAllSuccess(reads).onSuccessTask(snapshots -> {
+                List<Task<Void>> writes = new ArrayList<>();
+                for (Object snapshot : snapshots) {
+                    for (DocumentSnapshot event : (QuerySnapshot) snapshot) {
+                        // Compared again with the event itself, which may have changed since its summary was read
+                        Map<String, Object> changes = corrections(event, waiting.get(event.getId()).getResult(),
+                                attending.get(event.getId()).getResult());
+                        if (!changes.isEmpty()) {
+                            writes.add(correct(db, event, changes, drift, callSite));
+                        }
+                    }
+                }
+                return Tasks.whenAll(writes);
+            });
+        });
+    }
+
+    /**
+     * Writes the corrections of an event in a transaction that reads it again, and leaves it for
+     * the next run if a sign-up or draw changed its counts after they were compared, since the
+     * counts of its waitlist no longer match what was taken.
+     */
+    private static Task<Void> correct(FirebaseFirestore db, DocumentSnapshot compared, Map<String, Object> changes,
+                                      Drift drift, String callSite) {
+        return FirestoreGateway.runTransaction(db, 1, 2, transaction -> {
+            DocumentSnapshot event = transaction.get(compared.getReference());
+            if (!event.exists()
+                    || !Objects.equals(event.getLong(FIELD_WAITLIST), compared.getLong(FIELD_WAITLIST))
+                    || !Objects.equals(event.getLong(FIELD_ATTENDEES), compared.getLong(FIELD_ATTENDEES))) {
+                return false;
+            }
+            EventSummaries.update(transaction, event, changes);
+            return true;
+        }, callSite).onSuccessTask(written -> {
+            if (written) {
+                drift.add(changes, compared);
+            }
+            return Tasks.forResult(null);
+        });
+    }
+
+    /**
+     * Compares an event's recorded counts with the counts of its waitlist.
+     * @param event The event or its summary.
+     * @param waiting The number of waiting entrants.
+     * @param attending The number of selected and confirmed entrants.
+     * @return The fields to correct, empty if both counts are right.
+     */
+    public static Map<String, Object> corrections(DocumentSnapshot event, long waiting, long attending) {
+        return corrections(event.getLong(FIELD_WAITLIST), event.getLong(FIELD_ATTENDEES), waiting, attending);
+    }
+
+    /**
+     * Compares recorded counts with the counts of a waitlist.
+     * @param recordedWaitlist The recorded currentWaitlist, null if missing.
+     * @param recordedAttendees The recorded currentAttendees, null if missing.
+     * @param waiting The number of waiting entrants.
+     * @param attending The number of selected and confirmed entrants.
+     * @return The fields to correct, empty if both counts are right.
+     */
+    public static Map<String, Object> corrections(Long recordedWaitlist, Long recordedAttendees, long waiting,
+                                                  long attending) {
+        Map<String, Object> changes = new HashMap<>();
+        if (recordedWaitlist == null || recordedWaitlist != waiting) {
+            changes.put(FIELD_WAITLIST, waiting);
+        }
+        if (recordedAttendees == null || recordedAttendees != attending) {
+            changes.put(FIELD_ATTENDEES, attending);
+        }
+        return changes;
+    }
+
+    private static long recorded(DocumentSnapshot event, String field) {
+        Long value = event.getLong(field);
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.ReadPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Exports an event's entrants to a CSV or JSON file for venue staff. The waitlist is read a page
+ * at a time with query cursors, and each page is written out before the next is read, so the
+ * memory used stays the same however many entrants the event has.
+ */
+public final class EntrantExport {
+
+    private static final String WAITLIST_COLLECTION = "Waitlist";
+
+    // Entries read and written per page
+    static final int PAGE_SIZE = 500;
+
+    // Columns of the export, in order, named after the waitlist entry fields
+    public static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+            "userId", "userName", "userEmail", "status", TierWeights.ENTRY_FIELD, "latitude", "longitude"));
+
+    // File writes stay off the main thread, where Firestore delivers its results
+    private static final Executor IO = Executors.newSingleThreadExecutor();
+
+    private EntrantExport() {
+    }
+
+    /**
+     * The file formats an export can be written in.
+     */
+    public enum Format {
+        CSV("csv", "text/csv"),
+        JSON("json", "application/json");
+
+        public final String extension;
+        public final String mimeType;
+
+        Format(String extension, String mimeType) {
+            this.extension = extension;
+            this.mimeType = mimeType;
+        }
+    }
+
+    /**
+     * Writes an event's entrants to a file, replacing it.
+     * @param db The Firestore instance.
+     * @param eventId The event id.
+     * @param statuses The statuses to export, all entrants if empty.
+     * @param format The file format.
+     * @param file The file to write.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of entrants written. The file is deleted if the export fails.
+     */
+    public static Task<Integer> export(FirebaseFirestore db, String eventId, List<String> statuses, Format format,
+                                       File file, String callSite) {
+        Query query = db.collection(EventSummaries.EVENTS_COLLECTION).document(eventId).collection(WAITLIST_COLLECTION);
+        if (!statuses.isEmpty()) {
+            query = query.whereIn("status", statuses);
+        }
+        Query firstPage = query.orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        return Tasks.call(IO, () -> {
+            RowWriter writer = new RowWriter(format, new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"))));
+            writer.begin();
+            return writer;
+        }).onSuccessTask(writer -> writePages(firstPage, writer, 0, callSite).continueWith(IO, written -> {
+            try {
+                if (written.isSuccessful()) {
+                    writer.end();
+                }
+            } finally {
+                writer.close();
+            }
+            if (!written.isSuccessful()) {
+                file.delete();
+                throw Async.failure(written);
+            }
+            return written.getResult();
+        }));
+    }
+
+    private static Task<Integer> writePages(Query page, RowWriter writer, int written, String callSite) {
+        return FirestoreGateway.get(page, ReadPolicy.SERVER_ONLY, callSite).continueWith(IO, read -> {
+            QuerySnapshot snapshot = read.getResult();
+            for (DocumentSnapshot entry : snapshot) {
+                writer.write(row(entry));
+            }
+            return snapshot;
+        }).onSuccessTask(snapshot -> {
+            int total = written + snapshot.size();
+            if (snapshot.size() < PAGE_SIZE) {
+                return Tasks.forResult(total);
+            }
+            DocumentSnapshot last = snapshot.getDocuments().get(snapshot.size() - 1);
+            return writePages(page.startAfter(last), writer, total, callSite);
+        });
+    }
+
+    /**
+     * Reads the export columns of a waitlist entry.
+     * @param entry The waitlist entry.
+     * @return The values in {@link #COLUMNS} order, null where a field is missing.
+     */
+    static List<Object> row(DocumentSnapshot entry) {
+        return Arrays.<Object>asList(entry.getId(), entry.getString("userName"), entry.getString("userEmail"),
+                entry.getString("status"), entry.getString(TierWeights.ENTRY_FIELD), entry.getDouble("latitude"),
+                entry.getDouble("longitude"));
+    }
+
+    /**
+     * Writes rows of {@link #COLUMNS} as they come, keeping none of them.
+     */
+    public static final class RowWriter implements Closeable {
+        private final Format format;
+        private final Writer out;
+        private boolean first = true;
+
+        /**
+         * Constructor for RowWriter.
+         * @param format The file format.
+         * @param out Where the rows are written, should be buffered.
+         */
+        public RowWriter(Format format, Writer out) {
+            this.format = format;
+            this.out = out;
+        }
+
+        /**
+         * Writes what comes before the rows: the CSV header, or the opening of the JSON array.
+         * @throws IOException If the write fails.
+         */
+        public void begin() throws IOException {
+            if (format == Format.CSV) {
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    out.write(i == 0 ? "" : ",");
+                    out.write(COLUMNS.get(i));
+                }
+                out.write("\r\n");
+            } else {
+                out.write("[");
+            }
+        }
+
+        /**
+         * Writes a row.
+         * @param values The values in {@link #COLUMNS} order: strings, numbers or null.
+         * @throws IOException If the write fails.
+         */
+        public void write(List<Object> values) throws IOException {
+            if (format == Format.CSV) {
+                for (int i = 0; i < values.size(); i++) {
+                    out.write(i == 0 ? "" : ",");
+                    out.write(csv(values.get(i)));
+                }
+                out.write("\r\n");
+            } else {
+                out.write(first ? "\n{" : ",\n{");
+                for (int i = 0; i < values.size(); i++) {
+                    out.write(i == 0 ? "" : ",");
+                    out.write(json(COLUMNS.get(i)));
+                    out.write(":");
+                    Object value = values.get(i);
+                    out.write(value == null || value instanceof Number ? String.valueOf(value) : json(value.toString()));
+                }
+                out.write("}");
+            }
+            first = false;
+        }
+
+        /**
+         * Writes what comes after the rows and flushes them.
+         * @throws IOException If the write fails.
+         */
+        public void end() throws IOException {
+            if (format == Format.JSON) {
+                out.write(first ? "]\n" : "\n]\n");
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Formats a CSV field. Text is quoted when it holds a separator, quote or line break, and
+     * text a spreadsheet would run as a formula is prefixed with a quote.
+     * @param value A string, a number or null.
+     * @return The field.
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Number) {
+            return String.valueOf(value);
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /**
+     * Formats a JSON string.
+     * @param text The text.
+     * @return The quoted and escaped string.
+     */
+    static String json(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -3,11 +3,15 @@ package com.example.myapplication.Repositories;
 import android.content.Context;
 import android.util.Log;
 
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Lottery.TierWeights;
 import com.example.myapplication.Models.Attendee;
 import com.example.myapplication.Models.EntrantList;
-import com.example.myapplication.NotificationService;
 import com.google.android.gms.common.util.ArrayUtils;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -17,9 +21,10 @@ import com.google.firebase.firestore.QueryDocumentSnapshot;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import android.content.Context;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Used for handling all Firebase interactions related to EntrantList
@@ -35,9 +40,9 @@ public class EntrantListRepository {
 
     // Constructor
     public EntrantListRepository() {
-        db = FirebaseFirestore.getInstance();
-        storage = FirebaseStorage.getInstance();
-        auth = FirebaseAuth.getInstance();
+        db = FirebaseServices.firestore();
+        storage = FirebaseServices.storage();
+        auth = FirebaseServices.auth();
     }
 
     // Callback interfaces
@@ -58,245 +63,111 @@ public class EntrantListRepository {
     /*
     Method to get the list of users from Firebase for all types of EntrantList (not chosen, waiting, confirmed, cancelled)
     */
-    public void getEntrantlist(String eventId, String status, final FirestoreCallback callback) {
+    public Task<ArrayList<Attendee>> getEntrantlist(String eventId, String status) {
         // Each userID is mapped to a userName. userName for display.
-
-        //Log.d("EntrantListRepository", "Fetching waitlist for event: " + eventId);
-
-        db.collection(EVENT_COLLECTION_NAME)
+        return Async.withTimeout(FirestoreGateway.get(db.collection(EVENT_COLLECTION_NAME)
                 .document(eventId)
                 .collection(WAITLIST_COLLECTION_NAME)
-                .whereEqualTo("status", status)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
+                .whereEqualTo("status", status), "EntrantListRepository.getEntrantlist"))
+                .continueWith(task -> {
                     ArrayList<Attendee> userList = new ArrayList<>();
-                    //HashMap<String, String> waitlist = new HashMap<>();
-                    //HashMap<String, String> waitlist = new HashMap<>();
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        Attendee user = new Attendee();
-                        user.setUserId(doc.getId());
-                        user.setUserName(doc.getString("userName"));
-                        user.setUserEmail(doc.getString("userEmail"));
-                        user.setStatus(doc.getString("status"));
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        Attendee user = toAttendee(doc);
 
-                        //waitlist.put(doc.getId(), doc.getString("userName"));
-                        String userName = doc.getString("userName");
-                        String userId = doc.getId();
-                        Log.d("EntrantListRepository", "User ID: " + userId + ", User Name: " + userName);
-                        if (userName != null) { // Ensure userName is not null
+                        if (user.getUserName() != null) { // Ensure userName is not null
                             userList.add(user);
-                            //waitlist.put(userId, userName);
-                            Log.d("EntrantListRepository", "User ID: " + userId + ", User Name: " + userName);
                         }
                     }
-                    callback.onSuccess(userList); // Pass the data back through the callback
-                })
-                .addOnFailureListener(e -> {
-                    callback.onFailure(e);
+                    return userList;
                 });
     }
 
-    public void getAttendeeListSize(String eventId, Callback<Long> callback) {
-
-        db.collection(EVENT_COLLECTION_NAME)
-                .document(eventId)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            Long maxAttendees = document.getLong("maxAttendees");
-                            callback.onComplete(maxAttendees, null);
-                        } else {
-                            callback.onComplete(null, new Exception("Document does not exist"));
-                        }
-                    } else {
-                        callback.onComplete(null, task.getException());
-                    }
-                });
+    /**
+     * Reads an entrant from their waitlist entry, whose userName and userEmail were copied from
+     * their profile at sign-up.
+     * @param doc The waitlist entry.
+     * @return The entrant.
+     */
+    static Attendee toAttendee(DocumentSnapshot doc) {
+        Attendee user = new Attendee();
+        user.setUserId(doc.getId());
+        user.setUserName(doc.getString("userName"));
+        user.setUserEmail(doc.getString("userEmail"));
+        user.setStatus(doc.getString("status"));
+        user.setTier(doc.getString(TierWeights.ENTRY_FIELD));
+        return user;
     }
 
     /**
-     * Samples attendees from the waitlist for the given event and sends notifications.
-     *
-     * @param eventId The event ID.
-     * @param size    The number of attendees to draw.
-     * @param context The context to send notifications.
+     * Callback version of {@link #getEntrantlist(String, String)}.
      */
-    public void sampleAttendees(String eventId, int size, Context context) {
-        getEntrantlist(eventId, "waiting", new FirestoreCallback() {
-            @Override
-            public void onSuccess(ArrayList<Attendee> entrants) {
-                ArrayList<Attendee> selectedAttendees;
-                ArrayList<Attendee> unselectedAttendees = null;
-                if (entrants.size() <= size) {
-                    selectedAttendees = entrants;
-                } else {
-                    List<Attendee> shuffledList = new ArrayList<>(entrants);
-                    Collections.shuffle(shuffledList);
-                    selectedAttendees = new ArrayList<>(shuffledList.subList(0, size));
-                    unselectedAttendees = new ArrayList<>(shuffledList.subList(size, entrants.size()));
-
-                }
-                updateAttendeeList(eventId, selectedAttendees, context);
-                updateWaitList(eventId, unselectedAttendees, context);
-                sendNotificationLose(eventId, context);
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                Log.e("EntrantListRepository", "Error sampling attendees: ", e);
-            }
-        });
+    public void getEntrantlist(String eventId, String status, final FirestoreCallback callback) {
+        getEntrantlist(eventId, status)
+                .addOnSuccessListener(callback::onSuccess)
+                .addOnFailureListener(callback::onFailure);
     }
 
     /**
-     * Updates the status of selected attendees in Firestore and sends notifications.
-     *
-     * @param eventId         The event ID.
-     * @param attendees       The list of selected attendees.
-     * @param context         The context to send notifications.
+     * Reads the number of attendees to draw for an event.
+     * @param eventId The event ID.
+     * @return A task with the event's maxAttendees.
      */
-    private void updateAttendeeList(String eventId, ArrayList<Attendee> attendees, Context context) {
-        ArrayList<String> userIds = new ArrayList<>();
-        for (Attendee attendee : attendees) {
-            userIds.add(attendee.getUserId());
-        }
-
-        int size = userIds.size();
-        updateAttendeeListCount(eventId, size);
-
-        db.collection(EVENT_COLLECTION_NAME)
-                .document(eventId)
-                .collection(WAITLIST_COLLECTION_NAME)
-                .whereIn(FieldPath.documentId(), userIds)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        document.getReference().update("status", "selected")
-                                .addOnSuccessListener(aVoid -> {
-                                    Log.d("EntrantListRepository", "User status updated: " + document.getId());
-                                    sendNotificationWin(document.getId(), context);
-                                })
-                                .addOnFailureListener(e -> Log.w("EntrantListRepository", "Error updating user status: ", e));
+    public Task<Long> getAttendeeListSize(String eventId) {
+        return Async.withTimeout(FirestoreGateway.get(db.collection(EVENT_COLLECTION_NAME)
+                .document(eventId), "EntrantListRepository.getAttendeeListSize"))
+                .continueWith(task -> {
+                    DocumentSnapshot document = task.getResult();
+                    if (!document.exists()) {
+                        throw new Exception("Document does not exist");
                     }
-                })
-                .addOnFailureListener(e -> Log.e("EntrantListRepository", "Error getting documents: ", e));
+                    return document.getLong("maxAttendees");
+                });
     }
 
-    private void updateWaitList(String eventId, ArrayList<Attendee> attendees, Context context) {
-        ArrayList<String> userIds = new ArrayList<>();
-        for (Attendee attendee : attendees) {
-            userIds.add(attendee.getUserId());
-        }
-
-        int size = userIds.size();
-        updateAttendeeListCount(eventId, size);
-
-        db.collection(EVENT_COLLECTION_NAME)
-                .document(eventId)
-                .collection(WAITLIST_COLLECTION_NAME)
-                .whereIn(FieldPath.documentId(), userIds)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        sendNotificationLose(document.getId(), context);
-                    }
-                })
-                .addOnFailureListener(e -> Log.e("EntrantListRepository", "Error getting documents: ", e));
+    /**
+     * Callback version of {@link #getAttendeeListSize(String)}.
+     */
+    public void getAttendeeListSize(String eventId, Callback<Long> callback) {
+        getAttendeeListSize(eventId).addOnCompleteListener(task ->
+                callback.onComplete(task.isSuccessful() ? task.getResult() : null, task.getException()));
     }
 
-
-
     /**
-     * Sends a notification to the user with the given ID using `NotificationService`.
+     * Runs the draw of an event from the organizer's screen. It goes through {@link LotteryDraw},
+     * so it claims the event like the background draw and is refused while another device holds
+     * the claim or once the event has been drawn.
      *
-     * @param userId  The user ID.
-     * @param context The context to send notifications.
+     * @param eventId The event ID.
+     * @return Task with true if the event was drawn, false if the draw was refused.
      */
-    private void sendNotificationWin(String userId, Context context) {
-        db.collection("users").document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Boolean notificationsPerm = documentSnapshot.getBoolean("notificationsPerm");
-                        if (notificationsPerm != null && notificationsPerm) {
-                            // Construct the user map
-                            HashMap<String, Object> user = new HashMap<>();
-                            user.put("userId", userId);
-
-                            // Send notification
-                            NotificationService.sendNotification(
-                                    user,
-                                    context,
-                                    "Congratulations!",
-                                    "You have been selected as an attendee for the event. PLS SIGN UP"
-                            );
-                            Log.d("EntrantListRepository", "Notification sent to user: " + userId);
-                        } else {
-                            Log.d("EntrantListRepository", "Notifications disabled for user: " + userId);
-                        }
-                    } else {
-                        Log.e("EntrantListRepository", "User not found in Firestore for userId: " + userId);
-                    }
-                })
-                .addOnFailureListener(e -> Log.e("EntrantListRepository", "Error fetching user: ", e));
+    public Task<Boolean> drawEvent(String eventId) {
+        return LotteryDraw.run(db, eventId, UUID.randomUUID().toString(), "EntrantListRepository.drawEvent");
     }
 
     /**
-     * Sends a notification to the user with the given ID using `NotificationService`.
+     * Selects one more entrant of a drawn event from its replacement pool, in a transaction that
+     * also checks the event has been drawn, so it cannot run alongside the draw itself.
      *
-     * @param userId  The user ID.
-     * @param context The context to send notifications.
+     * @param eventId The event ID.
+     * @return Task with the number of entrants selected, 0 if the event has not been drawn or
+     *         nobody in the pool is still waiting.
      */
-    private void sendNotificationLose(String userId, Context context) {
-        db.collection("users").document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Boolean notificationsPerm = documentSnapshot.getBoolean("notificationsPerm");
-                        if (notificationsPerm != null && notificationsPerm) {
-                            // Construct the user map
-                            HashMap<String, Object> user = new HashMap<>();
-                            user.put("userId", userId);
-
-                            // Send notification
-                            NotificationService.sendNotification(
-                                    user,
-                                    context,
-                                    "Sorry!",
-                                    "You have not been selected as an attendee for the event. PLS SIGN UP"
-                            );
-                            Log.d("EntrantListRepository", "Notification sent to user: " + userId);
-                        } else {
-                            Log.d("EntrantListRepository", "Notifications disabled for user: " + userId);
-                        }
-                    } else {
-                        Log.e("EntrantListRepository", "User not found in Firestore for userId: " + userId);
-                    }
-                })
-                .addOnFailureListener(e -> Log.e("EntrantListRepository", "Error fetching user: ", e));
-    }
-
-    public void updateAttendeeListCount(String eventId, int size) {
-
-        db.collection(EVENT_COLLECTION_NAME)
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(DocumentSnapshot -> {
-                    int currentAttendeeCount = DocumentSnapshot.getLong("currentAttendees").intValue();
-                    int currentWaitlistCount = DocumentSnapshot.getLong("currentWaitlist").intValue();
-                    if (currentAttendeeCount == 0 ){
-                        DocumentSnapshot.getReference().update("currentAttendees", size);
-                    } else  {
-                        DocumentSnapshot.getReference().update("currentAttendees", (currentAttendeeCount + size));
-                    }
-
-                    if ((currentWaitlistCount - size) <= 0) {
-                        DocumentSnapshot.getReference().update("currentWaitlist", 0);
-                    } else {
-                        DocumentSnapshot.getReference().update("currentWaitlist", (currentWaitlistCount - size));
-                    }
-                });
-
+    public Task<Integer> drawReplacement(String eventId) {
+        DocumentReference eventRef = db.collection(EVENT_COLLECTION_NAME).document(eventId);
+        // Reads the event and one replacement: pool, entry and profile; writes cursor, status, notification, event and summary
+        return FirestoreGateway.runTransaction(db, 4, 5, transaction -> {
+            DocumentSnapshot event = transaction.get(eventRef);
+            if (!event.exists() || !Boolean.TRUE.equals(event.getBoolean(LotteryDraw.FIELD_DRAWN))) {
+                return 0;
+            }
+            ReplacementDraw.Refill refill = ReplacementDraw.prepare(transaction, eventRef, 1);
+            Map<String, Object> changes = new HashMap<>();
+            refill.apply(transaction, event, changes);
+            if (!changes.isEmpty()) {
+                EventSummaries.update(transaction, event, changes);
+            }
+            return refill.getPromoted().size();
+        }, "EntrantListRepository.drawReplacement");
     }
 
 }
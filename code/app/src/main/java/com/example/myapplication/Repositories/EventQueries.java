@@ -0,0 +1,87 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.EventTimes;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.Date;
+
+/**
+ * Time-range queries over the event summaries, filtering on the drawAt and startsAt timestamps
+ * so Firestore returns only the matching events. Events without timestamps are never matched,
+ * see {@link EventTimestampMigration}.
+ */
+public final class EventQueries {
+
+    private EventQueries() {
+    }
+
+    /**
+     * Events whose draw is due at or before a time and has not run yet, earliest first.
+     * Uses the drawn and drawAt composite index in firestore.indexes.json.
+     * @param db The Firestore instance.
+     * @param before The latest draw time to include.
+     * @return The query.
+     */
+    public static Query drawsDueBefore(FirebaseFirestore db, Timestamp before) {
+        return db.collection(EventSummaries.COLLECTION)
+                .whereEqualTo(LotteryDraw.FIELD_DRAWN, false)
+                .whereLessThanOrEqualTo(EventTimes.FIELD_DRAW_AT, before)
+                .orderBy(EventTimes.FIELD_DRAW_AT);
+    }
+
+    /**
+     * Events starting in a time range, earliest first.
+     * @param db The Firestore instance.
+     * @param from The first start time to include.
+     * @param to The first start time to exclude.
+     * @return The query.
+     */
+    public static Query startingBetween(FirebaseFirestore db, Timestamp from, Timestamp to) {
+        return db.collection(EventSummaries.COLLECTION)
+                .whereGreaterThanOrEqualTo(EventTimes.FIELD_STARTS_AT, from)
+                .whereLessThan(EventTimes.FIELD_STARTS_AT, to)
+                .orderBy(EventTimes.FIELD_STARTS_AT);
+    }
+
+    /**
+     * Events starting at or after a time, earliest first.
+     * @param db The Firestore instance.
+     * @param from The first start time to include.
+     * @return The query.
+     */
+    public static Query startingFrom(FirebaseFirestore db, Timestamp from) {
+        return db.collection(EventSummaries.COLLECTION)
+                .whereGreaterThanOrEqualTo(EventTimes.FIELD_STARTS_AT, from)
+                .orderBy(EventTimes.FIELD_STARTS_AT);
+    }
+
+    /**
+     * Events of one organizer starting in a time range, earliest first.
+     * Uses the organizerId and startsAt composite index in firestore.indexes.json.
+     * @param db The Firestore instance.
+     * @param organizerId The organizer's device id.
+     * @param from The first start time to include.
+     * @param to The first start time to exclude.
+     * @return The query.
+     */
+    public static Query startingBetween(FirebaseFirestore db, String organizerId, Timestamp from, Timestamp to) {
+        return db.collection(EventSummaries.COLLECTION)
+                .whereEqualTo("organizerId", organizerId)
+                .whereGreaterThanOrEqualTo(EventTimes.FIELD_STARTS_AT, from)
+                .whereLessThan(EventTimes.FIELD_STARTS_AT, to)
+                .orderBy(EventTimes.FIELD_STARTS_AT);
+    }
+
+    /**
+     * Events starting in the current week.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @return The query.
+     */
+    public static Query startingThisWeek(FirebaseFirestore db, Date now) {
+        Timestamp[] week = EventTimes.weekOf(now);
+        return startingBetween(db, week[0], week[1]);
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.EventTimes;
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Models.Event;
+import com.example.myapplication.Search.SearchTokens;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the EventSummaries collection in step with Events. Each summary holds only what list rows
+ * show, so list screens read a few hundred bytes per event instead of the whole document.
+ * Every write to an event field shown in the summary should go through this class so both are
+ * written together.
+ * Updates must pass plain values rather than FieldValue sentinels, since the summary is rebuilt
+ * from the event data with the changes applied, or merged with the changed values.
+ */
+public final class EventSummaries {
+
+    public static final String COLLECTION = "EventSummaries";
+    public static final String EVENTS_COLLECTION = "Events";
+
+    // Length of the description shown in list rows
+    static final int DESCRIPTION_PREVIEW_LENGTH = 140;
+
+    // Firestore limit on operations per batch
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Summaries compared per slice when the counts differ
+    static final int RECONCILE_PAGE_SIZE = 500;
+
+    // Event fields copied to the summary unchanged
+    static final List<String> COPIED_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "eventName", "drawDate", "eventDateTime", EventTimes.FIELD_DRAW_AT, EventTimes.FIELD_STARTS_AT,
+            "posterUrl", "maxAttendees", "currentAttendees", "maxWaitlist", "currentWaitlist", "organizerId"));
+
+    private EventSummaries() {
+    }
+
+    /**
+     * Getter for the summary document of an event.
+     * @param db The Firestore instance.
+     * @param eventId The event id, also the summary id.
+     * @return The summary document.
+     */
+    public static DocumentReference document(FirebaseFirestore db, String eventId) {
+        return db.collection(COLLECTION).document(eventId);
+    }
+
+    /**
+     * Builds the summary of an event being written.
+     * @param event The event, with its search fields up to date.
+     * @return The summary fields.
+     */
+    public static Map<String, Object> fromEvent(Event event) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventName", event.getEventName());
+        data.put("drawDate", event.getDrawDate());
+        data.put("eventDateTime", event.getEventDateTime());
+        data.put(EventTimes.FIELD_DRAW_AT, event.getDrawAt());
+        data.put(EventTimes.FIELD_STARTS_AT, event.getStartsAt());
+        data.put("description", event.getDescription());
+        data.put("posterUrl", event.getPosterUrl());
+        data.put("maxAttendees", event.getMaxAttendees());
+        data.put("currentAttendees", event.getCurrentAttendees());
+        data.put("maxWaitlist", event.getMaxWaitlist());
+        data.put("currentWaitlist", event.getCurrentWaitlist());
+        data.put("organizerId", event.getOrganizerId());
+        return fromEventData(event.getEventId(), data);
+    }
+
+    /**
+     * Builds a summary from raw event fields, e.g. a snapshot with pending changes applied.
+     * Timestamps missing from events written before they existed are parsed from the strings.
+     * @param eventId The event id.
+     * @param eventData The event fields.
+     * @return The summary fields.
+     */
+    public static Map<String, Object> fromEventData(String eventId, Map<String, Object> eventData) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("eventId", eventId);
+        for (String field : COPIED_FIELDS) {
+            summary.put(field, eventData.get(field));
+        }
+        if (summary.get(EventTimes.FIELD_DRAW_AT) == null || summary.get(EventTimes.FIELD_STARTS_AT) == null) {
+            Object drawDate = eventData.get("drawDate");
+            Object eventDateTime = eventData.get("eventDateTime");
+            Map<String, Object> times = EventTimes.fields(drawDate instanceof String ? (String) drawDate : null,
+                    eventDateTime instanceof String ? (String) eventDateTime : null);
+            summary.put(EventTimes.FIELD_DRAW_AT, times.get(EventTimes.FIELD_DRAW_AT));
+            summary.put(EventTimes.FIELD_STARTS_AT, times.get(EventTimes.FIELD_STARTS_AT));
+        }
+        // Always set, so the draw scheduler can filter on it for events written before it existed
+        summary.put(LotteryDraw.FIELD_DRAWN, Boolean.TRUE.equals(eventData.get(LotteryDraw.FIELD_DRAWN)));
+        Object description = eventData.get("description");
+        summary.put("descriptionPreview", description instanceof String ? preview((String) description) : null);
+        Object name = eventData.get("eventName");
+        summary.putAll(SearchTokens.fields(name instanceof String ? (String) name : null));
+        return summary;
+    }
+
+    /**
+     * Maps changed event fields to the summary fields they affect, mapped as in
+     * {@link #fromEventData}. Fields not shown in the summary are left out. Callers changing the
+     * date strings pass the matching Timestamps too, since they are not parsed here.
+     * @param changes The changed event fields.
+     * @return The summary fields to merge, empty if no summary field changed.
+     */
+    public static Map<String, Object> summaryChanges(Map<String, Object> changes) {
+        Map<String, Object> summary = new HashMap<>();
+        for (String field : COPIED_FIELDS) {
+            if (changes.containsKey(field)) {
+                summary.put(field, changes.get(field));
+            }
+        }
+        if (changes.containsKey(LotteryDraw.FIELD_DRAWN)) {
+            summary.put(LotteryDraw.FIELD_DRAWN, Boolean.TRUE.equals(changes.get(LotteryDraw.FIELD_DRAWN)));
+        }
+        if (changes.containsKey("description")) {
+            Object description = changes.get("description");
+            summary.put("descriptionPreview", description instanceof String ? preview((String) description) : null);
+        }
+        if (changes.containsKey("eventName")) {
+            Object name = changes.get("eventName");
+            summary.putAll(SearchTokens.fields(name instanceof String ? (String) name : null));
+        }
+        return summary;
+    }
+
+    static String preview(String description) {
+        if (description.length() <= DESCRIPTION_PREVIEW_LENGTH) {
+            return description;
+        }
+        return description.substring(0, DESCRIPTION_PREVIEW_LENGTH - 3).trim() + "...";
+    }
+
+    /**
+     * Writes a new or replaced event together with its summary.
+     * @param db The Firestore instance.
+     * @param event The event.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> set(FirebaseFirestore db, Event event, String callSite) {
+        WriteBatch batch = db.batch();
+        batch.set(db.collection(EVENTS_COLLECTION).document(event.getEventId()), event);
+        batch.set(document(db, event.getEventId()), fromEvent(event));
+        return FirestoreGateway.commit(batch, 2, callSite);
+    }
+
+    /**
+     * Updates fields of an event that was just read, merging the changed fields into its summary.
+     * @param db The Firestore instance.
+     * @param eventSnapshot The current event.
+     * @param changes The fields to update.
+     * @param callSite Name of the calling code.
+     * @return The write task.
+     */
+    public static Task<Void> update(FirebaseFirestore db, DocumentSnapshot eventSnapshot,
+                                    Map<String, Object> changes, String callSite) {
+        WriteBatch batch = db.batch();
+        update(batch, eventSnapshot, changes);
+        return FirestoreGateway.commit(batch, 2, callSite);
+    }
+
+    /**
+     * Updates fields of an event that has not been read, reading it in a transaction so the
+     * summary is rebuilt from current data.
+     * @param db The Firestore instance.
+     * @param eventId The event id.
+     * @param changes The fields to update.
+     * @param callSite Name of the calling code.
+     * @return The transaction task.
+     */
+    public static Task<Void> update(FirebaseFirestore db, String eventId, Map<String, Object> changes,
+                                    String callSite) {
+        DocumentReference eventRef = db.collection(EVENTS_COLLECTION).document(eventId);
+        return FirestoreGateway.runTransaction(db, 1, 2, transaction -> {
+            update(transaction, transaction.get(eventRef), changes);
+            return null;
+        }, callSite);
+    }
+
+    /**
+     * Updates fields of an event inside a transaction that already read it.
+     * @param transaction The running transaction.
+     * @param eventSnapshot The event as read by the transaction.
+     * @param changes The fields to update.
+     */
+    public static void update(Transaction transaction, DocumentSnapshot eventSnapshot, Map<String, Object> changes) {
+        DocumentReference eventRef = eventSnapshot.getReference();
+        transaction.update(eventRef, changes);
+        transaction.set(document(eventRef.getFirestore(), eventSnapshot.getId()),
+                applyChanges(eventSnapshot, changes));
+    }
+
+    /**
+     * Adds an update of an event, and the merge of the changed fields into its summary, to a
+     * batch. The snapshot may be older than the batch, so unlike the transaction variant the
+     * summary is not rebuilt from it, which could undo a change written in between.
+     * @param batch The batch.
+     * @param eventSnapshot The event that was read.
+     * @param changes The fields to update.
+     */
+    public static void update(WriteBatch batch, DocumentSnapshot eventSnapshot, Map<String, Object> changes) {
+        DocumentReference eventRef = eventSnapshot.getReference();
+        batch.update(eventRef, changes);
+        Map<String, Object> summary = summaryChanges(changes);
+        if (!summary.isEmpty()) {
+            batch.set(document(eventRef.getFirestore(), eventSnapshot.getId()), summary, SetOptions.merge());
+        }
+    }
+
+    /**
+     * Adds the deletion of an event and its summary to a batch.
+     * @param batch The batch.
+     * @param eventRef The event document.
+     */
+    public static void delete(WriteBatch batch, DocumentReference eventRef) {
+        batch.delete(eventRef);
+        batch.delete(document(eventRef.getFirestore(), eventRef.getId()));
+    }
+
+    /**
+     * Creates missing summaries and removes orphaned ones, for events written before summaries
+     * existed or by older app versions. Compares collection counts first, so when both match it
+     * costs two reads. Otherwise the summaries are read by document id, {@link #RECONCILE_PAGE_SIZE}
+     * at a time, and only the slices of Events whose count differs from their summaries' are read.
+     * @param db The Firestore instance.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of summaries written or deleted.
+     */
+    public static Task<Integer> reconcile(FirebaseFirestore db, String callSite) {
+        Task<Long> events = FirestoreGateway.count(db.collection(EVENTS_COLLECTION), callSite);
+        Task<Long> summaries = FirestoreGateway.count(db.collection(COLLECTION), callSite);
+        return Tasks.whenAllSuccess(events, summaries).continueWithTask(counts -> {
+            if (events.getResult().equals(summaries.getResult())) {
+                return Tasks.forResult(0);
+            }
+            return reconcileFrom(db, null, 0, callSite);
+        });
+    }
+
+    private static Task<Integer> reconcileFrom(FirebaseFirestore db, String afterId, int changed, String callSite) {
+        Query page = db.collection(COLLECTION).orderBy(FieldPath.documentId()).limit(RECONCILE_PAGE_SIZE);
+        if (afterId != null) {
+            page = page.startAfter(afterId);
+        }
+        return FirestoreGateway.get(page, callSite).onSuccessTask(summaries -> {
+            List<DocumentSnapshot> summaryDocs = summaries.getDocuments();
+            // The slice after the last page runs to the end of Events
+            String upToId = summaryDocs.size() < RECONCILE_PAGE_SIZE ? null
+                    : summaryDocs.get(summaryDocs.size() - 1).getId();
+            return reconcileSlice(db, afterId, upToId, summaryDocs, callSite).onSuccessTask(sliceChanged -> {
+                int total = changed + sliceChanged;
+                if (upToId == null) {
+                    return Tasks.forResult(total);
+                }
+                return reconcileFrom(db, upToId, total, callSite);
+            });
+        });
+    }
+
+    private static Task<Integer> reconcileSlice(FirebaseFirestore db, String afterId, String upToId,
+                                                List<DocumentSnapshot> summaryDocs, String callSite) {
+        Query events = db.collection(EVENTS_COLLECTION).orderBy(FieldPath.documentId());
+        if (afterId != null) {
+            events = events.startAfter(afterId);
+        }
+        if (upToId != null) {
+            events = events.endAt(upToId);
+        }
+        Query slice = events;
+        return FirestoreGateway.count(slice, callSite).onSuccessTask(count -> {
+            if (count == summaryDocs.size()) {
+                return Tasks.forResult(0);
+            }
+            return FirestoreGateway.get(slice, callSite).onSuccessTask(eventDocs ->
+                    rebuild(db, eventDocs.getDocuments(), summaryDocs, callSite));
+        });
+    }
+
+    private static Task<Integer> rebuild(FirebaseFirestore db, List<DocumentSnapshot> events,
+                                         List<DocumentSnapshot> summaries, String callSite) {
+        Set<String> eventIds = new HashSet<>();
+        Set<String> summaryIds = new HashSet<>();
+        for (DocumentSnapshot summary : summaries) {
+            summaryIds.add(summary.getId());
+        }
+
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int pending = 0;
+        int changed = 0;
+        for (DocumentSnapshot event : events) {
+            eventIds.add(event.getId());
+            if (summaryIds.contains(event.getId())) {
+                continue;
+            }
+            batch.set(document(db, event.getId()), applyChanges(event, Collections.emptyMap()));
+            changed++;
+            if (++pending == MAX_BATCH_SIZE) {
+                commits.add(FirestoreGateway.commit(batch, pending, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        for (String summaryId : summaryIds) {
+            if (eventIds.contains(summaryId)) {
+                continue;
+            }
+            batch.delete(document(db, summaryId));
+            changed++;
+            if (++pending == MAX_BATCH_SIZE) {
+                commits.add(FirestoreGateway.commit(batch, pending, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            commits.add(FirestoreGateway.commit(batch, pending, callSite));
+        }
+        int total = changed;
+        return Tasks.whenAll(commits).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw Async.failure(task);
+            }
+            return total;
+        });
+    }
+
+    private static Map<String, Object> applyChanges(DocumentSnapshot eventSnapshot, Map<String, Object> changes) {
+        Map<String, Object> data = new HashMap<>();
+        if (eventSnapshot.getData() != null) {
+            data.putAll(eventSnapshot.getData());
+        }
+        data.putAll(changes);
+        return fromEventData(eventSnapshot.getId(), data);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.EventTimes;
+import com.example.myapplication.FirestoreGateway;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the drawAt and startsAt timestamps to events written before they existed, parsed from the
+ * drawDate and eventDateTime strings. Events whose strings cannot be parsed get null timestamps so
+ * they are not retried. The timestamp fields are ordered on when counting migrated events, so when
+ * every event has them the check costs two reads.
+ */
+public final class EventTimestampMigration {
+
+    // Each event takes two writes, the event and its summary, within the 500 operation batch limit
+    private static final int EVENTS_PER_BATCH = 250;
+
+    private EventTimestampMigration() {
+    }
+
+    /**
+     * Migrates every event that is missing its timestamp fields.
+     * @param db The Firestore instance.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of events migrated.
+     */
+    public static Task<Integer> migrate(FirebaseFirestore db, String callSite) {
+        Task<Long> all = FirestoreGateway.count(db.collection(EventSummaries.EVENTS_COLLECTION), callSite);
+        Task<Long> migrated = FirestoreGateway.count(db.collection(EventSummaries.EVENTS_COLLECTION)
+                .orderBy(EventTimes.FIELD_DRAW_AT), callSite);
+        return Tasks.whenAllSuccess(all, migrated).continueWithTask(counts -> {
+            if (all.getResult().equals(migrated.getResult())) {
+                return Tasks.forResult(0);
+            }
+            return FirestoreGateway.get(db.collection(EventSummaries.EVENTS_COLLECTION), callSite)
+                    .continueWithTask(events -> migrate(db, events.getResult(), callSite));
+        });
+    }
+
+    private static Task<Integer> migrate(FirebaseFirestore db, QuerySnapshot events, String callSite) {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int pending = 0;
+        int changed = 0;
+        for (DocumentSnapshot event : events) {
+            if (event.contains(EventTimes.FIELD_DRAW_AT) && event.contains(EventTimes.FIELD_STARTS_AT)) {
+                continue;
+            }
+            Map<String, Object> times = EventTimes.fields(event.getString("drawDate"),
+                    event.getString("eventDateTime"));
+            EventSummaries.update(batch, event, times);
+            changed++;
+            if (++pending == EVENTS_PER_BATCH) {
+                commits.add(FirestoreGateway.commit(batch, pending * 2, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            commits.add(FirestoreGateway.commit(batch, pending * 2, callSite));
+        }
+        int total = changed;
+        return Tasks.whenAll(commits).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw Async.failure(task);
+            }
+            return total;
+        });
+    }
+}
@@ -3,7 +3,12 @@ package com.example.myapplication.Repositories;
 import android.net.Uri;
 import android.util.Log;
 
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
 import com.example.myapplication.Models.Facility;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.storage.FirebaseStorage;
@@ -24,8 +29,8 @@ public class FacilityRepository {
 
     // Constructor
     public FacilityRepository() {
-        db = FirebaseFirestore.getInstance();
-        storage = FirebaseStorage.getInstance();
+        db = FirebaseServices.firestore();
+        storage = FirebaseServices.storage();
     }
 
     // Callback Interfaces
@@ -45,73 +50,83 @@ public class FacilityRepository {
     }
 
     // Upload Image to Firebase Storage
-    public void uploadImage(Uri imageUri, String deviceId, final UploadImageCallback callback) {
+    public Task<String> uploadImage(Uri imageUri, String deviceId) {
         if (deviceId == null || deviceId.isEmpty()) {
-            callback.onFailure(new Exception("Device ID is not available"));
-            return;
+            return Async.failed("Device ID is not available");
         }
 
         String imageName = UUID.randomUUID().toString() + ".jpg";
         StorageReference storageRef = storage.getReference("facility_images/" + deviceId + "/" + imageName);
-        storageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl()
-                        .addOnSuccessListener(uri -> callback.onSuccess(uri.toString()))
-                        .addOnFailureListener(callback::onFailure))
+        return storageRef.putFile(imageUri)
+                // A failed upload fails the task with its own cause, not a missing-file error
+                .onSuccessTask(upload -> storageRef.getDownloadUrl())
+                .onSuccessTask(url -> Tasks.forResult(url.toString()));
+    }
+
+    public void uploadImage(Uri imageUri, String deviceId, final UploadImageCallback callback) {
+        uploadImage(imageUri, deviceId)
+                .addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onFailure);
     }
 
     // Save or Update Facility in Firestore
-    public void saveFacility(Facility facility, String deviceId, final FirestoreCallback callback) {
+    public Task<Void> saveFacility(Facility facility, String deviceId) {
         if (deviceId == null || deviceId.isEmpty()) {
-            callback.onFailure(new Exception("Device ID is not available"));
-            return;
+            return Async.failed("Device ID is not available");
         }
 
-        db.collection(FACILITY_COLLECTION).document(deviceId)
-                .set(facility, SetOptions.merge())
+        return FirestoreGateway.set(db.collection(FACILITY_COLLECTION).document(deviceId), facility, SetOptions.merge(), "FacilityRepository.saveFacility");
+    }
+
+    public void saveFacility(Facility facility, String deviceId, final FirestoreCallback callback) {
+        saveFacility(facility, deviceId)
                 .addOnSuccessListener(aVoid -> callback.onSuccess())
                 .addOnFailureListener(callback::onFailure);
     }
 
     // Load Facility for a Specific Device ID
-    public void loadFacility(String deviceId, final LoadFacilityCallback callback) {
+    public Task<Facility> loadFacility(String deviceId) {
         if (deviceId == null || deviceId.isEmpty()) {
-            callback.onFailure(new Exception("Device ID not provided"));
-            return;
+            return Async.failed("Device ID not provided");
         }
 
-        db.collection(FACILITY_COLLECTION).document(deviceId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        try {
-                            String imageUrl = documentSnapshot.getString("ImageUrl");
-                            String location = documentSnapshot.getString("location");
-                            String name = documentSnapshot.getString("name");
-                            String id = documentSnapshot.getString("id");
-
-                            Facility facility = new Facility(imageUrl, location, name, id);
-                            callback.onSuccess(facility);
-                        } catch (Exception e) {
-                            callback.onFailure(new Exception("Error mapping facility data", e));
-                        }
-                    } else {
-                        callback.onFailure(new Exception("Facility not found for device ID: " + deviceId));
+        return Async.withTimeout(FirestoreGateway.get(db.collection(FACILITY_COLLECTION).document(deviceId), "FacilityRepository.loadFacility"))
+                .continueWith(task -> {
+                    DocumentSnapshot documentSnapshot = task.getResult();
+                    if (!documentSnapshot.exists()) {
+                        throw new Exception("Facility not found for device ID: " + deviceId);
                     }
-                })
+                    try {
+                        String imageUrl = documentSnapshot.getString("ImageUrl");
+                        String location = documentSnapshot.getString("location");
+                        String name = documentSnapshot.getString("name");
+                        String id = documentSnapshot.getString("id");
+
+                        return new Facility(imageUrl, location, name, id);
+                    } catch (Exception e) {
+                        throw new Exception("Error mapping facility data", e);
+                    }
+                });
+    }
+
+    public void loadFacility(String deviceId, final LoadFacilityCallback callback) {
+        loadFacility(deviceId)
+                .addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onFailure);
     }
 
 
     // Delete Facility from Firestore
-    public void deleteFacility(String deviceId, final FirestoreCallback callback) {
+    public Task<Void> deleteFacility(String deviceId) {
         if (deviceId == null || deviceId.isEmpty()) {
-            callback.onFailure(new Exception("Device ID is not available"));
-            return;
+            return Async.failed("Device ID is not available");
         }
 
-        db.collection(FACILITY_COLLECTION).document(deviceId)
-                .delete()
+        return FirestoreGateway.delete(db.collection(FACILITY_COLLECTION).document(deviceId), "FacilityRepository.deleteFacility");
+    }
+
+    public void deleteFacility(String deviceId, final FirestoreCallback callback) {
+        deleteFacility(deviceId)
                 .addOnSuccessListener(aVoid -> callback.onSuccess())
                 .addOnFailureListener(callback::onFailure);
     }
@@ -121,6 +136,6 @@ public class FacilityRepository {
         if (imageUrl == null || imageUrl.isEmpty()) {
             return null;
         }
-        return FirebaseStorage.getInstance().getReferenceFromUrl(imageUrl);
+        return FirebaseServices.storage().getReferenceFromUrl(imageUrl);
     }
 }
@@ -0,0 +1,258 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.NotificationOutbox;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the entrants of one event with one status, a page at a time, from
+ * Events/{eventId}/Waitlist. Names come from the userName copied onto each waitlist entry at
+ * sign-up. Only entries without one, written by older app versions, have their name resolved
+ * by {@link ProfileResolver}.
+ */
+public final class GroupEntrants {
+
+    private static final String WAITLIST_COLLECTION = "Waitlist";
+
+    // Entrants shown per page
+    public static final int PAGE_SIZE = 50;
+
+    // Entrants read per page when notifying a group, one outbox flush each
+    public static final int NOTIFY_PAGE_SIZE = 500;
+
+    private GroupEntrants() {
+    }
+
+    /**
+     * One page of a group.
+     */
+    public static final class Page {
+        public final List<Attendee> entrants;
+        // Where the next page starts, null if this is the last page
+        public final DocumentSnapshot next;
+
+        Page(List<Attendee> entrants, DocumentSnapshot next) {
+            this.entrants = entrants;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The waitlist entries of an event with a status, in a stable order for paging.
+     * @param db The Firestore instance.
+     * @param eventId The event id.
+     * @param status The status, in any case.
+     * @return The query.
+     */
+    public static Query query(FirebaseFirestore db, String eventId, String status) {
+        return db.collection(EventSummaries.EVENTS_COLLECTION).document(eventId)
+                .collection(WAITLIST_COLLECTION)
+                .whereEqualTo("status", status.toLowerCase(Locale.ROOT))
+                .orderBy(FieldPath.documentId());
+    }
+
+    /**
+     * Reads a page of a group.
+     * @param db The Firestore instance.
+     * @param eventId The event id.
+     * @param status The status of the group.
+     * @param after The next field of the previous page, or null for the first page.
+     * @param callSite Name of the calling code.
+     * @return Task with the page.
+     */
+    public static Task<Page> page(FirebaseFirestore db, String eventId, String status, DocumentSnapshot after,
+                                  String callSite) {
+        Query page = query(db, eventId, status).limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return FirestoreGateway.get(page, callSite).onSuccessTask(snapshot -> {
+            List<Attendee> entrants = new ArrayList<>();
+            for (DocumentSnapshot entry : snapshot) {
+                entrants.add(EntrantListRepository.toAttendee(entry));
+            }
+            DocumentSnapshot next = next(snapshot.getDocuments(), PAGE_SIZE);
+            return name(entrants, userIds -> ProfileResolver.shared().resolve(userIds, callSite))
+                    .continueWith(named -> new Page(named.getResult(), next));
+        });
+    }
+
+    /**
+     * Resolves the names of entrants.
+     */
+    public interface NameResolver {
+        /**
+         * Resolves names.
+         * @param userIds The users' device ids.
+         * @return Task with the name of every user found.
+         */
+        Task<Map<String, String>> resolve(List<String> userIds);
+    }
+
+    /**
+     * Names the entrants whose waitlist entry has no userName. Entrants the resolver can't name,
+     * or all of them if it fails, are named "Unknown User".
+     * @param entrants The entrants of a page, named in place.
+     * @param resolver Resolves the names missing, only asked if some are.
+     * @return Task with the entrants.
+     */
+    public static Task<List<Attendee>> name(List<Attendee> entrants, NameResolver resolver) {
+        List<String> unnamed = new ArrayList<>();
+        for (Attendee entrant : entrants) {
+            if (entrant.getUserName() == null) {
+                unnamed.add(entrant.getUserId());
+            }
+        }
+        if (unnamed.isEmpty()) {
+            return Tasks.forResult(entrants);
+        }
+        return resolver.resolve(unnamed).continueWith(names -> {
+            Map<String, String> resolved = names.isSuccessful() ? names.getResult()
+                    : Collections.<String, String>emptyMap();
+            for (Attendee entrant : entrants) {
+                if (entrant.getUserName() == null) {
+                    String name = resolved.get(entrant.getUserId());
+                    entrant.setUserName(name != null ? name : "Unknown User");
+                }
+            }
+            return entrants;
+        });
+    }
+
+    /**
+     * Getter for where the page after this one starts.
+     * @param entries The entries of a page.
+     * @param pageSize The most entries a page holds.
+     * @return The last entry, or null if the page isn't full and so is the last.
+     */
+    public static <T> T next(List<T> entries, int pageSize) {
+        return entries.size() < pageSize ? null : entries.get(entries.size() - 1);
+    }
+
+    /**
+     * Reads one page of a group.
+     */
+    public interface PageReader<T> {
+        /**
+         * Reads a page.
+         * @param after The last entry of the previous page, or null for the first page.
+         * @return Task with the entries of the page.
+         */
+        Task<List<T>> read(T after);
+    }
+
+    /**
+     * Handles one page of a group.
+     */
+    public interface PageHandler<T> {
+        /**
+         * Handles a page.
+         * @param entries The entries of the page, never empty.
+         * @return Task with the number of entries handled.
+         */
+        Task<Integer> handle(List<T> entries);
+    }
+
+    /**
+     * Reads a group a page at a time and hands each page to the handler before the next read.
+     * Each read starts after the last entry of the previous page, and the walk ends after a page
+     * that isn't full.
+     * @param reader Reads a page.
+     * @param pageSize The most entries a page holds.
+     * @param handler Handles each page.
+     * @return Task with the number of entries handled over all pages.
+     */
+    public static <T> Task<Integer> forEachPage(PageReader<T> reader, int pageSize, PageHandler<T> handler) {
+        return forEachPage(reader, null, pageSize, handler, 0);
+    }
+
+    private static <T> Task<Integer> forEachPage(PageReader<T> reader, T after, int pageSize,
+                                                 PageHandler<T> handler, int handled) {
+        return reader.read(after).onSuccessTask(entries -> {
+            if (entries.isEmpty()) {
+                return Tasks.forResult(handled);
+            }
+            return handler.handle(entries).onSuccessTask(count -> {
+                int total = handled + count;
+                T next = next(entries, pageSize);
+                if (next == null) {
+                    return Tasks.forResult(total);
+                }
+                return forEachPage(reader, next, pageSize, handler, total);
+            });
+        });
+    }
+
+    /**
+     * Notifies every entrant of a group who allows notifications. The group is read in pages of
+     * {@link #NOTIFY_PAGE_SIZE}, and each page's notifications are written in one outbox flush.
+     * @param db The Firestore instance.
+     * @param eventId The event id.
+     * @param status The status of the group.
+     * @param title The title of the notification.
+     * @param message The content text of the notification.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of entrants notified.
+     */
+    public static Task<Integer> notifyGroup(FirebaseFirestore db, String eventId, String status, String title,
+                                            String message, String callSite) {
+        Query group = query(db, eventId, status).limit(NOTIFY_PAGE_SIZE);
+        PageReader<DocumentSnapshot> reader = after -> FirestoreGateway.get(
+                after != null ? group.startAfter(after) : group, callSite)
+                .onSuccessTask(snapshot -> Tasks.forResult(snapshot.getDocuments()));
+        return forEachPage(reader, NOTIFY_PAGE_SIZE,
+                entries -> notifyPage(db, entries, eventId, title, message, callSite));
+    }
+
+    private static Task<Integer> notifyPage(FirebaseFirestore db, List<DocumentSnapshot> entries, String eventId,
+                                            String title, String message, String callSite) {
+        List<String> userIds = new ArrayList<>();
+        for (DocumentSnapshot entry : entries) {
+            userIds.add(entry.getId());
+        }
+        return LotteryDraw.notifiable(db, userIds, callSite).onSuccessTask(notify -> {
+            NotificationOutbox outbox = new NotificationOutbox(db);
+            int added = 0;
+            for (String userId : userIds) {
+                if (notify.contains(userId) && outbox.add(userId, eventId, title, message)) {
+                    added++;
+                }
+            }
+            int notified = added;
+            return outbox.flush(callSite).onSuccessTask(flushed -> Tasks.forResult(notified));
+        });
+    }
+
+    /**
+     * The message sent to a group.
+     * @param status The status of the group.
+     * @return The content text of the notification.
+     */
+    public static String message(String status) {
+        switch (status.toLowerCase(Locale.ROOT)) {
+            case "waiting":
+            case "not chosen":
+                return "Your status is: Waiting List";
+            case "selected":
+                return "Congratulations! You've been selected.";
+            case "confirmed":
+                return "Your place is confirmed.";
+            case "cancelled":
+                return "Unfortunately, your status is: Cancelled";
+            default:
+                return "Status update for your group.";
+        }
+    }
+}
@@ -4,12 +4,22 @@ import android.content.Context;
 import android.provider.Settings;
 import android.util.Log;
 
+import com.example.myapplication.EventTopics;
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Lottery.EntrantCounts;
 import com.example.myapplication.Models.Event;
-import com.example.myapplication.Views.HomeView;
+import com.example.myapplication.Models.EventSummary;
+import com.example.myapplication.ReadPolicy;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.Source;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,117 +30,118 @@ import java.util.Map;
  * Used for handling all Firebase interactions related to Home
  */
 public class HomeRepository {
+    // The home page shows what the user saw last time at once, then the server's copy
+    static final ReadPolicy HOME_EVENTS_POLICY = ReadPolicy.CACHE_THEN_SERVER;
+
     private final FirebaseFirestore db;
     private final String deviceId;
 
     public HomeRepository(Context context) {
         this.deviceId = Settings.Secure.getString(context.getContentResolver(), Settings.Secure.ANDROID_ID);
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
     }
 
     /**
-     * Returns all events where your status is waiting in
-     * @param homeView
+     * Events on the home page, split by the user's status in each event's waitlist.
      */
-    public void fetchWaitlistEvents(HomeView homeView) {
-        String targetDeviceId = this.deviceId; //stores deviceid
-        List<Event> deviceWaitlistEvents = new ArrayList<>(); //initializes empty list to hold events where user is on waitlist with "waiting" status
-        Map<String, String> fetchedUserStatuses = new HashMap<>();
-
-        db.collection("Events")
-                .get()//gets all events in event collection
-                .addOnCompleteListener(task -> { //listener to handle result of fetch
-                    if (task.isSuccessful()) {
-                        int totalEvents = task.getResult().size(); //will use this for iterations later
-                        int[] eventsProcessed = {0}; //none processed at first
-
-                        for (QueryDocumentSnapshot eventDoc : task.getResult()) {
-                            Event event = eventDoc.toObject(Event.class);//converts each firestore document to event object
-                            event.setEventId(eventDoc.getId()); //sets events id from firestore
-
-                            db.collection("Events")
-                                    .document(event.getEventId())
-                                    .collection("Waitlist")//goes to waitlist
-                                    .document(targetDeviceId)//tries to get document corresponding with users device id
-                                    .get()
-                                    .addOnCompleteListener(waitlistTask -> {
-                                        eventsProcessed[0]++;
-                                        if (waitlistTask.isSuccessful()) {
-                                            DocumentSnapshot waitlistDoc = waitlistTask.getResult();
-                                            if (waitlistDoc.exists()) {
-                                                String status = waitlistDoc.getString("status");
-                                                if ("waiting".equals(status)) {
-                                                    deviceWaitlistEvents.add(event);
-                                                }
-                                            }
-                                        } else {
-                                            Log.e("FirestoreError", "Error fetching waitlist doc", waitlistTask.getException());
-                                        }
-
-                                        if (eventsProcessed[0] == totalEvents) {
-                                            homeView.updateWaitlistEvents(deviceWaitlistEvents);
-                                        }
-                                    });
-                        }
-                    } else {
-                        Log.e("FirestoreError", "Error fetching events", task.getException());
-                    }
-                });
+    public static final class HomeEvents {
+        public final List<Event> waitlistEvents = new ArrayList<>();
+        public final List<Event> selectedEvents = new ArrayList<>();
+        public final Map<String, String> userStatuses = new HashMap<>();
+
+        boolean isEmpty() {
+            return waitlistEvents.isEmpty() && selectedEvents.isEmpty();
+        }
     }
 
     /**
-     * Returns all events where your device id shows up in and your status is selected
-     * @param homeView
+     * Returns the events the user is waiting for and the events they are selected or confirmed in.
+     * @param token Cancels the remaining reads, e.g. when the home page is closed.
+     * @return A task with the user's events.
      */
-    public void fetchSelectedEvents(HomeView homeView) {
+    public Task<HomeEvents> fetchHomeEvents(CancellationToken token) {
+        return fetchHomeEvents(token, null);
+    }
+
+    /**
+     * Returns the events the user is waiting for and the events they are selected or confirmed in,
+     * read under {@link #HOME_EVENTS_POLICY}. Event summaries are read once and the user's
+     * waitlist entry of every event is read in parallel, first from the cache and then from the
+     * server. The cached events are only delivered if every entry is cached, as they are after a
+     * visit; until then the page waits for the server.
+     * @param token Cancels the remaining reads, e.g. when the home page is closed.
+     * @param onCached Receives the cached events first, if there are any; may be null.
+     * @return A task with the user's events from the server, or from the cache when offline.
+     */
+    public Task<HomeEvents> fetchHomeEvents(CancellationToken token, OnSuccessListener<HomeEvents> onCached) {
+        if (!HOME_EVENTS_POLICY.readsCacheFirst()) {
+            return readHomeEvents(HOME_EVENTS_POLICY.source(), token);
+        }
+        return readHomeEvents(Source.CACHE, token).continueWithTask(cached -> {
+            if (token.isCancellationRequested()) {
+                return Tasks.forCanceled();
+            }
+            boolean hit = cached.isSuccessful() && !cached.getResult().isEmpty();
+            if (hit && onCached != null) {
+                onCached.onSuccess(cached.getResult());
+            }
+            return readHomeEvents(Source.SERVER, token).continueWithTask(server ->
+                    server.isSuccessful() || !hit ? server : cached);
+        });
+    }
+
+    private Task<HomeEvents> readHomeEvents(Source source, CancellationToken token) {
         String targetDeviceId = this.deviceId;
-        List<Event> deviceSelectedEvents = new ArrayList<>();
-        Map<String, String> fetchedUserStatuses = new HashMap<>();
-
-        db.collection("Events")
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        int totalEvents = task.getResult().size();
-                        int[] eventsProcessed = {0};
-
-                        for (QueryDocumentSnapshot eventDoc : task.getResult()) {
-                            Event event = eventDoc.toObject(Event.class);
-                            event.setEventId(eventDoc.getId());
-
-                            db.collection("Events")
-                                    .document(event.getEventId())
-                                    .collection("Waitlist")
-                                    .document(targetDeviceId)
-                                    .get()
-                                    .addOnCompleteListener(waitlistDocTask -> {
-                                        eventsProcessed[0]++;
-                                        if (waitlistDocTask.isSuccessful()) {
-                                            DocumentSnapshot waitlistDoc = waitlistDocTask.getResult();
-                                            if (waitlistDoc.exists()) {
-                                                String status = waitlistDoc.getString("status");
-                                                if ("selected".equals(status) || "confirmed".equals(status)) {
-                                                    deviceSelectedEvents.add(event);
-                                                    fetchedUserStatuses.put(event.getEventId(), status);
-                                                }
-                                            }
-                                        } else {
-                                            Log.e("FirestoreError", "Error fetching waitlist doc", waitlistDocTask.getException());
-                                        }
-
-                                        if (eventsProcessed[0] == totalEvents) {
-                                            homeView.updateSelectedEvents(deviceSelectedEvents, fetchedUserStatuses);
-                                        }
-                                    });
-                        }
-                    } else {
-                        Log.e("FirestoreError", "Error fetching events", task.getException());
+        boolean fromServer = source != Source.CACHE;
+        String callSite = fromServer ? "HomeRepository.fetchHomeEvents" : "HomeRepository.fetchHomeEvents.cache";
+
+        return Async.withTimeout(FirestoreGateway.get(db.collection(EventSummaries.COLLECTION), source, callSite))
+                .continueWithTask(eventsTask -> {
+                    if (token.isCancellationRequested()) {
+                        return Tasks.forCanceled();
+                    }
+                    List<Event> events = new ArrayList<>();
+                    List<Task<DocumentSnapshot>> waitlistReads = new ArrayList<>();
+                    for (QueryDocumentSnapshot eventDoc : eventsTask.getResult()) {
+                        Event event = eventDoc.toObject(EventSummary.class).toEvent();//converts each summary document to event object
+                        event.setEventId(eventDoc.getId()); //sets events id from firestore
+                        events.add(event);
+                        waitlistReads.add(FirestoreGateway.get(db.collection("Events")
+                                .document(event.getEventId())
+                                .collection("Waitlist")//goes to waitlist
+                                .document(targetDeviceId), source, callSite + ".waitlistEntry"));//tries to get document corresponding with users device id
                     }
+
+                    return Async.withTimeout(Async.all(waitlistReads)).continueWith(waitlistTask -> {
+                        HomeEvents homeEvents = new HomeEvents();
+                        List<DocumentSnapshot> waitlistDocs = waitlistTask.getResult();
+                        for (int i = 0; i < events.size(); i++) {
+                            DocumentSnapshot waitlistDoc = waitlistDocs.get(i);
+                            if (!waitlistDoc.exists()) {
+                                continue;
+                            }
+                            Event event = events.get(i);
+                            String status = waitlistDoc.getString("status");
+                            if (fromServer) {
+                                // Status changes made by draws and organizers reach the topics here
+                                EventTopics.sync(FirebaseServices.push(), event.getEventId(), status);
+                            }
+                            if ("waiting".equals(status)) {
+                                homeEvents.waitlistEvents.add(event);
+                            } else if ("selected".equals(status) || "confirmed".equals(status)) {
+                                homeEvents.selectedEvents.add(event);
+                                homeEvents.userStatuses.put(event.getEventId(), status);
+                            }
+                        }
+                        return homeEvents;
+                    });
                 });
     }
 
     /**
-     * Removes the user from the waitlist when they hit leave waitlist
+     * Removes the user from the waitlist when they hit leave waitlist or decline their invitation.
+     * A place given up by a selected or confirmed user goes to the next entrant of the event's
+     * replacement pool in the same transaction.
      * @param eventId
      **/
     public void removeFromWaitlist(String eventId) {
@@ -140,7 +151,8 @@ public class HomeRepository {
         DocumentReference eventDocRef = db.collection("Events").document(eventId);
         DocumentReference waitlistDocRef = eventDocRef.collection("Waitlist").document(deviceID);
 
-        db.runTransaction(transaction -> {
+        // Reads and writes include one replacement: pool, entry and profile; cursor, status and notification
+        FirestoreGateway.runTransaction(db, 5, 6, transaction -> {
             DocumentSnapshot eventSnapshot = transaction.get(eventDocRef);
             if (!eventSnapshot.exists()) {
                 try {
@@ -163,23 +175,22 @@ public class HomeRepository {
             Long currentWaitlist = eventSnapshot.getLong("currentWaitlist");
             Long currentAttendees = eventSnapshot.getLong("currentAttendees");
 
-            if ("waiting".equals(status)) {
-                // User is on waitlist, decrement currentWaitlist
-                if (currentWaitlist != null && currentWaitlist > 0) {
-                    transaction.update(eventDocRef, "currentWaitlist", currentWaitlist - 1);
-                }
-            } else if ("selected".equals(status) || "confirmed".equals(status)) {
-                // User is in selected or confirmed, decrement currentAttendees
-                if (currentAttendees != null && currentAttendees > 0) {
-                    transaction.update(eventDocRef, "currentAttendees", currentAttendees - 1);
-                }
+            boolean freesPlace = "selected".equals(status) || "confirmed".equals(status);
+            ReplacementDraw.Refill refill = ReplacementDraw.prepare(transaction, eventDocRef, freesPlace ? 1 : 0);
+
+            // Leaving lowers the count the user's status counts towards
+            Map<String, Object> changes = EntrantCounts.move(currentWaitlist, currentAttendees, status, null, 1);
+            refill.apply(transaction, eventSnapshot, changes);
+            if (!changes.isEmpty()) {
+                EventSummaries.update(transaction, eventSnapshot, changes);
             }
             // Remove user from waitlist
             transaction.delete(waitlistDocRef);
 
             return null;
-        }).addOnSuccessListener(aVoid -> {
+        }, "HomeRepository.removeFromWaitlist").addOnSuccessListener(aVoid -> {
             Log.d("Firebase", "Device ID successfully removed from waitlist.");
+            EventTopics.sync(FirebaseServices.push(), eventId, null);
         }).addOnFailureListener(e -> {
             Log.w("Firebase", "Error removing device ID from waitlist", e);
         });
@@ -197,7 +208,7 @@ public class HomeRepository {
         DocumentReference eventDocRef = db.collection("Events").document(eventId);
         DocumentReference waitlistDocRef = eventDocRef.collection("Waitlist").document(deviceID);
 
-        db.runTransaction(transaction -> {
+        FirestoreGateway.runTransaction(db, 2, 1, transaction -> {
             DocumentSnapshot eventSnapshot = transaction.get(eventDocRef);
             if (!eventSnapshot.exists()) {
                 try {
@@ -221,14 +232,11 @@ public class HomeRepository {
             Long currentAttendees = eventSnapshot.getLong("currentAttendees");
 
             if ("selected".equals(currentStatus) && "confirmed".equals(newStatus)) {
-                // User confirms participation
-                if (currentWaitlist != null && currentWaitlist > 0) {
-                    transaction.update(eventDocRef, "currentWaitlist", currentWaitlist - 1);
-                }
-                if (currentAttendees != null) {
-                    transaction.update(eventDocRef, "currentAttendees", currentAttendees + 1);
-                } else {
-                    transaction.update(eventDocRef, "currentAttendees", 1L);
+                // Selected and confirmed entrants both count as attendees, so the counts stay
+                Map<String, Object> changes = EntrantCounts.move(currentWaitlist, currentAttendees,
+                        currentStatus, newStatus, 1);
+                if (!changes.isEmpty()) {
+                    EventSummaries.update(transaction, eventSnapshot, changes);
                 }
                 // Update user status
                 transaction.update(waitlistDocRef, "status", newStatus);
@@ -241,8 +249,9 @@ public class HomeRepository {
             }
 
             return null;
-        }).addOnSuccessListener(aVoid -> {
+        }, "HomeRepository.updateEventStatus").addOnSuccessListener(aVoid -> {
             Log.d("Firebase", "Status updated to " + newStatus);
+            EventTopics.sync(FirebaseServices.push(), eventId, newStatus);
         }).addOnFailureListener(e -> {
             Log.w("Firebase", "Error updating status", e);
         });
@@ -0,0 +1,288 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.Lottery.DrawCoordinator;
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.NotificationOutbox;
+import com.example.myapplication.NotificationService;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Runs the lottery of one event without an organizer present, used by the background draw
+ * scheduler. The draw can be interrupted and run again:
+ * <ul>
+ *     <li>The event is claimed for a limited time so two devices do not draw it together.</li>
+ *     <li>Winners are committed before the drawn marker, and entrants already selected or
+ *     confirmed count towards the places when the draw is resumed.</li>
+ *     <li>Losers are notified once the drawn marker is written, so they are never notified twice.</li>
+ *     <li>The losers' shuffled order is stored with the marker for {@link ReplacementDraw}.</li>
+ *     <li>Entrants are weighted by the event's priority tiers, see {@link TierWeights}.</li>
+ * </ul>
+ * Overlapping events can be drawn together with {@link #runTogether}, so an entrant wins at most
+ * one of them.
+ */
+public final class LotteryDraw {
+
+    public static final String FIELD_DRAWN = "drawn";
+    static final String FIELD_CLAIMED_BY = "drawClaimedBy";
+    static final String FIELD_CLAIM_EXPIRES_AT = "drawClaimExpiresAt";
+
+    // Long enough for a large draw, short enough that a crashed runner's events are soon picked up again
+    static final long CLAIM_DURATION_MS = 10 * 60_000;
+
+    private static final String WAITLIST_COLLECTION = "Waitlist";
+    private static final String NOTIFICATIONS_COLLECTION = "notifications";
+
+    // Firestore limits on operations per batch and values per whereIn
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_WHERE_IN = 30;
+
+    static final String WIN_TITLE = "Congratulations!";
+    static final String WIN_MESSAGE = "You have been selected as an attendee for the event. PLS SIGN UP";
+    static final String LOSE_TITLE = "Sorry!";
+    static final String LOSE_MESSAGE = "You have not been selected as an attendee for the event. PLS SIGN UP";
+
+    private static final Random drawRandom = new SecureRandom();
+
+    private LotteryDraw() {
+    }
+
+    /**
+     * Draws an event if its draw has not run and no other runner holds it.
+     * @param db The Firestore instance.
+     * @param eventId The event to draw.
+     * @param runnerId Identifies this runner in the claim.
+     * @param callSite Name of the calling code.
+     * @return Task with true if the event was drawn, false if it was skipped.
+     */
+    public static Task<Boolean> run(FirebaseFirestore db, String eventId, String runnerId, String callSite) {
+        return runTogether(db, Collections.singletonList(eventId), runnerId, callSite)
+                .continueWith(task -> task.getResult() > 0);
+    }
+
+    /**
+     * Draws a group of overlapping events together, so an entrant wins at most one of them,
+     * see {@link DrawCoordinator}. Events already drawn or held by another runner are left out.
+     * The drawn markers of a group of up to 166 events fit in one batch, so the group's markers
+     * are written together and a resumed draw sees every winner of the group.
+     * @param db The Firestore instance.
+     * @param eventIds The events to draw.
+     * @param runnerId Identifies this runner in the claims.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of events drawn.
+     */
+    public static Task<Integer> runTogether(FirebaseFirestore db, List<String> eventIds, String runnerId,
+                                            String callSite) {
+        List<Task<DocumentSnapshot>> claims = new ArrayList<>();
+        for (String eventId : eventIds) {
+            DocumentReference eventRef = db.collection(EventSummaries.EVENTS_COLLECTION).document(eventId);
+            claims.add(claim(db, eventRef, runnerId, callSite));
+        }
+        return Async.all(claims).onSuccessTask(claimed -> {
+            List<DocumentSnapshot> events = new ArrayList<>();
+            List<Task<QuerySnapshot>> reads = new ArrayList<>();
+            for (DocumentSnapshot event : claimed) {
+                if (event != null) {
+                    events.add(event);
+                    reads.add(FirestoreGateway.get(event.getReference().collection(WAITLIST_COLLECTION)
+                            .whereIn("status", Arrays.asList("waiting", "selected", "confirmed")), callSite));
+                }
+            }
+            if (events.isEmpty()) {
+                return Tasks.forResult(0);
+            }
+            return Async.all(reads)
+                    .onSuccessTask(waitlists -> draw(db, events, waitlists, callSite))
+                    .continueWith(drawTask -> {
+                        if (!drawTask.isSuccessful()) {
+                            throw Async.failure(drawTask);
+                        }
+                        return events.size();
+                    });
+        });
+    }
+
+    private static Task<DocumentSnapshot> claim(FirebaseFirestore db, DocumentReference eventRef, String runnerId,
+                                                String callSite) {
+        return FirestoreGateway.runTransaction(db, 1, 1, transaction -> {
+            DocumentSnapshot event = transaction.get(eventRef);
+            if (!event.exists() || Boolean.TRUE.equals(event.getBoolean(FIELD_DRAWN))) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            String claimedBy = event.getString(FIELD_CLAIMED_BY);
+            Timestamp expiresAt = event.getTimestamp(FIELD_CLAIM_EXPIRES_AT);
+            if (claimedBy != null && !claimedBy.equals(runnerId)
+                    && expiresAt != null && expiresAt.toDate().getTime() > now) {
+                return null;
+            }
+            Map<String, Object> claim = new HashMap<>();
+            claim.put(FIELD_CLAIMED_BY, runnerId);
+            claim.put(FIELD_CLAIM_EXPIRES_AT, new Timestamp(new Date(now + CLAIM_DURATION_MS)));
+            // The claim fields are not in the summary, so the event is updated on its own
+            transaction.update(eventRef, claim);
+            return event;
+        }, callSite);
+    }
+
+    private static Task<Void> draw(FirebaseFirestore db, List<DocumentSnapshot> events, List<QuerySnapshot> waitlists,
+                                   String callSite) {
+        List<DrawCoordinator.Draw> draws = new ArrayList<>();
+        Map<String, String> placed = new HashMap<>();
+        Map<String, Integer> taken = new HashMap<>();
+        Set<String> waiting = new LinkedHashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            DocumentSnapshot event = events.get(i);
+            List<String> eventWaiting = new ArrayList<>();
+            Map<String, String> tiers = new HashMap<>();
+            int eventTaken = 0;
+            for (DocumentSnapshot entry : waitlists.get(i)) {
+                if ("waiting".equals(entry.getString("status"))) {
+                    eventWaiting.add(entry.getId());
+                    tiers.put(entry.getId(), entry.getString(TierWeights.ENTRY_FIELD));
+                } else {
+                    eventTaken++;
+                    placed.put(entry.getId(), event.getId());
+                }
+            }
+            Long maxAttendees = event.getLong("maxAttendees");
+            int places = Math.max(0, (maxAttendees != null ? maxAttendees.intValue() : 0) - eventTaken);
+            List<String> order = TierWeights.order(eventWaiting, tiers::get,
+                    TierWeights.from(event.get(TierWeights.FIELD)), eventWaiting.size(), drawRandom);
+            draws.add(new DrawCoordinator.Draw(event.getId(), order, places));
+            taken.put(event.getId(), eventTaken);
+            waiting.addAll(eventWaiting);
+        }
+        Map<String, DrawCoordinator.Outcome> outcomes = DrawCoordinator.resolve(draws, placed, drawRandom);
+
+        CollectionReference notifications = db.collection(NOTIFICATIONS_COLLECTION);
+        return notifiable(db, new ArrayList<>(waiting), callSite).continueWithTask(permissionTask -> {
+            Set<String> notify = permissionTask.getResult();
+            Batches selections = new Batches(db, callSite);
+            for (DocumentSnapshot event : events) {
+                CollectionReference waitlistRef = event.getReference().collection(WAITLIST_COLLECTION);
+                for (String winner : outcomes.get(event.getId()).getWinners()) {
+                    boolean notifyWinner = notify.contains(winner);
+                    WriteBatch batch = selections.next(notifyWinner ? 2 : 1);
+                    batch.update(waitlistRef.document(winner), "status", "selected");
+                    if (notifyWinner) {
+                        batch.set(notifications.document(), NotificationService.notificationData(winner, event.getId(), WIN_TITLE, WIN_MESSAGE));
+                    }
+                }
+            }
+            return selections.commit().onSuccessTask(selected -> {
+                Batches markers = new Batches(db, callSite);
+                for (DocumentSnapshot event : events) {
+                    DrawCoordinator.Outcome outcome = outcomes.get(event.getId());
+                    List<String> pool = outcome.getPool();
+                    Map<String, Object> changes = new HashMap<>();
+                    changes.put(FIELD_DRAWN, true);
+                    changes.put("currentAttendees", taken.get(event.getId()) + outcome.getWinners().size());
+                    changes.put("currentWaitlist", pool.size());
+                    changes.put(FIELD_CLAIMED_BY, null);
+                    changes.put(FIELD_CLAIM_EXPIRES_AT, null);
+                    WriteBatch marker = markers.next(3);
+                    EventSummaries.update(marker, event, changes);
+                    marker.set(ReplacementDraw.pool(event.getReference()), ReplacementDraw.poolData(pool));
+                }
+                return markers.commit();
+            }).onSuccessTask(drawn -> {
+                // Entrants who won another event of the group are not told they lost this one,
+                // and an entrant who lost several events of the group gets one notification
+                Set<String> reported = new HashSet<>();
+                String groupEventId = events.size() == 1 ? events.get(0).getId() : null;
+                NotificationOutbox results = new NotificationOutbox(db);
+                for (DrawCoordinator.Outcome outcome : outcomes.values()) {
+                    for (String loser : outcome.getLosers()) {
+                        if (notify.contains(loser) && reported.add(loser)) {
+                            results.addExempt(loser, groupEventId, LOSE_TITLE, LOSE_MESSAGE);
+                        }
+                    }
+                }
+                return results.flush(callSite);
+            });
+        });
+    }
+
+    /**
+     * Finds the entrants who allow notifications, reading their profiles in whereIn chunks.
+     */
+    static Task<Set<String>> notifiable(FirebaseFirestore db, List<String> userIds, String callSite) {
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i += MAX_WHERE_IN) {
+            List<String> chunk = userIds.subList(i, Math.min(i + MAX_WHERE_IN, userIds.size()));
+            reads.add(FirestoreGateway.get(db.collection("users").whereIn(FieldPath.documentId(), chunk), callSite));
+        }
+        return Async.all(reads).continueWith(task -> {
+            Set<String> notify = new HashSet<>();
+            for (QuerySnapshot users : task.getResult()) {
+                for (DocumentSnapshot user : users) {
+                    if (Boolean.TRUE.equals(user.getBoolean("notificationsPerm"))) {
+                        notify.add(user.getId());
+                    }
+                }
+            }
+            return notify;
+        });
+    }
+
+    /**
+     * Splits writes into batches within the Firestore limit and commits them together.
+     */
+    private static final class Batches {
+        private final FirebaseFirestore db;
+        private final String callSite;
+        private final List<Task<Void>> commits = new ArrayList<>();
+        private WriteBatch batch;
+        private int pending;
+
+        Batches(FirebaseFirestore db, String callSite) {
+            this.db = db;
+            this.callSite = callSite;
+            this.batch = db.batch();
+        }
+
+        WriteBatch next(int operations) {
+            if (pending + operations > MAX_BATCH_SIZE) {
+                flush();
+            }
+            pending += operations;
+            return batch;
+        }
+
+        Task<Void> commit() {
+            flush();
+            return Tasks.whenAll(commits);
+        }
+
+        private void flush() {
+            if (pending > 0) {
+                commits.add(FirestoreGateway.commit(batch, pending, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+    }
+}
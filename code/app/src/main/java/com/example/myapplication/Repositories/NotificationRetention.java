@@ -0,0 +1,231 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirestoreGateway;
+import com.example.myapplication.NotificationService;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps the notifications collection bounded. Every notification gets an expiresAt timestamp
+ * when written, which the Firestore TTL policy in firestore.indexes.json and
+ * {@link #deleteExpired} remove. Each user's inbox is capped at {@link #INBOX_LIMIT}
+ * notifications by folding the oldest into a single digest notification, so inbox reads
+ * stay the same size however long the user has been around.
+ */
+public final class NotificationRetention {
+
+    public static final String COLLECTION = "notifications";
+
+    // Notifications shown and kept per user, the oldest beyond it are compacted
+    public static final int INBOX_LIMIT = 100;
+
+    // Marks the digest of compacted notifications
+    public static final String FIELD_DIGEST = "digest";
+    static final String DIGEST_TITLE = "Earlier notifications";
+
+    // Firestore limit on operations per batch
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Expired pages deleted per run, the rest are left for the next run
+    static final int MAX_DELETE_PAGES = 20;
+
+    // Format of the legacy timestamp string, see NotificationService.notificationData
+    private static final String LEGACY_TIMESTAMP_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private NotificationRetention() {
+    }
+
+    /**
+     * Deletes expired notifications of every user, a batch of up to 500 at a time.
+     * @param db The Firestore instance.
+     * @param now The current time.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of notifications deleted.
+     */
+    public static Task<Integer> deleteExpired(FirebaseFirestore db, Timestamp now, String callSite) {
+        return deleteExpired(db, now, 0, 0, callSite);
+    }
+
+    private static Task<Integer> deleteExpired(FirebaseFirestore db, Timestamp now, int page, int deleted,
+                                               String callSite) {
+        Query expired = db.collection(COLLECTION)
+                .whereLessThanOrEqualTo(NotificationService.FIELD_EXPIRES_AT, now)
+                .limit(MAX_BATCH_SIZE);
+        return FirestoreGateway.get(expired, callSite).onSuccessTask(snapshot -> {
+            if (snapshot.isEmpty()) {
+                return Tasks.forResult(deleted);
+            }
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot notification : snapshot) {
+                batch.delete(notification.getReference());
+            }
+            int total = deleted + snapshot.size();
+            return FirestoreGateway.commit(batch, snapshot.size(), callSite).onSuccessTask(committed -> {
+                if (snapshot.size() < MAX_BATCH_SIZE || page + 1 >= MAX_DELETE_PAGES) {
+                    return Tasks.forResult(total);
+                }
+                return deleteExpired(db, now, page + 1, total, callSite);
+            });
+        });
+    }
+
+    /**
+     * Folds a user's oldest notifications into one digest once the inbox is over its limit.
+     * Checking a user within the limit costs one count.
+     * @param db The Firestore instance.
+     * @param userId The user's device id.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of notifications folded into the digest.
+     */
+    public static Task<Integer> compactInbox(FirebaseFirestore db, String userId, String callSite) {
+        Query inbox = db.collection(COLLECTION)
+                .whereEqualTo("userId", userId)
+                .orderBy(NotificationService.FIELD_CREATED_AT);
+        return FirestoreGateway.count(inbox, callSite).onSuccessTask(count -> {
+            // The digest takes one place in the inbox, and its deletes share one batch with it
+            int excess = (int) Math.min(count - INBOX_LIMIT + 1, MAX_BATCH_SIZE - 1);
+            if (count <= INBOX_LIMIT || excess < 2) {
+                return Tasks.forResult(0);
+            }
+            return FirestoreGateway.get(inbox.limit(excess), callSite).onSuccessTask(oldest -> {
+                List<DocumentSnapshot> compacted = oldest.getDocuments();
+                WriteBatch batch = db.batch();
+                batch.set(db.collection(COLLECTION).document(), digest(userId, compacted));
+                for (DocumentSnapshot notification : compacted) {
+                    batch.delete(notification.getReference());
+                }
+                return FirestoreGateway.commit(batch, compacted.size() + 1, callSite)
+                        .onSuccessTask(committed -> Tasks.forResult(compacted.size()));
+            });
+        });
+    }
+
+    /**
+     * Builds the digest replacing a user's oldest notifications. It takes the place of the
+     * newest one it replaces, so it stays the oldest entry, and expires with the last of them.
+     * @param userId The user's device id.
+     * @param compacted The notifications replaced, oldest first, possibly including an earlier digest.
+     * @return The digest fields.
+     */
+    public static Map<String, Object> digest(String userId, List<DocumentSnapshot> compacted) {
+        long count = 0;
+        Timestamp createdAt = null;
+        Timestamp expiresAt = null;
+        for (DocumentSnapshot notification : compacted) {
+            Long merged = notification.getLong(NotificationService.FIELD_COUNT);
+            count += merged != null ? merged : 1;
+            createdAt = later(createdAt, notification.getTimestamp(NotificationService.FIELD_CREATED_AT));
+            expiresAt = later(expiresAt, notification.getTimestamp(NotificationService.FIELD_EXPIRES_AT));
+        }
+        Map<String, Object> digest = NotificationService.notificationData(userId, DIGEST_TITLE,
+                "You had " + count + " earlier notifications.");
+        digest.put(NotificationService.FIELD_COUNT, count);
+        digest.put(FIELD_DIGEST, true);
+        if (createdAt != null) {
+            digest.put(NotificationService.FIELD_CREATED_AT, createdAt);
+        }
+        if (expiresAt != null) {
+            digest.put(NotificationService.FIELD_EXPIRES_AT, expiresAt);
+        }
+        return digest;
+    }
+
+    /**
+     * Adds createdAt and expiresAt to a user's notifications written before they existed, dated
+     * from their timestamp string. Checking a user with nothing to backfill costs two counts.
+     * @param db The Firestore instance.
+     * @param userId The user's device id.
+     * @param callSite Name of the calling code.
+     * @return Task with the number of notifications backfilled.
+     */
+    public static Task<Integer> backfill(FirebaseFirestore db, String userId, String callSite) {
+        CollectionReference notifications = db.collection(COLLECTION);
+        Task<Long> all = FirestoreGateway.count(notifications.whereEqualTo("userId", userId), callSite);
+        Task<Long> dated = FirestoreGateway.count(notifications.whereEqualTo("userId", userId)
+                .orderBy(NotificationService.FIELD_CREATED_AT), callSite);
+        return Tasks.whenAllSuccess(all, dated).onSuccessTask(counts -> {
+            if (all.getResult().equals(dated.getResult())) {
+                return Tasks.forResult(0);
+            }
+            return FirestoreGateway.get(notifications.whereEqualTo("userId", userId), callSite)
+                    .onSuccessTask(snapshot -> backfill(db, snapshot, callSite));
+        });
+    }
+
+    private static Task<Integer> backfill(FirebaseFirestore db, QuerySnapshot snapshot, String callSite) {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int pending = 0;
+        int changed = 0;
+        for (DocumentSnapshot notification : snapshot) {
+            if (notification.contains(NotificationService.FIELD_CREATED_AT)) {
+                continue;
+            }
+            batch.update(notification.getReference(), retentionFields(notification.getString("timestamp"),
+                    new Date()));
+            changed++;
+            if (++pending == MAX_BATCH_SIZE) {
+                commits.add(FirestoreGateway.commit(batch, pending, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            commits.add(FirestoreGateway.commit(batch, pending, callSite));
+        }
+        int total = changed;
+        return Tasks.whenAll(commits).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw Async.failure(task);
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Dates a legacy notification from its timestamp string.
+     * @param timestamp The legacy "yyyy-MM-dd HH:mm:ss" string, may be null or malformed.
+     * @param now Used when the string cannot be parsed.
+     * @return The createdAt and expiresAt fields.
+     */
+    public static Map<String, Object> retentionFields(String timestamp, Date now) {
+        Date createdAt = now;
+        if (timestamp != null) {
+            SimpleDateFormat format = new SimpleDateFormat(LEGACY_TIMESTAMP_PATTERN, Locale.getDefault());
+            format.setLenient(false);
+            try {
+                createdAt = format.parse(timestamp);
+            } catch (ParseException e) {
+                createdAt = now;
+            }
+        }
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(NotificationService.FIELD_CREATED_AT, new Timestamp(createdAt));
+        fields.put(NotificationService.FIELD_EXPIRES_AT,
+                new Timestamp(new Date(createdAt.getTime() + NotificationService.EXPIRES_AFTER_MS)));
+        return fields;
+    }
+
+    private static Timestamp later(Timestamp current, Timestamp candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.compareTo(current) > 0 ? candidate : current;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.myapplication.Repositories;
+
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves user ids to display names. Ids not in the cache are read together, in whereIn
+ * chunks of 30, instead of one users read each. Names are kept in a least recently used cache
+ * for {@link #TTL_MS}, so a renamed user shows their new name after a while.
+ */
+public final class ProfileResolver {
+
+    // Names kept, and how long each is trusted
+    static final int MAX_ENTRIES = 1000;
+    static final long TTL_MS = 10 * 60_000;
+
+    // Firestore limit on values per whereIn
+    private static final int MAX_WHERE_IN = 30;
+
+    private static ProfileResolver shared;
+
+    private final FirebaseFirestore db;
+    private final Cache cache;
+
+    /**
+     * Getter for the resolver shared by every screen, so names read on one are cached for all.
+     * @return The shared resolver.
+     */
+    public static synchronized ProfileResolver shared() {
+        if (shared == null) {
+            shared = new ProfileResolver(FirebaseServices.firestore(), new Cache(MAX_ENTRIES, TTL_MS));
+        }
+        return shared;
+    }
+
+    ProfileResolver(FirebaseFirestore db, Cache cache) {
+        this.db = db;
+        this.cache = cache;
+    }
+
+    /**
+     * Getter for a cached name.
+     * @param userId The user's device id.
+     * @return The name, or null if it is not cached or has expired.
+     */
+    public synchronized String cached(String userId) {
+        return cache.get(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Caches a name known without reading the profile, e.g. the userName copied onto a waitlist entry.
+     * @param userId The user's device id.
+     * @param name The name, ignored if null.
+     */
+    public synchronized void prime(String userId, String name) {
+        if (name != null) {
+            cache.put(userId, name, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Resolves names, reading the ones not cached.
+     * @param userIds The users' device ids.
+     * @param callSite Name of the calling code.
+     * @return Task with the name of every user found. Users without a profile or a name are left out.
+     */
+    public Task<Map<String, String>> resolve(Collection<String> userIds, String callSite) {
+        Map<String, String> names = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (String userId : new LinkedHashSet<>(userIds)) {
+                String name = cache.get(userId, now);
+                if (name != null) {
+                    names.put(userId, name);
+                } else {
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return Tasks.forResult(names);
+        }
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += MAX_WHERE_IN) {
+            List<String> chunk = missing.subList(i, Math.min(i + MAX_WHERE_IN, missing.size()));
+            reads.add(FirestoreGateway.get(db.collection("users").whereIn(FieldPath.documentId(), chunk), callSite));
+        }
+        return Async.all(reads).continueWith(task -> {
+            for (QuerySnapshot users : task.getResult()) {
+                for (DocumentSnapshot user : users) {
+                    String name = user.getString("name");
+                    if (name != null) {
+                        names.put(user.getId(), name);
+                        prime(user.getId(), name);
+                    }
+                }
+            }
+            return names;
+        });
+    }
+
+    /**
+     * Least recently used cache whose entries expire a fixed time after they were written.
+     */
+    public static final class Cache {
+        private final long ttlMs;
+        private final LinkedHashMap<String, Entry> entries;
+
+        /**
+         * Constructor for Cache.
+         * @param maxEntries Entries kept, the least recently used beyond it are evicted.
+         * @param ttlMs How long an entry is returned after it was written.
+         */
+        public Cache(int maxEntries, long ttlMs) {
+            this.ttlMs = ttlMs;
+            this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        /**
+         * Getter for an entry, which becomes the most recently used.
+         * @param key The key.
+         * @param now The current time in milliseconds.
+         * @return The value, or null if there is none or it has expired.
+         */
+        public String get(String key, long now) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now >= entry.expiresAt) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        /**
+         * Writes an entry.
+         * @param key The key.
+         * @param value The value.
+         * @param now The current time in milliseconds.
+         */
+        public void put(String key, String value, long now) {
+            entries.put(key, new Entry(value, now + ttlMs));
+        }
+
+        /**
+         * @return The number of entries, including expired ones not yet looked up.
+         */
+        public int size() {
+            return entries.size();
+        }
+
+        private static final class Entry {
+            final String value;
+            final long expiresAt;
+
+            Entry(String value, long expiresAt) {
+                this.value = value;
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+}
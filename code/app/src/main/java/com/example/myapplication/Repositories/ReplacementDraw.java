@@ -0,0 +1,192 @@
+package com.example.myapplication.Repositories;
+
+import android.util.Log;
+
+import com.example.myapplication.NotificationService;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Promotes entrants from the remaining pool of a drawn event when a selected entrant cancels or
+ * leaves. The draw stores the entrants who were not selected in their shuffled order together
+ * with a cursor, so a refill reads and writes only the entrants it promotes, plus the few it
+ * skips because they left the waitlist, instead of reading and shuffling the whole waitlist again.
+ * Places a refill could not fill within its skip budget are carried in the pool and filled by
+ * the next refill, which continues from the saved cursor.
+ */
+public final class ReplacementDraw {
+
+    static final String POOL_COLLECTION = "Draw";
+    static final String POOL_DOCUMENT = "pool";
+    static final String FIELD_ORDER = "order";
+    static final String FIELD_CURSOR = "cursor";
+    static final String FIELD_OWED = "owed";
+
+    // Keeps the pool document well under the 1 MiB Firestore document limit
+    static final int MAX_POOL_SIZE = 10_000;
+
+    // Pool entrants no longer waiting are passed over, up to this many per refill
+    static final int MAX_SKIPPED = 10;
+
+    private static final String TAG = "ReplacementDraw";
+
+    private ReplacementDraw() {
+    }
+
+    /**
+     * Getter for the pool document of an event.
+     * @param eventRef The event document.
+     * @return The pool document.
+     */
+    public static DocumentReference pool(DocumentReference eventRef) {
+        return eventRef.collection(POOL_COLLECTION).document(POOL_DOCUMENT);
+    }
+
+    /**
+     * Builds the pool written by a draw.
+     * @param remaining The entrants not selected, in their shuffled order.
+     * @return The pool fields, with the cursor at the start.
+     */
+    public static Map<String, Object> poolData(List<String> remaining) {
+        Map<String, Object> pool = new HashMap<>();
+        pool.put(FIELD_ORDER, new ArrayList<>(remaining.subList(0, Math.min(remaining.size(), MAX_POOL_SIZE))));
+        pool.put(FIELD_CURSOR, 0);
+        return pool;
+    }
+
+    /**
+     * Reads the next waiting entrants of the pool. Firestore transactions read before they
+     * write, so call this after the caller's own reads and before any write. Places left
+     * unfilled by an earlier refill are added to the places freed now.
+     * @param transaction The running transaction.
+     * @param eventRef The event document.
+     * @param places The number of places that were freed.
+     * @return The refill, to be applied once the caller's changes are known.
+     * @throws FirebaseFirestoreException If a read fails.
+     */
+    public static Refill prepare(Transaction transaction, DocumentReference eventRef, int places)
+            throws FirebaseFirestoreException {
+        DocumentReference poolRef = pool(eventRef);
+        if (places <= 0) {
+            return new Refill(eventRef, poolRef, false, 0, 0, 0, 0, new ArrayList<>(), new ArrayList<>());
+        }
+        DocumentSnapshot pool = transaction.get(poolRef);
+        List<String> promoted = new ArrayList<>();
+        List<String> notify = new ArrayList<>();
+        if (!pool.exists()) {
+            return new Refill(eventRef, poolRef, false, 0, 0, 0, 0, promoted, notify);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> order = (List<String>) pool.get(FIELD_ORDER);
+        Long storedCursor = pool.getLong(FIELD_CURSOR);
+        int start = storedCursor != null ? storedCursor.intValue() : 0;
+        Long storedOwed = pool.getLong(FIELD_OWED);
+        int owedBefore = storedOwed != null ? storedOwed.intValue() : 0;
+        int wanted = places + owedBefore;
+        int cursor = start;
+        int skipped = 0;
+        while (order != null && cursor < order.size() && promoted.size() < wanted && skipped < MAX_SKIPPED) {
+            String entrantId = order.get(cursor++);
+            DocumentSnapshot entry = transaction.get(eventRef.collection("Waitlist").document(entrantId));
+            if (!entry.exists() || !"waiting".equals(entry.getString("status"))) {
+                skipped++;
+                continue;
+            }
+            promoted.add(entrantId);
+            DocumentSnapshot user = transaction.get(eventRef.getFirestore().collection("users").document(entrantId));
+            if (Boolean.TRUE.equals(user.getBoolean("notificationsPerm"))) {
+                notify.add(entrantId);
+            }
+        }
+        // The skip budget ran out with entrants still in the pool, the next refill takes over
+        int owed = order != null && cursor < order.size() ? wanted - promoted.size() : 0;
+        if (owed > 0) {
+            Log.w(TAG, "Skipped " + skipped + " entrants no longer waiting for event " + eventRef.getId()
+                    + ", " + owed + " places left for the next refill");
+        }
+        return new Refill(eventRef, poolRef, true, start, cursor, owedBefore, owed, promoted, notify);
+    }
+
+    /**
+     * Entrants chosen by {@link #prepare}, written when applied.
+     */
+    public static final class Refill {
+        private final DocumentReference eventRef;
+        private final DocumentReference poolRef;
+        private final boolean poolExists;
+        private final int start;
+        private final int cursor;
+        private final int owedBefore;
+        private final int owed;
+        private final List<String> promoted;
+        private final List<String> notify;
+
+        private Refill(DocumentReference eventRef, DocumentReference poolRef, boolean poolExists, int start,
+                       int cursor, int owedBefore, int owed, List<String> promoted, List<String> notify) {
+            this.eventRef = eventRef;
+            this.poolRef = poolRef;
+            this.poolExists = poolExists;
+            this.start = start;
+            this.cursor = cursor;
+            this.owedBefore = owedBefore;
+            this.owed = owed;
+            this.promoted = promoted;
+            this.notify = notify;
+        }
+
+        /**
+         * Getter for the promoted entrants.
+         * @return The device ids of the entrants selected by this refill.
+         */
+        public List<String> getPromoted() {
+            return promoted;
+        }
+
+        /**
+         * Selects the promoted entrants, advances the pool cursor, records the places still
+         * owed and notifies the promoted entrants. The event counts are adjusted in the
+         * caller's changes, which the caller then writes through {@link EventSummaries}.
+         * @param transaction The running transaction.
+         * @param eventSnapshot The event as read by the transaction.
+         * @param changes The caller's changes to the event.
+         */
+        public void apply(Transaction transaction, DocumentSnapshot eventSnapshot, Map<String, Object> changes) {
+            if (!poolExists || (cursor == start && owed == owedBefore)) {
+                return;
+            }
+            transaction.update(poolRef, FIELD_CURSOR, cursor, FIELD_OWED, owed);
+
+            CollectionReference waitlist = eventRef.collection("Waitlist");
+            CollectionReference notifications = eventRef.getFirestore().collection("notifications");
+            for (String entrantId : promoted) {
+                transaction.update(waitlist.document(entrantId), "status", "selected");
+            }
+            for (String entrantId : notify) {
+                transaction.set(notifications.document(), NotificationService.notificationData(entrantId,
+                        eventRef.getId(), LotteryDraw.WIN_TITLE, LotteryDraw.WIN_MESSAGE));
+            }
+            if (!promoted.isEmpty()) {
+                changes.put("currentAttendees", count(changes, eventSnapshot, "currentAttendees") + promoted.size());
+                changes.put("currentWaitlist", Math.max(0, count(changes, eventSnapshot, "currentWaitlist") - promoted.size()));
+            }
+        }
+
+        private static long count(Map<String, Object> changes, DocumentSnapshot eventSnapshot, String field) {
+            Object changed = changes.get(field);
+            if (changed instanceof Number) {
+                return ((Number) changed).longValue();
+            }
+            Long stored = eventSnapshot.getLong(field);
+            return stored != null ? stored : 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.myapplication.Repositories;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Ties repository Tasks to a lifecycle. When the owner is destroyed every tracked task is
+ * cancelled, so success and failure listeners added to it never run against a dead screen.
+ * A repository that is passed the scope's token, so far only HomeRepository.fetchHomeEvents
+ * from HomeView, also stops issuing follow-up reads. Other screens do not use a scope yet.
+ */
+public final class TaskScope implements DefaultLifecycleObserver {
+
+    private final CancellationTokenSource cancellation = new CancellationTokenSource();
+
+    private TaskScope() {
+    }
+
+    /**
+     * Creates a scope that is cancelled when the owner is destroyed.
+     * Fragments should pass getViewLifecycleOwner() so work stops with the view.
+     * @param owner The activity, fragment or view lifecycle owner.
+     * @return The new scope.
+     */
+    public static TaskScope of(@NonNull LifecycleOwner owner) {
+        TaskScope scope = new TaskScope();
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            scope.cancel();
+        } else {
+            owner.getLifecycle().addObserver(scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Creates a scope that is only cancelled by calling {@link #cancel()}.
+     * @return The new scope.
+     */
+    public static TaskScope unbound() {
+        return new TaskScope();
+    }
+
+    /**
+     * Wraps a task so that it is cancelled together with this scope.
+     * @param task The task to track.
+     * @return A task with the same result, cancelled if the scope ends first.
+     */
+    public <T> Task<T> track(Task<T> task) {
+        TaskCompletionSource<T> source = new TaskCompletionSource<>(cancellation.getToken());
+        task.addOnCompleteListener(result -> {
+            if (result.isSuccessful()) {
+                source.trySetResult(result.getResult());
+            } else if (result.isCanceled()) {
+                source.trySetException(new CancellationException("Task was cancelled"));
+            } else {
+                source.trySetException(result.getException());
+            }
+        });
+        return source.getTask();
+    }
+
+    /**
+     * Getter for the token a repository checks before starting more work.
+     * @return The cancellation token of this scope.
+     */
+    public CancellationToken getToken() {
+        return cancellation.getToken();
+    }
+
+    /**
+     * @return True once the scope has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancellation.getToken().isCancellationRequested();
+    }
+
+    /**
+     * Cancels every task tracked by this scope.
+     */
+    public void cancel() {
+        cancellation.cancel();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        cancel();
+    }
+}
@@ -6,11 +6,16 @@ import android.net.Uri;
 
 import androidx.annotation.NonNull;
 
+import com.example.myapplication.FirebaseServices;
+import com.example.myapplication.FirestoreGateway;
 import com.example.myapplication.Models.User;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.storage.FirebaseStorage;
@@ -29,9 +34,9 @@ public class UserRepository {
     private FirebaseAuth auth;
 
     public UserRepository() {
-        db = FirebaseFirestore.getInstance();
-        storage = FirebaseStorage.getInstance();
-        auth = FirebaseAuth.getInstance();
+        db = FirebaseServices.firestore();
+        storage = FirebaseServices.storage();
+        auth = FirebaseServices.auth();
     }
 
     // Callback Interfaces
@@ -51,77 +56,88 @@ public class UserRepository {
     }
 
     // Upload Profile Image to Firebase Storage
-    public void uploadProfileImage(Uri imageUri, final UploadImageCallback callback) {
+    public Task<String> uploadProfileImage(Uri imageUri) {
         String userId = getCurrentUserId();
         if (userId == null) {
-            callback.onFailure(new Exception("User not authenticated"));
-            return;
+            return Async.failed("User not authenticated");
         }
 
         String imageName = "profile_images/" + userId + ".jpg";
         StorageReference storageRef = storage.getReference(imageName);
-        storageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl()
-                        .addOnSuccessListener(uri -> callback.onSuccess(uri.toString()))
-                        .addOnFailureListener(callback::onFailure))
+        return storageRef.putFile(imageUri)
+                // A failed upload fails the task with its own cause, not a missing-file error
+                .onSuccessTask(upload -> storageRef.getDownloadUrl())
+                .onSuccessTask(url -> Tasks.forResult(url.toString()));
+    }
+
+    public void uploadProfileImage(Uri imageUri, final UploadImageCallback callback) {
+        uploadProfileImage(imageUri)
+                .addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onFailure);
     }
 
     // Save or Update User in Firestore
-    public void saveUser(User user, final FirestoreCallback callback) {
+    public Task<Void> saveUser(User user) {
         String userId = getCurrentUserId();
         if (userId == null) {
-            callback.onFailure(new Exception("User not authenticated"));
-            return;
+            return Async.failed("User not authenticated");
         }
 
         user.setUserID(userId); // Ensure the userID is set
+        user.updateSearchFields();
 
         DocumentReference userRef = db.collection(USERS_COLLECTION).document(userId);
-        userRef.set(user, SetOptions.merge())
+        return FirestoreGateway.set(userRef, user, SetOptions.merge(), "UserRepository.saveUser");
+    }
+
+    public void saveUser(User user, final FirestoreCallback callback) {
+        saveUser(user)
                 .addOnSuccessListener(aVoid -> callback.onSuccess())
                 .addOnFailureListener(callback::onFailure);
     }
 
     // Load User from Firestore
-    public void loadUser(final LoadUserCallback callback) {
+    public Task<User> loadUser() {
         String userId = getCurrentUserId();
         if (userId == null) {
-            callback.onFailure(new Exception("User not authenticated"));
-            return;
+            return Async.failed("User not authenticated");
         }
 
         DocumentReference userRef = db.collection(USERS_COLLECTION).document(userId);
-        userRef.get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        callback.onSuccess(user);
-                    } else {
-                        callback.onFailure(new Exception("User not found"));
+        return Async.withTimeout(FirestoreGateway.get(userRef, "UserRepository.loadUser"))
+                .continueWith(task -> {
+                    DocumentSnapshot documentSnapshot = task.getResult();
+                    if (!documentSnapshot.exists()) {
+                        throw new Exception("User not found");
                     }
-                })
+                    return documentSnapshot.toObject(User.class);
+                });
+    }
+
+    public void loadUser(final LoadUserCallback callback) {
+        loadUser()
+                .addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onFailure);
     }
 
     // Delete Profile Image from Firebase Storage
-    public void deleteProfileImage(final FirestoreCallback callback) {
+    public Task<Void> deleteProfileImage() {
         String userId = getCurrentUserId();
         if (userId == null) {
-            callback.onFailure(new Exception("User not authenticated"));
-            return;
+            return Async.failed("User not authenticated");
         }
 
         String imageName = "profile_images/" + userId + ".jpg";
         StorageReference storageRef = storage.getReference(imageName);
-        storageRef.delete()
-                .addOnSuccessListener(aVoid -> {
-                    // Also remove the image URL from Firestore
-                    DocumentReference userRef = db.collection(USERS_COLLECTION).document(userId);
-                    userRef.update("profileImageUrl", null)
-                            .addOnSuccessListener(aVoid1 -> callback.onSuccess())
-                            .addOnFailureListener(callback::onFailure);
-                })
+        // Also remove the image URL from Firestore once the file is gone
+        return storageRef.delete()
+                .onSuccessTask(aVoid -> FirestoreGateway.update(db.collection(USERS_COLLECTION).document(userId),
+                        "profileImageUrl", null, "UserRepository.deleteProfileImage"));
+    }
+
+    public void deleteProfileImage(final FirestoreCallback callback) {
+        deleteProfileImage()
+                .addOnSuccessListener(aVoid -> callback.onSuccess())
                 .addOnFailureListener(callback::onFailure);
     }
 
@@ -136,6 +152,6 @@ public class UserRepository {
     // Get Storage Reference from Image URL
     public StorageReference getStorageReference(String imageUrl) {
         if (imageUrl == null || imageUrl.isEmpty()) return null;
-        return FirebaseStorage.getInstance().getReferenceFromUrl(imageUrl);
+        return FirebaseServices.storage().getReferenceFromUrl(imageUrl);
     }
 }
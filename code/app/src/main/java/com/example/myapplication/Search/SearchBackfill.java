@@ -0,0 +1,64 @@
+package com.example.myapplication.Search;
+
+import com.example.myapplication.FirestoreGateway;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the search fields to documents written before they existed, or whose name changed
+ * through a path that did not refresh them. Runs on data the caller already read, so it costs
+ * writes only for the documents that need fixing.
+ */
+public final class SearchBackfill {
+
+    // Firestore limit on operations per batch
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private SearchBackfill() {
+    }
+
+    /**
+     * Writes fresh search fields to every document whose stored ones are missing or stale.
+     * @param db The Firestore instance.
+     * @param documents The documents already read.
+     * @param nameField The field holding the display name.
+     * @param extraFields Other fields found by word prefix, e.g. "email".
+     * @param callSite Name of the calling code, for the usage metrics.
+     * @return Task completing once all batches are committed.
+     */
+    public static Task<Void> backfill(FirebaseFirestore db, List<? extends DocumentSnapshot> documents,
+                                      String nameField, String[] extraFields, String callSite) {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int pending = 0;
+        for (DocumentSnapshot document : documents) {
+            String[] extra = new String[extraFields.length];
+            for (int i = 0; i < extraFields.length; i++) {
+                extra[i] = document.getString(extraFields[i]);
+            }
+            Map<String, Object> fields = SearchTokens.fields(document.getString(nameField), extra);
+            if (fields.get(SearchTokens.FIELD_NAME).equals(document.get(SearchTokens.FIELD_NAME))
+                    && fields.get(SearchTokens.FIELD_PREFIXES).equals(document.get(SearchTokens.FIELD_PREFIXES))) {
+                continue;
+            }
+            batch.set(document.getReference(), fields, SetOptions.merge());
+            if (++pending == MAX_BATCH_SIZE) {
+                commits.add(FirestoreGateway.commit(batch, pending, callSite));
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            commits.add(FirestoreGateway.commit(batch, pending, callSite));
+        }
+        return Tasks.whenAll(commits);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.myapplication.Search;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Room access to the local full-text index.
+ */
+@Dao
+public abstract class SearchDao {
+
+    // SQLite allows 999 bound variables per statement
+    private static final int MAX_IDS_PER_DELETE = 900;
+
+    /**
+     * Finds entries of one kind matching an FTS expression, ordered by title.
+     * @param kind The record type.
+     * @param match The MATCH expression, see {@link SearchTokens#ftsMatch(String)}.
+     * @param limit The maximum number of entries.
+     * @return The matching entries.
+     */
+    @Query("SELECT * FROM search_index WHERE search_index MATCH :match AND kind = :kind "
+            + "ORDER BY title LIMIT :limit")
+    public abstract List<SearchEntry> search(String kind, String match, int limit);
+
+    @Insert
+    abstract void insert(List<SearchEntry> entries);
+
+    @Query("DELETE FROM search_index WHERE kind = :kind AND docId IN (:docIds)")
+    abstract void delete(String kind, List<String> docIds);
+
+    @Query("DELETE FROM search_index WHERE kind = :kind")
+    abstract void deleteAll(String kind);
+
+    @Query("DELETE FROM search_index WHERE kind = :kind AND rowid NOT IN "
+            + "(SELECT rowid FROM search_index WHERE kind = :kind ORDER BY syncedAt DESC LIMIT :keep)")
+    abstract void trim(String kind, int keep);
+
+    /**
+     * Adds or replaces entries, then drops the oldest ones past the cap.
+     * FTS tables have no unique constraints, so existing rows for the same documents are deleted first.
+     * @param kind The record type.
+     * @param entries The entries to store.
+     * @param keep The maximum number of entries kept for the kind.
+     */
+    @Transaction
+    public void upsert(String kind, List<SearchEntry> entries, int keep) {
+        List<String> docIds = new ArrayList<>();
+        for (SearchEntry entry : entries) {
+            docIds.add(entry.docId);
+        }
+        for (int start = 0; start < docIds.size(); start += MAX_IDS_PER_DELETE) {
+            delete(kind, docIds.subList(start, Math.min(docIds.size(), start + MAX_IDS_PER_DELETE)));
+        }
+        insert(entries);
+        trim(kind, keep);
+    }
+
+    /**
+     * Replaces every entry of a kind, used after the full collection was loaded so deleted
+     * records disappear from the index too.
+     * @param kind The record type.
+     * @param entries The entries to store.
+     * @param keep The maximum number of entries kept for the kind.
+     */
+    @Transaction
+    public void replaceAll(String kind, List<SearchEntry> entries, int keep) {
+        deleteAll(kind);
+        insert(entries);
+        trim(kind, keep);
+    }
+
+    /**
+     * Removes one record from the index.
+     * @param kind The record type.
+     * @param docId The Firestore document id.
+     */
+    public void remove(String kind, String docId) {
+        delete(kind, Collections.singletonList(docId));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.myapplication.Search;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Local database holding the full-text search index. It is only a cache of Firestore data, so
+ * schema changes simply rebuild it.
+ */
+@Database(entities = {SearchEntry.class}, version = 1, exportSchema = false)
+public abstract class SearchDatabase extends RoomDatabase {
+
+    private static volatile SearchDatabase instance;
+
+    /**
+     * Getter for the search DAO.
+     * @return The DAO.
+     */
+    public abstract SearchDao searchDao();
+
+    /**
+     * Getter for the process-wide database, opened on first use.
+     * @param context Any context, the application context is kept.
+     * @return The database.
+     */
+    public static SearchDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SearchDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    SearchDatabase.class, "search-index.db")
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.myapplication.Search;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * A row of the local full-text index: one event or user that was recently synced from Firestore.
+ * Only the title and detail are tokenized, the other columns are stored as is.
+ */
+@Fts4(tokenizer = FtsOptions.TOKENIZER_UNICODE61, notIndexed = {"kind", "docId", "syncedAt"})
+@Entity(tableName = "search_index")
+public class SearchEntry {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "rowid")
+    public int rowId;
+
+    @NonNull
+    public String kind = "";
+
+    @NonNull
+    public String docId = "";
+
+    public String title;
+
+    public String detail;
+
+    public long syncedAt;
+
+    /**
+     * Constructor used by Room.
+     */
+    public SearchEntry() {
+    }
+
+    /**
+     * Constructor for SearchEntry.
+     * @param kind The record type, one of the SearchIndex KIND constants.
+     * @param docId The Firestore document id.
+     * @param title The name shown in lists.
+     * @param detail Other searchable text, e.g. an email, may be null.
+     */
+    @Ignore
+    public SearchEntry(@NonNull String kind, @NonNull String docId, String title, String detail) {
+        this.kind = kind;
+        this.docId = docId;
+        this.title = title;
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.myapplication.Search;
+
+import android.content.Context;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Local full-text index of recently synced events and users, for filtering as the admin types
+ * without a Firestore round trip. Database work runs on a background thread and the returned
+ * tasks complete on the main thread.
+ */
+public class SearchIndex {
+
+    public static final String KIND_EVENT = "event";
+    public static final String KIND_USER = "user";
+
+    // Most recently synced records kept per kind
+    static final int MAX_ENTRIES_PER_KIND = 5000;
+
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final SearchDao dao;
+
+    /**
+     * Constructor for SearchIndex using the app's search database.
+     * @param context Any context.
+     */
+    public SearchIndex(Context context) {
+        this(SearchDatabase.getInstance(context).searchDao());
+    }
+
+    /**
+     * Constructor for SearchIndex.
+     * @param dao The DAO to read and write through.
+     */
+    SearchIndex(SearchDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Adds or refreshes records, e.g. the results of a remote search.
+     * @param kind The record type.
+     * @param entries The records.
+     * @return Task completing once stored.
+     */
+    public Task<Void> put(String kind, List<SearchEntry> entries) {
+        long now = System.currentTimeMillis();
+        return Tasks.call(EXECUTOR, () -> {
+            stamp(entries, now);
+            dao.upsert(kind, entries, MAX_ENTRIES_PER_KIND);
+            return null;
+        });
+    }
+
+    /**
+     * Replaces all records of a kind, used after the full collection was loaded.
+     * @param kind The record type.
+     * @param entries The records.
+     * @return Task completing once stored.
+     */
+    public Task<Void> replaceAll(String kind, List<SearchEntry> entries) {
+        long now = System.currentTimeMillis();
+        return Tasks.call(EXECUTOR, () -> {
+            stamp(entries, now);
+            dao.replaceAll(kind, entries, MAX_ENTRIES_PER_KIND);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a deleted record.
+     * @param kind The record type.
+     * @param docId The Firestore document id.
+     * @return Task completing once removed.
+     */
+    public Task<Void> remove(String kind, String docId) {
+        return Tasks.call(EXECUTOR, () -> {
+            dao.remove(kind, docId);
+            return null;
+        });
+    }
+
+    /**
+     * Finds records where every word of the query starts a word of the title or detail.
+     * @param kind The record type.
+     * @param query The search text.
+     * @param limit The maximum number of records.
+     * @return Task with the matching records, empty if the query has nothing searchable.
+     */
+    public Task<List<SearchEntry>> search(String kind, String query, int limit) {
+        String match = SearchTokens.ftsMatch(query);
+        if (match.isEmpty()) {
+            return Tasks.forResult(Collections.emptyList());
+        }
+        return Tasks.call(EXECUTOR, () -> dao.search(kind, match, limit));
+    }
+
+    private static void stamp(List<SearchEntry> entries, long syncedAt) {
+        for (SearchEntry entry : entries) {
+            entry.syncedAt = syncedAt;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.myapplication.Search;
+
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.Query;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the normalized search fields stored on event and user documents, and the queries that
+ * look records up by prefix.
+ * searchName is the whole normalized name, used for range queries on a typed phrase.
+ * searchPrefixes holds every prefix of every word, used for array-contains queries on one word.
+ */
+public final class SearchTokens {
+
+    public static final String FIELD_NAME = "searchName";
+    public static final String FIELD_PREFIXES = "searchPrefixes";
+
+    // Longer prefixes barely narrow results, longer query words are cut here and filtered on the client
+    public static final int MAX_PREFIX_LENGTH = 15;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokens() {
+    }
+
+    /**
+     * Lowercases the text, strips accents and collapses everything but letters and digits to
+     * single spaces, e.g. "Zoë's  Café" becomes "zoe s cafe".
+     * @param text The text, may be null.
+     * @return The normalized text, empty if there is nothing searchable.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits the normalized text into words.
+     * @param text The text, may be null.
+     * @return The words in order.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(normalized.split(" "));
+    }
+
+    /**
+     * Returns every prefix of every word in the values, up to {@link #MAX_PREFIX_LENGTH} letters.
+     * @param values The texts to index, null values are skipped.
+     * @return The distinct prefixes.
+     */
+    public static List<String> prefixes(String... values) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String value : values) {
+            for (String token : tokenize(value)) {
+                int length = Math.min(token.length(), MAX_PREFIX_LENGTH);
+                for (int i = 1; i <= length; i++) {
+                    prefixes.add(token.substring(0, i));
+                }
+            }
+        }
+        return new ArrayList<>(prefixes);
+    }
+
+    /**
+     * Builds the search fields for documents written as maps.
+     * @param name The display name, used for both fields.
+     * @param extra Other texts that should be found by word prefix, e.g. an email.
+     * @return The fields to merge into the written data.
+     */
+    public static Map<String, Object> fields(String name, String... extra) {
+        // Name first, so the list matches the one the models build
+        String[] values = new String[extra.length + 1];
+        values[0] = name;
+        System.arraycopy(extra, 0, values, 1, extra.length);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(FIELD_NAME, normalize(name));
+        fields.put(FIELD_PREFIXES, prefixes(values));
+        return fields;
+    }
+
+    /**
+     * Checks that every word of the query is the start of some word in the values.
+     * @param query The search text.
+     * @param values The texts of one record.
+     * @return True if the record matches.
+     */
+    public static boolean matches(String query, String... values) {
+        List<String> words = new ArrayList<>();
+        for (String value : values) {
+            words.addAll(tokenize(value));
+        }
+        for (String token : tokenize(query)) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the Firestore lookup for a search. A single word is matched against the start of any
+     * indexed word, several words are matched as a prefix of the whole name.
+     * Results should still be checked with {@link #matches(String, String...)}.
+     * @param collection The collection holding the search fields.
+     * @param query The search text.
+     * @param limit The maximum number of documents to read.
+     * @return The query, or null if the text has nothing searchable.
+     */
+    public static Query prefixQuery(CollectionReference collection, String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        if (tokens.size() == 1) {
+            String token = tokens.get(0);
+            return collection.whereArrayContains(FIELD_PREFIXES,
+                    token.substring(0, Math.min(token.length(), MAX_PREFIX_LENGTH))).limit(limit);
+        }
+        String phrase = normalize(query);
+        return collection.orderBy(FIELD_NAME).startAt(phrase).endAt(phrase + "\uf8ff").limit(limit);
+    }
+
+    /**
+     * Builds an FTS MATCH expression that finds rows where every word of the query starts a word.
+     * @param query The search text.
+     * @return The expression, empty if the text has nothing searchable.
+     */
+    public static String ftsMatch(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String token : tokenize(query)) {
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            // Tokens are letters and digits only, so they need no quoting
+            match.append(token).append('*');
+        }
+        return match.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.myapplication;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight Task between concurrent identical requests. A successful result is also
+ * handed to identical requests for a short time after it arrives, which covers the burst of reads
+ * made while a screen and its tabs are being composed. Failed requests are never shared.
+ */
+public final class SingleFlight {
+
+    /**
+     * How long a finished result is reused, short enough that data never looks noticeably stale.
+     */
+    public static final long DEFAULT_TTL_MS = 2000;
+
+    // Expired entries are swept once the map grows past this size
+    private static final int SWEEP_THRESHOLD = 64;
+
+    private final Map<Object, Entry> entries = new HashMap<>();
+    private final long ttlMs;
+    private final LongSupplier clock;
+
+    /**
+     * Constructor for SingleFlight using the default TTL and the system clock.
+     */
+    public SingleFlight() {
+        this(DEFAULT_TTL_MS, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * Constructor for SingleFlight.
+     * @param ttlMs How long a successful result is reused after it arrives.
+     * @param clock Source of the current time in milliseconds.
+     */
+    SingleFlight(long ttlMs, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the shared task for the key, starting a new one if there is none.
+     * @param key Identifies the request, must implement equals and hashCode.
+     * @param start Starts the request, only called when nothing can be shared.
+     * @param onShared Called when an existing task is returned instead of starting one.
+     * @return The shared or new task.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Task<T> run(Object key, Supplier<Task<T>> start, Runnable onShared) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isUsable(now, ttlMs)) {
+            onShared.run();
+            return (Task<T>) entry.task;
+        }
+        if (entries.size() >= SWEEP_THRESHOLD) {
+            sweep(now);
+        }
+
+        Task<T> task = start.get();
+        Entry newEntry = new Entry(task);
+        entries.put(key, newEntry);
+        task.addOnCompleteListener(result -> onComplete(key, newEntry, result.isSuccessful()));
+        return task;
+    }
+
+    /**
+     * Drops every shared task, so the next request for any key goes to Firestore.
+     * Called after writes so a read never returns data older than the write.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return The number of keys currently shared, in flight or cached.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void onComplete(Object key, Entry entry, boolean successful) {
+        if (entries.get(key) != entry) {
+            // Invalidated or replaced while in flight
+            return;
+        }
+        if (successful) {
+            entry.completedAt = clock.getAsLong();
+        } else {
+            entries.remove(key);
+        }
+    }
+
+    private void sweep(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isUsable(now, ttlMs)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Task<?> task;
+        long completedAt = -1;
+
+        Entry(Task<?> task) {
+            this.task = task;
+        }
+
+        boolean isUsable(long now, long ttlMs) {
+            if (completedAt < 0) {
+                // Still in flight, or finished but its listener has not run yet
+                return !task.isComplete() || task.isSuccessful();
+            }
+            return now - completedAt <= ttlMs;
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.ViewHolder> {
     public UserAdapter(Context context, List<User> userList, String currentUserId) {
         this.context = context;
         this.userList = userList != null ? userList : new ArrayList<>();
-        this.db = FirebaseFirestore.getInstance();
+        this.db = FirebaseServices.firestore();
         this.currentUserId = currentUserId;
     }
 
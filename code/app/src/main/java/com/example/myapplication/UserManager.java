@@ -25,7 +25,7 @@ public class UserManager {
      * @param context
      */
     public UserManager(Context context) {
-        db = FirebaseFirestore.getInstance();
+        db = FirebaseServices.firestore();
         deviceId = retrieveDeviceId(context);
         if (deviceId == null) {
             Log.e(TAG, "Failed to retrieve device ID.");
@@ -1,6 +1,11 @@
 package com.example.myapplication.Views;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.widget.Toolbar;
@@ -10,18 +15,29 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.Models.Event;
 import com.example.myapplication.EventAdapterAdmin;
 import com.example.myapplication.Controllers.BrowseEventsController;
+import com.example.myapplication.Search.SearchTokens;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * View for browsing events
  */
 public class BrowseEventsView {
 
+    // Firestore is searched once typing pauses for this long
+    static final long REMOTE_SEARCH_DELAY_MS = 300;
+
     private final Context context;
     private final RecyclerView eventRecyclerView;
     private final EventAdapterAdmin eventAdapterAdmin;
     private final BrowseEventsController controller;
+    private final List<Event> allEvents = new ArrayList<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable remoteSearch = this::searchRemote;
+    private String query = "";
 
     /**
      * Constructor for BrowseEventsView
@@ -48,17 +64,85 @@ public class BrowseEventsView {
         toolbar.setNavigationOnClickListener(v -> onBackPressed.run());
     }
 
+
+    /**
+     * Filters the list as the admin types: the local index answers immediately and Firestore is
+     * queried once typing pauses, adding matches that were never synced to this device.
+     * @param searchField The search input.
+     */
+    public void setSearchField(EditText searchField) {
+        searchField.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search(s.toString());
+            }
+        });
+    }
+
     /**
      * Loads events from the controller
      */
     public void loadEvents() {
         controller.fetchEvents(events -> {
-            eventAdapterAdmin.eventList.clear();
-            eventAdapterAdmin.eventList.addAll(events);
-            eventAdapterAdmin.notifyDataSetChanged();
+            allEvents.clear();
+            allEvents.addAll(events);
+            if (SearchTokens.normalize(query).isEmpty()) {
+                showEvents(allEvents);
+            }
         }, errorMessage -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
     }
 
+    private void search(String text) {
+        handler.removeCallbacks(remoteSearch);
+        query = text;
+        if (SearchTokens.normalize(text).isEmpty()) {
+            showEvents(allEvents);
+            return;
+        }
+        controller.searchLocal(text, events -> {
+            if (text.equals(query)) {
+                showEvents(events);
+            }
+        });
+        handler.postDelayed(remoteSearch, REMOTE_SEARCH_DELAY_MS);
+    }
+
+    private void searchRemote() {
+        String requested = query;
+        controller.searchEvents(requested, events -> {
+            if (requested.equals(query)) {
+                addEvents(events);
+            }
+        }, errorMessage -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
+    }
+
+    private void showEvents(List<Event> events) {
+        eventAdapterAdmin.eventList.clear();
+        eventAdapterAdmin.eventList.addAll(events);
+        eventAdapterAdmin.notifyDataSetChanged();
+    }
+
+    private void addEvents(List<Event> events) {
+        Set<String> shown = new HashSet<>();
+        for (Event event : eventAdapterAdmin.eventList) {
+            shown.add(event.getEventId());
+        }
+        for (Event event : events) {
+            if (shown.add(event.getEventId())) {
+                eventAdapterAdmin.eventList.add(event);
+            }
+        }
+        eventAdapterAdmin.notifyDataSetChanged();
+    }
+
     /**
      * Deletes an event
      * @param event
@@ -66,6 +150,7 @@ public class BrowseEventsView {
     private void deleteEvent(Event event) {
         controller.deleteEvent(event, () -> {
             eventAdapterAdmin.eventList.remove(event);
+            allEvents.removeIf(other -> other.getEventId().equals(event.getEventId()));
             eventAdapterAdmin.notifyDataSetChanged();
             Toast.makeText(context, "Event and waitlist deleted.", Toast.LENGTH_SHORT).show();
         }, errorMessage -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
@@ -1,6 +1,11 @@
 package com.example.myapplication.Views;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.widget.Toolbar;
@@ -9,8 +14,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.UserAdapter;
 import com.example.myapplication.Controllers.BrowseUsersController;
+import com.example.myapplication.Models.User;
+import com.example.myapplication.Search.SearchTokens;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * View for managing the user browsing UI.
@@ -18,10 +28,17 @@ import java.util.ArrayList;
  */
 public class BrowseUsersView {
 
+    // Firestore is searched once typing pauses for this long
+    static final long REMOTE_SEARCH_DELAY_MS = 300;
+
     private final Context context;
     private final RecyclerView userRecyclerView;
     private final UserAdapter userAdapter;
     private final BrowseUsersController controller;
+    private final List<User> allUsers = new ArrayList<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable remoteSearch = this::searchRemote;
+    private String query = "";
 
     /**
      * Constructs a BrowseUsersView.
@@ -51,14 +68,82 @@ public class BrowseUsersView {
         toolbar.setNavigationOnClickListener(v -> onBackPressed.run());
     }
 
+
+    /**
+     * Filters the list as the admin types: the local index answers immediately and Firestore is
+     * queried once typing pauses, adding matches that were never synced to this device.
+     * @param searchField The search input.
+     */
+    public void setSearchField(EditText searchField) {
+        searchField.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search(s.toString());
+            }
+        });
+    }
+
     /**
      * Loads user data into the RecyclerView by fetching it from the controller.
      */
     public void loadUsers() {
         controller.fetchUsers(users -> {
-            userAdapter.getUserList().clear();
-            userAdapter.getUserList().addAll(users);
-            userAdapter.notifyDataSetChanged();
+            allUsers.clear();
+            allUsers.addAll(users);
+            if (SearchTokens.normalize(query).isEmpty()) {
+                showUsers(allUsers);
+            }
         }, errorMessage -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
     }
+
+    private void search(String text) {
+        handler.removeCallbacks(remoteSearch);
+        query = text;
+        if (SearchTokens.normalize(text).isEmpty()) {
+            showUsers(allUsers);
+            return;
+        }
+        controller.searchLocal(text, users -> {
+            if (text.equals(query)) {
+                showUsers(users);
+            }
+        });
+        handler.postDelayed(remoteSearch, REMOTE_SEARCH_DELAY_MS);
+    }
+
+    private void searchRemote() {
+        String requested = query;
+        controller.searchUsers(requested, users -> {
+            if (requested.equals(query)) {
+                addUsers(users);
+            }
+        }, errorMessage -> Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show());
+    }
+
+    private void showUsers(List<User> users) {
+        userAdapter.getUserList().clear();
+        userAdapter.getUserList().addAll(users);
+        userAdapter.notifyDataSetChanged();
+    }
+
+    private void addUsers(List<User> users) {
+        Set<String> shown = new HashSet<>();
+        for (User user : userAdapter.getUserList()) {
+            shown.add(user.getUserID());
+        }
+        for (User user : users) {
+            if (shown.add(user.getUserID())) {
+                userAdapter.getUserList().add(user);
+            }
+        }
+        userAdapter.notifyDataSetChanged();
+    }
 }
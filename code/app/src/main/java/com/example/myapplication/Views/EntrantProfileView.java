@@ -3,7 +3,7 @@ package com.example.myapplication.Views;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.Editable;
@@ -122,8 +122,8 @@ public class EntrantProfileView extends AppCompatActivity {
                                 String name = nameField.getText() != null ? nameField.getText().toString().trim() : "";
                                 if (!name.isEmpty()) {
                                     String firstLetter = String.valueOf(name.charAt(0)).toUpperCase(Locale.US);
-                                    Bitmap avatarBitmap = AvatarUtil.generateAvatar(firstLetter, 200, EntrantProfileView.this);
-                                    profileImageView.setImageBitmap(avatarBitmap);
+                                    Drawable avatar = AvatarUtil.getAvatarDrawable(firstLetter, 200);
+                                    profileImageView.setImageDrawable(avatar);
                                 } else {
                                     profileImageView.setImageResource(R.drawable.ic_profile);
                                 }
@@ -466,8 +466,8 @@ public class EntrantProfileView extends AppCompatActivity {
                         String name = nameField.getText() != null ? nameField.getText().toString().trim() : "";
                         if (!name.isEmpty()) {
                             String firstLetter = String.valueOf(name.charAt(0)).toUpperCase(Locale.US);
-                            Bitmap avatarBitmap = AvatarUtil.generateAvatar(firstLetter, 200, EntrantProfileView.this);
-                            profileImageView.setImageBitmap(avatarBitmap);
+                            Drawable avatar = AvatarUtil.getAvatarDrawable(firstLetter, 200);
+                            profileImageView.setImageDrawable(avatar);
                         } else {
                             profileImageView.setImageResource(R.drawable.ic_profile);
                         }
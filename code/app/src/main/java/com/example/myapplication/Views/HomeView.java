@@ -16,6 +16,7 @@ import com.example.myapplication.Controllers.HomePageController;
 import com.example.myapplication.Models.Event;
 import com.example.myapplication.R;
 import com.example.myapplication.Repositories.HomeRepository;
+import com.example.myapplication.Repositories.TaskScope;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -66,21 +67,23 @@ public class HomeView extends Fragment {
         waitlistEventsAdapter = new HomePageController(getContext(), waitlistEvents);
         waitlistEventsListView.setAdapter(waitlistEventsAdapter);
 
-        // Fetch events
-        fetchWaitlistEvents();
-        fetchSelectedEvents();
+        // Fetch events, results are dropped if the view is destroyed first
+        fetchHomeEvents(TaskScope.of(getViewLifecycleOwner()));
 
         return view;
     }
 
-    private void fetchWaitlistEvents() {
+    private void fetchHomeEvents(TaskScope scope) {
         HomeRepository homeRepository = new HomeRepository(getContext());
-        homeRepository.fetchWaitlistEvents(this);
+        // Events cached from the last visit show at once, the server's replace them when they arrive
+        scope.track(homeRepository.fetchHomeEvents(scope.getToken(), this::showHomeEvents))
+                .addOnSuccessListener(this::showHomeEvents)
+                .addOnFailureListener(e -> Log.e("FirestoreError", "Error fetching home events", e));
     }
 
-    private void fetchSelectedEvents() {
-        HomeRepository homeRepository = new HomeRepository(getContext());
-        homeRepository.fetchSelectedEvents(this);
+    private void showHomeEvents(HomeRepository.HomeEvents homeEvents) {
+        updateWaitlistEvents(homeEvents.waitlistEvents);
+        updateSelectedEvents(homeEvents.selectedEvents, homeEvents.userStatuses);
     }
 
     /**
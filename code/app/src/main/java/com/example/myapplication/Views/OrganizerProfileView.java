@@ -2,7 +2,7 @@ package com.example.myapplication.Views;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
 import android.icu.util.Calendar;
 import android.net.Uri;
 import android.os.Bundle;
@@ -25,12 +25,14 @@ import com.bumptech.glide.request.RequestOptions;
 import com.example.myapplication.AvatarUtil;
 import com.example.myapplication.BaseActivity;
 import com.example.myapplication.Controllers.EditProfileController;
+import com.example.myapplication.DrawWorker;
+import com.example.myapplication.FirebaseServices;
 import com.example.myapplication.HomeFragment;
 import com.example.myapplication.Models.User;
 import com.example.myapplication.OrganizerNotificationActivity;
 import com.example.myapplication.R;
+import com.example.myapplication.Search.SearchTokens;
 import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
 import java.util.HashMap;
@@ -91,6 +93,8 @@ public class OrganizerProfileView extends BaseActivity {
         initializeUI();
         setListeners();
         loadUserProfile();
+        // Organizers' devices run the due lottery draws in the background
+        DrawWorker.schedule(this);
 
     }
 
@@ -287,6 +291,7 @@ public class OrganizerProfileView extends BaseActivity {
         profileData.put("isAdmin", isAdmin);
         profileData.put("isOrganizer", isOrganizer);
         profileData.put("notificationsPerm", notificationsPerm);
+        profileData.putAll(SearchTokens.fields(name, email));
         profileData.put("events", null);
         //profileData.put("eventsAttending", new HashMap<String, Object>());
         profileData.put("profileImageUrl", null);
@@ -310,7 +315,7 @@ public class OrganizerProfileView extends BaseActivity {
      * Upload profile image to Firebase Storage
      */
     private void uploadProfileImage(DocumentReference userRef) {
-        StorageReference storageRef = FirebaseStorage.getInstance().getReference("profile_images/" + retrieveDeviceId() + ".jpg");
+        StorageReference storageRef = FirebaseServices.storage().getReference("profile_images/" + retrieveDeviceId() + ".jpg");
         storageRef.putFile(imageUri)
                 .addOnSuccessListener(taskSnapshot -> storageRef.getDownloadUrl().addOnSuccessListener(uri -> {
                     userRef.update("profileImageUrl", uri.toString())
@@ -363,8 +368,8 @@ public class OrganizerProfileView extends BaseActivity {
      */
     private void generateDefaultAvatar(String name) {
         String firstLetter = (name != null && !name.isEmpty()) ? name.substring(0, 1).toUpperCase(Locale.US) : "?";
-        Bitmap avatar = AvatarUtil.generateAvatar(firstLetter, 200, this);
-        profileImageView.setImageBitmap(avatar);
+        Drawable avatar = AvatarUtil.getAvatarDrawable(firstLetter, 200);
+        profileImageView.setImageDrawable(avatar);
         removeProfileImageButton.setVisibility(View.GONE);
     }
 
@@ -1,6 +1,8 @@
 package com.example.myapplication;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -9,6 +11,8 @@ import android.widget.BaseExpandableListAdapter;
 import android.widget.CheckBox;
 import android.widget.TextView;
 
+import com.example.myapplication.Repositories.ProfileResolver;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,7 +20,10 @@ import java.util.Set;
 import java.util.HashSet;
 
 /**
- * Adapter for displaying user IDs grouped by status in an ExpandableListView.
+ * Adapter for displaying users grouped by status in an ExpandableListView.
+ * Rows show the user's name once it is resolved, and their ID until then. Names are resolved
+ * only for the rows of expanded groups that are bound, and the ids bound during one layout pass
+ * are resolved together.
  */
 public class WaitlistExpandableListAdapter extends BaseExpandableListAdapter {
 
@@ -27,6 +34,14 @@ public class WaitlistExpandableListAdapter extends BaseExpandableListAdapter {
     private HashMap<String, List<String>> listData;
     private Set<String> selectedGroups; // To track selected status groups
 
+    // Children of a group whose names are resolved as soon as it is expanded
+    private static final int PREFETCH_CHILDREN = 30;
+
+    private final ProfileResolver resolver;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Set<String> requested = new HashSet<>(); // Ids being resolved
+    private final List<String> pendingNames = new ArrayList<>(); // Ids waiting for the next batch
+
     /**
      * Constructor for WaitlistExpandableListAdapter.
      * @param context
@@ -35,10 +50,23 @@ public class WaitlistExpandableListAdapter extends BaseExpandableListAdapter {
      */
 
     public WaitlistExpandableListAdapter(Context context, List<String> listGroupTitles, HashMap<String, List<String>> listData) {
+        this(context, listGroupTitles, listData, null);
+    }
+
+    /**
+     * Constructor for WaitlistExpandableListAdapter that shows names.
+     * @param context
+     * @param listGroupTitles
+     * @param listData
+     * @param resolver Resolves the user IDs to names, or null to show the IDs.
+     */
+    public WaitlistExpandableListAdapter(Context context, List<String> listGroupTitles, HashMap<String, List<String>> listData,
+                                         ProfileResolver resolver) {
         this.context = context;
         this.listGroupTitles = listGroupTitles;
         this.listData = listData;
         this.selectedGroups = new HashSet<>();
+        this.resolver = resolver;
     }
 
     /**
@@ -194,12 +222,56 @@ public class WaitlistExpandableListAdapter extends BaseExpandableListAdapter {
         }
 
         TextView userIdTextView = convertView.findViewById(R.id.user_id_text_view);
-        userIdTextView.setText(userId);
-        Log.d(TAG, "Displaying userId: " + userId + " under group: " + getGroup(groupPosition));
+        String name = resolver != null ? resolver.cached(userId) : null;
+        userIdTextView.setText(name != null ? name : userId);
+        if (name == null) {
+            requestName(userId);
+        }
 
         return convertView;
     }
 
+    /**
+     * Resolves the names of the first children of a group as soon as it is expanded.
+     * @param groupPosition The position of the expanded group.
+     */
+    @Override
+    public void onGroupExpanded(int groupPosition) {
+        super.onGroupExpanded(groupPosition);
+        List<String> children = listData.get(listGroupTitles.get(groupPosition));
+        for (int i = 0; i < Math.min(PREFETCH_CHILDREN, children.size()); i++) {
+            requestName(children.get(i));
+        }
+    }
+
+    /**
+     * Queues a name to resolve in the batch sent after the current layout pass.
+     */
+    private void requestName(String userId) {
+        if (resolver == null || !requested.add(userId)) {
+            return;
+        }
+        pendingNames.add(userId);
+        if (pendingNames.size() == 1) {
+            handler.post(this::resolvePendingNames);
+        }
+    }
+
+    private void resolvePendingNames() {
+        List<String> userIds = new ArrayList<>(pendingNames);
+        pendingNames.clear();
+        resolver.resolve(userIds, "WaitlistExpandableListAdapter.resolvePendingNames")
+                .addOnCompleteListener(done -> {
+                    // Requested again when a row is bound without a cached name, e.g. once it expires
+                    requested.removeAll(userIds);
+                    if (!done.isSuccessful()) {
+                        Log.e(TAG, "Failed to resolve names", done.getException());
+                    } else if (!done.getResult().isEmpty()) {
+                        notifyDataSetChanged();
+                    }
+                });
+    }
+
     /**
      * Indicates whether the child at the specified position is selectable.
      * @param groupPosition the position of the group that contains the child
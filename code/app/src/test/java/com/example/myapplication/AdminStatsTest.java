@@ -0,0 +1,35 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Repositories.AdminStatsRepository;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests the day keys and weekly changes of the admin screen's totals.
+ */
+public class AdminStatsTest {
+
+    @Test
+    public void testDayKeyIsTheUtcDay() {
+        // 2024-03-01 23:30 UTC
+        assertEquals("2024-03-01", AdminStatsRepository.dayKey(new Date(1709335800000L)));
+        // 2024-03-02 00:30 UTC
+        assertEquals("2024-03-02", AdminStatsRepository.dayKey(new Date(1709339400000L)));
+    }
+
+    @Test
+    public void testTrendShowsTheSignedChange() {
+        assertEquals("120 (+20 in 7 days)", AdminStatsRepository.withTrend(120, 100L));
+        assertEquals("80 (-20 in 7 days)", AdminStatsRepository.withTrend(80, 100L));
+        assertEquals("100 (+0 in 7 days)", AdminStatsRepository.withTrend(100, 100L));
+    }
+
+    @Test
+    public void testTrendWithoutAnEarlierTotal() {
+        assertEquals("42", AdminStatsRepository.withTrend(42, null));
+    }
+}
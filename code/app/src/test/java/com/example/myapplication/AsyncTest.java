@@ -0,0 +1,122 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+import com.example.myapplication.Repositories.Async;
+import com.example.myapplication.Repositories.TaskScope;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tests the Task combinators and lifecycle scope used by the repositories.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class AsyncTest {
+
+    @Test
+    public void testAllKeepsOrderOfTasks() {
+        TaskCompletionSource<String> first = new TaskCompletionSource<>();
+        TaskCompletionSource<String> second = new TaskCompletionSource<>();
+        Task<List<String>> both = Async.all(Arrays.asList(first.getTask(), second.getTask()));
+
+        second.setResult("b");
+        first.setResult("a");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(both.isSuccessful());
+        assertEquals(Arrays.asList("a", "b"), both.getResult());
+    }
+
+    @Test
+    public void testAllFailsWhenOneTaskFails() {
+        TaskCompletionSource<String> first = new TaskCompletionSource<>();
+        TaskCompletionSource<String> second = new TaskCompletionSource<>();
+        Task<List<String>> both = Async.all(Arrays.asList(first.getTask(), second.getTask()));
+
+        first.setResult("a");
+        second.setException(new Exception("offline"));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertFalse(both.isSuccessful());
+    }
+
+    @Test
+    public void testWithTimeoutFailsSlowTask() {
+        TaskCompletionSource<String> slow = new TaskCompletionSource<>();
+        Task<String> timed = Async.withTimeout(slow.getTask(), 1000);
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1500));
+
+        assertTrue(timed.isComplete());
+        assertTrue(timed.getException() instanceof TimeoutException);
+    }
+
+    @Test
+    public void testWithTimeoutPassesFastResult() {
+        TaskCompletionSource<String> fast = new TaskCompletionSource<>();
+        Task<String> timed = Async.withTimeout(fast.getTask(), 1000);
+
+        fast.setResult("done");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals("done", timed.getResult());
+    }
+
+    @Test
+    public void testFailureOfCancelledTaskIsNotNull() {
+        Exception failure = Async.failure(Tasks.forCanceled());
+
+        assertTrue(failure instanceof CancellationException);
+    }
+
+    @Test
+    public void testScopeCancelsTrackedTasksOnDestroy() {
+        TestOwner owner = new TestOwner();
+        owner.registry.setCurrentState(Lifecycle.State.RESUMED);
+        TaskScope scope = TaskScope.of(owner);
+
+        TaskCompletionSource<String> read = new TaskCompletionSource<>();
+        boolean[] delivered = {false};
+        Task<String> tracked = scope.track(read.getTask());
+        tracked.addOnSuccessListener(result -> delivered[0] = true);
+
+        owner.registry.setCurrentState(Lifecycle.State.DESTROYED);
+        read.setResult("late");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(scope.isCancelled());
+        assertTrue(tracked.isCanceled());
+        assertFalse(delivered[0]);
+    }
+
+    private static final class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = LifecycleRegistry.createUnsafe(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
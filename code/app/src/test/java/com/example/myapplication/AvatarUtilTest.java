@@ -0,0 +1,43 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import android.graphics.drawable.Drawable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * US 01.03.03 As an entrant I want my profile picture to be deterministically generated from my profile name
+ * Tests the cached letter avatar drawables.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class AvatarUtilTest {
+
+    @Test
+    public void testAvatarDrawableHasRequestedSize() {
+        Drawable avatar = AvatarUtil.getAvatarDrawable("C", 200);
+        assertTrue(avatar instanceof LetterAvatarDrawable);
+        assertEquals(200, avatar.getIntrinsicWidth());
+        assertEquals(200, avatar.getIntrinsicHeight());
+    }
+
+    @Test
+    public void testSameLetterSharesCachedState() {
+        Drawable first = AvatarUtil.getAvatarDrawable("A", 200);
+        Drawable second = AvatarUtil.getAvatarDrawable("A", 200);
+        // Separate drawables per view, but the same cached state
+        assertNotSame(first, second);
+        assertSame(first.getConstantState(), second.getConstantState());
+    }
+
+    @Test
+    public void testDifferentSizeUsesDifferentState() {
+        Drawable small = AvatarUtil.getAvatarDrawable("B", 100);
+        Drawable large = AvatarUtil.getAvatarDrawable("B", 200);
+        assertNotSame(small.getConstantState(), large.getConstantState());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Lottery.EntrantCounts;
+import com.example.myapplication.Repositories.CounterReconciliation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the corrections made to drifted event counts.
+ */
+public class CounterReconciliationTest {
+
+    @Test
+    public void testMatchingCountsNeedNoCorrection() {
+        assertTrue(CounterReconciliation.corrections(12L, 3L, 12, 3).isEmpty());
+    }
+
+    @Test
+    public void testOnlyDriftedCountsAreCorrected() {
+        Map<String, Object> changes = CounterReconciliation.corrections(15L, 3L, 12, 3);
+        assertEquals(1, changes.size());
+        assertEquals(12L, changes.get(CounterReconciliation.FIELD_WAITLIST));
+
+        changes = CounterReconciliation.corrections(0L, 5L, 2, 4);
+        assertEquals(2L, changes.get(CounterReconciliation.FIELD_WAITLIST));
+        assertEquals(4L, changes.get(CounterReconciliation.FIELD_ATTENDEES));
+    }
+
+    @Test
+    public void testMissingCountsAreWritten() {
+        Map<String, Object> changes = CounterReconciliation.corrections(null, null, 0, 0);
+        assertEquals(0L, changes.get(CounterReconciliation.FIELD_WAITLIST));
+        assertEquals(0L, changes.get(CounterReconciliation.FIELD_ATTENDEES));
+    }
+
+    @Test
+    public void testConfirmingKeepsTheCounts() {
+        assertTrue(EntrantCounts.move(4L, 2L, "selected", "confirmed", 1).isEmpty());
+    }
+
+    @Test
+    public void testUpdatesFollowTheCountsReconciliationTakes() {
+        List<String> statuses = new ArrayList<>(Arrays.asList("waiting", "waiting", "waiting", "waiting", "confirmed"));
+        long waitlist = 4;
+        long attendees = 1;
+
+        // A draw of two selects two waiting entrants, the losers keep waiting
+        Map<String, Object> changes = EntrantCounts.move(waitlist, attendees, "waiting", "selected", 2);
+        statuses.set(0, "selected");
+        statuses.set(1, "selected");
+        waitlist = (Long) changes.get(EntrantCounts.FIELD_WAITLIST);
+        attendees = (Long) changes.get(EntrantCounts.FIELD_ATTENDEES);
+        assertNoDrift(statuses, waitlist, attendees);
+
+        // A confirmation, then a selected entrant leaving
+        assertTrue(EntrantCounts.move(waitlist, attendees, "selected", "confirmed", 1).isEmpty());
+        statuses.set(0, "confirmed");
+        changes = EntrantCounts.move(waitlist, attendees, "selected", null, 1);
+        statuses.remove(1);
+        assertFalse(changes.containsKey(EntrantCounts.FIELD_WAITLIST));
+        attendees = (Long) changes.get(EntrantCounts.FIELD_ATTENDEES);
+        assertNoDrift(statuses, waitlist, attendees);
+    }
+
+    private static void assertNoDrift(List<String> statuses, long waitlist, long attendees) {
+        long waiting = 0;
+        long attending = 0;
+        for (String status : statuses) {
+            waiting += Collections.frequency(EntrantCounts.WAITLIST_STATUSES, status);
+            attending += Collections.frequency(EntrantCounts.ATTENDEE_STATUSES, status);
+        }
+        assertTrue(CounterReconciliation.corrections(waitlist, attendees, waiting, attending).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Repositories.EntrantExport;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/**
+ * Tests the CSV and JSON rows written by entrant exports.
+ */
+public class EntrantExportTest {
+
+    private static String export(EntrantExport.Format format, Object[]... rows) throws IOException {
+        StringWriter out = new StringWriter();
+        EntrantExport.RowWriter writer = new EntrantExport.RowWriter(format, out);
+        writer.begin();
+        for (Object[] row : rows) {
+            writer.write(Arrays.asList(row));
+        }
+        writer.end();
+        return out.toString();
+    }
+
+    @Test
+    public void testCsvQuotesSeparatorsAndDefusesFormulas() throws IOException {
+        String csv = export(EntrantExport.Format.CSV,
+                new Object[]{"u1", "Doe, \"J\"", "=cmd", "waiting", null, 53.5, -113.4});
+        assertEquals("userId,userName,userEmail,status,tier,latitude,longitude\r\n"
+                + "u1,\"Doe, \"\"J\"\"\",'=cmd,waiting,,53.5,-113.4\r\n", csv);
+    }
+
+    @Test
+    public void testJsonEscapesStringsAndKeepsNulls() throws IOException {
+        String json = export(EntrantExport.Format.JSON,
+                new Object[]{"u1", "Tab\tQuote\"", null, "selected", "local", null, 1.5},
+                new Object[]{"u2", "B", "b@example.com", "waiting", null, null, null});
+        assertEquals("[\n"
+                + "{\"userId\":\"u1\",\"userName\":\"Tab\\tQuote\\\"\",\"userEmail\":null,\"status\":\"selected\","
+                + "\"tier\":\"local\",\"latitude\":null,\"longitude\":1.5},\n"
+                + "{\"userId\":\"u2\",\"userName\":\"B\",\"userEmail\":\"b@example.com\",\"status\":\"waiting\","
+                + "\"tier\":null,\"latitude\":null,\"longitude\":null}\n"
+                + "]\n", json);
+    }
+
+    @Test
+    public void testEmptyExportsAreValid() throws IOException {
+        assertEquals("[]\n", export(EntrantExport.Format.JSON));
+        assertEquals("userId,userName,userEmail,status,tier,latitude,longitude\r\n",
+                export(EntrantExport.Format.CSV));
+    }
+}
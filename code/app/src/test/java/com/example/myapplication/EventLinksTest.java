@@ -0,0 +1,25 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the event links encoded in QR codes and opened from notifications.
+ */
+public class EventLinksTest {
+
+    @Test
+    public void testLinkRoundTrips() {
+        assertEquals("eventapp://event/abc123", EventLinks.link("abc123"));
+        assertEquals("abc123", EventLinks.eventId(EventLinks.link("abc123")));
+    }
+
+    @Test
+    public void testOtherLinksHaveNoEventId() {
+        assertNull(EventLinks.eventId(null));
+        assertNull(EventLinks.eventId("eventapp://event/"));
+        assertNull(EventLinks.eventId("eventapp://event/abc/edit"));
+        assertNull(EventLinks.eventId("https://example.com/event/abc123"));
+    }
+}
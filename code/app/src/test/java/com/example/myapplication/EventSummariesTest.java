@@ -0,0 +1,75 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Repositories.EventSummaries;
+import com.example.myapplication.Search.SearchTokens;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests the summary documents written alongside events for the list screens.
+ */
+public class EventSummariesTest {
+
+    @Test
+    public void testSummaryKeepsListFieldsOnly() {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventName", "Swim Lessons");
+        event.put("drawDate", "2024-12-01");
+        event.put("currentWaitlist", 4L);
+        event.put("qrCodeLink", "abc123");
+        event.put("geolocationEnabled", true);
+        event.put("description", "Short description");
+
+        Map<String, Object> summary = EventSummaries.fromEventData("event1", event);
+
+        assertEquals("event1", summary.get("eventId"));
+        assertEquals("Swim Lessons", summary.get("eventName"));
+        assertEquals(4L, summary.get("currentWaitlist"));
+        assertEquals("Short description", summary.get("descriptionPreview"));
+        assertFalse(summary.containsKey("qrCodeLink"));
+        assertFalse(summary.containsKey("geolocationEnabled"));
+        assertFalse(summary.containsKey("description"));
+        assertEquals(SearchTokens.fields("Swim Lessons").get(SearchTokens.FIELD_PREFIXES),
+                summary.get(SearchTokens.FIELD_PREFIXES));
+    }
+
+    @Test
+    public void testSummaryChangesMapOnlySummaryFields() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("currentAttendees", 3L);
+        changes.put("drawn", true);
+        changes.put("drawClaimedBy", null);
+        changes.put("eventName", "Swim Lessons");
+
+        Map<String, Object> summary = EventSummaries.summaryChanges(changes);
+
+        assertEquals(3L, summary.get("currentAttendees"));
+        assertEquals(true, summary.get("drawn"));
+        assertEquals("Swim Lessons", summary.get("eventName"));
+        assertEquals(SearchTokens.fields("Swim Lessons").get(SearchTokens.FIELD_PREFIXES),
+                summary.get(SearchTokens.FIELD_PREFIXES));
+        assertFalse(summary.containsKey("drawClaimedBy"));
+        assertFalse(summary.containsKey("currentWaitlist"));
+        assertFalse(summary.containsKey("eventId"));
+    }
+
+    @Test
+    public void testLongDescriptionIsShortened() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            description.append("word ");
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put("description", description.toString());
+
+        String preview = (String) EventSummaries.fromEventData("event1", event).get("descriptionPreview");
+
+        assertTrue(preview.length() <= 140);
+        assertTrue(preview.endsWith("..."));
+    }
+}
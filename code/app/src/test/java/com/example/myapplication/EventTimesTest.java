@@ -0,0 +1,50 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Tests parsing the picker strings of an event into the timestamps used by range queries.
+ */
+public class EventTimesTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    @Test
+    public void testParseDateIsStartOfDay() {
+        Date date = EventTimes.parseDate("05/12/2024", UTC);
+        assertEquals(1733356800000L, date.getTime());
+    }
+
+    @Test
+    public void testParseDateTimeCombinesBoth() {
+        Date date = EventTimes.parseDateTime("05/12/2024", "18:30", UTC);
+        assertEquals(1733356800000L + (18 * 60 + 30) * 60_000L, date.getTime());
+        assertEquals(EventTimes.parseDate("05/12/2024", UTC), EventTimes.parseDateTime("05/12/2024", null, UTC));
+    }
+
+    @Test
+    public void testMalformedStringsGiveNull() {
+        assertNull(EventTimes.parseDate(null, UTC));
+        assertNull(EventTimes.parseDate("December 5", UTC));
+        assertNull(EventTimes.parseDate("32/13/2024", UTC));
+        assertNull(EventTimes.parseDateTime("05/12/2024", "25:99", UTC));
+    }
+
+    @Test
+    public void testWeekOfStartsOnFirstDayOfWeek() {
+        // Thursday 5 December 2024, 18:30 UTC
+        Date now = new Date(1733356800000L + (18 * 60 + 30) * 60_000L);
+
+        Date[] week = EventTimes.weekOf(now, UTC, Locale.CANADA);
+
+        // Sunday 1 December to Sunday 8 December
+        assertEquals(1733011200000L, week[0].getTime());
+        assertEquals(1733616000000L, week[1].getTime());
+    }
+}
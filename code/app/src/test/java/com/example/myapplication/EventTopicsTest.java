@@ -0,0 +1,78 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+/**
+ * Tests the per-event status topics used for group announcements.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class EventTopicsTest {
+
+    private FakePushGateway gateway;
+
+    @Before
+    public void setUp() {
+        gateway = new FakePushGateway();
+        FirebaseServices.setPush(gateway);
+    }
+
+    @After
+    public void tearDown() {
+        FirebaseServices.setPush(null);
+    }
+
+    @Test
+    public void testTopicNamesTheEventAndStatus() {
+        assertEquals("event_abc123_waiting", EventTopics.topic("abc123", "waiting"));
+    }
+
+    @Test
+    public void testEventIdIsReadBackFromTheTopic() {
+        assertEquals("abc_123", EventTopics.eventId(EventTopics.topic("abc_123", "selected")));
+        assertNull(EventTopics.eventId("event_abc123_unknown"));
+        assertNull(EventTopics.eventId("news"));
+    }
+
+    @Test
+    public void testDeviceFollowsItsStatus() {
+        EventTopics.sync(gateway, "e1", "waiting");
+        assertEquals(Collections.singleton("event_e1_waiting"), gateway.subscriptions);
+
+        EventTopics.sync(gateway, "e1", "selected");
+        assertEquals(Collections.singleton("event_e1_selected"), gateway.subscriptions);
+
+        EventTopics.sync(gateway, "e1", null);
+        assertTrue(gateway.subscriptions.isEmpty());
+    }
+
+    @Test
+    public void testUnchangedStatusMakesNoCalls() {
+        EventTopics.sync(gateway, "e1", "waiting");
+        int calls = gateway.calls;
+
+        EventTopics.sync(gateway, "e1", "waiting");
+
+        assertEquals(calls, gateway.calls);
+    }
+
+    @Test
+    public void testAnnouncementReachesOnlyItsGroup() {
+        EventTopics.sync(gateway, "e1", "waiting");
+
+        FirebaseServices.push().sendToTopic(EventTopics.topic("e1", "waiting"), "Update", "Doors open at 6");
+        FirebaseServices.push().sendToTopic(EventTopics.topic("e1", "confirmed"), "Update", "Bring your ticket");
+
+        assertEquals(2, gateway.sent.size());
+        assertEquals(Collections.singletonList("Update: Doors open at 6"), gateway.received);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.myapplication;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory push gateway for one device, so topic fan-out can be tested offline. A send is
+ * recorded, and received by the device if it is subscribed to the topic.
+ */
+public class FakePushGateway implements PushGateway {
+
+    final Set<String> subscriptions = new HashSet<>();
+    final List<String> sent = new ArrayList<>();
+    final List<String> received = new ArrayList<>();
+    int calls;
+
+    @Override
+    public Task<Void> subscribe(String topic) {
+        calls++;
+        subscriptions.add(topic);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> unsubscribe(String topic) {
+        calls++;
+        subscriptions.remove(topic);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> sendToTopic(String topic, String title, String message) {
+        sent.add(topic);
+        if (subscriptions.contains(topic)) {
+            received.add(title + ": " + message);
+        }
+        return Tasks.forResult(null);
+    }
+}
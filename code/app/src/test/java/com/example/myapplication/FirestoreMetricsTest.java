@@ -0,0 +1,103 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the Firestore read/write accounting used by the debug overlay and the dumpsys report.
+ */
+public class FirestoreMetricsTest {
+
+    private FirestoreMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new FirestoreMetrics();
+    }
+
+    @Test
+    public void testReadsAreSplitByCacheAndServer() {
+        metrics.recordRead("HomeView", "HomeRepository.fetchWaitlistEvents", 10, 1000, false, 40);
+        metrics.recordRead("HomeView", "HomeRepository.fetchWaitlistEvents", 10, 1000, true, 5);
+
+        FirestoreMetrics.CallSiteStats totals = metrics.getScreenTotals("HomeView");
+        assertEquals(2, totals.calls);
+        assertEquals(10, totals.serverReads);
+        assertEquals(10, totals.cacheReads);
+        assertEquals(2000, totals.bytes);
+    }
+
+    @Test
+    public void testScreenTotalsSumCallSites() {
+        metrics.recordRead("AttendeesFragment", "AttendeesFragment.fetchAttendees", 50, 0, false, 100);
+        metrics.recordWrite("AttendeesFragment", "EntrantListRepository.updateAttendeeList", 3, 0, 80);
+        metrics.recordTransaction("AttendeesFragment", "HomeRepository.updateEventStatus", 2, 2, 120);
+        metrics.recordRead("HomeView", "HomeRepository.fetchSelectedEvents", 7, 0, false, 30);
+
+        FirestoreMetrics.CallSiteStats totals = metrics.getScreenTotals("AttendeesFragment");
+        assertEquals(3, totals.calls);
+        assertEquals(52, totals.serverReads);
+        assertEquals(5, totals.writes);
+        assertEquals(0, metrics.getScreenTotals("BrowseUsersActivity").calls);
+    }
+
+    @Test
+    public void testLatencyPercentilesUseBucketBounds() {
+        for (int i = 0; i < 9; i++) {
+            metrics.recordRead("HomeView", "query", 1, 0, false, 20);
+        }
+        metrics.recordRead("HomeView", "query", 1, 0, false, 5000);
+
+        FirestoreMetrics.CallSiteStats stats = metrics.getStats().get(0);
+        assertEquals(25, stats.percentileMs(0.5));
+        assertEquals(Long.MAX_VALUE, stats.percentileMs(0.95));
+        assertEquals(5000, stats.maxLatencyMs);
+    }
+
+    @Test
+    public void testFailuresAreCounted() {
+        metrics.recordFailure("HomeView", "query", 10);
+        assertEquals(1, metrics.getScreenTotals("HomeView").failures);
+    }
+
+    @Test
+    public void testReportListsMostExpensiveScreenFirst() {
+        metrics.recordRead("HomeView", "HomeRepository.fetchWaitlistEvents", 5, 0, false, 10);
+        metrics.recordRead("BrowseUsersActivity", "BrowseUsersController.fetchUsers", 500, 0, false, 10);
+
+        String report = metrics.report();
+        assertTrue(report.indexOf("BrowseUsersActivity") < report.indexOf("HomeView"));
+        assertTrue(report.contains("BrowseUsersController.fetchUsers"));
+    }
+
+    @Test
+    public void testResetClearsStats() {
+        metrics.recordWrite("HomeView", "write", 1, 0, 10);
+        metrics.reset();
+        assertTrue(metrics.getStats().isEmpty());
+    }
+
+    @Test
+    public void testListenersAreNotified() {
+        int[] calls = {0};
+        metrics.addListener(() -> calls[0]++);
+        metrics.recordWrite("HomeView", "write", 1, 0, 10);
+        metrics.setCurrentScreen("MainActivity");
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void testEstimateValueSize() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", "waiting");   // 7 + 8
+        data.put("latitude", 53.5);      // 9 + 8
+        data.put("notificationsPerm", true); // 18 + 1
+        assertEquals(51, FirestoreGateway.estimateValueSize(data));
+        assertEquals(1, FirestoreGateway.estimateValueSize(null));
+    }
+}
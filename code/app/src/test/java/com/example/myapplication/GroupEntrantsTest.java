@@ -0,0 +1,169 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.Repositories.GroupEntrants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the paging, naming and messages of a group of entrants.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class GroupEntrantsTest {
+
+    @Test
+    public void testMessageFollowsTheStatusInAnyCase() {
+        assertEquals("Congratulations! You've been selected.", GroupEntrants.message("Selected"));
+        assertEquals("Unfortunately, your status is: Cancelled", GroupEntrants.message("cancelled"));
+        assertEquals("Your status is: Waiting List", GroupEntrants.message("waiting"));
+    }
+
+    @Test
+    public void testUnknownStatusGetsAGenericMessage() {
+        assertEquals("Status update for your group.", GroupEntrants.message("invited"));
+    }
+
+    @Test
+    public void testFullPageStartsTheNextAfterItsLastEntry() {
+        assertEquals("u2", GroupEntrants.next(Arrays.asList("u1", "u2"), 2));
+    }
+
+    @Test
+    public void testShortPageIsTheLast() {
+        assertNull(GroupEntrants.next(Arrays.asList("u1"), 2));
+        assertNull(GroupEntrants.next(Collections.<String>emptyList(), 2));
+    }
+
+    @Test
+    public void testEachPageStartsAfterThePreviousOne() {
+        List<String> group = entries(1200);
+        List<String> reads = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+
+        Task<Integer> handled = GroupEntrants.<String>forEachPage(after -> {
+            reads.add(after);
+            return Tasks.forResult(read(group, after, GroupEntrants.NOTIFY_PAGE_SIZE));
+        }, GroupEntrants.NOTIFY_PAGE_SIZE, entries -> {
+            pages.add(entries.size());
+            return Tasks.forResult(entries.size());
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Arrays.asList(null, "user0499", "user0999"), reads);
+        // One flush for each page of 500, and one for the rest
+        assertEquals(Arrays.asList(500, 500, 200), pages);
+        assertEquals(Integer.valueOf(1200), handled.getResult());
+    }
+
+    @Test
+    public void testGroupOfWholePagesEndsAtAnEmptyRead() {
+        List<String> group = entries(1000);
+        List<String> reads = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+
+        Task<Integer> handled = GroupEntrants.<String>forEachPage(after -> {
+            reads.add(after);
+            return Tasks.forResult(read(group, after, GroupEntrants.NOTIFY_PAGE_SIZE));
+        }, GroupEntrants.NOTIFY_PAGE_SIZE, entries -> {
+            pages.add(entries.size());
+            return Tasks.forResult(entries.size());
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Arrays.asList(null, "user0499", "user0999"), reads);
+        assertEquals(Arrays.asList(500, 500), pages);
+        assertEquals(Integer.valueOf(1000), handled.getResult());
+    }
+
+    @Test
+    public void testCountsOnlyTheEntriesHandled() {
+        Task<Integer> handled = GroupEntrants.<String>forEachPage(
+                after -> Tasks.forResult(read(entries(3), after, 2)), 2, entries -> Tasks.forResult(1));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Integer.valueOf(2), handled.getResult());
+    }
+
+    @Test
+    public void testNamedEntrantsAreNotResolved() {
+        List<Attendee> entrants = Arrays.asList(entrant("u1", "Ada"), entrant("u2", "Grace"));
+
+        Task<List<Attendee>> named = GroupEntrants.name(entrants, userIds -> {
+            fail("Resolved " + userIds);
+            return null;
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals("Ada", named.getResult().get(0).getUserName());
+        assertEquals("Grace", named.getResult().get(1).getUserName());
+    }
+
+    @Test
+    public void testUnnamedEntrantsFallBackToTheResolver() {
+        List<Attendee> entrants = Arrays.asList(entrant("u1", "Ada"), entrant("u2", null), entrant("u3", null));
+        List<String> asked = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        names.put("u2", "Grace");
+
+        Task<List<Attendee>> named = GroupEntrants.name(entrants, userIds -> {
+            asked.addAll(userIds);
+            return Tasks.forResult(names);
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Arrays.asList("u2", "u3"), asked);
+        assertEquals("Ada", named.getResult().get(0).getUserName());
+        assertEquals("Grace", named.getResult().get(1).getUserName());
+        // Users without a profile name are still listed
+        assertEquals("Unknown User", named.getResult().get(2).getUserName());
+    }
+
+    @Test
+    public void testFailedResolveStillNamesEveryEntrant() {
+        List<Attendee> entrants = Arrays.asList(entrant("u1", "Ada"), entrant("u2", null));
+
+        Task<List<Attendee>> named = GroupEntrants.name(entrants,
+                userIds -> Tasks.forException(new Exception("offline")));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(named.isSuccessful());
+        assertEquals("Ada", named.getResult().get(0).getUserName());
+        assertEquals("Unknown User", named.getResult().get(1).getUserName());
+    }
+
+    private static List<String> entries(int count) {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(String.format("user%04d", i));
+        }
+        return entries;
+    }
+
+    // Reads like the ordered group query: startAfter the cursor, then limit
+    private static List<String> read(List<String> group, String after, int limit) {
+        int from = after == null ? 0 : group.indexOf(after) + 1;
+        return new ArrayList<>(group.subList(from, Math.min(from + limit, group.size())));
+    }
+
+    private static Attendee entrant(String userId, String userName) {
+        return new Attendee(userId, userName, null, "selected", null, null);
+    }
+}
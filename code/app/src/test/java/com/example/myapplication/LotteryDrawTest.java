@@ -0,0 +1,114 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Lottery.DrawCoordinator;
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.Repositories.ReplacementDraw;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests the winner selection used by the background draw, the coordination of same-day draws
+ * and the pool kept for replacements.
+ */
+public class LotteryDrawTest {
+
+    private static final List<String> WAITING = Arrays.asList("a", "b", "c", "d", "e");
+
+    @Test
+    public void testEveryoneIsDrawnWhenThereAreEnoughPlaces() {
+        assertEquals(new HashSet<>(WAITING), new HashSet<>(pick(5)));
+        assertEquals(new HashSet<>(WAITING), new HashSet<>(pick(10)));
+    }
+
+    @Test
+    public void testWinnersAreDistinctWaitingEntrants() {
+        List<String> winners = pick(3);
+
+        assertEquals(3, winners.size());
+        assertEquals(3, new HashSet<>(winners).size());
+        assertTrue(WAITING.containsAll(winners));
+    }
+
+    @Test
+    public void testNoPlacesLeftMeansNoWinners() {
+        assertTrue(pick(0).isEmpty());
+        assertTrue(pick(-2).isEmpty());
+    }
+
+    @Test
+    public void testPoolStartsAtTheFirstRemainingEntrant() {
+        Map<String, Object> pool = ReplacementDraw.poolData(Arrays.asList("d", "a"));
+
+        assertEquals(Arrays.asList("d", "a"), pool.get("order"));
+        assertEquals(0, pool.get("cursor"));
+    }
+
+    @Test
+    public void testPoolIsCappedToFitOneDocument() {
+        List<String> remaining = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            remaining.add("entrant" + i);
+        }
+
+        List<?> order = (List<?>) ReplacementDraw.poolData(remaining).get("order");
+
+        assertEquals(10_000, order.size());
+        assertEquals("entrant0", order.get(0));
+    }
+
+    @Test
+    public void testEntrantWinsAtMostOneEventOfAGroup() {
+        List<DrawCoordinator.Draw> draws = Arrays.asList(
+                new DrawCoordinator.Draw("morning", Arrays.asList("a", "b", "c"), 2),
+                new DrawCoordinator.Draw("evening", Arrays.asList("a", "b", "d"), 2));
+
+        Map<String, DrawCoordinator.Outcome> outcomes = DrawCoordinator.resolve(draws,
+                Collections.<String, String>emptyMap(), new Random(1));
+
+        List<String> winners = new ArrayList<>(outcomes.get("morning").getWinners());
+        winners.addAll(outcomes.get("evening").getWinners());
+        assertEquals(4, winners.size());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "d")), new HashSet<>(winners));
+    }
+
+    @Test
+    public void testEntrantsPlacedBeforeAreSkipped() {
+        Map<String, String> placed = new HashMap<>();
+        placed.put("a", "morning");
+        List<DrawCoordinator.Draw> draws = Collections.singletonList(
+                new DrawCoordinator.Draw("evening", Arrays.asList("a", "b", "c"), 1));
+
+        DrawCoordinator.Outcome outcome = DrawCoordinator.resolve(draws, placed, new Random(1)).get("evening");
+
+        assertEquals(Collections.singletonList("b"), outcome.getWinners());
+        assertEquals(Collections.singletonList("c"), outcome.getLosers());
+        assertEquals(Arrays.asList("c", "a"), outcome.getPool());
+    }
+
+    @Test
+    public void testSingleEventDrawTakesTheFirstEntrants() {
+        List<DrawCoordinator.Draw> draws = Collections.singletonList(
+                new DrawCoordinator.Draw("event", WAITING, 2));
+
+        DrawCoordinator.Outcome outcome = DrawCoordinator.resolve(draws,
+                Collections.<String, String>emptyMap(), new Random(1)).get("event");
+
+        assertEquals(Arrays.asList("a", "b"), outcome.getWinners());
+        assertEquals(Arrays.asList("c", "d", "e"), outcome.getPool());
+    }
+
+    private static List<String> pick(int places) {
+        return TierWeights.order(WAITING, id -> null, Collections.<String, Double>emptyMap(), places, new Random(1));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the coalescing and rate limiting of queued notifications.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class NotificationOutboxTest {
+
+    @Test
+    public void testMessagesToOneUserAboutOneEventAreCoalesced() {
+        NotificationOutbox outbox = new NotificationOutbox(null, new NotificationRateLimiter(5, 60_000));
+
+        outbox.add("user1", "event1", "Congratulations!", "You have been selected.");
+        outbox.add("user1", "event1", "Reminder", "Please sign up.");
+        outbox.add("user1", "event2", "Sorry!", "You have not been selected.");
+
+        List<Map<String, Object>> documents = outbox.documents();
+        assertEquals(2, documents.size());
+        Map<String, Object> coalesced = documents.get(0);
+        assertEquals("event1", coalesced.get(NotificationService.FIELD_EVENT_ID));
+        assertEquals("Reminder", coalesced.get("title"));
+        assertEquals("You have been selected.\nPlease sign up.", coalesced.get("message"));
+        assertEquals(2, coalesced.get(NotificationService.FIELD_COUNT));
+        assertEquals(1, documents.get(1).get(NotificationService.FIELD_COUNT));
+    }
+
+    @Test
+    public void testMessagesOverTheLimitAreFoldedIntoAQueuedNotification() {
+        NotificationOutbox outbox = new NotificationOutbox(null, new NotificationRateLimiter(2, 60_000));
+
+        assertTrue(outbox.add("user1", "event1", "a", "a"));
+        assertTrue(outbox.add("user1", "event2", "b", "b"));
+        // Over the limit, joins the notification last queued for user1
+        assertTrue(outbox.add("user1", "event3", "c", "c"));
+        assertTrue(outbox.add("user2", "event3", "e", "e"));
+
+        List<Map<String, Object>> documents = outbox.documents();
+        assertEquals(3, documents.size());
+        Map<String, Object> folded = documents.get(1);
+        assertEquals("b\nc", folded.get("message"));
+        assertNull(folded.get(NotificationService.FIELD_EVENT_ID));
+    }
+
+    @Test
+    public void testUsersOverTheLimitWithNothingQueuedAreSkipped() {
+        NotificationRateLimiter limiter = new NotificationRateLimiter(1, 60_000);
+        NotificationOutbox first = new NotificationOutbox(null, limiter);
+        assertTrue(first.add("user1", "event1", "a", "a"));
+
+        NotificationOutbox second = new NotificationOutbox(null, limiter);
+        assertFalse(second.add("user1", "event2", "b", "b"));
+
+        assertTrue(second.documents().isEmpty());
+    }
+
+    @Test
+    public void testExemptMessagesAreSentOverTheLimit() {
+        NotificationRateLimiter limiter = new NotificationRateLimiter(1, 60_000);
+        NotificationOutbox first = new NotificationOutbox(null, limiter);
+        first.add("user1", "event1", "a", "a");
+
+        NotificationOutbox results = new NotificationOutbox(null, limiter);
+        results.addExempt("user1", "event2", "Sorry!", "You have not been selected.");
+
+        List<Map<String, Object>> documents = results.documents();
+        assertEquals(1, documents.size());
+        assertEquals("event2", documents.get(0).get(NotificationService.FIELD_EVENT_ID));
+    }
+
+    @Test
+    public void testLimitFreesUpAfterTheWindow() {
+        NotificationRateLimiter limiter = new NotificationRateLimiter(1, 1_000);
+
+        assertTrue(limiter.tryAcquire("user1", 0));
+        assertFalse(limiter.tryAcquire("user1", 999));
+        assertTrue(limiter.tryAcquire("user1", 1_000));
+    }
+
+    @Test
+    public void testIdleUsersAreDropped() {
+        NotificationRateLimiter limiter = new NotificationRateLimiter(1, 1_000);
+        for (int i = 0; i < NotificationRateLimiter.SWEEP_THRESHOLD; i++) {
+            assertTrue(limiter.tryAcquire("user" + i, 0));
+        }
+        assertEquals(NotificationRateLimiter.SWEEP_THRESHOLD, limiter.size());
+
+        // Passing the threshold a window later leaves only the user just notified
+        assertTrue(limiter.tryAcquire("late", 1_000));
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Repositories.NotificationRetention;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tests the expiry and inbox compaction of notifications.
+ */
+public class NotificationRetentionTest {
+
+    private static final long DAY_MS = 24 * 60 * 60_000L;
+
+    @Test
+    public void testNewNotificationsExpireAfterThirtyDays() {
+        Map<String, Object> data = NotificationService.notificationData("user1", "Title", "Message");
+
+        Timestamp createdAt = (Timestamp) data.get(NotificationService.FIELD_CREATED_AT);
+        Timestamp expiresAt = (Timestamp) data.get(NotificationService.FIELD_EXPIRES_AT);
+        assertEquals(30 * DAY_MS, expiresAt.toDate().getTime() - createdAt.toDate().getTime());
+    }
+
+    @Test
+    public void testLegacyNotificationsAreDatedFromTheirTimestamp() throws Exception {
+        Date written = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).parse("2024-03-01 12:30:00");
+
+        Map<String, Object> fields = NotificationRetention.retentionFields("2024-03-01 12:30:00", new Date());
+
+        assertEquals(written, ((Timestamp) fields.get(NotificationService.FIELD_CREATED_AT)).toDate());
+        assertEquals(written.getTime() + 30 * DAY_MS,
+                ((Timestamp) fields.get(NotificationService.FIELD_EXPIRES_AT)).toDate().getTime());
+    }
+
+    @Test
+    public void testMalformedTimestampIsDatedNow() {
+        Date now = new Date(1_700_000_000_000L);
+
+        Map<String, Object> fields = NotificationRetention.retentionFields("yesterday", now);
+
+        assertEquals(now, ((Timestamp) fields.get(NotificationService.FIELD_CREATED_AT)).toDate());
+    }
+
+    @Test
+    public void testDigestCountsEveryCompactedMessage() {
+        DocumentSnapshot single = notification(null, 1_000, 5_000);
+        DocumentSnapshot coalesced = notification(3L, 2_000, 9_000);
+        DocumentSnapshot earlierDigest = notification(40L, 500, 7_000);
+
+        Map<String, Object> digest = NotificationRetention.digest("user1",
+                Arrays.asList(earlierDigest, single, coalesced));
+
+        assertEquals(44L, digest.get(NotificationService.FIELD_COUNT));
+        assertEquals(true, digest.get(NotificationRetention.FIELD_DIGEST));
+        assertEquals(new Timestamp(new Date(2_000)), digest.get(NotificationService.FIELD_CREATED_AT));
+        assertEquals(new Timestamp(new Date(9_000)), digest.get(NotificationService.FIELD_EXPIRES_AT));
+        assertEquals("user1", digest.get("userId"));
+    }
+
+    private static DocumentSnapshot notification(Long count, long createdAtMs, long expiresAtMs) {
+        DocumentSnapshot notification = Mockito.mock(DocumentSnapshot.class);
+        Mockito.when(notification.getLong(NotificationService.FIELD_COUNT)).thenReturn(count);
+        Mockito.when(notification.getTimestamp(NotificationService.FIELD_CREATED_AT))
+                .thenReturn(new Timestamp(new Date(createdAtMs)));
+        Mockito.when(notification.getTimestamp(NotificationService.FIELD_EXPIRES_AT))
+                .thenReturn(new Timestamp(new Date(expiresAtMs)));
+        return notification;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Repositories.ProfileResolver;
+
+import org.junit.Test;
+
+/**
+ * Tests the name cache of the profile resolver.
+ */
+public class ProfileResolverTest {
+
+    @Test
+    public void testEntriesExpireAfterTheirTtl() {
+        ProfileResolver.Cache cache = new ProfileResolver.Cache(10, 1000);
+        cache.put("u1", "Ada", 0);
+        assertEquals("Ada", cache.get("u1", 999));
+        assertNull(cache.get("u1", 1000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        ProfileResolver.Cache cache = new ProfileResolver.Cache(2, 1000);
+        cache.put("u1", "Ada", 0);
+        cache.put("u2", "Grace", 0);
+        // Reading u1 makes u2 the least recently used
+        assertEquals("Ada", cache.get("u1", 1));
+        cache.put("u3", "Linus", 2);
+        assertEquals("Ada", cache.get("u1", 3));
+        assertNull(cache.get("u2", 3));
+        assertEquals("Linus", cache.get("u3", 3));
+    }
+
+    @Test
+    public void testRewritingAnEntryRenewsIt() {
+        ProfileResolver.Cache cache = new ProfileResolver.Cache(10, 1000);
+        cache.put("u1", "Ada", 0);
+        cache.put("u1", "Ada L.", 500);
+        assertEquals("Ada L.", cache.get("u1", 1400));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.SnapshotMetadata;
+import com.google.firebase.firestore.Source;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the read policies of {@link FirestoreGateway}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class ReadPolicyTest {
+
+    @Test
+    public void testCachedCopyIsDeliveredBeforeTheServerCopy() {
+        DocumentReference event = mock(DocumentReference.class);
+        DocumentSnapshot cached = snapshot(event, true);
+        DocumentSnapshot fresh = snapshot(event, true);
+        when(event.get(Source.CACHE)).thenReturn(Tasks.forResult(cached));
+        when(event.get(Source.SERVER)).thenReturn(Tasks.forResult(fresh));
+        List<DocumentSnapshot> delivered = new ArrayList<>();
+
+        Task<DocumentSnapshot> read = FirestoreGateway.get(event, ReadPolicy.CACHE_THEN_SERVER, delivered::add, "test");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(1, delivered.size());
+        assertSame(cached, delivered.get(0));
+        assertSame(fresh, read.getResult());
+    }
+
+    @Test
+    public void testCachedCopyStandsInWhenTheServerFails() {
+        DocumentReference event = mock(DocumentReference.class);
+        DocumentSnapshot cached = snapshot(event, true);
+        when(event.get(Source.CACHE)).thenReturn(Tasks.forResult(cached));
+        when(event.get(Source.SERVER)).thenReturn(Tasks.forException(new Exception("offline")));
+
+        Task<DocumentSnapshot> read = FirestoreGateway.get(event, ReadPolicy.CACHE_THEN_SERVER, "test");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(read.isSuccessful());
+        assertSame(cached, read.getResult());
+    }
+
+    @Test
+    public void testMissingCacheWaitsForTheServer() {
+        DocumentReference event = mock(DocumentReference.class);
+        when(event.get(Source.CACHE)).thenReturn(Tasks.forException(new Exception("not cached")));
+        when(event.get(Source.SERVER)).thenReturn(Tasks.forException(new Exception("offline")));
+        List<DocumentSnapshot> delivered = new ArrayList<>();
+
+        Task<DocumentSnapshot> read = FirestoreGateway.get(event, ReadPolicy.CACHE_THEN_SERVER, delivered::add, "test");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(delivered.isEmpty());
+        assertFalse(read.isSuccessful());
+    }
+
+    @Test
+    public void testServerOnlyNeverReadsTheCache() {
+        DocumentReference event = mock(DocumentReference.class);
+        DocumentSnapshot fresh = snapshot(event, true);
+        when(event.get(Source.SERVER)).thenReturn(Tasks.forResult(fresh));
+
+        FirestoreGateway.get(event, ReadPolicy.SERVER_ONLY, "test");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        verify(event, never()).get(Source.CACHE);
+        verify(event).get(Source.SERVER);
+    }
+
+    private static DocumentSnapshot snapshot(DocumentReference reference, boolean exists) {
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(snapshot.exists()).thenReturn(exists);
+        when(snapshot.getReference()).thenReturn(reference);
+        when(snapshot.getMetadata()).thenReturn(mock(SnapshotMetadata.class));
+        when(reference.getPath()).thenReturn("Events/e1");
+        return snapshot;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Models.User;
+import com.example.myapplication.Search.SearchTokens;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the normalized search fields and the prefix matching used by the admin search.
+ */
+public class SearchTokensTest {
+
+    @Test
+    public void testNormalizeStripsCaseAccentsAndPunctuation() {
+        assertEquals("zoe s cafe night", SearchTokens.normalize("  Zoë's Café -- NIGHT "));
+        assertEquals("", SearchTokens.normalize(null));
+        assertEquals("", SearchTokens.normalize("!!"));
+    }
+
+    @Test
+    public void testPrefixesCoverEveryWordUpToTheCap() {
+        List<String> prefixes = SearchTokens.prefixes("Jo Doe");
+        assertEquals(Arrays.asList("j", "jo", "d", "do", "doe"), prefixes);
+
+        List<String> longWord = SearchTokens.prefixes("supercalifragilistic");
+        assertEquals(SearchTokens.MAX_PREFIX_LENGTH, longWord.size());
+        assertEquals("supercalifragil", longWord.get(longWord.size() - 1));
+    }
+
+    @Test
+    public void testFieldsMatchTheModelFields() {
+        User user = new User("1", "Jane Smith", null, "jane@example.com", null, null, null, false);
+        user.updateSearchFields();
+
+        Map<String, Object> fields = SearchTokens.fields("Jane Smith", "jane@example.com");
+        assertEquals(user.getSearchName(), fields.get(SearchTokens.FIELD_NAME));
+        assertEquals(user.getSearchPrefixes(), fields.get(SearchTokens.FIELD_PREFIXES));
+    }
+
+    @Test
+    public void testMatchesRequiresEveryWordPrefix() {
+        assertTrue(SearchTokens.matches("smi ja", "Jane Smith"));
+        assertTrue(SearchTokens.matches("example", "Jane Smith", "jane@example.com"));
+        assertFalse(SearchTokens.matches("jane doe", "Jane Smith"));
+        assertFalse(SearchTokens.matches("mith", "Jane Smith"));
+    }
+
+    @Test
+    public void testFtsMatchBuildsPrefixTerms() {
+        assertEquals("jane* smi*", SearchTokens.ftsMatch("Jane  \"Smi"));
+        assertEquals("", SearchTokens.ftsMatch("  "));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Tests that identical reads share one task and that failed or stale results are not reused.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 32)
+public class SingleFlightTest {
+
+    private long now;
+    private int started;
+    private int shared;
+    private SingleFlight flight;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        started = 0;
+        shared = 0;
+        flight = new SingleFlight(1000, () -> now);
+    }
+
+    private Task<String> run(String key, TaskCompletionSource<String> source) {
+        return flight.run(key, () -> {
+            started++;
+            return source.getTask();
+        }, () -> shared++);
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneTask() {
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        Task<String> first = run("Events/1", source);
+        Task<String> second = run("Events/1", new TaskCompletionSource<>());
+
+        assertSame(first, second);
+        assertEquals(1, started);
+        assertEquals(1, shared);
+    }
+
+    @Test
+    public void testDifferentKeysAreNotShared() {
+        run("Events/1", new TaskCompletionSource<>());
+        run("Events/2", new TaskCompletionSource<>());
+
+        assertEquals(2, started);
+        assertEquals(0, shared);
+    }
+
+    @Test
+    public void testResultIsReusedUntilTtlExpires() {
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        run("Events/1", source);
+        source.setResult("event");
+        shadowOf(Looper.getMainLooper()).idle();
+
+        now = 1000;
+        run("Events/1", new TaskCompletionSource<>());
+        assertEquals(1, started);
+
+        now = 1001;
+        run("Events/1", new TaskCompletionSource<>());
+        assertEquals(2, started);
+    }
+
+    @Test
+    public void testFailuresAreNotShared() {
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        run("Events/1", source);
+        source.setException(new Exception("offline"));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        run("Events/1", new TaskCompletionSource<>());
+        assertEquals(2, started);
+        assertEquals(0, shared);
+    }
+
+    @Test
+    public void testInvalidateAllDropsSharedTasks() {
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        run("Events/1", source);
+        flight.invalidateAll();
+        assertEquals(0, flight.size());
+
+        // The stale completion must not bring the entry back
+        source.setResult("event");
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(0, flight.size());
+
+        run("Events/1", new TaskCompletionSource<>());
+        assertEquals(2, started);
+    }
+}
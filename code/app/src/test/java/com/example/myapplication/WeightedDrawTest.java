@@ -0,0 +1,159 @@
+package com.example.myapplication;
+
+import static org.junit.Assert.*;
+
+import com.example.myapplication.Lottery.AliasTable;
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.Lottery.WeightedDraw;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests the weighted and tiered lottery sampling.
+ */
+public class WeightedDrawTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    public void testAliasTableFollowsTheWeights() {
+        AliasTable table = new AliasTable(new double[] {1, 2, 0, 7});
+        Random random = new Random(42);
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(0.1, counts[0] / (double) SAMPLES, 0.01);
+        assertEquals(0.2, counts[1] / (double) SAMPLES, 0.01);
+        assertEquals(0, counts[2]);
+        assertEquals(0.7, counts[3] / (double) SAMPLES, 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAliasTableRejectsZeroWeights() {
+        new AliasTable(new double[] {0, 0});
+    }
+
+    @Test
+    public void testSampleDrawsDistinctEntrants() {
+        double[] weights = new double[1_000];
+        Arrays.fill(weights, 1);
+        weights[0] = 50;
+
+        int[] drawn = WeightedDraw.sample(weights, 600, new Random(7));
+
+        Set<Integer> distinct = new HashSet<>();
+        for (int index : drawn) {
+            assertTrue(index >= 0 && index < weights.length);
+            distinct.add(index);
+        }
+        assertEquals(600, distinct.size());
+    }
+
+    @Test
+    public void testSampleDrawsEveryoneWhenThereAreEnoughPlaces() {
+        int[] drawn = WeightedDraw.sample(new double[] {1, 2, 3}, 10, new Random(1));
+
+        int[] sorted = drawn.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(new int[] {0, 1, 2}, sorted);
+        assertEquals(0, WeightedDraw.sample(new double[] {1, 2, 3}, 0, new Random(1)).length);
+    }
+
+    @Test
+    public void testSampleFavoursHeavyEntrants() {
+        Random random = new Random(3);
+        int heavyFirst = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (WeightedDraw.sample(new double[] {1, 1, 1, 7}, 1, random)[0] == 3) {
+                heavyFirst++;
+            }
+        }
+
+        assertEquals(0.7, heavyFirst / 10_000.0, 0.02);
+    }
+
+    @Test
+    public void testTieredOrderFavoursTheHeavyTier() {
+        List<String> priority = names("p", 100);
+        List<String> general = names("g", 100);
+        Random random = new Random(11);
+        int priorityFirst = 0;
+        for (int i = 0; i < 10_000; i++) {
+            List<String> drawn = WeightedDraw.tieredOrder(Arrays.asList(priority, general),
+                    new double[] {3, 1}, 1, random);
+            if (drawn.get(0).startsWith("p")) {
+                priorityFirst++;
+            }
+        }
+
+        assertEquals(0.75, priorityFirst / 10_000.0, 0.02);
+    }
+
+    @Test
+    public void testTieredOrderDrawsEveryTierOnce() {
+        List<String> priority = names("p", 3);
+        List<String> general = names("g", 5);
+
+        List<String> drawn = WeightedDraw.tieredOrder(Arrays.asList(priority, general),
+                new double[] {100, 1}, 20, new Random(5));
+
+        assertEquals(8, drawn.size());
+        assertEquals(8, new HashSet<>(drawn).size());
+        assertEquals(3, priority.size());
+        assertEquals(5, general.size());
+    }
+
+    @Test
+    public void testTierWeightsIgnoreInvalidValues() {
+        Map<String, Object> stored = new HashMap<>();
+        stored.put("returning", 2L);
+        stored.put("local", 1.5);
+        stored.put("banned", 0);
+        stored.put("broken", "3");
+
+        Map<String, Double> weights = TierWeights.from(stored);
+
+        assertEquals(2, weights.size());
+        assertEquals(2.0, weights.get("returning"), 0);
+        assertEquals(1.5, weights.get("local"), 0);
+        assertTrue(TierWeights.from(null).isEmpty());
+    }
+
+    @Test
+    public void testUnknownTiersHaveTheDefaultWeight() {
+        List<String> entrants = new ArrayList<>(names("p", 1));
+        entrants.addAll(names("x", 1));
+        Map<String, Double> weights = new HashMap<>();
+        weights.put("priority", 9.0);
+        Random random = new Random(13);
+        int priorityFirst = 0;
+        for (int i = 0; i < 10_000; i++) {
+            List<String> drawn = TierWeights.order(entrants,
+                    id -> id.startsWith("p") ? "priority" : "unknown", weights, 1, random);
+            if (drawn.get(0).startsWith("p")) {
+                priorityFirst++;
+            }
+        }
+
+        assertEquals(0.9, priorityFirst / 10_000.0, 0.02);
+    }
+
+    private static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+}
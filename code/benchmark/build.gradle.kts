@@ -0,0 +1,61 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+}
+
+android {
+    namespace = "com.example.myapplication.benchmark"
+    compileSdk = 34
+
+    defaultConfig {
+        minSdk = 24
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+        // Write results as JSON into the connected device test output directory
+        testInstrumentationRunnerArguments["androidx.benchmark.output.enable"] = "true"
+    }
+
+    // Benchmarks must run against a non-debuggable build
+    testBuildType = "release"
+
+    buildTypes {
+        release {
+            isDefault = true
+            isMinifyEnabled = false
+        }
+    }
+
+    // An application module can't be a dependency, so the benchmarked classes are compiled in
+    // from the app's sources. Only plain classes that use neither R nor BuildConfig are included;
+    // screens and adapters are measured by :macrobenchmark against the installed app instead.
+    sourceSets {
+        getByName("main") {
+            java {
+                srcDir("../app/src/main/java")
+                include("com/example/myapplication/Lottery/**")
+                include("com/example/myapplication/Search/SearchTokens.java")
+                include("com/example/myapplication/Models/Attendee.java")
+                include("com/example/myapplication/Models/Event.java")
+                include("com/example/myapplication/AvatarUtil.java")
+                include("com/example/myapplication/EventTimes.java")
+                include("com/example/myapplication/UserProfile.java")
+                include("com/example/myapplication/WaitingList.java")
+            }
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+}
+
+dependencies {
+    implementation(platform(libs.firebase.bom))
+    implementation(libs.firebase.firestore)
+    implementation(libs.zxing)
+
+    androidTestImplementation(libs.benchmark.junit4)
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.rules)
+}
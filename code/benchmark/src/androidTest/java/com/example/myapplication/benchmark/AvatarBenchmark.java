@@ -0,0 +1,54 @@
+package com.example.myapplication.benchmark;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.myapplication.AvatarUtil;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures default avatar generation as done by the profile screens.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AvatarBenchmark {
+
+    private static final int SIZE = 200;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void generateAvatarBitmap() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Bitmap avatar = AvatarUtil.generateAvatar("C", SIZE, context);
+            state.pauseTiming();
+            avatar.recycle();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void getAndDrawAvatarDrawable() {
+        Bitmap target = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Drawable avatar = AvatarUtil.getAvatarDrawable("C", SIZE);
+            avatar.setBounds(0, 0, SIZE, SIZE);
+            avatar.draw(canvas);
+        }
+        target.recycle();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.myapplication.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.Lottery.WeightedDraw;
+import com.example.myapplication.UserProfile;
+import com.example.myapplication.WaitingList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the lottery sampling paths.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DrawBenchmark {
+
+    private static final int SAMPLE_SIZE = 100;
+    private static final int LARGE_POOL_SIZE = 100_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void waitingListSampleAttendees() {
+        WaitingList waitingList = new WaitingList();
+        for (int i = 0; i < 1_000; i++) {
+            waitingList.addWaiter(new DistinctProfile(), Integer.MAX_VALUE);
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            waitingList.sampleAttendees(SAMPLE_SIZE);
+        }
+    }
+
+    @Test
+    public void uniformOrderLargePool() {
+        List<String> entrants = names("user", LARGE_POOL_SIZE);
+        Random random = new Random(1);
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            TierWeights.order(entrants, id -> null, Collections.<String, Double>emptyMap(), SAMPLE_SIZE, random);
+        }
+    }
+
+    @Test
+    public void weightedSampleLargePool() {
+        double[] weights = new double[LARGE_POOL_SIZE];
+        for (int i = 0; i < LARGE_POOL_SIZE; i++) {
+            weights[i] = 1 + i % 5;
+        }
+        Random random = new Random(1);
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            WeightedDraw.sample(weights, SAMPLE_SIZE, random);
+        }
+    }
+
+    @Test
+    public void tieredOrderLargePool() {
+        List<List<String>> tiers = Arrays.asList(names("returning", LARGE_POOL_SIZE / 10),
+                names("local", LARGE_POOL_SIZE / 5), names("general", LARGE_POOL_SIZE * 7 / 10));
+        double[] tierWeights = {3, 2, 1};
+        Random random = new Random(1);
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            WeightedDraw.tieredOrder(tiers, tierWeights, SAMPLE_SIZE, random);
+        }
+    }
+
+    private static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+
+    /**
+     * UserProfile ids can't be set, so every profile compares equal; this keeps each one distinct.
+     */
+    private static class DistinctProfile extends UserProfile {
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
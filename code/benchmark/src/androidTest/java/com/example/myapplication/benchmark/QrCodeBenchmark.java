@@ -0,0 +1,38 @@
+package com.example.myapplication.benchmark;
+
+import android.graphics.Bitmap;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.journeyapps.barcodescanner.BarcodeEncoder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures QR code encoding with the same parameters as CreateEventActivity and DetailsFragment.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QrCodeBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void encodeEventQrCode() throws WriterException {
+        BarcodeEncoder barcodeEncoder = new BarcodeEncoder();
+        String qrCodeLink = "eventapp://event/4bXq9ZLm2RkT0aVf8sWd";
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Bitmap bitmap = barcodeEncoder.encodeBitmap(qrCodeLink, BarcodeFormat.QR_CODE, 300, 300);
+            state.pauseTiming();
+            bitmap.recycle();
+            state.resumeTiming();
+        }
+    }
+}
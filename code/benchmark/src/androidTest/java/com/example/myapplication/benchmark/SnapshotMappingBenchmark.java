@@ -0,0 +1,86 @@
+package com.example.myapplication.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.myapplication.Models.Attendee;
+import com.example.myapplication.Models.Event;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the document to model mapping done when lists are loaded.
+ * DocumentSnapshot.toObject() hands the document data to CustomClassMapper, so the mapper is
+ * benchmarked directly on the same field layout the app writes. Snapshots can't be built offline.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SnapshotMappingBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void eventToObject() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventId", "4bXq9ZLm2RkT0aVf8sWd");
+        data.put("eventName", "Beginner Swim Lessons");
+        data.put("drawDate", "12/11/2024");
+        data.put("eventDateTime", "18:30");
+        data.put("description", "Weekly lessons for new swimmers at the community pool.");
+        data.put("maxAttendees", 20L);
+        data.put("maxWaitlist", 200L);
+        data.put("currentWaitlist", 143L);
+        data.put("geolocationEnabled", true);
+        data.put("qrCodeLink", "eventapp://event/4bXq9ZLm2RkT0aVf8sWd");
+        data.put("posterUrl", "https://firebasestorage.googleapis.com/v0/b/quartz-lotto/o/posters%2F4bXq9ZLm2RkT0aVf8sWd.jpg");
+        data.put("currentAttendees", 12L);
+        data.put("organizerId", "bc99a31651734f39");
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            CustomClassMapper.convertToCustomClass(data, Event.class, null);
+        }
+    }
+
+    @Test
+    public void attendeeToObject() {
+        Map<String, Object> data = attendeeData();
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            CustomClassMapper.convertToCustomClass(data, Attendee.class, null);
+        }
+    }
+
+    @Test
+    public void attendeeFieldReads() {
+        // Mirrors the per-field getString() mapping in EntrantListRepository.getEntrantlist
+        Map<String, Object> data = attendeeData();
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Attendee user = new Attendee();
+            user.setUserId("bc99a31651734f39");
+            user.setUserName((String) data.get("userName"));
+            user.setUserEmail((String) data.get("userEmail"));
+            user.setStatus((String) data.get("status"));
+        }
+    }
+
+    private static Map<String, Object> attendeeData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userName", "Charlie Brown");
+        data.put("userEmail", "charlie@example.com");
+        data.put("status", "waiting");
+        data.put("latitude", 53.5461);
+        data.put("longitude", -113.4938);
+        return data;
+    }
+}
@@ -0,0 +1,30 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// The lottery and sign-up rules are plain Java, so the app's own sources are compiled in
+// instead of a copy that could drift from them
+sourceSets {
+    getByName("main") {
+        java {
+            srcDir("../app/src/main/java")
+            include("com/example/myapplication/Lottery/**")
+            include("com/example/myapplication/loadtest/**")
+        }
+    }
+}
+
+application {
+    mainClass.set("com.example.myapplication.loadtest.LoadTest")
+}
+
+dependencies {
+    implementation(libs.google.cloud.firestore)
+
+    testImplementation(libs.junit)
+}
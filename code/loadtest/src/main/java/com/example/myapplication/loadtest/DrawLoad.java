@@ -0,0 +1,184 @@
+package com.example.myapplication.loadtest;
+
+import com.example.myapplication.Lottery.DrawCoordinator;
+import com.example.myapplication.Lottery.TierWeights;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every seeded event's lottery at once, with the reads and writes of LotteryDraw.run: the
+ * claim transaction, the event's waitlist, the draw order from {@link TierWeights#order} resolved
+ * by {@link DrawCoordinator}, batches of status updates for the winners, and one batch that marks
+ * the event drawn, writes its counts and summary and stores the replacement pool. Notifications
+ * are not sent. Events already drawn are skipped, like in the app.
+ */
+final class DrawLoad {
+
+    // Mirror ReplacementDraw.MAX_POOL_SIZE and LotteryDraw's claim in the app
+    private static final int MAX_POOL_SIZE = 10_000;
+    private static final long CLAIM_DURATION_MS = 10 * 60_000;
+
+    // Firestore limit on operations per batch
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private DrawLoad() {
+    }
+
+    static void run(Firestore db, Options options) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(options.concurrency, options.events));
+        LatencyStats draws = new LatencyStats("draws");
+        LatencyStats writes = new LatencyStats("writes");
+        AtomicInteger skipped = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < options.events; i++) {
+            String eventId = Options.eventId(i);
+            Random random = new Random(options.seed + 100 + i);
+            workers.execute(() -> {
+                long drawStart = System.nanoTime();
+                Boolean drawn = draw(db, eventId, "loadtest-" + eventId, random, writes);
+                if (Boolean.FALSE.equals(drawn)) {
+                    skipped.incrementAndGet();
+                }
+                draws.record(System.nanoTime() - drawStart, 1, drawn != null);
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+
+        long wall = System.nanoTime() - start;
+        System.out.println(draws.report(wall));
+        System.out.println(writes.report(wall));
+        if (skipped.get() > 0) {
+            System.out.println(skipped.get() + " events were already drawn; reseed to draw them again");
+        }
+    }
+
+    /**
+     * Draws one event.
+     * @return True if it was drawn, false if it was already drawn or claimed, null if it failed.
+     */
+    private static Boolean draw(Firestore db, String eventId, String runnerId, Random random, LatencyStats writes) {
+        DocumentReference eventRef = db.collection(Seeder.EVENTS).document(eventId);
+        try {
+            DocumentSnapshot event = claim(db, eventRef, runnerId);
+            if (event == null) {
+                return false;
+            }
+            List<QueryDocumentSnapshot> entries = eventRef.collection(Seeder.WAITLIST)
+                    .whereIn("status", Arrays.asList("waiting", "selected", "confirmed")).get().get().getDocuments();
+            List<String> waiting = new ArrayList<>();
+            Map<String, String> tiers = new HashMap<>();
+            Map<String, String> placed = new HashMap<>();
+            int taken = 0;
+            for (QueryDocumentSnapshot entry : entries) {
+                if ("waiting".equals(entry.getString("status"))) {
+                    waiting.add(entry.getId());
+                    tiers.put(entry.getId(), entry.getString(TierWeights.ENTRY_FIELD));
+                } else {
+                    taken++;
+                    placed.put(entry.getId(), eventId);
+                }
+            }
+            Long maxAttendees = event.getLong("maxAttendees");
+            int places = Math.max(0, (maxAttendees != null ? maxAttendees.intValue() : 0) - taken);
+            List<String> order = TierWeights.order(waiting, tiers::get,
+                    TierWeights.from(event.get(TierWeights.FIELD)), waiting.size(), random);
+            DrawCoordinator.Outcome outcome = DrawCoordinator.resolve(
+                    Collections.singletonList(new DrawCoordinator.Draw(eventId, order, places)),
+                    placed, random).get(eventId);
+
+            List<ApiFuture<?>> selections = new ArrayList<>();
+            List<String> winners = outcome.getWinners();
+            for (int i = 0; i < winners.size(); i += MAX_BATCH_SIZE) {
+                WriteBatch batch = db.batch();
+                for (String winner : winners.subList(i, Math.min(i + MAX_BATCH_SIZE, winners.size()))) {
+                    batch.update(eventRef.collection(Seeder.WAITLIST).document(winner), "status", "selected");
+                }
+                selections.add(timed(batch.commit(), writes));
+            }
+            ApiFutures.allAsList(selections).get();
+
+            List<String> pool = outcome.getPool();
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("drawn", true);
+            changes.put("currentAttendees", taken + winners.size());
+            changes.put("currentWaitlist", pool.size());
+            changes.put("drawClaimedBy", null);
+            changes.put("drawClaimExpiresAt", null);
+            Map<String, Object> poolData = new HashMap<>();
+            poolData.put("order", new ArrayList<>(pool.subList(0, Math.min(pool.size(), MAX_POOL_SIZE))));
+            poolData.put("cursor", 0);
+            WriteBatch marker = db.batch();
+            marker.update(eventRef, changes);
+            marker.set(db.collection(Seeder.SUMMARIES).document(eventId), Seeder.summary(event.getData(), changes));
+            marker.set(eventRef.collection("Draw").document("pool"), poolData);
+            timed(marker.commit(), writes).get();
+            return true;
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            System.err.println("Draw of " + eventId + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // The claim transaction of LotteryDraw: skips drawn events and events another runner holds
+    private static DocumentSnapshot claim(Firestore db, DocumentReference eventRef, String runnerId)
+            throws ExecutionException, InterruptedException {
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot event = transaction.get(eventRef).get();
+            if (!event.exists() || Boolean.TRUE.equals(event.getBoolean("drawn"))) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            String claimedBy = event.getString("drawClaimedBy");
+            Timestamp expiresAt = event.getTimestamp("drawClaimExpiresAt");
+            if (claimedBy != null && !claimedBy.equals(runnerId)
+                    && expiresAt != null && expiresAt.toDate().getTime() > now) {
+                return null;
+            }
+            Map<String, Object> claim = new HashMap<>();
+            claim.put("drawClaimedBy", runnerId);
+            claim.put("drawClaimExpiresAt", Timestamp.of(new Date(now + CLAIM_DURATION_MS)));
+            transaction.update(eventRef, claim);
+            return event;
+        }).get();
+    }
+
+    private static <T> ApiFuture<T> timed(ApiFuture<T> write, LatencyStats writes) {
+        long start = System.nanoTime();
+        write.addListener(() -> {
+            boolean ok;
+            try {
+                write.get();
+                ok = true;
+            } catch (ExecutionException | InterruptedException e) {
+                ok = false;
+            }
+            writes.record(System.nanoTime() - start, 1, ok);
+        }, Runnable::run);
+        return write;
+    }
+}
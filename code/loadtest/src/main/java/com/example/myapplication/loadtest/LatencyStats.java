@@ -0,0 +1,83 @@
+package com.example.myapplication.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Latencies and outcomes of one kind of operation, recorded from many threads.
+ */
+final class LatencyStats {
+
+    private final String name;
+    private final List<Long> latenciesNanos = new ArrayList<>();
+    private long failures;
+    private long attempts;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a completed operation.
+     * @param latencyNanos Time from start to completion, including retries.
+     * @param attempts Times the operation ran, more than 1 if it was retried after an abort.
+     * @param succeeded False if it failed after its last attempt.
+     */
+    synchronized void record(long latencyNanos, int attempts, boolean succeeded) {
+        latenciesNanos.add(latencyNanos);
+        this.attempts += attempts;
+        if (!succeeded) {
+            failures++;
+        }
+    }
+
+    synchronized int count() {
+        return latenciesNanos.size();
+    }
+
+    /**
+     * Nearest-rank percentile of the recorded latencies.
+     * @param percentile Between 0 and 100.
+     * @return The latency in milliseconds, 0 if nothing was recorded.
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (latenciesNanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(latenciesNanos);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1))) / 1e6;
+    }
+
+    /**
+     * Share of attempts that were aborted and retried, or that failed.
+     * @return Between 0 and 1.
+     */
+    synchronized double abortRate() {
+        if (attempts == 0) {
+            return 0;
+        }
+        long succeeded = latenciesNanos.size() - failures;
+        return (double) (attempts - succeeded) / attempts;
+    }
+
+    synchronized long failures() {
+        return failures;
+    }
+
+    /**
+     * Formats one report line.
+     * @param wallNanos Wall time of the whole run, for the throughput.
+     * @return The line.
+     */
+    synchronized String report(long wallNanos) {
+        double seconds = wallNanos / 1e9;
+        return String.format(Locale.ROOT,
+                "%-10s ops=%6d  throughput=%8.1f/s  p50=%7.1fms  p99=%7.1fms  aborts=%5.1f%%  failed=%d",
+                name, latenciesNanos.size(), seconds > 0 ? latenciesNanos.size() / seconds : 0,
+                percentileMillis(50), percentileMillis(99), 100 * abortRate(), failures);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.myapplication.loadtest;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+
+/**
+ * Load test for launch-day contention, run on the JVM against the local Firestore emulator:
+ * <pre>
+ * firebase emulators:start --only firestore
+ * ./gradlew :loadtest:run --args="all --events 20 --users 5000 --signups 2000 --concurrency 64"
+ * </pre>
+ * seed writes the events, users and waitlists; signups replays concurrent waitlist sign-ups;
+ * draws runs every event's lottery at once; all does the three in order.
+ */
+public final class LoadTest {
+
+    private static final String USAGE = "usage: LoadTest <seed|signups|draws|all> [--project demo-...] [--host localhost:8080]"
+            + " [--events n] [--users n] [--waitlist n] [--max-waitlist n] [--signups n] [--concurrency n] [--hot]"
+            + " [--winners n] [--seed n]";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        String command = args[0];
+        Options options;
+        try {
+            String[] rest = new String[args.length - 1];
+            System.arraycopy(args, 1, rest, 0, rest.length);
+            options = Options.parse(rest);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Firestore db = FirestoreOptions.newBuilder()
+                .setProjectId(options.project)
+                .setEmulatorHost(options.host)
+                .build()
+                .getService();
+        try {
+            switch (command) {
+                case "seed":
+                    Seeder.seed(db, options);
+                    break;
+                case "signups":
+                    SignupStorm.run(db, options);
+                    break;
+                case "draws":
+                    DrawLoad.run(db, options);
+                    break;
+                case "all":
+                    Seeder.seed(db, options);
+                    SignupStorm.run(db, options);
+                    DrawLoad.run(db, options);
+                    break;
+                default:
+                    System.err.println(USAGE);
+                    System.exit(2);
+            }
+        } finally {
+            db.close();
+        }
+    }
+}
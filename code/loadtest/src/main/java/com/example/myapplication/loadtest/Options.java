@@ -0,0 +1,66 @@
+package com.example.myapplication.loadtest;
+
+/**
+ * Command line options of the load test, all with defaults sized for a laptop running the emulator.
+ */
+final class Options {
+
+    // Demo project ids only ever reach the emulator
+    String project = "demo-quartz-lotto";
+    String host = "localhost:8080";
+    int events = 20;
+    int users = 5_000;
+    int waitlist = 200;
+    int maxWaitlist = 0;
+    int signups = 2_000;
+    int concurrency = 64;
+    boolean hot = false;
+    int winners = 50;
+    long seed = 1;
+
+    /**
+     * Parses --name value pairs, and --hot.
+     * @param args The arguments after the command.
+     * @return The options.
+     * @throws IllegalArgumentException For an unknown option or a missing value.
+     */
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if ("--hot".equals(name)) {
+                options.hot = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--project": options.project = value; break;
+                case "--host": options.host = value; break;
+                case "--events": options.events = Integer.parseInt(value); break;
+                case "--users": options.users = Integer.parseInt(value); break;
+                case "--waitlist": options.waitlist = Integer.parseInt(value); break;
+                case "--max-waitlist": options.maxWaitlist = Integer.parseInt(value); break;
+                case "--signups": options.signups = Integer.parseInt(value); break;
+                case "--concurrency": options.concurrency = Integer.parseInt(value); break;
+                case "--winners": options.winners = Integer.parseInt(value); break;
+                case "--seed": options.seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (!options.project.startsWith("demo-")) {
+            throw new IllegalArgumentException("Use a demo- project id, the load test only runs against the emulator");
+        }
+        return options;
+    }
+
+    static String eventId(int index) {
+        return "load-event-" + index;
+    }
+
+    static String userId(int index) {
+        return "load-user-" + index;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.myapplication.loadtest;
+
+import com.example.myapplication.Lottery.TierWeights;
+import com.example.myapplication.Lottery.WaitlistSignup;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes the events, users and waitlists the other jobs run against. Documents have the fields
+ * the app writes, with fixed ids, so seeding again overwrites them; waitlist entries of a larger
+ * earlier seed are only removed by restarting the emulator.
+ */
+final class Seeder {
+
+    static final String EVENTS = "Events";
+    static final String SUMMARIES = "EventSummaries";
+    static final String USERS = "users";
+    static final String WAITLIST = "Waitlist";
+
+    // Mirrors EventSummaries.COPIED_FIELDS in the app
+    static final List<String> SUMMARY_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "eventName", "drawDate", "eventDateTime", "drawAt", "startsAt",
+            "posterUrl", "maxAttendees", "currentAttendees", "maxWaitlist", "currentWaitlist", "organizerId"));
+
+    // Every other event weighs this tier, and this share of its entrants is in it
+    private static final String PRIORITY_TIER = "priority";
+    private static final double PRIORITY_WEIGHT = 3.0;
+    private static final double PRIORITY_SHARE = 0.1;
+
+    private Seeder() {
+    }
+
+    static void seed(Firestore db, Options options) throws Exception {
+        Random random = new Random(options.seed);
+        long start = System.nanoTime();
+        BulkWriter writer = db.bulkWriter(BulkWriterOptions.builder().setThrottlingEnabled(false).build());
+
+        for (int i = 0; i < options.users; i++) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("name", "Load User " + i);
+            user.put("email", "user" + i + "@example.com");
+            user.put("notificationsPerm", random.nextBoolean());
+            writer.set(db.collection(USERS).document(Options.userId(i)), user);
+        }
+
+        int entries = 0;
+        int size = Math.min(options.waitlist, options.users);
+        for (int i = 0; i < options.events; i++) {
+            boolean tiered = i % 2 == 0;
+            Map<String, Object> event = event(i, size, tiered, options);
+            DocumentReference eventRef = db.collection(EVENTS).document(Options.eventId(i));
+            writer.set(eventRef, event);
+            writer.set(db.collection(SUMMARIES).document(Options.eventId(i)), summary(event, null));
+
+            // A contiguous run of users from a random start, so waitlists overlap like real ones
+            int first = random.nextInt(options.users);
+            for (int k = 0; k < size; k++) {
+                int user = (first + k) % options.users;
+                Map<String, Object> entry = WaitlistSignup.entry("Load User " + user, "user" + user + "@example.com",
+                        53.5 + random.nextDouble() / 10, -113.5 + random.nextDouble() / 10);
+                if (tiered && random.nextDouble() < PRIORITY_SHARE) {
+                    entry.put(TierWeights.ENTRY_FIELD, PRIORITY_TIER);
+                }
+                writer.set(eventRef.collection(WAITLIST).document(Options.userId(user)), entry);
+                entries++;
+            }
+        }
+        writer.close();
+
+        System.out.printf("seed       users=%d events=%d waitlist entries=%d in %.1fs%n",
+                options.users, options.events, entries, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static Map<String, Object> event(int index, int waiting, boolean tiered, Options options) {
+        Calendar drawDay = Calendar.getInstance();
+        drawDay.add(Calendar.DAY_OF_MONTH, 1);
+        drawDay.set(Calendar.HOUR_OF_DAY, 0);
+        drawDay.set(Calendar.MINUTE, 0);
+        drawDay.set(Calendar.SECOND, 0);
+        drawDay.set(Calendar.MILLISECOND, 0);
+        Calendar startsAt = (Calendar) drawDay.clone();
+        startsAt.add(Calendar.DAY_OF_MONTH, 7);
+        startsAt.set(Calendar.HOUR_OF_DAY, 18);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventName", "Load Event " + index);
+        event.put("description", "Seeded by the load test");
+        event.put("drawDate", "Tomorrow");
+        event.put("eventDateTime", "Next week, 18:00");
+        event.put("drawAt", Timestamp.of(drawDay.getTime()));
+        event.put("startsAt", Timestamp.of(startsAt.getTime()));
+        event.put("posterUrl", "");
+        event.put("maxAttendees", options.winners);
+        event.put("maxWaitlist", options.maxWaitlist);
+        event.put("currentWaitlist", waiting);
+        event.put("currentAttendees", 0);
+        event.put("geolocationEnabled", true);
+        event.put("organizerId", "load-organizer");
+        if (tiered) {
+            event.put(TierWeights.FIELD, Collections.singletonMap(PRIORITY_TIER, PRIORITY_WEIGHT));
+        }
+        return event;
+    }
+
+    /**
+     * Builds an event's summary the way EventSummaries.update does, from the event and its changes.
+     * @param event The event fields.
+     * @param changes Fields changed since, may be null.
+     * @return The summary fields.
+     */
+    static Map<String, Object> summary(Map<String, Object> event, Map<String, Object> changes) {
+        Map<String, Object> summary = new HashMap<>();
+        for (String field : SUMMARY_FIELDS) {
+            Object value = changes != null && changes.containsKey(field) ? changes.get(field) : event.get(field);
+            if (value != null) {
+                summary.put(field, value);
+            }
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.myapplication.loadtest;
+
+import com.example.myapplication.Lottery.WaitlistSignup;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.TransactionOptions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays concurrent waitlist sign-ups through the transaction of
+ * EventSignupActivity.performEventSignup: read the event, check the waitlist has room, then
+ * write the entry, the event's count and its summary. Every transaction on an event contends
+ * for that event document, which is what limits launch-day sign-ups.
+ */
+final class SignupStorm {
+
+    // Attempts per transaction, the same as the Android SDK
+    static final int MAX_ATTEMPTS = 5;
+
+    private SignupStorm() {
+    }
+
+    static void run(Firestore db, Options options) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        LatencyStats stats = new LatencyStats("signups");
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        Random random = new Random(options.seed + 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < options.signups; i++) {
+            // --hot sends every sign-up to one event, like a launch
+            String eventId = Options.eventId(options.hot ? 0 : random.nextInt(options.events));
+            int user = random.nextInt(options.users);
+            workers.execute(() -> {
+                Boolean result = signup(db, eventId, user, stats);
+                if (Boolean.TRUE.equals(result)) {
+                    added.incrementAndGet();
+                } else if (Boolean.FALSE.equals(result)) {
+                    full.incrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+
+        System.out.println(stats.report(System.nanoTime() - start));
+        System.out.printf("           added=%d waitlist full=%d%n", added.get(), full.get());
+    }
+
+    // True if added, false if the waitlist was full, null if the transaction failed
+    private static Boolean signup(Firestore db, String eventId, int user, LatencyStats stats) {
+        DocumentReference eventRef = db.collection(Seeder.EVENTS).document(eventId);
+        DocumentReference waitlistRef = eventRef.collection(Seeder.WAITLIST).document(Options.userId(user));
+        DocumentReference summaryRef = db.collection(Seeder.SUMMARIES).document(eventId);
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try {
+            Boolean added = db.runTransaction(transaction -> {
+                attempts.incrementAndGet();
+                DocumentSnapshot event = transaction.get(eventRef).get();
+                if (!event.exists()) {
+                    throw new IllegalStateException("Event does not exist: " + eventId);
+                }
+                Long maxWaitlist = event.getLong("maxWaitlist");
+                Long currentWaitlist = event.getLong("currentWaitlist");
+                int max = maxWaitlist != null ? maxWaitlist.intValue() : 0;
+                int current = currentWaitlist != null ? currentWaitlist.intValue() : 0;
+                if (!WaitlistSignup.hasRoom(current, max)) {
+                    return false;
+                }
+                transaction.set(waitlistRef, WaitlistSignup.entry("Load User " + user,
+                        "user" + user + "@example.com", 53.5, -113.5));
+                Map<String, Object> changes = Collections.singletonMap("currentWaitlist", current + 1);
+                transaction.update(eventRef, changes);
+                transaction.set(summaryRef, Seeder.summary(event.getData(), changes));
+                return true;
+            }, TransactionOptions.createReadWriteOptionsBuilder().setNumberOfAttempts(MAX_ATTEMPTS).build()).get();
+            stats.record(System.nanoTime() - start, attempts.get(), true);
+            return added;
+        } catch (ExecutionException | InterruptedException e) {
+            stats.record(System.nanoTime() - start, attempts.get(), false);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+}
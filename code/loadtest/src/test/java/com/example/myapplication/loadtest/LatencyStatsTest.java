@@ -0,0 +1,48 @@
+package com.example.myapplication.loadtest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the percentiles and abort rate reported by the load test.
+ */
+public class LatencyStatsTest {
+
+    @Test
+    public void testPercentilesUseTheNearestRank() {
+        LatencyStats stats = new LatencyStats("test");
+        for (int ms = 100; ms >= 1; ms--) {
+            stats.record(ms * 1_000_000L, 1, true);
+        }
+
+        assertEquals(50.0, stats.percentileMillis(50), 1e-9);
+        assertEquals(99.0, stats.percentileMillis(99), 1e-9);
+        assertEquals(100.0, stats.percentileMillis(100), 1e-9);
+    }
+
+    @Test
+    public void testRetriedAndFailedAttemptsCountAsAborts() {
+        LatencyStats stats = new LatencyStats("test");
+        stats.record(1, 1, true);
+        stats.record(1, 3, true);
+        stats.record(1, 5, false);
+
+        // 9 attempts, 2 of which committed
+        assertEquals(7.0 / 9, stats.abortRate(), 1e-9);
+        assertEquals(1, stats.failures());
+    }
+
+    @Test
+    public void testEmptyStatsReportZero() {
+        LatencyStats stats = new LatencyStats("test");
+
+        assertEquals(0.0, stats.percentileMillis(99), 0);
+        assertEquals(0.0, stats.abortRate(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnlyDemoProjectsAreAccepted() {
+        Options.parse(new String[]{"--project", "quartz-lotto-prod"});
+    }
+}
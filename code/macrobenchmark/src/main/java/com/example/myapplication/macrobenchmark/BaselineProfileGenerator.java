@@ -0,0 +1,54 @@
+package com.example.myapplication.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiObject2;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+/**
+ * Generates the baseline profile shipped with the app.
+ * Run with ./gradlew :app:generateBaselineProfile; the result is copied into app/src/release/generated.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(Journeys.PACKAGE_NAME, scope -> {
+            // The QR tab asks for the camera, grant it up front so no dialog blocks the journey
+            try {
+                scope.getDevice().executeShellCommand("pm grant " + Journeys.PACKAGE_NAME + " android.permission.CAMERA");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            scope.pressHome();
+            scope.startActivityAndWait();
+            Journeys.waitForHome(scope);
+
+            UiObject2 cameraTab = scope.getDevice().findObject(By.res(Journeys.PACKAGE_NAME, "nav_camera"));
+            if (cameraTab != null) {
+                cameraTab.click();
+                scope.getDevice().waitForIdle();
+            }
+
+            Journeys.startEventDetails(scope);
+            Journeys.switchEventDetailsTabs(scope);
+
+            Journeys.startBrowseImages(scope);
+            Journeys.scrollBrowseImages(scope);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.myapplication.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+/**
+ * Frame timings while switching between the details, waitlist, attendees and locations tabs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventDetailsBenchmark {
+    private static final int ITERATIONS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void tabSwitchNoCompilation() {
+        tabSwitch(new CompilationMode.None());
+    }
+
+    @Test
+    public void tabSwitchBaselineProfile() {
+        tabSwitch(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void tabSwitch(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                null,
+                ITERATIONS,
+                scope -> {
+                    Journeys.startEventDetails(scope);
+                    return null;
+                },
+                scope -> {
+                    Journeys.switchEventDetailsTabs(scope);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.myapplication.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * Cold start until the home page has loaded the waitlist and selected events lists.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HomeLoadBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void homeLoadNoCompilation() {
+        homeLoad(new CompilationMode.None());
+    }
+
+    @Test
+    public void homeLoadBaselineProfile() {
+        homeLoad(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void homeLoad(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Arrays.asList(new StartupTimingMetric(), new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return null;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    Journeys.waitForHome(scope);
+                    return null;
+                });
+    }
+}
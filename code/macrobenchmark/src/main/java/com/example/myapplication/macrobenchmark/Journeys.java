@@ -0,0 +1,99 @@
+package com.example.myapplication.macrobenchmark;
+
+import android.content.Intent;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * User journeys shared by the benchmarks and the baseline profile generator.
+ * The app should be built with -PfirestoreEmulatorHost so that every run reads the same seeded data.
+ */
+final class Journeys {
+    static final String PACKAGE_NAME = "com.example.myapplication";
+
+    // Firestore on a cold emulator can take a while to answer the first query
+    private static final long TIMEOUT_MS = 10_000;
+
+    private Journeys() {
+    }
+
+    /**
+     * Returns the event used for the event details journey, overridable with
+     * -e eventId <id> on the instrumentation command line.
+     */
+    static String benchmarkEventId() {
+        String eventId = InstrumentationRegistry.getArguments().getString("eventId");
+        return eventId != null ? eventId : "benchmark-event";
+    }
+
+    /**
+     * Waits until the home page has inflated both of its event lists.
+     * @param scope The benchmark scope driving the app.
+     */
+    static void waitForHome(MacrobenchmarkScope scope) {
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, "entrant_waitlist")), TIMEOUT_MS);
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, "selected_events_list")), TIMEOUT_MS);
+    }
+
+    /**
+     * Starts EventDetailsActivity for the benchmark event and waits for its tab buttons.
+     * @param scope The benchmark scope driving the app.
+     */
+    static void startEventDetails(MacrobenchmarkScope scope) {
+        Intent intent = new Intent();
+        intent.setClassName(PACKAGE_NAME, PACKAGE_NAME + ".EventDetailsActivity");
+        intent.putExtra("eventId", benchmarkEventId());
+        scope.startActivityAndWait(intent);
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, "buttonDetails")), TIMEOUT_MS);
+    }
+
+    /**
+     * Switches through every tab of EventDetailsActivity and back to details.
+     * @param scope The benchmark scope driving the app.
+     */
+    static void switchEventDetailsTabs(MacrobenchmarkScope scope) {
+        String[] tabs = {"buttonWaitlist", "buttonAttendees", "buttonLocations", "buttonDetails"};
+        for (String tab : tabs) {
+            UiObject2 button = scope.getDevice().findObject(By.res(PACKAGE_NAME, tab));
+            if (button != null) {
+                button.click();
+                scope.getDevice().waitForIdle();
+            }
+        }
+    }
+
+    /**
+     * Starts BrowseImagesActivity and waits for the first images to be listed.
+     * @param scope The benchmark scope driving the app.
+     */
+    static void startBrowseImages(MacrobenchmarkScope scope) {
+        Intent intent = new Intent();
+        intent.setClassName(PACKAGE_NAME, PACKAGE_NAME + ".BrowseImagesActivity");
+        scope.startActivityAndWait(intent);
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, "images_recycler_view").hasChild(By.depth(1))), TIMEOUT_MS);
+    }
+
+    /**
+     * Flings the image list down and back up.
+     * @param scope The benchmark scope driving the app.
+     */
+    static void scrollBrowseImages(MacrobenchmarkScope scope) {
+        UiObject2 list = scope.getDevice().findObject(By.res(PACKAGE_NAME, "images_recycler_view"));
+        if (list == null) {
+            return;
+        }
+        // Keep the gesture away from the system navigation area
+        list.setGestureMargin(scope.getDevice().getDisplayWidth() / 5);
+        for (int i = 0; i < 3; i++) {
+            list.fling(Direction.DOWN);
+            scope.getDevice().waitForIdle();
+        }
+        list.fling(Direction.UP);
+        scope.getDevice().waitForIdle();
+    }
+}
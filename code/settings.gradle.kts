@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "My Application"
 include(":app")
+include(":benchmark")
+include(":macrobenchmark")
+include(":loadtest")
  
\ No newline at end of file